@@ -2,12 +2,17 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.client.BookingClient;
+import ru.practicum.shareit.booking.dto.BookingApprovalInputDTO;
 import ru.practicum.shareit.booking.dto.BookingInputDTO;
+import ru.practicum.shareit.booking.enumeration.ExportFormat;
 import ru.practicum.shareit.booking.enumeration.State;
 import ru.practicum.shareit.booking.valodator.BookingValidator;
 
@@ -29,8 +34,8 @@ public class BookingController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> createBooking(@RequestHeader(REQUEST_HEADER_USER_ID) long bookerId,
-                                                @Valid @RequestBody final BookingInputDTO inputDTO) {
+    public Mono<ResponseEntity<Object>> createBooking(@RequestHeader(REQUEST_HEADER_USER_ID) long bookerId,
+                                                      @Valid @RequestBody final BookingInputDTO inputDTO) {
 
         validator.validateBookingDateTime(inputDTO);
 
@@ -40,47 +45,106 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
-                                                 @PathVariable long bookingId) {
+    public Mono<ResponseEntity<Object>> getBookingById(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+                                                       @PathVariable long bookingId,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         log.info("START endpoint `method:GET /bookings/{bookingId}` (get booking by id), booking id: {}.", bookingId);
 
-        return client.getBookingById(userId, bookingId);
+        return client.getBookingById(userId, bookingId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllBookingsAtBooker(@RequestHeader(REQUEST_HEADER_USER_ID) Long bookerId,
-                                                         @RequestParam(defaultValue = "ALL") String state,
-                                                         @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                                         @RequestParam(defaultValue = "20") @Positive Integer size) {
+    public Mono<ResponseEntity<Object>> getAllBookingsAtBooker(@RequestHeader(REQUEST_HEADER_USER_ID) Long bookerId,
+                                                               @RequestParam(defaultValue = "ALL") String state,
+                                                               @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "20") @Positive Integer size) {
 
         State validState = validator.validateState(state);
 
         log.info("START endpoint `method:GET /bookings?state={state}` (get all bookings at booker), booker id: {}.", bookerId);
 
-        return client.getAllBookingsAtBooker(bookerId, validState, from, size);
+        return client.getAllBookingsAtBooker(bookerId, validState, from, cursor, size);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllBookingsAtOwner(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId,
-                                                        @RequestParam(defaultValue = "ALL") String state,
-                                                        @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                                        @RequestParam(defaultValue = "20") @Positive Integer size) {
+    public Mono<ResponseEntity<Object>> getAllBookingsAtOwner(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId,
+                                                              @RequestParam(defaultValue = "ALL") String state,
+                                                              @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "20") @Positive Integer size) {
 
         State validState = validator.validateState(state);
 
         log.info("START endpoint `method:GET /bookings/owner?state={state}` (get all bookings at owner), owner id: {}.", ownerId);
 
-        return client.getAllBookingsAtOwner(ownerId, validState, from, size);
+        return client.getAllBookingsAtOwner(ownerId, validState, from, cursor, size);
+    }
+
+    @GetMapping("/summary")
+    public Mono<ResponseEntity<Object>> getSummaryAtBooker(@RequestHeader(REQUEST_HEADER_USER_ID) long bookerId) {
+
+        log.info("START endpoint `method:GET /bookings/summary` (get summary of bookings at booker), booker id: {}.", bookerId);
+
+        return client.getSummaryAtBooker(bookerId);
+    }
+
+    @GetMapping("/owner/summary")
+    public Mono<ResponseEntity<Object>> getSummaryAtOwner(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId) {
+
+        log.info("START endpoint `method:GET /bookings/owner/summary` (get summary of bookings at owner), owner id: {}.", ownerId);
+
+        return client.getSummaryAtOwner(ownerId);
+    }
+
+    @GetMapping("/export")
+    public Mono<ResponseEntity<Object>> exportAllBookingsAtBooker(@RequestHeader(REQUEST_HEADER_USER_ID) long bookerId,
+                                                                  @RequestParam(defaultValue = "NDJSON") String format) {
+
+        ExportFormat validFormat = validator.validateExportFormat(format);
+
+        log.info("START endpoint `method:GET /bookings/export?format={format}` (export all bookings at booker), booker id: {}.", bookerId);
+
+        return client.exportAllBookingsAtBooker(bookerId, validFormat);
+    }
+
+    @GetMapping("/owner/export")
+    public Mono<ResponseEntity<Object>> exportAllBookingsAtOwner(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId,
+                                                                 @RequestParam(defaultValue = "NDJSON") String format) {
+
+        ExportFormat validFormat = validator.validateExportFormat(format);
+
+        log.info("START endpoint `method:GET /bookings/owner/export?format={format}` (export all bookings at owner), owner id: {}.", ownerId);
+
+        return client.exportAllBookingsAtOwner(ownerId, validFormat);
+    }
+
+    @GetMapping("/owner/events")
+    public Mono<ResponseEntity<ResponseBodyEmitter>> subscribeToEventsAtOwner(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId) {
+
+        log.info("START endpoint `method:GET /bookings/owner/events` (subscribe to booking events at owner), owner id: {}.", ownerId);
+
+        return client.subscribeToEventsAtOwner(ownerId);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateBooking(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
-                                                @PathVariable long bookingId,
-                                                @RequestParam boolean approved) {
+    public Mono<ResponseEntity<Object>> updateBooking(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+                                                      @PathVariable long bookingId,
+                                                      @RequestParam boolean approved) {
 
         log.info("START endpoint `method:PATCH /bookings/{bookingId}` (approved booking), booking id: {}.", bookingId);
 
         return client.updateBooking(userId, bookingId, approved);
     }
+
+    @PatchMapping
+    public Mono<ResponseEntity<Object>> updateBookings(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId,
+                                                       @Valid @RequestBody final BookingApprovalInputDTO inputDTO) {
+
+        log.info("START endpoint `method:PATCH /bookings` (approved bookings), bookings count: {}.",
+                inputDTO.getBookingIds().size());
+
+        return client.updateBookings(ownerId, inputDTO);
+    }
 }
@@ -2,14 +2,18 @@ package ru.practicum.shareit.booking.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingApprovalInputDTO;
 import ru.practicum.shareit.booking.dto.BookingInputDTO;
+import ru.practicum.shareit.booking.enumeration.ExportFormat;
 import ru.practicum.shareit.booking.enumeration.State;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayTransport;
+
+import java.util.Objects;
 
 @Service
 public class BookingClient extends BaseClient {
@@ -17,50 +21,87 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
     private static final String CREATE_PATCH = "";
     private static final String UPDATE_PATCH = "/%d?approved=%s";
+    private static final String UPDATE_ALL_PATCH = "";
     private static final String GET_PATCH = "/%d";
     private static final String GET_ALL_AT_BOOKER_PATCH = "?state=%s&from=%d&size=%d";
     private static final String GET_ALL_AT_OWNER_PATCH = "/owner?state=%s&from=%d&size=%d";
+    private static final String GET_ALL_AT_BOOKER_BY_CURSOR_PATCH = "?state=%s&cursor=%s&size=%d";
+    private static final String GET_ALL_AT_OWNER_BY_CURSOR_PATCH = "/owner?state=%s&cursor=%s&size=%d";
+    private static final String SUMMARY_AT_BOOKER_PATCH = "/summary";
+    private static final String SUMMARY_AT_OWNER_PATCH = "/owner/summary";
+    private static final String EXPORT_ALL_AT_BOOKER_PATCH = "/export?format=%s";
+    private static final String EXPORT_ALL_AT_OWNER_PATCH = "/owner/export?format=%s";
+    private static final String EVENTS_AT_OWNER_PATCH = "/owner/events";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, GatewayTransport transport) {
+        super(serverUrl + API_PREFIX, transport);
     }
 
-    public ResponseEntity<Object> createBooking(long userId, BookingInputDTO inputDTO) {
+    public Mono<ResponseEntity<Object>> createBooking(long userId, BookingInputDTO inputDTO) {
 
         return post(CREATE_PATCH, userId, inputDTO);
     }
 
-    public ResponseEntity<Object> updateBooking(long userId, long bookingId, boolean approved) {
+    public Mono<ResponseEntity<Object>> updateBooking(long userId, long bookingId, boolean approved) {
 
         String url = String.format(UPDATE_PATCH, bookingId, approved);
 
         return patch(url, userId);
     }
 
-    public ResponseEntity<Object> getBookingById(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> updateBookings(long userId, BookingApprovalInputDTO inputDTO) {
+
+        return patch(UPDATE_ALL_PATCH, userId, inputDTO);
+    }
+
+    public Mono<ResponseEntity<Object>> getBookingById(long userId, Long bookingId, String ifNoneMatch) {
 
         String url = String.format(GET_PATCH, bookingId);
 
-        return get(url, userId);
+        return getIfNoneMatch(url, userId, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getAllBookingsAtBooker(long userId, State state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllBookingsAtBooker(long userId, State state, Integer from, String cursor, Integer size) {
 
-        String url = String.format(GET_ALL_AT_BOOKER_PATCH, state.name(), from, size);
+        String url = Objects.isNull(cursor)
+                ? String.format(GET_ALL_AT_BOOKER_PATCH, state.name(), from, size)
+                : String.format(GET_ALL_AT_BOOKER_BY_CURSOR_PATCH, state.name(), cursor, size);
 
         return get(url, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingsAtOwner(long userId, State state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllBookingsAtOwner(long userId, State state, Integer from, String cursor, Integer size) {
 
-        String url = String.format(GET_ALL_AT_OWNER_PATCH, state.name(), from, size);
+        String url = Objects.isNull(cursor)
+                ? String.format(GET_ALL_AT_OWNER_PATCH, state.name(), from, size)
+                : String.format(GET_ALL_AT_OWNER_BY_CURSOR_PATCH, state.name(), cursor, size);
 
         return get(url, userId);
     }
-}
\ No newline at end of file
+
+    public Mono<ResponseEntity<Object>> getSummaryAtBooker(long userId) {
+
+        return get(SUMMARY_AT_BOOKER_PATCH, userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getSummaryAtOwner(long userId) {
+
+        return get(SUMMARY_AT_OWNER_PATCH, userId);
+    }
+
+    public Mono<ResponseEntity<Object>> exportAllBookingsAtBooker(long userId, ExportFormat format) {
+
+        return getStreaming(String.format(EXPORT_ALL_AT_BOOKER_PATCH, format.name()), userId);
+    }
+
+    public Mono<ResponseEntity<Object>> exportAllBookingsAtOwner(long userId, ExportFormat format) {
+
+        return getStreaming(String.format(EXPORT_ALL_AT_OWNER_PATCH, format.name()), userId);
+    }
+
+    public Mono<ResponseEntity<ResponseBodyEmitter>> subscribeToEventsAtOwner(long userId) {
+
+        return getEvents(EVENTS_AT_OWNER_PATCH, userId);
+    }
+}
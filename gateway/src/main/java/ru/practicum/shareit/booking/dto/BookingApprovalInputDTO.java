@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class BookingApprovalInputDTO {
+
+    @NotEmpty(message = "The booking IDs must not be empty.")
+    @Size(max = 100, message = "No more than 100 bookings can be approved at once.")
+    private List<@NotNull(message = "The booking ID must not be null.")
+    @Positive(message = "The booking ID must be positive.") Long> bookingIds;
+
+    @NotNull(message = "The approved must not be null.")
+    private Boolean approved;
+}
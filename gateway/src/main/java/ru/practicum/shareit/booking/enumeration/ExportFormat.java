@@ -0,0 +1,5 @@
+package ru.practicum.shareit.booking.enumeration;
+
+public enum ExportFormat {
+    NDJSON, CSV
+}
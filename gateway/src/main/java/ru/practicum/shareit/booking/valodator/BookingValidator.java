@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.valodator;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingInputDTO;
+import ru.practicum.shareit.booking.enumeration.ExportFormat;
 import ru.practicum.shareit.booking.enumeration.State;
 import ru.practicum.shareit.exception.UnsupportedException;
 import ru.practicum.shareit.exception.ValidException;
@@ -22,6 +23,17 @@ public class BookingValidator {
         }
     }
 
+    public ExportFormat validateExportFormat(String queryFormat) {
+
+        try {
+            return ExportFormat.valueOf(queryFormat);
+        } catch (IllegalArgumentException e) {
+            throw UnsupportedException.builder()
+                    .message(String.format("Unknown export format: %s", queryFormat))
+                    .build();
+        }
+    }
+
     public void validateBookingDateTime(BookingInputDTO inputDTO) {
 
         LocalDateTime start = inputDTO.getStart();
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.ResourceAccessException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The ResponseCache class keeps the successful responses of the server in a bounded cache.
+ * A response is buffered as raw bytes before it is cached, so it can be written to any number of clients.
+ * Every invalidation starts a new generation: a response requested before an invalidation and received after it
+ * is returned to its client but is not kept, so an invalidated response never reappears in the cache.
+ */
+public class ResponseCache {
+
+    private final Cache<String, ResponseEntity<byte[]>> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * @param cache The cache of the buffered responses, or null if the caching is disabled.
+     */
+    public ResponseCache(@Nullable Cache<String, ResponseEntity<byte[]>> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Returns the cached response or requests the server and caches its response if it is successful.
+     *
+     * @param key    The key of the response.
+     * @param loader The request to the server.
+     * @return The response of the server.
+     */
+    public Mono<ResponseEntity<Object>> get(String key, Supplier<Mono<ResponseEntity<Object>>> loader) {
+
+        if (cache == null) {
+            return loader.get();
+        }
+
+        ResponseEntity<byte[]> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(toResponse(cached));
+        }
+
+        long requestGeneration = generation.get();
+        return loader.get().flatMap(response -> {
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                return Mono.just(response);
+            }
+
+            return readBody(response.getBody())
+                    .map(body -> {
+                        ResponseEntity<byte[]> buffered = new ResponseEntity<>(body, response.getHeaders(),
+                                response.getStatusCode());
+                        if (generation.get() == requestGeneration) {
+                            cache.put(key, buffered);
+                            if (generation.get() != requestGeneration) {
+                                cache.invalidate(key);
+                            }
+                        }
+                        return toResponse(buffered);
+                    });
+        });
+    }
+
+    /**
+     * Discards all the cached responses.
+     */
+    public void invalidateAll() {
+
+        if (cache != null) {
+            generation.incrementAndGet();
+            cache.invalidateAll();
+        }
+    }
+
+    private static ResponseEntity<Object> toResponse(ResponseEntity<byte[]> cached) {
+
+        return new ResponseEntity<>(cached.getBody(), cached.getHeaders(), cached.getStatusCode());
+    }
+
+    /**
+     * Joins the buffers of a body streamed by the non-blocking transport as they arrive. A body streamed by the
+     * blocking transport is read off the event loop, because it is read with blocking I/O.
+     */
+    @SuppressWarnings("unchecked")
+    private static Mono<byte[]> readBody(@Nullable Object body) {
+
+        if (body instanceof Publisher) {
+            return DataBufferUtils.join((Publisher<DataBuffer>) body)
+                    .map(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+                        return bytes;
+                    })
+                    .defaultIfEmpty(new byte[0]);
+        }
+
+        return Mono.fromCallable(() -> readBlocking(body))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static byte[] readBlocking(@Nullable Object body) {
+
+        if (body == null) {
+            return new byte[0];
+        }
+        if (body instanceof byte[]) {
+            return (byte[]) body;
+        }
+        if (body instanceof Resource) {
+            try (InputStream inputStream = ((Resource) body).getInputStream()) {
+                return inputStream.readAllBytes();
+            } catch (IOException e) {
+                throw new ResourceAccessException("I/O error on reading the server response: " + e.getMessage(), e);
+            }
+        }
+        throw new IllegalStateException("Unsupported body of the server response: " + body.getClass().getName());
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * The ResponseCacheConfig class configures the gateway caches of the item search and of the request listings.
+ * The cache state is published as the `cache.gets` (with the `result=hit|miss` tag), `cache.puts`,
+ * `cache.evictions` and `cache.size` metrics with the `cache` tag set to the name of the cache.
+ */
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCacheConfig {
+
+    private static final String ITEM_SEARCH_CACHE_NAME = "shareit.gateway.items.search";
+    private static final String ITEM_REQUESTS_CACHE_NAME = "shareit.gateway.requests.all";
+
+    @Bean
+    public ResponseCache itemSearchCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+
+        return createCache(ITEM_SEARCH_CACHE_NAME, properties, meterRegistry);
+    }
+
+    @Bean
+    public ResponseCache itemRequestsCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+
+        return createCache(ITEM_REQUESTS_CACHE_NAME, properties, meterRegistry);
+    }
+
+    private static ResponseCache createCache(String name, ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+
+        if (!properties.isEnabled()) {
+            return new ResponseCache(null);
+        }
+
+        Cache<String, ResponseEntity<byte[]>> cache = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getTtl())
+                .maximumSize(properties.getMaximumSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+
+        return new ResponseCache(cache);
+    }
+}
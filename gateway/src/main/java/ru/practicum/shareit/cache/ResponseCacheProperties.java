@@ -0,0 +1,33 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * The ResponseCacheProperties class holds the settings of the gateway caches of the server responses.
+ */
+@Getter
+@Setter
+@ToString
+@ConfigurationProperties(prefix = "shareit.cache")
+public class ResponseCacheProperties {
+
+    /**
+     * Whether the responses of the item search and of the request listings are cached by the gateway.
+     */
+    private boolean enabled = true;
+
+    /**
+     * The time after which a cached response expires.
+     */
+    private Duration ttl = Duration.ofSeconds(30);
+
+    /**
+     * The maximum number of responses kept by every cache.
+     */
+    private long maximumSize = 1000;
+}
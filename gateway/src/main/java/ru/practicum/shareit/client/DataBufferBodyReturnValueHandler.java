@@ -0,0 +1,59 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * The DataBufferBodyReturnValueHandler class writes a response whose body is the stream of buffers of a server
+ * response, as returned by {@link WebClientTransport}, to the client asynchronously with
+ * {@link DataBufferEmitters}, so no thread waits for the server while the body is in flight.
+ * The body type of the controller methods is `Object`, so the handler is chosen by the body itself:
+ * every other response is written by the handler it wraps.
+ */
+class DataBufferBodyReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+    private final HandlerMethodReturnValueHandler entityHandler;
+    private final HandlerMethodReturnValueHandler emitterHandler;
+    private final Scheduler writeScheduler;
+
+    /**
+     * @param entityHandler  The handler of the responses with any other body.
+     * @param emitterHandler The handler of the responses with a streamed body.
+     * @param writeScheduler The scheduler of the writes to the client.
+     */
+    DataBufferBodyReturnValueHandler(HandlerMethodReturnValueHandler entityHandler,
+                                     HandlerMethodReturnValueHandler emitterHandler, Scheduler writeScheduler) {
+        this.entityHandler = entityHandler;
+        this.emitterHandler = emitterHandler;
+        this.writeScheduler = writeScheduler;
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+
+        return entityHandler.supportsReturnType(returnType);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void handleReturnValue(Object returnValue, MethodParameter returnType, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest) throws Exception {
+
+        if (returnValue instanceof ResponseEntity && ((ResponseEntity<?>) returnValue).getBody() instanceof Flux) {
+            ResponseEntity<?> response = (ResponseEntity<?>) returnValue;
+            emitterHandler.handleReturnValue(ResponseEntity.status(response.getStatusCodeValue())
+                    .headers(response.getHeaders())
+                    .body(DataBufferEmitters.toEmitter((Flux<DataBuffer>) response.getBody(), writeScheduler)),
+                    returnType, mavContainer, webRequest);
+            return;
+        }
+
+        entityHandler.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+    }
+}
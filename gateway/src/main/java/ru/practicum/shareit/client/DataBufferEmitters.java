@@ -0,0 +1,72 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+
+import static ru.practicum.shareit.client.GatewayTransport.NO_TIMEOUT;
+
+/**
+ * The DataBufferEmitters class passes the buffers of a server response through to the client as they arrive.
+ * The buffers are copied and released on the event loop which delivers them, and a thread is taken from the write
+ * scheduler only to write a chunk to the client, because the client response is written with blocking I/O.
+ * At most {@link #WRITE_PREFETCH} chunks wait for the client, further buffers are not read from the server until
+ * the client takes them.
+ */
+@Slf4j
+final class DataBufferEmitters {
+
+    static final int WRITE_PREFETCH = 8;
+
+    private DataBufferEmitters() {
+    }
+
+    /**
+     * Writes every buffer of the body to the client as it arrives. The server response is released
+     * when the body is complete or when the client disconnects.
+     *
+     * @param body           The body of the server response, or null.
+     * @param writeScheduler The scheduler of the writes to the client.
+     * @return The emitter of the client response.
+     */
+    static ResponseBodyEmitter toEmitter(@Nullable Flux<DataBuffer> body, Scheduler writeScheduler) {
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(NO_TIMEOUT);
+        Flux<DataBuffer> buffers = body != null ? body : Flux.empty();
+        Disposable subscription = buffers
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .publishOn(writeScheduler, WRITE_PREFETCH)
+                .subscribe(bytes -> send(emitter, bytes),
+                        error -> {
+                            log.debug("The server response is closed: {}", error.getMessage());
+                            emitter.complete();
+                        },
+                        emitter::complete);
+        emitter.onCompletion(subscription::dispose);
+        emitter.onError(error -> subscription.dispose());
+
+        return emitter;
+    }
+
+    private static void send(ResponseBodyEmitter emitter, byte[] bytes) {
+
+        try {
+            emitter.send(bytes);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * The EventStreamClientConfig class configures the non-blocking HTTP client of the proxied event streams,
+ * which is used by both transports, so an idle stream holds a connection but no thread.
+ * The pool state is published as the `reactor.netty.connection.provider.*` metrics
+ * with the `name=shareit-server-events` tag.
+ */
+@Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class EventStreamClientConfig {
+
+    private static final String EVENT_STREAM_POOL_NAME = "shareit-server-events";
+    private static final String EVENT_STREAM_WRITER_NAME = "event-stream-writer";
+
+    /**
+     * The event streams hold their connections for as long as the clients stay subscribed, so they use a pool
+     * of their own. The response timeout applies between two chunks of a stream, which the server keeps shorter
+     * with the heartbeat comments.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItServerEventStreamConnectionProvider(HttpClientProperties properties) {
+
+        return ReactiveHttpClientConfig.createConnectionProvider(EVENT_STREAM_POOL_NAME,
+                properties.getMaxEventStreamConnections(), properties);
+    }
+
+    @Bean
+    public WebClient shareItServerEventStreamWebClient(WebClient.Builder builder,
+                                                       ConnectionProvider shareItServerEventStreamConnectionProvider,
+                                                       HttpClientProperties properties) {
+
+        return ReactiveHttpClientConfig.createWebClient(builder, shareItServerEventStreamConnectionProvider, properties);
+    }
+
+    /**
+     * The client responses of the event streams are written with blocking I/O, so the writes run on a scheduler
+     * of their own: the clients which read slowly do not take the workers of the shared bounded elastic scheduler.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler shareItServerEventStreamScheduler(HttpClientProperties properties) {
+
+        return Schedulers.newBoundedElastic(properties.getEventStreamWriterThreads(),
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, EVENT_STREAM_WRITER_NAME, 60, true);
+    }
+}
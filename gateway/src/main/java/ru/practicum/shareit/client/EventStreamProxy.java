@@ -0,0 +1,62 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.net.URI;
+
+/**
+ * The EventStreamProxy class passes the streams of server-sent events through to the clients for both transports.
+ * The server stream is read on an event loop, so no thread is held while a stream is idle: a thread is taken
+ * from the scheduler of the event streams only to write a chunk to the client, because the client response
+ * is written with blocking I/O.
+ */
+@Slf4j
+@Component
+public class EventStreamProxy {
+
+    private final WebClient eventStreamWebClient;
+    private final Scheduler writeScheduler;
+
+    public EventStreamProxy(WebClient shareItServerEventStreamWebClient, Scheduler shareItServerEventStreamScheduler) {
+        this.eventStreamWebClient = shareItServerEventStreamWebClient;
+        this.writeScheduler = shareItServerEventStreamScheduler;
+    }
+
+    /**
+     * Opens the stream on the server.
+     *
+     * @param uri     The absolute URI of the server endpoint.
+     * @param userId  The ID of the user passed in the `X-Sharer-User-Id` header.
+     * @param headers The headers of the client request forwarded to the server.
+     * @return The response of the server with the body written to the client chunk by chunk.
+     */
+    public Mono<ResponseEntity<ResponseBodyEmitter>> exchange(URI uri, long userId, HttpHeaders headers) {
+
+        return eventStreamWebClient.get()
+                .uri(uri)
+                .headers(requestHeaders -> {
+                    requestHeaders.addAll(headers);
+                    requestHeaders.set("X-Sharer-User-Id", String.valueOf(userId));
+                })
+                .retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> {
+                    if (response.getStatusCodeValue() >= 400) {
+                        log.error("Произошла ошибка при выполнении запроса, статус ответа: {}", response.getStatusCodeValue());
+                    }
+                    return ResponseEntity.status(response.getStatusCodeValue())
+                            .headers(GatewayTransport.endToEndHeaders(response.getHeaders()))
+                            .body(DataBufferEmitters.toEmitter(response.getBody(), writeScheduler));
+                });
+    }
+}
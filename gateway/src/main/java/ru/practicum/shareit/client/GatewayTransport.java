@@ -0,0 +1,82 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The GatewayTransport interface sends a request to the server and passes its response through to the client:
+ * the status, the end-to-end headers and the unparsed body.
+ * The blocking {@link RestTemplateTransport} is used by default, the non-blocking {@link WebClientTransport}
+ * is used with the `reactive` profile.
+ */
+public interface GatewayTransport {
+
+    /**
+     * The proxied event streams are not timed out by the gateway, they are ended by the server.
+     */
+    long NO_TIMEOUT = 0L;
+
+    Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade");
+
+    /**
+     * Sends the request to the server.
+     *
+     * @param method  The HTTP method of the request.
+     * @param uri     The absolute URI of the server endpoint.
+     * @param userId  The ID of the user passed in the `X-Sharer-User-Id` header, or null.
+     * @param headers The headers of the client request forwarded to the server, such as `If-None-Match`;
+     *                a forwarded `Content-Type` replaces the default JSON content type.
+     * @param body    The request body serialized as JSON, a resource streamed to the server as is, or null.
+     * @return The response of the server.
+     */
+    Mono<ResponseEntity<Object>> exchange(HttpMethod method, URI uri, @Nullable Long userId, HttpHeaders headers,
+                                          @Nullable Object body);
+
+    /**
+     * Sends the request to the server and passes the body of its response through to the client as it arrives,
+     * so a response of any size, such as an export, is proxied in constant memory.
+     *
+     * @param method  The HTTP method of the request.
+     * @param uri     The absolute URI of the server endpoint.
+     * @param userId  The ID of the user passed in the `X-Sharer-User-Id` header, or null.
+     * @param headers The headers of the client request forwarded to the server.
+     * @return The response of the server with the body exposed as a stream.
+     */
+    Mono<ResponseEntity<Object>> exchangeStreaming(HttpMethod method, URI uri, @Nullable Long userId, HttpHeaders headers);
+
+    /**
+     * Opens a stream of server-sent events on the server and passes every chunk of it through to the client
+     * as soon as it arrives, over a connection pool of its own. The stream is ended by the server,
+     * and the server stream is closed when the client disconnects.
+     *
+     * @param uri     The absolute URI of the server endpoint.
+     * @param userId  The ID of the user passed in the `X-Sharer-User-Id` header.
+     * @param headers The headers of the client request forwarded to the server.
+     * @return The response of the server with the body written to the client chunk by chunk.
+     */
+    Mono<ResponseEntity<ResponseBodyEmitter>> exchangeEvents(URI uri, long userId, HttpHeaders headers);
+
+    /**
+     * Copies the headers of the server response which are meaningful to the client.
+     */
+    static HttpHeaders endToEndHeaders(HttpHeaders serverHeaders) {
+
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+
+        return headers;
+    }
+}
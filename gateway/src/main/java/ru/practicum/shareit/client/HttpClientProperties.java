@@ -0,0 +1,70 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * The HttpClientProperties class holds the settings of the connection pool shared by the clients of the server.
+ */
+@Getter
+@Setter
+@ToString
+@ConfigurationProperties(prefix = "shareit-server.http-client")
+public class HttpClientProperties {
+
+    /**
+     * The maximum number of connections to the server kept by the gateway.
+     */
+    private int maxTotalConnections = 200;
+
+    /**
+     * The maximum number of connections to one host and port.
+     */
+    private int maxConnectionsPerRoute = 100;
+
+    /**
+     * The maximum number of connections to the server kept open by the proxied event streams. The streams
+     * use a pool of their own, so the long-lived connections never take the connections of the other requests.
+     */
+    private int maxEventStreamConnections = 10_000;
+
+    /**
+     * The maximum number of threads writing the chunks of the proxied event streams to the clients. A client which
+     * reads slowly holds one of them, never a thread of the transports or of the response cache.
+     */
+    private int eventStreamWriterThreads = 50;
+
+    /**
+     * The timeout of establishing a connection.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * The maximum time of inactivity between two data packets of a response.
+     */
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    /**
+     * The maximum time of waiting for a free connection in the pool.
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+
+    /**
+     * The time after which an idle connection is closed by the eviction thread.
+     */
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    /**
+     * The time after which a connection is not reused, even if the server keeps it alive.
+     */
+    private Duration timeToLive = Duration.ofMinutes(5);
+
+    /**
+     * The time of inactivity after which a pooled connection is checked before it is leased.
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
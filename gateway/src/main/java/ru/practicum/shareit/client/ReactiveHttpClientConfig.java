@@ -0,0 +1,64 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * The ReactiveHttpClientConfig class configures the non-blocking transport of the `reactive` profile.
+ * It uses the same `shareit-server.http-client.*` settings as the blocking transport, the pool state is published
+ * as the `reactor.netty.connection.provider.*` metrics with the `name=shareit-server` tag.
+ * The event streams use the client of {@link EventStreamClientConfig} in both profiles.
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class ReactiveHttpClientConfig {
+
+    private static final String POOL_NAME = "shareit-server";
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItServerConnectionProvider(HttpClientProperties properties) {
+
+        return createConnectionProvider(POOL_NAME, properties.getMaxTotalConnections(), properties);
+    }
+
+    @Bean
+    public WebClient shareItServerWebClient(WebClient.Builder builder, ConnectionProvider shareItServerConnectionProvider,
+                                            HttpClientProperties properties) {
+
+        return createWebClient(builder, shareItServerConnectionProvider, properties);
+    }
+
+    static ConnectionProvider createConnectionProvider(String name, int maxConnections,
+                                                       HttpClientProperties properties) {
+
+        return ConnectionProvider.builder(name)
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                .pendingAcquireMaxCount(-1)
+                .maxIdleTime(properties.getIdleTimeout())
+                .maxLifeTime(properties.getTimeToLive())
+                .evictInBackground(properties.getIdleTimeout())
+                .metrics(true)
+                .build();
+    }
+
+    static WebClient createWebClient(WebClient.Builder builder, ConnectionProvider connectionProvider,
+                                     HttpClientProperties properties) {
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout());
+
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
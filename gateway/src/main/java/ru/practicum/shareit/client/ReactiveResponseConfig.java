@@ -0,0 +1,42 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.HttpEntityMethodProcessor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitterReturnValueHandler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ReactiveResponseConfig class lets the controllers of the `reactive` profile write the streamed bodies
+ * of {@link WebClientTransport} to the clients asynchronously. The handler of the response entities is wrapped
+ * by {@link DataBufferBodyReturnValueHandler} in place, so it keeps its position among the return value handlers.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveResponseConfig {
+
+    @Bean
+    public SmartInitializingSingleton dataBufferBodyReturnValueHandlerRegistrar(
+            RequestMappingHandlerAdapter requestMappingHandlerAdapter) {
+
+        return () -> {
+            List<HandlerMethodReturnValueHandler> handlers =
+                    new ArrayList<>(requestMappingHandlerAdapter.getReturnValueHandlers());
+            HandlerMethodReturnValueHandler emitterHandler = handlers.stream()
+                    .filter(ResponseBodyEmitterReturnValueHandler.class::isInstance)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("The handler of the response body emitters is missing."));
+            handlers.replaceAll(handler -> handler instanceof HttpEntityMethodProcessor
+                    ? new DataBufferBodyReturnValueHandler(handler, emitterHandler, Schedulers.boundedElastic())
+                    : handler);
+            requestMappingHandlerAdapter.setReturnValueHandlers(handlers);
+        };
+    }
+}
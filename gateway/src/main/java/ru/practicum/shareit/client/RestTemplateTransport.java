@@ -0,0 +1,117 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Mono;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * The RestTemplateTransport class is the default blocking transport: the request is sent on the servlet thread,
+ * and the body of the response is streamed to the client without being parsed.
+ * The server connection is released when the body stream is closed after it has been written to the client,
+ * or when the response is discarded unwritten because the client request was cancelled or failed.
+ * The event streams are proxied by the non-blocking {@link EventStreamProxy}, so they hold no servlet
+ * or executor thread while they are idle.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class RestTemplateTransport implements GatewayTransport {
+
+    private final RestTemplate rest;
+    private final EventStreamProxy eventStreamProxy;
+
+    public RestTemplateTransport(RestTemplateBuilder builder,
+                                 ClientHttpRequestFactory shareItServerRequestFactory,
+                                 EventStreamProxy eventStreamProxy) {
+        this.rest = builder
+                .requestFactory(() -> shareItServerRequestFactory)
+                .build();
+        this.eventStreamProxy = eventStreamProxy;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, URI uri, @Nullable Long userId, HttpHeaders headers,
+                                                 @Nullable Object body) {
+
+        HttpEntity<Object> requestEntity = new HttpEntity<>(body, defaultHeaders(userId, headers));
+
+        ClientHttpResponse shareitServerResponse;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, method);
+            rest.httpEntityCallback(requestEntity).doWithRequest(request);
+            shareitServerResponse = request.execute();
+        } catch (IOException e) {
+            throw new ResourceAccessException(String.format("I/O error on %s request for \"%s\": %s",
+                    method, uri, e.getMessage()), e);
+        }
+        return Mono.just(prepareGatewayResponse(shareitServerResponse))
+                .doOnDiscard(ResponseEntity.class, discarded -> shareitServerResponse.close());
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchangeStreaming(HttpMethod method, URI uri, @Nullable Long userId,
+                                                          HttpHeaders headers) {
+
+        return exchange(method, uri, userId, headers, null);
+    }
+
+    @Override
+    public Mono<ResponseEntity<ResponseBodyEmitter>> exchangeEvents(URI uri, long userId, HttpHeaders headers) {
+
+        return eventStreamProxy.exchange(uri, userId, headers);
+    }
+
+    private HttpHeaders defaultHeaders(Long userId, HttpHeaders forwardedHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.putAll(forwardedHeaders);
+        if (userId != null) {
+            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        return headers;
+    }
+
+    private static ResponseEntity<Object> prepareGatewayResponse(ClientHttpResponse response) {
+        try {
+            int status = response.getRawStatusCode();
+            if (status >= 400) {
+                log.error("Произошла ошибка при выполнении запроса, статус ответа: {}", status);
+            }
+            if (status == HttpStatus.NOT_MODIFIED.value()) {
+                response.close();
+                return ResponseEntity.status(status)
+                        .headers(GatewayTransport.endToEndHeaders(response.getHeaders()))
+                        .build();
+            }
+
+            return ResponseEntity.status(status)
+                    .headers(GatewayTransport.endToEndHeaders(response.getHeaders()))
+                    .body(new InputStreamResource(new FilterInputStream(response.getBody()) {
+                        @Override
+                        public void close() {
+                            response.close();
+                        }
+                    }));
+        } catch (IOException e) {
+            response.close();
+            throw new ResourceAccessException("I/O error on reading the server response: " + e.getMessage(), e);
+        }
+    }
+}
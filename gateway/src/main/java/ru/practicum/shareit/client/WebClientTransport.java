@@ -0,0 +1,131 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+
+/**
+ * The WebClientTransport class is the non-blocking transport of the `reactive` profile: the servlet thread is
+ * released while the request is in flight, and the response is completed asynchronously on an event loop.
+ * The buffers of every response body are passed through to the client as they arrive, without being parsed
+ * or collected, and no thread waits for them, see {@link DataBufferBodyReturnValueHandler}. A streaming request
+ * body, such as an import, is sent the same way.
+ */
+@Slf4j
+@Component
+@Profile("reactive")
+public class WebClientTransport implements GatewayTransport {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final WebClient webClient;
+    private final EventStreamProxy eventStreamProxy;
+
+    public WebClientTransport(WebClient shareItServerWebClient, EventStreamProxy eventStreamProxy) {
+        this.webClient = shareItServerWebClient;
+        this.eventStreamProxy = eventStreamProxy;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, URI uri, @Nullable Long userId, HttpHeaders headers,
+                                                 @Nullable Object body) {
+
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .headers(requestHeaders -> {
+                    requestHeaders.putAll(headers);
+                    if (userId != null) {
+                        requestHeaders.set("X-Sharer-User-Id", String.valueOf(userId));
+                    }
+                });
+        WebClient.RequestHeadersSpec<?> requestWithBody;
+        if (body instanceof Resource) {
+            requestWithBody = request.body(BodyInserters.fromDataBuffers(toDataBuffers((Resource) body)));
+        } else {
+            requestWithBody = body != null ? request.bodyValue(body) : request;
+        }
+
+        return requestWithBody.retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(WebClientTransport::toGatewayResponse);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchangeStreaming(HttpMethod method, URI uri, @Nullable Long userId,
+                                                          HttpHeaders headers) {
+
+        return webClient.method(method)
+                .uri(uri)
+                .headers(requestHeaders -> {
+                    requestHeaders.addAll(headers);
+                    if (userId != null) {
+                        requestHeaders.set("X-Sharer-User-Id", String.valueOf(userId));
+                    }
+                })
+                .retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(WebClientTransport::toGatewayResponse);
+    }
+
+    @Override
+    public Mono<ResponseEntity<ResponseBodyEmitter>> exchangeEvents(URI uri, long userId, HttpHeaders headers) {
+
+        return eventStreamProxy.exchange(uri, userId, headers);
+    }
+
+    /**
+     * Keeps the body as the stream of buffers of the server response, which is written to the client as it arrives
+     * by {@link DataBufferBodyReturnValueHandler}. A response without a body, such as `304 Not Modified`,
+     * is released at once.
+     */
+    private static ResponseEntity<Object> toGatewayResponse(ResponseEntity<Flux<DataBuffer>> response) {
+
+        int status = response.getStatusCodeValue();
+        if (status >= 400) {
+            log.error("Произошла ошибка при выполнении запроса, статус ответа: {}", status);
+        }
+        HttpHeaders headers = GatewayTransport.endToEndHeaders(response.getHeaders());
+        if (status == HttpStatus.NOT_MODIFIED.value()) {
+            if (response.getBody() != null) {
+                response.getBody().subscribe(DataBufferUtils.releaseConsumer());
+            }
+            return ResponseEntity.status(status).headers(headers).build();
+        }
+
+        return ResponseEntity.status(status)
+                .headers(headers)
+                .body(response.getBody() != null ? response.getBody() : Flux.empty());
+    }
+
+    /**
+     * Reads a streamed request body, such as an import, off the event loop, because the client request
+     * is read with blocking I/O; the buffers are sent to the server as they are read.
+     */
+    private static Flux<DataBuffer> toDataBuffers(Resource body) {
+
+        return DataBufferUtils.read(body, DefaultDataBufferFactory.sharedInstance, BUFFER_SIZE)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The VirtualThreadConfig class is an opt-in execution mode in which Tomcat handles every request
+ * on a new virtual thread and the application task executor runs async work on virtual threads too.
+ * It is enabled by the `shareit.threads.virtual.enabled` property and requires a JDK 21+ runtime, while the code
+ * is still compiled for Java 11, so the executor is obtained reflectively and startup fails on an older runtime.
+ * The concurrency is then bounded by `server.tomcat.max-connections` and by the outbound connection pool,
+ * the database pool in the server and the HTTP pool to the server in the gateway, instead of the Tomcat worker pool.
+ * <p>
+ * The PostgreSQL driver performs the socket I/O inside `synchronized` blocks, which pins the carrier thread of
+ * a virtual thread for the duration of a query, while the pooled HTTP client of the gateway guards its pool with
+ * `ReentrantLock` and does not pin. The `shareit.threads.virtual.trace-pinned` property (`short` or `full`)
+ * sets `jdk.tracePinnedThreads` before the first virtual thread is created, so every pinned blocking operation
+ * is printed with its stack trace. The same events are recorded by JFR as `jdk.VirtualThreadPinned`.
+ * <p>
+ * The server and the gateway are built and deployed separately and share no module, as with their DTOs,
+ * so the class is kept in both of them. The two copies are identical and must be changed together.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final String TRACE_PINNED_THREADS = "jdk.tracePinnedThreads";
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor(@Value("${shareit.threads.virtual.trace-pinned:}") String tracePinned) {
+
+        if (!tracePinned.isBlank()) {
+            System.setProperty(TRACE_PINNED_THREADS, tracePinned);
+        }
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            log.info("Virtual-thread execution mode is enabled, pinned threads tracing: {}.",
+                    tracePinned.isBlank() ? "off" : tracePinned);
+            return executor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(String.format("Virtual threads require JDK 21 or later, the runtime is %s.",
+                    Runtime.version()), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create the virtual-thread executor.", e);
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+}
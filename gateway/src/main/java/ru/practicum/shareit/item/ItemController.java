@@ -2,18 +2,27 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.ValidException;
 import ru.practicum.shareit.exception.validation.Marker;
 import ru.practicum.shareit.item.client.ItemClient;
 import ru.practicum.shareit.item.dto.CommentInputDTO;
 import ru.practicum.shareit.item.dto.ItemInputDTO;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.time.LocalDateTime;
 
 import static ru.practicum.shareit.constant.Constant.REQUEST_HEADER_USER_ID;
 
@@ -29,19 +38,29 @@ public class ItemController {
     @PostMapping
     @Validated(Marker.OnCreate.class)
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> createItem(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId,
-                                             @Valid @RequestBody final ItemInputDTO inputDTO) {
+    public Mono<ResponseEntity<Object>> createItem(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId,
+                                                   @Valid @RequestBody final ItemInputDTO inputDTO) {
 
         log.info("START endpoint `method:POST /items` (create item), request: {}.", inputDTO.getName());
 
         return client.createItem(ownerId, inputDTO);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<Object>> importItems(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId,
+                                                    @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                    HttpServletRequest request) throws IOException {
+
+        log.info("START endpoint `method:POST /items/import` (import items), owner id: {}.", ownerId);
+
+        return client.importItems(ownerId, contentType, new InputStreamResource(request.getInputStream()));
+    }
+
     @PatchMapping("/{itemId}")
     @Validated(Marker.OnUpdate.class)
-    public ResponseEntity<Object> updateItem(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId,
-                                             @PathVariable Long itemId,
-                                             @Valid @RequestBody ItemInputDTO inputDTO) {
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId,
+                                                   @PathVariable Long itemId,
+                                                   @Valid @RequestBody ItemInputDTO inputDTO) {
 
         log.info("START endpoint `method:PATCH /items/{itemId}` (update item), item id: {}.", itemId);
 
@@ -49,18 +68,36 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
-                                              @PathVariable long itemId) {
+    public Mono<ResponseEntity<Object>> getItemById(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+                                                    @PathVariable long itemId,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         log.info("START endpoint `method:GET /items/{itemId}` (get item by id), item id: {}.", itemId);
 
-        return client.getItemById(userId, itemId);
+        return client.getItemById(userId, itemId, ifNoneMatch);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+                                                        @PathVariable long itemId,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        if (!from.isBefore(to)) {
+            throw ValidException.builder()
+                    .message("The start of the period must be earlier than the end of the period.")
+                    .build();
+        }
+
+        log.info("START endpoint `method:GET /items/{itemId}/availability` (get item availability), item id: {}.", itemId);
+
+        return client.getAvailability(userId, itemId, from, to);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllItems(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId,
-                                              @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                              @RequestParam(defaultValue = "20") @Positive Integer size) {
+    public Mono<ResponseEntity<Object>> getAllItems(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId,
+                                                    @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                    @RequestParam(defaultValue = "20") @Positive Integer size) {
 
         log.info("START endpoint `method:GET /items` (get all items by owner id), owner id: {}.", ownerId);
 
@@ -69,19 +106,32 @@ public class ItemController {
 
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItemsByText(@RequestParam String text,
-                                                    @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                                    @RequestParam(defaultValue = "20") @Positive Integer size) {
+    public Mono<ResponseEntity<Object>> searchItemsByText(@RequestParam String text,
+                                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                                          @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                          @RequestParam(defaultValue = "20") @Positive Integer size) {
+
+        if ((start == null) != (end == null)) {
+            throw ValidException.builder()
+                    .message("The start and the end of the period must be specified together.")
+                    .build();
+        }
+        if (start != null && !start.isBefore(end)) {
+            throw ValidException.builder()
+                    .message("The start of the period must be earlier than the end of the period.")
+                    .build();
+        }
 
         log.info("START endpoint `method:GET /items/search` (search items by text), text: {}.", text);
 
-        return client.searchItemsByText(text, from, size);
+        return client.searchItemsByText(text, start, end, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
-                                             @PathVariable long itemId,
-                                             @Valid @RequestBody CommentInputDTO inputDTO) {
+    public Mono<ResponseEntity<Object>> addComment(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+                                                   @PathVariable long itemId,
+                                                   @Valid @RequestBody CommentInputDTO inputDTO) {
 
         log.info("START endpoint `method:POST /items/{itemId}/comment` (create comment to item by id), item id: {}.", itemId);
 
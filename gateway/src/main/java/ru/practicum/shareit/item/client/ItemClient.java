@@ -2,73 +2,120 @@ package ru.practicum.shareit.item.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.cache.ResponseCache;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayTransport;
 import ru.practicum.shareit.item.dto.CommentInputDTO;
 import ru.practicum.shareit.item.dto.ItemInputDTO;
 
+import java.time.LocalDateTime;
+import java.util.Locale;
+
 @Service
 public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
     private static final String CREATE_ITEM_PATCH = "";
+    private static final String IMPORT_PATCH = "/import";
     private static final String UPDATE_PATCH = "/%d";
     private static final String GET_PATCH = "/%d";
+    private static final String GET_AVAILABILITY_PATCH = "/%d/availability?from=%s&to=%s";
     private static final String GET_ALL_PATCH = "?from=%d&size=%d";
     private static final String SEARCH_BY_TEXT_PATCH = "/search?text=%s&from=%d&size=%d";
+    private static final String SEARCH_FREE_PATCH = "&start=%s&end=%s";
     private static final String CREATE_COMMON_PATCH = "/%d/comment";
 
+    private static final String SEARCH_BY_TEXT_KEY = "%s&from=%d&size=%d";
+
+    private final ResponseCache itemSearchCache;
+    private final ResponseCache itemRequestsCache;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, GatewayTransport transport,
+                      ResponseCache itemSearchCache, ResponseCache itemRequestsCache) {
+        super(serverUrl + API_PREFIX, transport);
+        this.itemSearchCache = itemSearchCache;
+        this.itemRequestsCache = itemRequestsCache;
     }
 
-    public ResponseEntity<Object> createItem(long ownerId, ItemInputDTO inputDTO) {
+    public Mono<ResponseEntity<Object>> createItem(long ownerId, ItemInputDTO inputDTO) {
 
-        return post(CREATE_ITEM_PATCH, ownerId, inputDTO);
+        return post(CREATE_ITEM_PATCH, ownerId, inputDTO)
+                .doOnNext(this::invalidateCaches);
     }
 
-    public ResponseEntity<Object> updateItem(long ownerId, long itemId, ItemInputDTO inputDTO) {
+    public Mono<ResponseEntity<Object>> importItems(long ownerId, MediaType contentType, Resource body) {
+
+        return postStreaming(IMPORT_PATCH, ownerId, contentType, body)
+                .doOnNext(this::invalidateCaches);
+    }
+
+    public Mono<ResponseEntity<Object>> updateItem(long ownerId, long itemId, ItemInputDTO inputDTO) {
 
         String url = String.format(UPDATE_PATCH, itemId);
 
-        return patch(url, ownerId, inputDTO);
+        return patch(url, ownerId, inputDTO)
+                .doOnNext(this::invalidateCaches);
     }
 
-    public ResponseEntity<Object> getItemById(long userId, long itemId) {
+    public Mono<ResponseEntity<Object>> getItemById(long userId, long itemId, String ifNoneMatch) {
 
         String url = String.format(GET_PATCH, itemId);
 
+        return getIfNoneMatch(url, userId, ifNoneMatch);
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
+
+        String url = String.format(GET_AVAILABILITY_PATCH, itemId, from, to);
+
         return get(url, userId);
     }
 
-    public ResponseEntity<Object> getAllItems(long ownerId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllItems(long ownerId, Integer from, Integer size) {
 
         String url = String.format(GET_ALL_PATCH, from, size);
 
         return get(url, ownerId);
     }
 
-    public ResponseEntity<Object> searchItemsByText(String text, Integer from, Integer size) {
+    /**
+     * A search for the items free in a period depends on the bookings, which do not invalidate the search cache,
+     * so only the plain text search is cached.
+     */
+    public Mono<ResponseEntity<Object>> searchItemsByText(String text, LocalDateTime start, LocalDateTime end,
+                                                          Integer from, Integer size) {
 
         String url = String.format(SEARCH_BY_TEXT_PATCH, text, from, size);
+        if (start != null && end != null) {
+            return get(url + String.format(SEARCH_FREE_PATCH, start, end));
+        }
+        String key = String.format(SEARCH_BY_TEXT_KEY, text.toLowerCase(Locale.ROOT), from, size);
 
-        return get(url);
+        return itemSearchCache.get(key, () -> get(url));
     }
 
-    public ResponseEntity<Object> addComment(long userId, long itemId, CommentInputDTO inputDTO) {
+    public Mono<ResponseEntity<Object>> addComment(long userId, long itemId, CommentInputDTO inputDTO) {
 
         String url = String.format(CREATE_COMMON_PATCH, itemId);
 
         return post(url, userId, inputDTO);
     }
+
+    /**
+     * The search results and the items attached to the requests depend on the created or updated item,
+     * so both caches are discarded once the server has accepted the change.
+     */
+    private void invalidateCaches(ResponseEntity<Object> response) {
+
+        if (response.getStatusCode().is2xxSuccessful()) {
+            itemSearchCache.invalidateAll();
+            itemRequestsCache.invalidateAll();
+        }
+    }
 }
@@ -2,10 +2,12 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.exception.validation.Marker;
 import ru.practicum.shareit.request.client.ItemRequestClient;
 import ru.practicum.shareit.request.dto.ItemRequestInputDTO;
@@ -27,8 +29,8 @@ public class ItemRequestController {
     @PostMapping
     @Validated(Marker.OnCreate.class)
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> createItemRequest(@RequestHeader(REQUEST_HEADER_USER_ID) Long requesterId,
-                                                    @Valid @RequestBody final ItemRequestInputDTO inputDTO) {
+    public Mono<ResponseEntity<Object>> createItemRequest(@RequestHeader(REQUEST_HEADER_USER_ID) Long requesterId,
+                                                          @Valid @RequestBody final ItemRequestInputDTO inputDTO) {
 
         log.info("START endpoint `method:POST /requests` (create itemRequest), request: {}.", inputDTO.getDescription());
 
@@ -36,18 +38,19 @@ public class ItemRequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getByRequestId(@RequestHeader(REQUEST_HEADER_USER_ID) Long userId,
-                                                 @PathVariable Long requestId) {
+    public Mono<ResponseEntity<Object>> getByRequestId(@RequestHeader(REQUEST_HEADER_USER_ID) Long userId,
+                                                       @PathVariable Long requestId,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         log.info("START endpoint `method:GET /requests/:requestId` (get itemRequest by id), itemRequest id: {}.", requestId);
 
-        return client.getByRequestId(userId, requestId);
+        return client.getByRequestId(userId, requestId, ifNoneMatch);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAll(@RequestHeader(REQUEST_HEADER_USER_ID) Long userId,
-                                         @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                         @RequestParam(defaultValue = "20") @Positive Integer size) {
+    public Mono<ResponseEntity<Object>> getAll(@RequestHeader(REQUEST_HEADER_USER_ID) Long userId,
+                                               @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                               @RequestParam(defaultValue = "20") @Positive Integer size) {
 
         log.info("START endpoint `method:GET /requests` (get all itemRequests), user id: {}.", userId);
 
@@ -55,7 +58,7 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllByRequesterId(@RequestHeader(REQUEST_HEADER_USER_ID) Long requesterId) {
+    public Mono<ResponseEntity<Object>> getAllByRequesterId(@RequestHeader(REQUEST_HEADER_USER_ID) Long requesterId) {
 
         log.info("START endpoint `method:GET /requests` (get all itemRequests by requester id), requester id: {}.", requesterId);
 
@@ -2,12 +2,12 @@ package ru.practicum.shareit.request.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.cache.ResponseCache;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayTransport;
 import ru.practicum.shareit.request.dto.ItemRequestInputDTO;
 
 @Service
@@ -18,38 +18,44 @@ public class ItemRequestClient extends BaseClient {
     private static final String GET_PATCH = "/%d";
     private static final String GET_ALL_PATCH = "/all?from=%d&size=%d";
     private static final String GET_ALL_BY_REQUESTER_ID_PATCH = "";
+    private static final String GET_ALL_KEY = "%d&from=%d&size=%d";
+
+    private final ResponseCache itemRequestsCache;
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, GatewayTransport transport,
+                             ResponseCache itemRequestsCache) {
+        super(serverUrl + API_PREFIX, transport);
+        this.itemRequestsCache = itemRequestsCache;
     }
 
 
-    public ResponseEntity<Object> createItemRequest(long requesterId, ItemRequestInputDTO inputDTO) {
+    public Mono<ResponseEntity<Object>> createItemRequest(long requesterId, ItemRequestInputDTO inputDTO) {
 
-        return post(CREATE_PATCH, requesterId, inputDTO);
+        return post(CREATE_PATCH, requesterId, inputDTO)
+                .doOnNext(response -> {
+                    if (response.getStatusCode().is2xxSuccessful()) {
+                        itemRequestsCache.invalidateAll();
+                    }
+                });
     }
 
-    public ResponseEntity<Object> getByRequestId(long userId, long requestId) {
+    public Mono<ResponseEntity<Object>> getByRequestId(long userId, long requestId, String ifNoneMatch) {
 
         String url = String.format(GET_PATCH, requestId);
 
-        return get(url, userId);
+        return getIfNoneMatch(url, userId, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getAll(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAll(long userId, Integer from, Integer size) {
 
         String url = String.format(GET_ALL_PATCH, from, size);
+        String key = String.format(GET_ALL_KEY, userId, from, size);
 
-        return get(url, userId);
+        return itemRequestsCache.get(key, () -> get(url, userId));
     }
 
-    public ResponseEntity<Object> getAllByRequesterId(long requesterId) {
+    public Mono<ResponseEntity<Object>> getAllByRequesterId(long requesterId) {
 
         return get(GET_ALL_BY_REQUESTER_ID_PATCH, requesterId);
     }
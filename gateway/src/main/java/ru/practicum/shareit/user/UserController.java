@@ -2,10 +2,12 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.exception.validation.Marker;
 import ru.practicum.shareit.user.client.UserClient;
 import ru.practicum.shareit.user.dto.UserInputDTO;
@@ -23,7 +25,7 @@ public class UserController {
     @PostMapping
     @Validated(Marker.OnCreate.class)
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> createUser(@Valid @RequestBody final UserInputDTO inputDTO) {
+    public Mono<ResponseEntity<Object>> createUser(@Valid @RequestBody final UserInputDTO inputDTO) {
 
         log.info("START endpoint `method:POST /users` (create user), request: {}.", inputDTO.getName());
 
@@ -32,8 +34,8 @@ public class UserController {
 
     @PatchMapping("/{userId}")
     @Validated(Marker.OnUpdate.class)
-    public ResponseEntity<Object> updateUser(@PathVariable long userId,
-                                             @Valid @RequestBody final UserInputDTO inputDTO) {
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable long userId,
+                                                   @Valid @RequestBody final UserInputDTO inputDTO) {
 
         log.info("START endpoint `method:PATCH /users/:userId` (update user), user id: {}.", userId);
 
@@ -41,15 +43,16 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable long userId,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         log.info("START endpoint `method:GET /users/{userId}` (get user by id), user id: {}.", userId);
 
-        return client.getUserById(userId);
+        return client.getUserById(userId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers() {
 
         log.info("START endpoint `method:GET /users` (get all users).");
 
@@ -57,11 +60,10 @@ public class UserController {
     }
 
     @DeleteMapping("/{userId}")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteUserById(@PathVariable long userId) {
+    public Mono<ResponseEntity<Object>> deleteUserById(@PathVariable long userId) {
 
         log.info("START endpoint `method:DELETE /users/{userId}` (delete user by id), user id: {}.", userId);
 
-        client.deleteUserById(userId);
+        return client.deleteUserById(userId);
     }
 }
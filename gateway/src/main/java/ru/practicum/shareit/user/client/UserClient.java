@@ -2,12 +2,12 @@ package ru.practicum.shareit.user.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.cache.ResponseCache;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayTransport;
 import ru.practicum.shareit.user.dto.UserInputDTO;
 
 @Service
@@ -20,44 +20,55 @@ public class UserClient extends BaseClient {
     private static final String GET_ALL_PATCH = "";
     private static final String DELETE_PATCH = "/%d";
 
+    private final ResponseCache itemSearchCache;
+    private final ResponseCache itemRequestsCache;
+
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, GatewayTransport transport,
+                      ResponseCache itemSearchCache, ResponseCache itemRequestsCache) {
+        super(serverUrl + API_PREFIX, transport);
+        this.itemSearchCache = itemSearchCache;
+        this.itemRequestsCache = itemRequestsCache;
     }
 
-    public ResponseEntity<Object> createUser(UserInputDTO inputDTO) {
+    public Mono<ResponseEntity<Object>> createUser(UserInputDTO inputDTO) {
 
         return post(CREATE_PATCH, inputDTO);
     }
 
-    public ResponseEntity<Object> updateUser(long userId, UserInputDTO inputDTO) {
+    public Mono<ResponseEntity<Object>> updateUser(long userId, UserInputDTO inputDTO) {
 
         String url = String.format(UPDATE_PATCH, userId);
 
         return patch(url, inputDTO);
     }
 
-    public ResponseEntity<Object> getUserById(long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(long userId, String ifNoneMatch) {
 
         String url = String.format(GET_PATCH, userId);
 
-        return get(url);
+        return getIfNoneMatch(url, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers() {
 
         return get(GET_ALL_PATCH);
     }
 
-    public void deleteUserById(long userId) {
+    /**
+     * The items and the requests of the user are deleted with the user, so the search results and the request
+     * listings are discarded once the server has deleted the user.
+     */
+    public Mono<ResponseEntity<Object>> deleteUserById(long userId) {
 
         String url = String.format(DELETE_PATCH, userId);
 
-        delete(url);
+        return delete(url)
+                .doOnNext(response -> {
+                    if (response.getStatusCode().is2xxSuccessful()) {
+                        itemSearchCache.invalidateAll();
+                        itemRequestsCache.invalidateAll();
+                    }
+                });
     }
 }
\ No newline at end of file
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class ResponseCacheTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final ResponseCache responseCache = new ResponseCache(Caffeine.newBuilder().build());
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    @DisplayName("Unit Test: повторный запрос с тем же ключом, ответ сервера загружается один раз и буферизуется.")
+    void testGet_SameKey_LoadsOnce() {
+        log.info("Start test: повторный запрос с тем же ключом.");
+
+        ResponseEntity<Object> first = responseCache.get("drill&from=0&size=10", loader("[{\"id\":1}]")).block(TIMEOUT);
+        ResponseEntity<Object> second = responseCache.get("drill&from=0&size=10", loader("[{\"id\":2}]")).block(TIMEOUT);
+
+        assertThat(loads).hasValue(1);
+        assertThat(bodyOf(first)).isEqualTo("[{\"id\":1}]");
+        assertThat(bodyOf(second)).isEqualTo("[{\"id\":1}]");
+
+        log.info("End test: повторный запрос с тем же ключом, ответ сервера загружается один раз и буферизуется.");
+    }
+
+    @Test
+    @DisplayName("Unit Test: запросы с разными ключами, ответы загружаются и хранятся отдельно.")
+    void testGet_OtherKeys_LoadSeparately() {
+        log.info("Start test: запросы с разными ключами.");
+
+        responseCache.get("drill&from=0&size=10", loader("[{\"id\":1}]")).block(TIMEOUT);
+        ResponseEntity<Object> otherPage = responseCache.get("drill&from=10&size=10", loader("[{\"id\":2}]")).block(TIMEOUT);
+        ResponseEntity<Object> otherText = responseCache.get("saw&from=0&size=10", loader("[{\"id\":3}]")).block(TIMEOUT);
+
+        assertThat(loads).hasValue(3);
+        assertThat(bodyOf(otherPage)).isEqualTo("[{\"id\":2}]");
+        assertThat(bodyOf(otherText)).isEqualTo("[{\"id\":3}]");
+
+        log.info("End test: запросы с разными ключами, ответы загружаются и хранятся отдельно.");
+    }
+
+    @Test
+    @DisplayName("Unit Test: ответ сервера с ошибкой не кэшируется.")
+    void testGet_ErrorResponse_IsNotCached() {
+        log.info("Start test: ответ сервера с ошибкой не кэшируется.");
+
+        Supplier<Mono<ResponseEntity<Object>>> failingLoader = () -> {
+            loads.incrementAndGet();
+            return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(resource("{\"error\":\"\"}")));
+        };
+
+        ResponseEntity<Object> response = responseCache.get("drill&from=0&size=10", failingLoader).block(TIMEOUT);
+        responseCache.get("drill&from=0&size=10", failingLoader).block(TIMEOUT);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(loads).hasValue(2);
+
+        log.info("End test: ответ сервера с ошибкой не кэшируется.");
+    }
+
+    @Test
+    @DisplayName("Unit Test: после инвалидации ответ загружается заново.")
+    void testInvalidateAll_DiscardsCachedResponses() {
+        log.info("Start test: после инвалидации ответ загружается заново.");
+
+        responseCache.get("drill&from=0&size=10", loader("[{\"id\":1}]")).block(TIMEOUT);
+        responseCache.invalidateAll();
+        ResponseEntity<Object> response = responseCache.get("drill&from=0&size=10", loader("[{\"id\":2}]")).block(TIMEOUT);
+
+        assertThat(loads).hasValue(2);
+        assertThat(bodyOf(response)).isEqualTo("[{\"id\":2}]");
+
+        log.info("End test: после инвалидации ответ загружается заново.");
+    }
+
+    @Test
+    @DisplayName("Unit Test: ответ запрошен до инвалидации и получен после нее, он возвращается клиенту, но не кэшируется.")
+    void testInvalidateAll_DuringLoad_ResponseIsNotKept() throws Exception {
+        log.info("Start test: ответ запрошен до инвалидации и получен после нее.");
+
+        Sinks.One<ResponseEntity<Object>> serverResponse = Sinks.one();
+        CompletableFuture<ResponseEntity<Object>> pending = responseCache.get("drill&from=0&size=10", () -> {
+            loads.incrementAndGet();
+            return serverResponse.asMono();
+        }).toFuture();
+        responseCache.invalidateAll();
+        serverResponse.tryEmitValue(ResponseEntity.ok(resource("[{\"id\":1}]")));
+
+        assertThat(bodyOf(pending.get(5, TimeUnit.SECONDS))).isEqualTo("[{\"id\":1}]");
+        ResponseEntity<Object> response = responseCache.get("drill&from=0&size=10", loader("[{\"id\":2}]")).block(TIMEOUT);
+        assertThat(loads).hasValue(2);
+        assertThat(bodyOf(response)).isEqualTo("[{\"id\":2}]");
+
+        log.info("End test: ответ запрошен до инвалидации и получен после нее, он возвращается клиенту, но не кэшируется.");
+    }
+
+    @Test
+    @DisplayName("Unit Test: кэширование отключено, каждый запрос передается серверу.")
+    void testGet_Disabled_AlwaysLoads() {
+        log.info("Start test: кэширование отключено.");
+
+        ResponseCache disabledCache = new ResponseCache(null);
+
+        disabledCache.get("drill&from=0&size=10", loader("[{\"id\":1}]")).block(TIMEOUT);
+        disabledCache.get("drill&from=0&size=10", loader("[{\"id\":1}]")).block(TIMEOUT);
+
+        assertThat(loads).hasValue(2);
+
+        log.info("End test: кэширование отключено, каждый запрос передается серверу.");
+    }
+
+    private Supplier<Mono<ResponseEntity<Object>>> loader(String body) {
+
+        return () -> {
+            loads.incrementAndGet();
+            return Mono.just(ResponseEntity.ok(resource(body)));
+        };
+    }
+
+    private static Object resource(String body) {
+
+        return new InputStreamResource(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String bodyOf(ResponseEntity<Object> response) {
+
+        assertThat(response).isNotNull();
+        assertThat(response.getBody()).isInstanceOf(byte[].class);
+
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+}
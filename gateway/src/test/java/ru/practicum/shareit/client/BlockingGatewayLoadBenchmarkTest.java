@@ -0,0 +1,13 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class BlockingGatewayLoadBenchmarkTest extends GatewayLoadBenchmark {
+
+    @Override
+    protected String mode() {
+
+        return "blocking";
+    }
+}
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.practicum.shareit.constant.Constant.REQUEST_HEADER_USER_ID;
+
+/**
+ * The load test of the gateway in the execution mode of the subclass: the clients request an item listing
+ * concurrently, each one after another, from a stub of the server which answers after a fixed latency.
+ * The throughput and the p50 and p99 latencies are logged. The subclasses run only with
+ * `-Dshareit.benchmark=true`; the load is set by `shareit.benchmark.clients`, `shareit.benchmark.requests-per-client`
+ * and `shareit.benchmark.server-latency-ms`.
+ * No results of these runs are recorded, so the modes are not known to be faster than the blocking one:
+ * the test is the way to compare them on the target hardware before choosing a mode.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.accept-count=10000",
+        "shareit-server.http-client.max-total-connections=1000",
+        "shareit-server.http-client.max-connections-per-route=1000",
+        "shareit-server.http-client.connection-request-timeout=1m"})
+abstract class GatewayLoadBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("shareit.benchmark.clients", 10_000);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("shareit.benchmark.requests-per-client", 5);
+    private static final long SERVER_LATENCY_MS = Long.getLong("shareit.benchmark.server-latency-ms", 50);
+    private static final String LISTING = "[{\"id\":1,\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}]";
+
+    private static MockWebServer server;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://" + server().getHostName() + ":" + server().getPort());
+    }
+
+    /**
+     * @return The name of the execution mode of the gateway.
+     */
+    protected abstract String mode();
+
+    @Test
+    @DisplayName("SpringBootTest: нагрузочный тест шлюза, пропускная способность и задержки p50 и p99 при одновременных клиентах.")
+    void testListing_ConcurrentClients_ReportsThroughputAndLatency() throws Exception {
+        log.info("Start test: нагрузочный тест шлюза в режиме {}.", mode());
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items?from=0&size=20"))
+                .header(REQUEST_HEADER_USER_ID, "1")
+                .timeout(Duration.ofMinutes(2))
+                .GET()
+                .build();
+        long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        long startedAt = System.nanoTime();
+        CompletableFuture<?>[] clients = new CompletableFuture<?>[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = runClient(httpClient, request, REQUESTS_PER_CLIENT, latencies, completed, failed);
+        }
+        CompletableFuture.allOf(clients).get(10, TimeUnit.MINUTES);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+
+        int count = completed.get();
+        Arrays.sort(latencies, 0, count);
+        log.info("The {} gateway, {} clients x {} requests, server latency {} ms: {} requests/s, p50 {} ms, p99 {} ms, " +
+                        "{} failed.", mode(), CLIENTS, REQUESTS_PER_CLIENT, SERVER_LATENCY_MS,
+                count * 1000L / Math.max(elapsed.toMillis(), 1), percentileMillis(latencies, count, 50),
+                percentileMillis(latencies, count, 99), failed.get());
+
+        assertThat(failed).hasValue(0);
+
+        log.info("End test: нагрузочный тест шлюза в режиме {}.", mode());
+    }
+
+    private static CompletableFuture<Void> runClient(HttpClient httpClient, HttpRequest request, int remaining,
+                                                     long[] latencies, AtomicInteger completed, AtomicInteger failed) {
+
+        if (remaining == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long sentAt = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    if (error != null || response.statusCode() != 200) {
+                        failed.incrementAndGet();
+                    } else {
+                        latencies[completed.getAndIncrement()] = System.nanoTime() - sentAt;
+                    }
+                    return remaining - 1;
+                })
+                .thenCompose(left -> runClient(httpClient, request, left, latencies, completed, failed));
+    }
+
+    private static long percentileMillis(long[] sortedLatencies, int count, int percentile) {
+
+        if (count == 0) {
+            return 0;
+        }
+        int index = Math.min(count - 1, (int) Math.ceil(count * percentile / 100.0) - 1);
+
+        return TimeUnit.NANOSECONDS.toMillis(sortedLatencies[Math.max(index, 0)]);
+    }
+
+    private static synchronized MockWebServer server() {
+
+        if (server == null) {
+            server = new MockWebServer();
+            server.setDispatcher(new Dispatcher() {
+                @Override
+                public MockResponse dispatch(RecordedRequest request) {
+                    return new MockResponse()
+                            .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .setBody(LISTING)
+                            .setBodyDelay(SERVER_LATENCY_MS, TimeUnit.MILLISECONDS);
+                }
+            });
+            try {
+                server.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        return server;
+    }
+}
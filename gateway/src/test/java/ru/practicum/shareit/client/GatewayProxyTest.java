@@ -0,0 +1,279 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.practicum.shareit.constant.Constant.REQUEST_HEADER_USER_ID;
+
+/**
+ * The tests of the proxy run against a stub of the server, so the gateway is tested over real connections
+ * with the transport of the profile of the subclass.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+abstract class GatewayProxyTest {
+
+    protected static final MockWebServer SERVER = startServer();
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://" + SERVER.getHostName() + ":" + SERVER.getPort());
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: ответ сервера передается клиенту без разбора, статус, заголовки и тело не изменяются.")
+    void testGetItem_PassesResponseThroughUnparsed() throws Exception {
+        log.info("Start test: ответ сервера передается клиенту без разбора.");
+
+        String body = "{\"id\":1,  \"name\":\"Дрель\", \"price\": 2.50, \"tags\": [ ]}";
+        SERVER.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setHeader("X-Server-Header", "value")
+                .setBody(body));
+
+        HttpResponse<String> response = send(request("/items/1").header(REQUEST_HEADER_USER_ID, "2").GET());
+        RecordedRequest serverRequest = takeRequest();
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo(body);
+        assertThat(response.headers().firstValue("X-Server-Header")).hasValue("value");
+        assertThat(serverRequest.getPath()).isEqualTo("/items/1");
+        assertThat(serverRequest.getHeader(REQUEST_HEADER_USER_ID)).isEqualTo("2");
+
+        log.info("End test: ответ сервера передается клиенту без разбора, статус, заголовки и тело не изменяются.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: ошибка сервера передается клиенту с исходным статусом и телом.")
+    void testGetItem_ServerError_PassesStatusAndBodyThrough() throws Exception {
+        log.info("Start test: ошибка сервера передается клиенту.");
+
+        String body = "{\"error\":\"NotFoundException\",\"message\":\"The item with ID=7 was not found.\"}";
+        SERVER.enqueue(new MockResponse()
+                .setResponseCode(404)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(body));
+
+        HttpResponse<String> response = send(request("/items/7").header(REQUEST_HEADER_USER_ID, "2").GET());
+        takeRequest();
+
+        assertThat(response.statusCode()).isEqualTo(404);
+        assertThat(response.body()).isEqualTo(body);
+
+        log.info("End test: ошибка сервера передается клиенту с исходным статусом и телом.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: заголовок If-None-Match передается серверу, ответ 304 передается клиенту без тела, " +
+            "а при изменившемся ETag клиент получает новое тело.")
+    void testGetItem_IfNoneMatch_ForwardsConditionalRequestAndNotModified() throws Exception {
+        log.info("Start test: условный запрос предмета через шлюз.");
+
+        SERVER.enqueue(new MockResponse()
+                .setResponseCode(304)
+                .setHeader(HttpHeaders.ETAG, "\"3\""));
+        HttpResponse<String> notModified = send(request("/items/1")
+                .header(REQUEST_HEADER_USER_ID, "2")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                .GET());
+        RecordedRequest conditionalRequest = takeRequest();
+
+        assertThat(conditionalRequest.getHeader(HttpHeaders.IF_NONE_MATCH)).isEqualTo("\"3\"");
+        assertThat(notModified.statusCode()).isEqualTo(304);
+        assertThat(notModified.headers().firstValue(HttpHeaders.ETAG)).hasValue("\"3\"");
+        assertThat(notModified.body()).isEmpty();
+
+        SERVER.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setHeader(HttpHeaders.ETAG, "\"4\"")
+                .setBody("{\"id\":1,\"name\":\"Дрель\"}"));
+        HttpResponse<String> modified = send(request("/items/1")
+                .header(REQUEST_HEADER_USER_ID, "2")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                .GET());
+        takeRequest();
+
+        assertThat(modified.statusCode()).isEqualTo(200);
+        assertThat(modified.headers().firstValue(HttpHeaders.ETAG)).hasValue("\"4\"");
+        assertThat(modified.body()).isEqualTo("{\"id\":1,\"name\":\"Дрель\"}");
+
+        log.info("End test: заголовок If-None-Match передается серверу, ответ 304 передается клиенту без тела.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: поиск кэшируется по тексту без учета регистра и странице, " +
+            "после удаления пользователя поиск передается серверу заново.")
+    void testSearchItems_CachedByTextAndPage_InvalidatedOnUserDelete() throws Exception {
+        log.info("Start test: поиск кэшируется и инвалидируется после удаления пользователя.");
+
+        SERVER.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody("[{\"id\":1,\"name\":\"Drill\"}]"));
+        HttpResponse<String> first = send(request("/items/search?text=Drill&from=0&size=10").GET());
+        assertThat(takeRequest().getPath()).isEqualTo("/items/search?text=Drill&from=0&size=10");
+        int requestCount = SERVER.getRequestCount();
+
+        HttpResponse<String> cached = send(request("/items/search?text=DRILL&from=0&size=10").GET());
+
+        assertThat(SERVER.getRequestCount()).isEqualTo(requestCount);
+        assertThat(cached.statusCode()).isEqualTo(200);
+        assertThat(cached.body()).isEqualTo(first.body());
+
+        SERVER.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody("[]"));
+        HttpResponse<String> otherPage = send(request("/items/search?text=drill&from=10&size=10").GET());
+        assertThat(takeRequest().getPath()).isEqualTo("/items/search?text=drill&from=10&size=10");
+        assertThat(otherPage.body()).isEqualTo("[]");
+
+        SERVER.enqueue(new MockResponse().setResponseCode(204));
+        assertThat(send(request("/users/1").DELETE()).statusCode()).isEqualTo(204);
+        assertThat(takeRequest().getMethod()).isEqualTo("DELETE");
+
+        SERVER.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody("[]"));
+        HttpResponse<String> reloaded = send(request("/items/search?text=drill&from=0&size=10").GET());
+        assertThat(takeRequest().getPath()).isEqualTo("/items/search?text=drill&from=0&size=10");
+        assertThat(reloaded.body()).isEqualTo("[]");
+
+        log.info("End test: поиск кэшируется по тексту без учета регистра и странице, " +
+                "после удаления пользователя поиск передается серверу заново.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: выгрузка бронирований передается клиенту потоком по частям, " +
+            "без длины содержимого и с заголовками выгрузки сервера.")
+    void testExportBookings_StreamsBodyInChunks() throws Exception {
+        log.info("Start test: выгрузка бронирований передается клиенту потоком.");
+
+        StringBuilder export = new StringBuilder();
+        for (int id = 1; id <= 20_000; id++) {
+            export.append("{\"id\":").append(id).append(",\"status\":\"WAITING\"}\n");
+        }
+        SERVER.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/x-ndjson;charset=UTF-8")
+                .setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings.ndjson\"")
+                .setChunkedBody(export.toString(), 8 * 1024));
+
+        HttpResponse<String> response = send(request("/bookings/export?format=NDJSON")
+                .header(REQUEST_HEADER_USER_ID, "1")
+                .GET());
+        RecordedRequest serverRequest = takeRequest();
+
+        assertThat(serverRequest.getPath()).isEqualTo("/bookings/export?format=NDJSON");
+        assertThat(serverRequest.getHeader(REQUEST_HEADER_USER_ID)).isEqualTo("1");
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_DISPOSITION))
+                .hasValue("attachment; filename=\"bookings.ndjson\"");
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_LENGTH)).isEmpty();
+        assertThat(response.body()).isEqualTo(export.toString());
+
+        log.info("End test: выгрузка бронирований передается клиенту потоком по частям.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: поток событий сервера передается клиенту по мере поступления частей, " +
+            "поток завершается вместе с потоком сервера.")
+    void testSubscribeToEvents_ProxiesEventStream() throws Exception {
+        log.info("Start test: поток событий сервера передается клиенту.");
+
+        String events = "event:booking\ndata:{\"bookingId\":1,\"status\":\"WAITING\"}\n\n" +
+                ":heartbeat\n\n" +
+                "event:booking\ndata:{\"bookingId\":2,\"status\":\"WAITING\"}\n\n";
+        SERVER.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .setChunkedBody(events, 16)
+                .throttleBody(64, 1, TimeUnit.SECONDS));
+
+        HttpResponse<Stream<String>> response = send(request("/bookings/owner/events")
+                .header(REQUEST_HEADER_USER_ID, "1")
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .GET(), HttpResponse.BodyHandlers.ofLines());
+        Iterator<String> lines = response.body().iterator();
+        List<String> received = new ArrayList<>();
+        received.add(lines.next());
+        long firstLineReceivedAt = System.nanoTime();
+        lines.forEachRemaining(received::add);
+        long streamCompletedAt = System.nanoTime();
+        RecordedRequest serverRequest = takeRequest();
+
+        assertThat(serverRequest.getPath()).isEqualTo("/bookings/owner/events");
+        assertThat(serverRequest.getHeader(REQUEST_HEADER_USER_ID)).isEqualTo("1");
+        assertThat(serverRequest.getHeader(HttpHeaders.ACCEPT)).contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_TYPE)).hasValueSatisfying(contentType ->
+                assertThat(contentType).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+        assertThat(String.join("\n", received) + "\n").isEqualTo(events);
+        // The server sends 64 bytes a second, so the first event reaches the client long before the stream ends.
+        assertThat(Duration.ofNanos(streamCompletedAt - firstLineReceivedAt)).isGreaterThan(Duration.ofMillis(500));
+
+        log.info("End test: поток событий сервера передается клиенту по мере поступления частей.");
+    }
+
+    protected HttpRequest.Builder request(String path) {
+
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(10));
+    }
+
+    protected HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    protected <T> HttpResponse<T> send(HttpRequest.Builder request, HttpResponse.BodyHandler<T> bodyHandler)
+            throws IOException, InterruptedException {
+
+        return httpClient.send(request.build(), bodyHandler);
+    }
+
+    protected static RecordedRequest takeRequest() throws InterruptedException {
+
+        RecordedRequest request = SERVER.takeRequest(5, TimeUnit.SECONDS);
+        assertThat(request).as("request to the server").isNotNull();
+
+        return request;
+    }
+
+    private static MockWebServer startServer() {
+
+        MockWebServer server = new MockWebServer();
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return server;
+    }
+}
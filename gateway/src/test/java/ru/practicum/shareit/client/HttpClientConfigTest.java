@@ -0,0 +1,162 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.reactivestreams.Subscription;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+class HttpClientConfigTest {
+
+    private final HttpClientConfig config = new HttpClientConfig();
+    private final HttpClientProperties properties = new HttpClientProperties();
+    private MockWebServer server;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        server.shutdown();
+    }
+
+    @Test
+    @DisplayName("Unit Test: последовательные запросы к серверу используют одно keep-alive соединение из пула.")
+    void testRequests_Sequential_ReuseKeptAliveConnection() throws Exception {
+        log.info("Start test: последовательные запросы используют одно соединение.");
+
+        ClientHttpRequestFactory requestFactory = createRequestFactory();
+        server.enqueue(new MockResponse().setBody("{\"id\":1}"));
+        server.enqueue(new MockResponse().setBody("{\"id\":2}"));
+
+        assertThat(readBody(requestFactory, "/users/1")).isEqualTo("{\"id\":1}");
+        assertThat(readBody(requestFactory, "/users/2")).isEqualTo("{\"id\":2}");
+
+        assertThat(server.takeRequest(5, TimeUnit.SECONDS).getSequenceNumber()).isZero();
+        assertThat(server.takeRequest(5, TimeUnit.SECONDS).getSequenceNumber()).isEqualTo(1);
+        assertThat(connectionManager.getTotalStats().getAvailable()).isEqualTo(1);
+
+        log.info("End test: последовательные запросы к серверу используют одно keep-alive соединение из пула.");
+    }
+
+    @Test
+    @DisplayName("Unit Test: пул исчерпан, запрос ждет свободное соединение не дольше заданного времени, " +
+            "после освобождения соединения запрос выполняется.")
+    void testRequest_PoolExhausted_FailsAfterConnectionRequestTimeout() throws Exception {
+        log.info("Start test: пул исчерпан, запрос ждет свободное соединение.");
+
+        properties.setMaxConnectionsPerRoute(1);
+        properties.setConnectionRequestTimeout(Duration.ofMillis(200));
+        ClientHttpRequestFactory requestFactory = createRequestFactory();
+        server.enqueue(new MockResponse().setBody("{\"id\":1}"));
+        server.enqueue(new MockResponse().setBody("{\"id\":2}"));
+
+        ClientHttpResponse leased = requestFactory.createRequest(uri("/users/1"), HttpMethod.GET).execute();
+        assertThat(connectionManager.getTotalStats().getLeased()).isEqualTo(1);
+        assertThatThrownBy(() -> readBody(requestFactory, "/users/2")).isInstanceOf(IOException.class);
+
+        leased.close();
+        assertThat(readBody(requestFactory, "/users/2")).isEqualTo("{\"id\":2}");
+
+        log.info("End test: пул исчерпан, запрос ждет свободное соединение не дольше заданного времени.");
+    }
+
+    @Test
+    @DisplayName("Unit Test: ответ транспорта отменен до записи тела клиенту, соединение возвращается в пул.")
+    void testTransportResponse_CancelledUnwritten_ReleasesConnection() throws Exception {
+        log.info("Start test: ответ транспорта отменен до записи тела клиенту.");
+
+        RestTemplateTransport transport = new RestTemplateTransport(new RestTemplateBuilder(), createRequestFactory(), null);
+        server.enqueue(new MockResponse().setBody("{\"id\":1}"));
+
+        Mono<ResponseEntity<Object>> response = transport.exchange(HttpMethod.GET, uri("/users/1"), 1L,
+                HttpHeaders.EMPTY, null);
+        assertThat(connectionManager.getTotalStats().getLeased()).isEqualTo(1);
+        response.subscribe(new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                cancel();
+            }
+        });
+
+        assertThat(connectionManager.getTotalStats().getLeased()).isZero();
+        assertThat(connectionManager.getTotalStats().getAvailable()).isEqualTo(1);
+
+        log.info("End test: ответ транспорта отменен до записи тела клиенту, соединение возвращается в пул.");
+    }
+
+    @Test
+    @DisplayName("Unit Test: размеры пула задаются настройками, состояние пула публикуется в метриках с тегом `httpclient=shareit-server`.")
+    void testConnectionManager_UsesPropertiesAndPublishesMetrics() {
+        log.info("Start test: размеры пула задаются настройками и публикуются в метриках.");
+
+        properties.setMaxTotalConnections(50);
+        properties.setMaxConnectionsPerRoute(20);
+        connectionManager = config.shareItServerConnectionManager(properties);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        config.shareItServerConnectionPoolMetrics(connectionManager).bindTo(meterRegistry);
+
+        assertThat(connectionManager.getMaxTotal()).isEqualTo(50);
+        assertThat(connectionManager.getDefaultMaxPerRoute()).isEqualTo(20);
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "shareit-server")
+                .gauge()
+                .value()).isEqualTo(50);
+
+        connectionManager.shutdown();
+
+        log.info("End test: размеры пула задаются настройками, состояние пула публикуется в метриках.");
+    }
+
+    private ClientHttpRequestFactory createRequestFactory() {
+
+        connectionManager = config.shareItServerConnectionManager(properties);
+        httpClient = config.shareItServerHttpClient(connectionManager, properties);
+
+        return config.shareItServerRequestFactory(httpClient);
+    }
+
+    private String readBody(ClientHttpRequestFactory requestFactory, String path) throws IOException {
+
+        try (ClientHttpResponse response = requestFactory.createRequest(uri(path), HttpMethod.GET).execute()) {
+            return new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private URI uri(String path) {
+
+        return server.url(path).uri();
+    }
+}
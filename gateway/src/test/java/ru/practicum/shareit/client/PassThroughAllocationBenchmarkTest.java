@@ -0,0 +1,210 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import javax.net.ServerSocketFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the bytes allocated by the gateway thread per proxied listing: the pass-through of {@link RestTemplateTransport}
+ * against the former round trip, which parsed the response into an `Object` tree and serialized it again.
+ * The allocations are counted by the JVM for the current thread, so the measurement does not depend on the machine.
+ * The benchmark runs only with `-Dshareit.benchmark=true`.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class PassThroughAllocationBenchmarkTest {
+
+    private static final int WARM_UP_REQUESTS = 200;
+    private static final int MEASURED_REQUESTS = 500;
+    private static final int LISTING_SIZE = 200;
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MockWebServer server;
+    private CloseableHttpClient httpClient;
+    private RestTemplateTransport transport;
+    private RestTemplate roundTripRest;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String items = itemsListing();
+        String bookings = bookingsListing();
+        server = new MockWebServer();
+        server.setServerSocketFactory(new NoDelayServerSocketFactory());
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .setBody(Objects.requireNonNull(request.getPath()).startsWith("/items") ? items : bookings);
+            }
+        });
+        server.start();
+
+        HttpClientConfig config = new HttpClientConfig();
+        HttpClientProperties properties = new HttpClientProperties();
+        httpClient = config.shareItServerHttpClient(config.shareItServerConnectionManager(properties), properties);
+        ClientHttpRequestFactory requestFactory = config.shareItServerRequestFactory(httpClient);
+        transport = new RestTemplateTransport(new RestTemplateBuilder(), requestFactory, null);
+        roundTripRest = new RestTemplateBuilder().requestFactory(() -> requestFactory).build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        server.shutdown();
+    }
+
+    @Test
+    @DisplayName("Unit Test: проксирование списков предметов и бронирований без разбора ответа " +
+            "выделяет меньше памяти на запрос, чем разбор и повторная сериализация.")
+    void testListings_PassThrough_AllocatesLessThanRoundTrip() throws IOException {
+        log.info("Start test: выделение памяти на запрос при проксировании списков.");
+
+        for (String path : new String[]{"/items?from=0&size=200", "/bookings?state=ALL&from=0&size=200"}) {
+            URI uri = server.url(path).uri();
+            long passThrough = allocatedPerRequest(() -> passThrough(uri));
+            long roundTrip = allocatedPerRequest(() -> roundTrip(uri));
+            log.info("GET {}: the pass-through allocates {} bytes per request, the round trip allocates {} bytes per request.",
+                    path, passThrough, roundTrip);
+
+            assertThat(passThrough).isLessThan(roundTrip);
+        }
+
+        log.info("End test: проксирование списков без разбора ответа выделяет меньше памяти на запрос.");
+    }
+
+    private long allocatedPerRequest(IoAction request) throws IOException {
+
+        for (int i = 0; i < WARM_UP_REQUESTS; i++) {
+            request.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            request.run();
+        }
+
+        return (threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / MEASURED_REQUESTS;
+    }
+
+    private void passThrough(URI uri) throws IOException {
+
+        ResponseEntity<Object> response = Objects.requireNonNull(transport.exchange(HttpMethod.GET, uri, 1L,
+                HttpHeaders.EMPTY, null).block());
+        try (InputStream body = ((Resource) Objects.requireNonNull(response.getBody())).getInputStream()) {
+            body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private void roundTrip(URI uri) throws IOException {
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", "1");
+        ResponseEntity<Object> response = roundTripRest.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), Object.class);
+        objectMapper.writeValue(OutputStream.nullOutputStream(), response.getBody());
+    }
+
+    private static String itemsListing() {
+
+        StringBuilder listing = new StringBuilder("[");
+        for (int id = 1; id <= LISTING_SIZE; id++) {
+            listing.append(id > 1 ? "," : "")
+                    .append("{\"id\":").append(id)
+                    .append(",\"name\":\"Дрель ").append(id)
+                    .append("\",\"description\":\"Аккумуляторная дрель с двумя батареями\",\"available\":true")
+                    .append(",\"lastBooking\":{\"id\":").append(id * 2).append(",\"bookerId\":").append(id + 1).append("}")
+                    .append(",\"nextBooking\":null,\"comments\":[{\"id\":").append(id)
+                    .append(",\"text\":\"Отличная дрель\",\"authorName\":\"Booker\",\"created\":\"2024-01-01T10:00:00\"}]}");
+        }
+
+        return listing.append("]").toString();
+    }
+
+    private static String bookingsListing() {
+
+        StringBuilder listing = new StringBuilder("[");
+        for (int id = 1; id <= LISTING_SIZE; id++) {
+            listing.append(id > 1 ? "," : "")
+                    .append("{\"id\":").append(id)
+                    .append(",\"start\":\"2024-01-01T10:00:00\",\"end\":\"2024-01-02T10:00:00\",\"status\":\"APPROVED\"")
+                    .append(",\"booker\":{\"id\":1,\"name\":\"Booker\",\"email\":\"booker@yandex.ru\"}")
+                    .append(",\"item\":{\"id\":").append(id).append(",\"name\":\"Дрель ").append(id)
+                    .append("\",\"description\":\"Аккумуляторная дрель\",\"available\":true}}");
+        }
+
+        return listing.append("]").toString();
+    }
+
+    /**
+     * Sends the head and the body of every stub response without waiting for the delayed acknowledgement
+     * of the client, which would add about 40 ms to every request of the benchmark.
+     */
+    private static final class NoDelayServerSocketFactory extends ServerSocketFactory {
+
+        @Override
+        public ServerSocket createServerSocket() throws IOException {
+            return new ServerSocket() {
+                @Override
+                public Socket accept() throws IOException {
+                    Socket socket = super.accept();
+                    socket.setTcpNoDelay(true);
+                    return socket;
+                }
+            };
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog, InetAddress address) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoAction {
+
+        void run() throws IOException;
+    }
+}
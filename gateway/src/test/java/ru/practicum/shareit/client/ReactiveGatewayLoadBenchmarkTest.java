@@ -0,0 +1,15 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.context.ActiveProfiles;
+
+@ActiveProfiles("reactive")
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class ReactiveGatewayLoadBenchmarkTest extends GatewayLoadBenchmark {
+
+    @Override
+    protected String mode() {
+
+        return "reactive";
+    }
+}
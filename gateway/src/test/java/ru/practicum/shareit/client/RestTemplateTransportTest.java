@@ -0,0 +1,101 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.mockwebserver.MockResponse;
+import okio.Buffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.practicum.shareit.constant.Constant.REQUEST_HEADER_USER_ID;
+
+@Slf4j
+class RestTemplateTransportTest extends GatewayProxyTest {
+
+    /**
+     * A body which is neither valid JSON nor valid UTF-8, so it is only passed through unchanged if it is never parsed
+     * or decoded on the way.
+     */
+    private static final byte[] UNPARSEABLE_BODY = concat("{\"id\":1, \"name\":\"".getBytes(StandardCharsets.UTF_8),
+            new byte[]{(byte) 0xFF, (byte) 0xFE, 0x00}, "\", ".getBytes(StandardCharsets.UTF_8));
+
+    @Autowired
+    private GatewayTransport transport;
+
+    @Test
+    @DisplayName("SpringBootTest: без профиля `reactive` используется блокирующий транспорт.")
+    void testTransport_DefaultProfile_IsRestTemplateTransport() {
+        log.info("Start test: без профиля `reactive` используется блокирующий транспорт.");
+
+        assertThat(transport).isInstanceOf(RestTemplateTransport.class);
+
+        log.info("End test: без профиля `reactive` используется блокирующий транспорт.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: транспорт возвращает тело ответа сервера потоком байтов без разбора, байты не изменяются.")
+    void testExchange_ReturnsUnparsedBodyStream() throws Exception {
+        log.info("Start test: транспорт возвращает тело ответа сервера потоком байтов без разбора.");
+
+        SERVER.enqueue(unparseableResponse());
+
+        ResponseEntity<Object> response = transport.exchange(HttpMethod.GET,
+                URI.create("http://" + SERVER.getHostName() + ":" + SERVER.getPort() + "/items/1"), 2L,
+                new HttpHeaders(), null).block();
+        takeRequest();
+
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getBody()).isInstanceOf(InputStreamResource.class);
+        try (InputStream body = ((InputStreamResource) response.getBody()).getInputStream()) {
+            assertThat(body.readAllBytes()).isEqualTo(UNPARSEABLE_BODY);
+        }
+
+        log.info("End test: транспорт возвращает тело ответа сервера потоком байтов без разбора, байты не изменяются.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: тело ответа сервера, не являющееся JSON, доходит до клиента через шлюз байт в байт.")
+    void testGetItem_UnparseableBody_ReachesClientByteIdentical() throws Exception {
+        log.info("Start test: тело ответа сервера, не являющееся JSON, доходит до клиента через шлюз.");
+
+        SERVER.enqueue(unparseableResponse());
+
+        HttpResponse<byte[]> response = send(request("/items/1").header(REQUEST_HEADER_USER_ID, "2").GET(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        takeRequest();
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo(UNPARSEABLE_BODY);
+
+        log.info("End test: тело ответа сервера, не являющееся JSON, доходит до клиента через шлюз байт в байт.");
+    }
+
+    private static MockResponse unparseableResponse() {
+
+        return new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(new Buffer().write(UNPARSEABLE_BODY));
+    }
+
+    private static byte[] concat(byte[]... parts) {
+
+        Buffer buffer = new Buffer();
+        for (byte[] part : parts) {
+            buffer.write(part);
+        }
+
+        return buffer.readByteArray();
+    }
+}
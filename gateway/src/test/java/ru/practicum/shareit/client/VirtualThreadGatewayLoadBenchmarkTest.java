@@ -0,0 +1,22 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.context.TestPropertySource;
+
+@EnabledIf("isVirtualThreadRuntime")
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+@TestPropertySource(properties = "shareit.threads.virtual.enabled=true")
+class VirtualThreadGatewayLoadBenchmarkTest extends GatewayLoadBenchmark {
+
+    static boolean isVirtualThreadRuntime() {
+
+        return Runtime.version().feature() >= 21;
+    }
+
+    @Override
+    protected String mode() {
+
+        return "virtual-thread";
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.mockwebserver.MockResponse;
+import okio.Buffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@ActiveProfiles("reactive")
+class WebClientTransportTest extends GatewayProxyTest {
+
+    @Autowired
+    private GatewayTransport transport;
+
+    @Test
+    @DisplayName("SpringBootTest: с профилем `reactive` используется неблокирующий транспорт.")
+    void testTransport_ReactiveProfile_IsWebClientTransport() {
+        log.info("Start test: с профилем `reactive` используется неблокирующий транспорт.");
+
+        assertThat(transport).isInstanceOf(WebClientTransport.class);
+
+        log.info("End test: с профилем `reactive` используется неблокирующий транспорт.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: транспорт возвращает тело ответа сервера потоком буферов без разбора, байты не изменяются.")
+    void testExchange_ReturnsUnparsedBufferStream() throws Exception {
+        log.info("Start test: транспорт возвращает тело ответа сервера потоком буферов без разбора.");
+
+        byte[] body = "{\"id\":1, \"name\":".getBytes(StandardCharsets.UTF_8);
+        SERVER.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(new Buffer().write(body)));
+
+        ResponseEntity<Object> response = transport.exchange(HttpMethod.GET,
+                URI.create("http://" + SERVER.getHostName() + ":" + SERVER.getPort() + "/items/1"), 2L,
+                new HttpHeaders(), null).block();
+        takeRequest();
+
+        assertThat(response).isNotNull();
+        assertThat(response.getBody()).isInstanceOf(Flux.class);
+        @SuppressWarnings("unchecked")
+        DataBuffer joined = DataBufferUtils.join((Flux<DataBuffer>) response.getBody()).block();
+        assertThat(joined).isNotNull();
+        byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        DataBufferUtils.release(joined);
+        assertThat(bytes).isEqualTo(body);
+
+        log.info("End test: транспорт возвращает тело ответа сервера потоком буферов без разбора, байты не изменяются.");
+    }
+}
@@ -3,15 +3,30 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingApprovalInputDTO;
+import ru.practicum.shareit.booking.dto.BookingApprovalOutputDTO;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingInputDTO;
 import ru.practicum.shareit.booking.dto.BookingOutputDTO;
+import ru.practicum.shareit.booking.dto.BookingSummaryOutputDTO;
+import ru.practicum.shareit.booking.export.BookingExport;
+import ru.practicum.shareit.booking.model.ExportFormat;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import javax.validation.Valid;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Objects;
 
 import static ru.practicum.shareit.constant.Constant.REQUEST_HEADER_USER_ID;
+import static ru.practicum.shareit.constant.Constant.RESPONSE_HEADER_NEXT_CURSOR;
 
 
 @Slf4j
@@ -19,6 +34,9 @@ import static ru.practicum.shareit.constant.Constant.REQUEST_HEADER_USER_ID;
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    private static final MediaType MEDIA_TYPE_NDJSON = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+    private static final MediaType MEDIA_TYPE_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
     private final BookingService bookingService;
 
     @PostMapping
@@ -33,33 +51,90 @@ public class BookingController {
 
     @GetMapping("/{bookingId}")
     public BookingOutputDTO getBookingById(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
-                                           @PathVariable long bookingId) {
+                                           @PathVariable long bookingId,
+                                           WebRequest request) {
 
         log.info("START endpoint `method:GET /bookings/{bookingId}` (get booking by id), booking id: {}.", bookingId);
 
+        if (request.checkNotModified(bookingService.getETagById(userId, bookingId))) {
+            return null;
+        }
+
         return bookingService.getById(userId, bookingId);
     }
 
     @GetMapping
-    public List<BookingOutputDTO> getAllBookingsAtBooker(@RequestHeader(REQUEST_HEADER_USER_ID) long bookerId,
-                                                         @RequestParam(name = "state") State state,
-                                                         @RequestParam(name = "from") Integer from,
-                                                         @RequestParam(name = "size") Integer size) {
+    public ResponseEntity<List<BookingOutputDTO>> getAllBookingsAtBooker(@RequestHeader(REQUEST_HEADER_USER_ID) long bookerId,
+                                                                         @RequestParam(name = "state") State state,
+                                                                         @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                         @RequestParam(name = "cursor", required = false) String cursor,
+                                                                         @RequestParam(name = "size") Integer size) {
 
         log.info("START endpoint `method:GET /bookings?state={state}` (get all bookings at booker), booker id: {}.", bookerId);
 
-        return bookingService.getAllBookingsAtBooker(bookerId, state, from, size);
+        List<BookingOutputDTO> bookings = Objects.isNull(cursor)
+                ? bookingService.getAllBookingsAtBooker(bookerId, state, from, size)
+                : bookingService.getAllBookingsAtBooker(bookerId, state, BookingCursor.decode(cursor), size);
+
+        return toPage(bookings, size);
     }
 
     @GetMapping("/owner")
-    public List<BookingOutputDTO> getAllBookingsAtOwner(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId,
-                                                        @RequestParam(name = "state") State state,
-                                                        @RequestParam(name = "from") Integer from,
-                                                        @RequestParam(name = "size") Integer size) {
+    public ResponseEntity<List<BookingOutputDTO>> getAllBookingsAtOwner(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId,
+                                                                        @RequestParam(name = "state") State state,
+                                                                        @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                        @RequestParam(name = "cursor", required = false) String cursor,
+                                                                        @RequestParam(name = "size") Integer size) {
 
         log.info("START endpoint `method:GET /bookings/owner?state={state}` (get all bookings at owner), owner id: {}.", ownerId);
 
-        return bookingService.getAllBookingsAtOwner(ownerId, state, from, size);
+        List<BookingOutputDTO> bookings = Objects.isNull(cursor)
+                ? bookingService.getAllBookingsAtOwner(ownerId, state, from, size)
+                : bookingService.getAllBookingsAtOwner(ownerId, state, BookingCursor.decode(cursor), size);
+
+        return toPage(bookings, size);
+    }
+
+    @GetMapping("/summary")
+    public BookingSummaryOutputDTO getSummaryAtBooker(@RequestHeader(REQUEST_HEADER_USER_ID) long bookerId) {
+
+        log.info("START endpoint `method:GET /bookings/summary` (get summary of bookings at booker), booker id: {}.", bookerId);
+
+        return bookingService.getSummaryAtBooker(bookerId);
+    }
+
+    @GetMapping("/owner/summary")
+    public BookingSummaryOutputDTO getSummaryAtOwner(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId) {
+
+        log.info("START endpoint `method:GET /bookings/owner/summary` (get summary of bookings at owner), owner id: {}.", ownerId);
+
+        return bookingService.getSummaryAtOwner(ownerId);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAllBookingsAtBooker(@RequestHeader(REQUEST_HEADER_USER_ID) long bookerId,
+                                                                           @RequestParam(name = "format", defaultValue = "NDJSON") ExportFormat format) {
+
+        log.info("START endpoint `method:GET /bookings/export?format={format}` (export all bookings at booker), booker id: {}.", bookerId);
+
+        return toExport(bookingService.exportAllBookingsAtBooker(bookerId, format), format);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportAllBookingsAtOwner(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId,
+                                                                          @RequestParam(name = "format", defaultValue = "NDJSON") ExportFormat format) {
+
+        log.info("START endpoint `method:GET /bookings/owner/export?format={format}` (export all bookings at owner), owner id: {}.", ownerId);
+
+        return toExport(bookingService.exportAllBookingsAtOwner(ownerId, format), format);
+    }
+
+    @GetMapping("/owner/events")
+    public SseEmitter subscribeToEventsAtOwner(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId) {
+
+        log.info("START endpoint `method:GET /bookings/owner/events` (subscribe to booking events at owner), owner id: {}.", ownerId);
+
+        return bookingService.subscribeToEventsAtOwner(ownerId);
     }
 
     @PatchMapping("/{bookingId}")
@@ -71,4 +146,34 @@ public class BookingController {
 
         return bookingService.approveBooking(userId, bookingId, approved);
     }
+
+    @PatchMapping
+    public List<BookingApprovalOutputDTO> updateBookings(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId,
+                                                         @Valid @RequestBody final BookingApprovalInputDTO inputDTO) {
+
+        log.info("START endpoint `method:PATCH /bookings` (approved bookings), bookings count: {}.",
+                inputDTO.getBookingIds().size());
+
+        return bookingService.approveBookings(ownerId, inputDTO);
+    }
+
+    private ResponseEntity<List<BookingOutputDTO>> toPage(List<BookingOutputDTO> bookings, Integer size) {
+
+        if (bookings.isEmpty() || bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+
+        return ResponseEntity.ok()
+                .header(RESPONSE_HEADER_NEXT_CURSOR, BookingCursor.of(bookings.get(bookings.size() - 1)).encode())
+                .body(bookings);
+    }
+
+    private ResponseEntity<StreamingResponseBody> toExport(BookingExport export, ExportFormat format) {
+
+        MediaType mediaType = format == ExportFormat.CSV ? MEDIA_TYPE_CSV : MEDIA_TYPE_NDJSON;
+
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .body(export::writeTo);
+    }
 }
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.booking.counter;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+/**
+ * The BookingCounter class holds the numbers of the bookings of a user in one role for every state.
+ * The counters are updated in the transactions changing the bookings, and by the {@link BookingCounterSweeper}
+ * as the bookings move from the future to the past.
+ */
+@Entity
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "booking_counters")
+@IdClass(BookingCounterId.class)
+@Builder(toBuilder = true)
+public class BookingCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private BookingRole role;
+
+    @Column(name = "total_count", nullable = false)
+    private long total;
+
+    @Column(name = "current_count", nullable = false)
+    private long current;
+
+    @Column(name = "past_count", nullable = false)
+    private long past;
+
+    @Column(name = "future_count", nullable = false)
+    private long future;
+
+    @Column(name = "waiting_count", nullable = false)
+    private long waiting;
+
+    @Column(name = "rejected_count", nullable = false)
+    private long rejected;
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.counter;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The BookingCounterConfig class enables the settings of the booking counters.
+ */
+@Configuration
+@EnableConfigurationProperties(BookingCounterProperties.class)
+public class BookingCounterConfig {
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking.counter;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The BookingCounterDAO interface represents a data access object for the booking counters.
+ *
+ * @see JpaRepository
+ */
+public interface BookingCounterDAO extends JpaRepository<BookingCounter, BookingCounterId> {
+
+    /**
+     * Create the zeroed counters of a new user in both roles.
+     *
+     * @param userId The ID of the user.
+     * @return The number of created rows.
+     */
+    @Modifying
+    @Query(nativeQuery = true,
+            value = "INSERT INTO booking_counters (user_id, role) VALUES (:userId, 'BOOKER'), (:userId, 'OWNER')")
+    int createForUser(Long userId);
+
+    /**
+     * Add the deltas to the counters of a user in one role. The counters are changed in place,
+     * so concurrent transactions changing the same counters are serialized by the row lock only.
+     *
+     * @return The number of updated rows, zero if the user has no counters.
+     */
+    @Modifying
+    @Query(nativeQuery = true,
+            value = "UPDATE booking_counters SET total_count = total_count + :total, " +
+                    "current_count = current_count + :current, past_count = past_count + :past, " +
+                    "future_count = future_count + :future, waiting_count = waiting_count + :waiting, " +
+                    "rejected_count = rejected_count + :rejected " +
+                    "WHERE user_id = :userId AND role = :role")
+    int increment(Long userId, String role, long total, long current, long past, long future, long waiting,
+                  long rejected);
+
+    /**
+     * Lock the counters of the owner and of the bookers in the order of their keys, so concurrent transactions
+     * changing several counters wait for each other instead of deadlocking.
+     *
+     * @param ownerId   The ID of the owner user.
+     * @param bookerIds The IDs of the booker users.
+     * @return The keys of the locked counters.
+     */
+    @Query(nativeQuery = true,
+            value = "SELECT c.user_id AS userId, c.role AS role FROM booking_counters AS c " +
+                    "WHERE (c.user_id = :ownerId AND c.role = 'OWNER') OR (c.user_id IN (:bookerIds) AND c.role = 'BOOKER') " +
+                    "ORDER BY c.user_id, c.role FOR UPDATE")
+    List<BookingCounterKeyView> findAllForUpdateInOrder(Long ownerId, Collection<Long> bookerIds);
+
+    /**
+     * Add the status deltas of every booking to the counters of its booker with one statement,
+     * whatever the number of the bookings and of their bookers.
+     *
+     * @param bookingIds The IDs of the bookings.
+     * @param bookerIds  The IDs of the bookers whose counters are changed.
+     * @param waiting    The delta of the WAITING counter per booking.
+     * @param rejected   The delta of the REJECTED counter per booking.
+     * @return The number of updated rows.
+     */
+    @Modifying
+    @Query(nativeQuery = true,
+            value = "UPDATE booking_counters AS c " +
+                    "SET waiting_count = waiting_count + :waiting * " +
+                    "(SELECT COUNT(*) FROM bookings AS b WHERE b.id IN (:bookingIds) AND b.booker_id = c.user_id), " +
+                    "rejected_count = rejected_count + :rejected * " +
+                    "(SELECT COUNT(*) FROM bookings AS b WHERE b.id IN (:bookingIds) AND b.booker_id = c.user_id) " +
+                    "WHERE c.role = 'BOOKER' AND c.user_id IN (:bookerIds)")
+    int incrementStatusAtBookers(Collection<Long> bookingIds, Collection<Long> bookerIds, long waiting, long rejected);
+
+    /**
+     * Create the counters of a booker user from the bookings of the user as the current transaction sees them,
+     * if the user has none.
+     *
+     * @param userId The ID of the user.
+     * @return The number of created rows.
+     */
+    @Modifying
+    @Query(nativeQuery = true,
+            value = "MERGE INTO booking_counters AS c " +
+                    "USING (SELECT CAST(:userId AS BIGINT) AS user_id, COUNT(b.id) AS total_count, " +
+                    "COUNT(CASE WHEN b.phase = 'CURRENT' THEN 1 END) AS current_count, " +
+                    "COUNT(CASE WHEN b.phase = 'PAST' THEN 1 END) AS past_count, " +
+                    "COUNT(CASE WHEN b.phase = 'FUTURE' THEN 1 END) AS future_count, " +
+                    "COUNT(CASE WHEN b.status = 'WAITING' THEN 1 END) AS waiting_count, " +
+                    "COUNT(CASE WHEN b.status = 'REJECTED' THEN 1 END) AS rejected_count " +
+                    "FROM bookings AS b WHERE b.booker_id = :userId) AS s " +
+                    "ON c.user_id = s.user_id AND c.role = 'BOOKER' " +
+                    "WHEN NOT MATCHED THEN INSERT (user_id, role, total_count, current_count, past_count, future_count, " +
+                    "waiting_count, rejected_count) VALUES (s.user_id, 'BOOKER', s.total_count, s.current_count, " +
+                    "s.past_count, s.future_count, s.waiting_count, s.rejected_count)")
+    int createFromBookingsAtBooker(Long userId);
+
+    /**
+     * Create the counters of an owner user from the bookings of the items of the user as the current transaction
+     * sees them, if the user has none.
+     *
+     * @param userId The ID of the user.
+     * @return The number of created rows.
+     */
+    @Modifying
+    @Query(nativeQuery = true,
+            value = "MERGE INTO booking_counters AS c " +
+                    "USING (SELECT CAST(:userId AS BIGINT) AS user_id, COUNT(b.id) AS total_count, " +
+                    "COUNT(CASE WHEN b.phase = 'CURRENT' THEN 1 END) AS current_count, " +
+                    "COUNT(CASE WHEN b.phase = 'PAST' THEN 1 END) AS past_count, " +
+                    "COUNT(CASE WHEN b.phase = 'FUTURE' THEN 1 END) AS future_count, " +
+                    "COUNT(CASE WHEN b.status = 'WAITING' THEN 1 END) AS waiting_count, " +
+                    "COUNT(CASE WHEN b.status = 'REJECTED' THEN 1 END) AS rejected_count " +
+                    "FROM bookings AS b JOIN items AS i ON i.id = b.item_id WHERE i.owner_id = :userId) AS s " +
+                    "ON c.user_id = s.user_id AND c.role = 'OWNER' " +
+                    "WHEN NOT MATCHED THEN INSERT (user_id, role, total_count, current_count, past_count, future_count, " +
+                    "waiting_count, rejected_count) VALUES (s.user_id, 'OWNER', s.total_count, s.current_count, " +
+                    "s.past_count, s.future_count, s.waiting_count, s.rejected_count)")
+    int createFromBookingsAtOwner(Long userId);
+}
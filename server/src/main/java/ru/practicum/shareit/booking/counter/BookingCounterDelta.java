@@ -0,0 +1,80 @@
+package ru.practicum.shareit.booking.counter;
+
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.model.Phase;
+import ru.practicum.shareit.booking.model.Status;
+
+/**
+ * The BookingCounterDelta class accumulates the changes of the booking counters of a user in one role,
+ * so every counter row is updated once per transaction.
+ */
+@Getter
+@ToString
+public class BookingCounterDelta {
+
+    private long total;
+
+    private long current;
+
+    private long past;
+
+    private long future;
+
+    private long waiting;
+
+    private long rejected;
+
+    /**
+     * Count the bookings in the phase and the status, or uncount them if the count is negative.
+     */
+    public void addBookings(Phase phase, Status status, long count) {
+
+        total += count;
+        addPhase(phase, count);
+        addStatus(status, count);
+    }
+
+    public void addPhase(Phase phase, long count) {
+
+        switch (phase) {
+            case CURRENT:
+                current += count;
+                break;
+            case PAST:
+                past += count;
+                break;
+            case FUTURE:
+                future += count;
+                break;
+            default:
+                throw new IllegalArgumentException(String.format("Unknown phase: %s", phase));
+        }
+    }
+
+    public void addStatus(Status status, long count) {
+
+        if (status == Status.WAITING) {
+            waiting += count;
+        } else if (status == Status.REJECTED) {
+            rejected += count;
+        }
+    }
+
+    public void movePhase(Phase from, Phase to, long count) {
+
+        addPhase(from, -count);
+        addPhase(to, count);
+    }
+
+    public void moveStatus(Status from, Status to, long count) {
+
+        addStatus(from, -count);
+        addStatus(to, count);
+    }
+
+    public boolean isEmpty() {
+
+        return total == 0 && current == 0 && past == 0 && future == 0 && waiting == 0 && rejected == 0;
+    }
+}
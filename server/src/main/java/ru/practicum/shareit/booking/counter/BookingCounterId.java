@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.counter;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.util.Comparator;
+
+/**
+ * The BookingCounterId class is the key of the booking counters of a user in one role.
+ * The counters are always updated in the order of their keys, so concurrent updates never deadlock.
+ */
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class BookingCounterId implements Serializable, Comparable<BookingCounterId> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Comparator<BookingCounterId> ORDER = Comparator.comparing(BookingCounterId::getUserId)
+            .thenComparing(BookingCounterId::getRole);
+
+    private Long userId;
+
+    private BookingRole role;
+
+    @Override
+    public int compareTo(BookingCounterId other) {
+
+        return ORDER.compare(this, other);
+    }
+}
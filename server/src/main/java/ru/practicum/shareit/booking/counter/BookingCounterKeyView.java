@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.counter;
+
+/**
+ * The BookingCounterKeyView interface is a projection of the key of the booking counters of a user in one role.
+ */
+public interface BookingCounterKeyView {
+
+    Long getUserId();
+
+    BookingRole getRole();
+}
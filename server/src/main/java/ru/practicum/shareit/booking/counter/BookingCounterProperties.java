@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking.counter;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * The BookingCounterProperties class holds the settings of the sweeper of the booking counters.
+ */
+@Getter
+@Setter
+@ToString
+@ConfigurationProperties(prefix = "shareit.booking.counters")
+public class BookingCounterProperties {
+
+    /**
+     * Whether the sweeper runs on this instance. The sweepers of several instances take turns,
+     * so it can be left to some of them only.
+     */
+    private boolean sweeperEnabled = true;
+
+    /**
+     * The delay between the runs of the sweeper. It bounds the time the CURRENT, PAST and FUTURE counters
+     * lag behind the bookings starting or ending.
+     */
+    private Duration sweepInterval = Duration.ofMinutes(1);
+
+    /**
+     * The maximum number of bookings moved to their next phase in one transaction.
+     */
+    private int batchSize = 500;
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.booking.counter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dao.BookingDAO;
+import ru.practicum.shareit.booking.dao.BookingPhaseView;
+import ru.practicum.shareit.booking.model.Phase;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The BookingCounterSweeper class moves the bookings which have started or ended to their next phase
+ * and moves them between the FUTURE, CURRENT and PAST counters of their booker and owner accordingly.
+ * Only the bookings whose phase is behind the time are read, through the (phase, start) and (phase, end) indexes.
+ * A batch is read, moved and counted in one transaction with the bookings locked, so the sweepers of several
+ * server instances take turns. The sweeper runs periodically on a single background thread, unless the
+ * `shareit.booking.counters.sweeper-enabled` property is false. The bookings existing before the counters
+ * read as FUTURE, so the sweeper also backfills their phase batch by batch.
+ */
+@Slf4j
+@Component
+public class BookingCounterSweeper {
+
+    private final BookingDAO bookingDAO;
+    private final BookingCounters bookingCounters;
+    private final BookingCounterProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter sweptBookings;
+    private volatile ScheduledExecutorService executor;
+
+    public BookingCounterSweeper(BookingDAO bookingDAO,
+                                 BookingCounters bookingCounters,
+                                 BookingCounterProperties properties,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.bookingDAO = bookingDAO;
+        this.bookingCounters = bookingCounters;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sweptBookings = Counter.builder("shareit.booking.counters.swept")
+                .description("Number of bookings moved to their next phase by the sweeper of the booking counters")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+
+        if (!properties.isSweeperEnabled()) {
+            return;
+        }
+
+        long interval = properties.getSweepInterval().toMillis();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-counter-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::sweepQuietly, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+
+        ScheduledExecutorService currentExecutor = executor;
+        executor = null;
+        if (Objects.nonNull(currentExecutor)) {
+            currentExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Move the bookings whose phase is behind the time batch by batch until none is left.
+     *
+     * @return The number of moved bookings.
+     */
+    public int sweep() {
+
+        LocalDateTime now = LocalDateTime.now();
+        int swept = 0;
+        int batch;
+        do {
+            batch = Objects.requireNonNull(transactionTemplate.execute(status -> sweepBatch(now)));
+            swept += batch;
+        } while (batch == properties.getBatchSize());
+
+        return swept;
+    }
+
+    private int sweepBatch(LocalDateTime now) {
+
+        List<BookingPhaseView> bookings = bookingDAO.findAllWithPhaseBehindForUpdate(now, properties.getBatchSize());
+        if (bookings.isEmpty()) {
+            return 0;
+        }
+
+        Map<Phase, List<Long>> bookingIdsByPhase = new EnumMap<>(Phase.class);
+        Map<BookingCounterId, BookingCounterDelta> deltas = new TreeMap<>();
+        for (BookingPhaseView booking : bookings) {
+            Phase phase = Phase.of(booking.getStartDate(), booking.getEndDate(), now);
+            bookingIdsByPhase.computeIfAbsent(phase, key -> new ArrayList<>()).add(booking.getId());
+            BookingCounters.deltaOf(deltas, booking.getBookerId(), BookingRole.BOOKER).movePhase(booking.getPhase(), phase, 1);
+            BookingCounters.deltaOf(deltas, booking.getOwnerId(), BookingRole.OWNER).movePhase(booking.getPhase(), phase, 1);
+        }
+        bookingIdsByPhase.forEach((phase, bookingIds) -> bookingDAO.updatePhase(bookingIds, phase.name()));
+        bookingCounters.apply(deltas);
+        sweptBookings.increment(bookings.size());
+
+        return bookings.size();
+    }
+
+    private void sweepQuietly() {
+
+        try {
+            int swept = sweep();
+            if (swept > 0) {
+                log.debug("The sweeper of the booking counters moved {} bookings to their next phase.", swept);
+            }
+        } catch (RuntimeException e) {
+            log.warn("The booking counters were not swept, they are swept on the next run: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package ru.practicum.shareit.booking.counter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dao.BookingCountView;
+import ru.practicum.shareit.booking.dao.BookingDAO;
+import ru.practicum.shareit.booking.model.Phase;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * The BookingCounters class keeps the numbers of the bookings of every user per state, so the summary
+ * of the bookings of a user is read from one row. The counters are changed in the transaction changing
+ * the bookings, and the rows of the counters are locked in the order of their keys, so concurrent transactions
+ * never deadlock on them and the counters are exact once the transaction commits.
+ * A user created by an instance which does not keep the counters, or before them, has no rows: they are created
+ * on the first change or read in the current transaction, counted from the bookings of the user as the transaction
+ * sees them. The bookings are changed before their counters, so the created counters already count the change
+ * and the delta is not added to them. A transaction creating the same counters concurrently fails on their key.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingCounters {
+
+    private final BookingCounterDAO bookingCounterDAO;
+    private final BookingDAO bookingDAO;
+
+    /**
+     * Find the counters of the user in the role, creating them from the bookings of the user if missing.
+     *
+     * @param userId The ID of the user.
+     * @param role   The role of the user.
+     * @return The counters, empty if they could not be created.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<BookingCounter> findOrCreate(Long userId, BookingRole role) {
+
+        BookingCounterId id = new BookingCounterId(userId, role);
+        Optional<BookingCounter> counter = bookingCounterDAO.findById(id);
+        if (counter.isPresent()) {
+            return counter;
+        }
+        createFromBookings(id);
+
+        return bookingCounterDAO.findById(id);
+    }
+
+    /**
+     * Create the zeroed counters of a new user.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void createForUser(Long userId) {
+
+        bookingCounterDAO.createForUser(userId);
+    }
+
+    /**
+     * Count a new booking waiting for approval at its booker and at the owner of its item.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void countCreated(Long bookerId, Long ownerId, Phase phase) {
+
+        Map<BookingCounterId, BookingCounterDelta> deltas = new TreeMap<>();
+        deltaOf(deltas, bookerId, BookingRole.BOOKER).addBookings(phase, Status.WAITING, 1);
+        deltaOf(deltas, ownerId, BookingRole.OWNER).addBookings(phase, Status.WAITING, 1);
+        apply(deltas);
+    }
+
+    /**
+     * Move a booking from one status to another at its booker and at the owner of its item.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void countStatusChange(Long bookerId, Long ownerId, Status from, Status to) {
+
+        Map<BookingCounterId, BookingCounterDelta> deltas = new TreeMap<>();
+        deltaOf(deltas, bookerId, BookingRole.BOOKER).moveStatus(from, to, 1);
+        deltaOf(deltas, ownerId, BookingRole.OWNER).moveStatus(from, to, 1);
+        apply(deltas);
+    }
+
+    /**
+     * Move the bookings of an owner from one status to another with a number of statements
+     * which does not grow with the number of the bookings.
+     *
+     * @param ownerId    The ID of the owner of the booked items.
+     * @param bookingIds The IDs of the bookings which were changed from the status.
+     * @param bookerIds  The IDs of the bookers of the bookings.
+     * @param from       The status of the bookings before the change.
+     * @param to         The status of the bookings after the change.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void countStatusChanges(Long ownerId, Collection<Long> bookingIds, Collection<Long> bookerIds,
+                                   Status from, Status to) {
+
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+
+        Set<BookingCounterId> created = lockInOrder(ownerId, bookerIds);
+        BookingCounterId ownerCounterId = new BookingCounterId(ownerId, BookingRole.OWNER);
+        BookingCounterDelta ownerDelta = new BookingCounterDelta();
+        ownerDelta.moveStatus(from, to, bookingIds.size());
+        if (!ownerDelta.isEmpty() && !created.contains(ownerCounterId)) {
+            increment(ownerCounterId, ownerDelta);
+        }
+
+        List<Long> countedBookerIds = bookerIds.stream()
+                .filter(bookerId -> !created.contains(new BookingCounterId(bookerId, BookingRole.BOOKER)))
+                .collect(Collectors.toList());
+        BookingCounterDelta perBooking = new BookingCounterDelta();
+        perBooking.moveStatus(from, to, 1);
+        if (!perBooking.isEmpty() && !countedBookerIds.isEmpty()) {
+            bookingCounterDAO.incrementStatusAtBookers(bookingIds, countedBookerIds, perBooking.getWaiting(),
+                    perBooking.getRejected());
+        }
+    }
+
+    /**
+     * Uncount the bookings which are deleted together with the user at the other side of every booking.
+     * The counters of the user are deleted with the user.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void uncountUser(Long userId) {
+
+        Map<BookingCounterId, BookingCounterDelta> deltas = new TreeMap<>();
+        for (BookingCountView count : bookingDAO.countAllByBookerIdGroupByOwner(userId)) {
+            deltaOf(deltas, count.getUserId(), BookingRole.OWNER)
+                    .addBookings(count.getPhase(), count.getStatus(), -count.getCount());
+        }
+        for (BookingCountView count : bookingDAO.countAllByOwnerIdGroupByBooker(userId)) {
+            deltaOf(deltas, count.getUserId(), BookingRole.BOOKER)
+                    .addBookings(count.getPhase(), count.getStatus(), -count.getCount());
+        }
+        deltas.keySet().removeIf(id -> Objects.equals(id.getUserId(), userId));
+        // The bookings are deleted after they are uncounted, so the created counters still count them.
+        apply(deltas, false);
+    }
+
+    /**
+     * Apply the deltas of the bookings already changed in the current transaction to the counters
+     * in the order of their keys.
+     *
+     * @param deltas The deltas by the key of the counters.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Map<BookingCounterId, BookingCounterDelta> deltas) {
+
+        apply(deltas, true);
+    }
+
+    public static BookingCounterDelta deltaOf(Map<BookingCounterId, BookingCounterDelta> deltas, Long userId,
+                                              BookingRole role) {
+
+        return deltas.computeIfAbsent(new BookingCounterId(userId, role), id -> new BookingCounterDelta());
+    }
+
+    /**
+     * Apply the deltas to the counters in the order of their keys. The missing counters are created first;
+     * if the bookings are already changed, the created counters count the change and the delta is skipped for them.
+     */
+    private void apply(Map<BookingCounterId, BookingCounterDelta> deltas, boolean changed) {
+
+        new TreeMap<>(deltas).forEach((id, delta) -> {
+            if (!delta.isEmpty() && increment(id, delta) == 0 && !(createFromBookings(id) && changed)) {
+                increment(id, delta);
+            }
+        });
+    }
+
+    private int increment(BookingCounterId id, BookingCounterDelta delta) {
+
+        return bookingCounterDAO.increment(id.getUserId(), id.getRole().name(), delta.getTotal(), delta.getCurrent(),
+                delta.getPast(), delta.getFuture(), delta.getWaiting(), delta.getRejected());
+    }
+
+    /**
+     * Lock the counters of the owner and of the bookers in the order of their keys, creating the missing ones first.
+     *
+     * @return The keys of the created counters, which already count the changed bookings.
+     */
+    private Set<BookingCounterId> lockInOrder(Long ownerId, Collection<Long> bookerIds) {
+
+        Set<BookingCounterId> missing = bookerIds.stream()
+                .map(bookerId -> new BookingCounterId(bookerId, BookingRole.BOOKER))
+                .collect(Collectors.toCollection(TreeSet::new));
+        missing.add(new BookingCounterId(ownerId, BookingRole.OWNER));
+
+        bookingCounterDAO.findAllForUpdateInOrder(ownerId, bookerIds)
+                .forEach(key -> missing.remove(new BookingCounterId(key.getUserId(), key.getRole())));
+        if (missing.isEmpty()) {
+            return missing;
+        }
+        missing.removeIf(id -> !createFromBookings(id));
+        bookingCounterDAO.findAllForUpdateInOrder(ownerId, bookerIds);
+
+        return missing;
+    }
+
+    /**
+     * Create the missing counters of a user in the current transaction, counted from the bookings of the user
+     * as the transaction sees them. The counters committed by a concurrent transaction first are kept.
+     *
+     * @return Whether the counters were created.
+     */
+    private boolean createFromBookings(BookingCounterId id) {
+
+        int created = id.getRole() == BookingRole.BOOKER
+                ? bookingCounterDAO.createFromBookingsAtBooker(id.getUserId())
+                : bookingCounterDAO.createFromBookingsAtOwner(id.getUserId());
+        if (created > 0) {
+            log.info("The missing booking counters of the user with the ID - `{}` as {} are created from the bookings.",
+                    id.getUserId(), id.getRole());
+        }
+
+        return created > 0;
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.counter;
+
+/**
+ * The BookingRole enum is the side of the bookings a counter is kept for: the bookings made by the user
+ * or the bookings of the items owned by the user.
+ */
+public enum BookingRole {
+    BOOKER, OWNER
+}
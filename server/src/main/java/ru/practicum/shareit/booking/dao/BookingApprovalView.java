@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.dao;
+
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * The BookingApprovalView interface is a projection of the booking fields needed to approve or reject it in a batch.
+ */
+public interface BookingApprovalView {
+
+    Long getId();
+
+    Status getStatus();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dao;
+
+import ru.practicum.shareit.booking.model.Phase;
+import ru.practicum.shareit.booking.model.Status;
+
+/**
+ * The BookingCountView interface is a projection of the number of bookings of a user in one phase and status.
+ */
+public interface BookingCountView {
+
+    Long getUserId();
+
+    Phase getPhase();
+
+    Status getStatus();
+
+    Long getCount();
+}
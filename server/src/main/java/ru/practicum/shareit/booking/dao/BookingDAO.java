@@ -1,14 +1,20 @@
 package ru.practicum.shareit.booking.dao;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * The BookingDao interface represents a data access object for managing bookings.
@@ -18,6 +24,18 @@ import java.util.Optional;
  */
 public interface BookingDAO extends JpaRepository<Booking, Long> {
 
+    /**
+     * The select list and joins shared by the booking listing queries; every column of {@link BookingView}
+     * is read from the same row, so a page of bookings is loaded with one statement.
+     */
+    String BOOKING_VIEW_SELECT = "SELECT b.id AS id, b.start_data AS startDate, b.end_data AS endDate, b.status AS status, " +
+            "u.id AS bookerId, u.name AS bookerName, u.email AS bookerEmail, " +
+            "i.id AS itemId, i.name AS itemName, i.description AS itemDescription, " +
+            "i.available AS itemAvailable, i.request_id AS itemRequestId " +
+            "FROM bookings AS b " +
+            "JOIN users u on u.id = b.booker_id " +
+            "JOIN items i on i.id = b.item_id ";
+
     /**
      * Finds a booking by the specified IDs and returns an Optional of Booking.
      *
@@ -27,8 +45,18 @@ public interface BookingDAO extends JpaRepository<Booking, Long> {
      * @param ownerId   The owner ID to search for.
      * @return An Optional of Booking if found, empty otherwise.
      */
+    @EntityGraph(attributePaths = {"booker", "item"})
     Optional<Booking> findBookingByIdAndBooker_IdOrIdAndItem_Owner_Id(Long id, Long bookerId, Long bookingId, Long ownerId);
 
+    /**
+     * Finds a booking by ID together with its booker and item.
+     *
+     * @param id The booking ID to search for.
+     * @return An Optional of Booking if found, empty otherwise.
+     */
+    @EntityGraph(attributePaths = {"booker", "item"})
+    Optional<Booking> findWithBookerAndItemById(Long id);
+
     /**
      * Find all bookings made by a specific booker ordered by start time in descending order.
      *
@@ -38,30 +66,58 @@ public interface BookingDAO extends JpaRepository<Booking, Long> {
      * @return A Page of bookings made by the specified booker sorted by start time in descending order.
      */
     @Query(nativeQuery = true,
-            value = "SELECT * FROM bookings AS b " +
-                    "LEFT JOIN users u on u.id = b.booker_id " +
-                    "LEFT JOIN items i on i.id = b.item_id " +
+            value = BOOKING_VIEW_SELECT +
                     "WHERE b.booker_id = :bookerId " +
-                    "ORDER BY b.start_data DESC LIMIT :size OFFSET :from")
-    List<Booking> findAllByBooker(Long bookerId, Integer from, Integer size);
+                    "ORDER BY b.booker_id, b.start_data DESC, b.id DESC LIMIT :size OFFSET :from")
+    List<BookingView> findAllByBooker(Long bookerId, Integer from, Integer size);
 
     /**
-     * Find all bookings for a specific item where the status is not equal to the specified status.
+     * Find all bookings made by a specific booker ordered by start time in descending order.
+     * The page starts right after the booking the cursor points at (keyset pagination). The plain bound
+     * on the start time repeats the row comparison so that the index range is bounded by the cursor
+     * even where the row comparison itself is not used as an index condition, as on H2. The booker leads
+     * the sort key as it leads the index, so H2 too reads the page in the order of the index and stops after
+     * `size` rows; the booker listings below are sorted the same way.
      *
-     * @param itemId The ID of the item.
-     * @param status The status to exclude from results.
-     * @return A list of bookings for the specified item with status not equal to the given status.
+     * @param bookerId    The ID of the booker.
+     * @param cursorStart The start time of the last booking of the previous page.
+     * @param cursorId    The ID of the last booking of the previous page.
+     * @param size        The pagination information for the query.
+     * @return A Page of bookings made by the specified booker sorted by start time in descending order.
      */
-    List<Booking> findAllByItem_IdAndStatusIsNot(Long itemId, Status status);
+    @Query(nativeQuery = true,
+            value = BOOKING_VIEW_SELECT +
+                    "WHERE b.booker_id = :bookerId " +
+                    "AND b.start_data <= :cursorStart AND (b.start_data, b.id) < (:cursorStart, :cursorId) " +
+                    "ORDER BY b.booker_id, b.start_data DESC, b.id DESC LIMIT :size")
+    List<BookingView> findAllByBookerAfterCursor(Long bookerId, LocalDateTime cursorStart, Long cursorId, Integer size);
 
     /**
-     * Find all bookings for a list of items where the status is not equal to the specified status.
+     * Find the last and the next non-rejected booking of each of the specified items in a single query.
+     * The last booking is the one with the latest start before the specified time,
+     * the next booking is the one with the earliest start after it; ties are broken by the booking ID.
+     * At most one row is returned per item, and items without bookings are omitted.
      *
-     * @param itemsIds The list of item IDs.
-     * @param status   The status to exclude from results.
-     * @return A list of bookings for the specified items with status not equal to the given status.
+     * @param itemIds The list of item IDs.
+     * @param now     The current local date time.
+     * @return The last and next bookings of the items that have any.
      */
-    List<Booking> findAllByItem_IdInAndStatusIsNot(List<Long> itemsIds, Status status);
+    @Query(nativeQuery = true,
+            value = "SELECT t.item_id AS itemId, " +
+                    "MAX(CASE WHEN t.is_past THEN t.id END) AS lastBookingId, " +
+                    "MAX(CASE WHEN t.is_past THEN t.booker_id END) AS lastBookerId, " +
+                    "MAX(CASE WHEN NOT t.is_past THEN t.id END) AS nextBookingId, " +
+                    "MAX(CASE WHEN NOT t.is_past THEN t.booker_id END) AS nextBookerId " +
+                    "FROM (SELECT b.item_id, b.id, b.booker_id, b.start_data < :now AS is_past, " +
+                    "ROW_NUMBER() OVER (PARTITION BY b.item_id, b.start_data < :now ORDER BY " +
+                    "CASE WHEN b.start_data < :now THEN b.start_data END DESC, " +
+                    "CASE WHEN b.start_data < :now THEN b.id END DESC, " +
+                    "b.start_data, b.id) AS position " +
+                    "FROM bookings AS b " +
+                    "WHERE b.item_id IN (:itemIds) AND b.status <> 'REJECTED' AND b.start_data <> :now) AS t " +
+                    "WHERE t.position = 1 " +
+                    "GROUP BY t.item_id")
+    List<ItemBookingsView> findLastAndNextBookingsByItemIds(List<Long> itemIds, LocalDateTime now);
 
     /**
      * Find all bookings made by a specific booker where the start time is before the current time
@@ -75,12 +131,30 @@ public interface BookingDAO extends JpaRepository<Booking, Long> {
      * and the end time is after the current time, sorted by start time in descending order.
      */
     @Query(nativeQuery = true,
-            value = "SELECT * FROM bookings AS b " +
-                    "LEFT JOIN users u on u.id = b.booker_id " +
-                    "LEFT JOIN items i on i.id = b.item_id " +
+            value = BOOKING_VIEW_SELECT +
                     "WHERE b.booker_id = :bookerId AND b.start_data < :now AND b.end_data > :now " +
-                    "ORDER BY b.start_data DESC LIMIT :size OFFSET :from")
-    List<Booking> findAllByBooker_IdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime now, Integer from, Integer size);
+                    "ORDER BY b.booker_id, b.start_data DESC, b.id DESC LIMIT :size OFFSET :from")
+    List<BookingView> findAllByBooker_IdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime now, Integer from, Integer size);
+
+    /**
+     * Find all bookings made by a specific booker where the start time is before the current time
+     * and the end time is after the current time, ordered by start time in descending order.
+     * The page starts right after the booking the cursor points at (keyset pagination).
+     *
+     * @param bookerId    The ID of the booker.
+     * @param now         The current local date time.
+     * @param cursorStart The start time of the last booking of the previous page.
+     * @param cursorId    The ID of the last booking of the previous page.
+     * @param size        The pagination information for the query.
+     * @return A Page of bookings made by the specified booker where the start time is before the current time
+     * and the end time is after the current time, sorted by start time in descending order.
+     */
+    @Query(nativeQuery = true,
+            value = BOOKING_VIEW_SELECT +
+                    "WHERE b.booker_id = :bookerId AND b.start_data < :now AND b.end_data > :now " +
+                    "AND b.start_data <= :cursorStart AND (b.start_data, b.id) < (:cursorStart, :cursorId) " +
+                    "ORDER BY b.booker_id, b.start_data DESC, b.id DESC LIMIT :size")
+    List<BookingView> findAllByBooker_IdAndStartIsBeforeAndEndIsAfterAfterCursor(Long bookerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Integer size);
 
     /**
      * Find all bookings made by a specific booker where the end time is before the current time, ordered by start time in descending order.
@@ -92,12 +166,28 @@ public interface BookingDAO extends JpaRepository<Booking, Long> {
      * @return A Page of bookings made by the specified booker where the end time is before the current time, sorted by start time in descending order.
      */
     @Query(nativeQuery = true,
-            value = "SELECT * FROM bookings AS b " +
-                    "LEFT JOIN users u on u.id = b.booker_id " +
-                    "LEFT JOIN items i on i.id = b.item_id " +
+            value = BOOKING_VIEW_SELECT +
                     "WHERE b.booker_id = :bookerId AND b.end_data < :now " +
-                    "ORDER BY b.start_data DESC LIMIT :size OFFSET :from")
-    List<Booking> findAllByBooker_IdAndEndIsBefore(Long bookerId, LocalDateTime now, Integer from, Integer size);
+                    "ORDER BY b.booker_id, b.start_data DESC, b.id DESC LIMIT :size OFFSET :from")
+    List<BookingView> findAllByBooker_IdAndEndIsBefore(Long bookerId, LocalDateTime now, Integer from, Integer size);
+
+    /**
+     * Find all bookings made by a specific booker where the end time is before the current time, ordered by start time in descending order.
+     * The page starts right after the booking the cursor points at (keyset pagination).
+     *
+     * @param bookerId    The ID of the booker.
+     * @param now         The current local date time.
+     * @param cursorStart The start time of the last booking of the previous page.
+     * @param cursorId    The ID of the last booking of the previous page.
+     * @param size        The pagination information for the query.
+     * @return A Page of bookings made by the specified booker where the end time is before the current time, sorted by start time in descending order.
+     */
+    @Query(nativeQuery = true,
+            value = BOOKING_VIEW_SELECT +
+                    "WHERE b.booker_id = :bookerId AND b.end_data < :now " +
+                    "AND b.start_data <= :cursorStart AND (b.start_data, b.id) < (:cursorStart, :cursorId) " +
+                    "ORDER BY b.booker_id, b.start_data DESC, b.id DESC LIMIT :size")
+    List<BookingView> findAllByBooker_IdAndEndIsBeforeAfterCursor(Long bookerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Integer size);
 
     /**
      * Find all bookings made by a specific booker where the start time is after the specified time,
@@ -111,12 +201,30 @@ public interface BookingDAO extends JpaRepository<Booking, Long> {
      * sorted by start time in descending order.
      */
     @Query(nativeQuery = true,
-            value = "SELECT * FROM bookings AS b " +
-                    "LEFT JOIN users u on u.id = b.booker_id " +
-                    "LEFT JOIN items i on i.id = b.item_id " +
+            value = BOOKING_VIEW_SELECT +
+                    "WHERE b.booker_id = :bookerId AND b.start_data > :now " +
+                    "ORDER BY b.booker_id, b.start_data DESC, b.id DESC LIMIT :size OFFSET :from")
+    List<BookingView> findAllByBooker_IdAndStartIsAfter(Long bookerId, LocalDateTime now, Integer from, Integer size);
+
+    /**
+     * Find all bookings made by a specific booker where the start time is after the specified time,
+     * ordered by start time in descending order.
+     * The page starts right after the booking the cursor points at (keyset pagination).
+     *
+     * @param bookerId    The ID of the booker.
+     * @param now         The current local date time.
+     * @param cursorStart The start time of the last booking of the previous page.
+     * @param cursorId    The ID of the last booking of the previous page.
+     * @param size        The pagination information for the query.
+     * @return A Page of bookings made by the specified booker where the start time is after the specified time,
+     * sorted by start time in descending order.
+     */
+    @Query(nativeQuery = true,
+            value = BOOKING_VIEW_SELECT +
                     "WHERE b.booker_id = :bookerId AND b.start_data > :now " +
-                    "ORDER BY b.start_data DESC LIMIT :size OFFSET :from")
-    List<Booking> findAllByBooker_IdAndStartIsAfter(Long bookerId, LocalDateTime now, Integer from, Integer size);
+                    "AND b.start_data <= :cursorStart AND (b.start_data, b.id) < (:cursorStart, :cursorId) " +
+                    "ORDER BY b.booker_id, b.start_data DESC, b.id DESC LIMIT :size")
+    List<BookingView> findAllByBooker_IdAndStartIsAfterAfterCursor(Long bookerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Integer size);
 
     /**
      * Find all bookings made by a specific booker with the specified status, ordered by start time in descending order.
@@ -128,12 +236,28 @@ public interface BookingDAO extends JpaRepository<Booking, Long> {
      * @return A Page of bookings made by the specified booker with the specified status, sorted by start time in descending order.
      */
     @Query(nativeQuery = true,
-            value = "SELECT * FROM bookings AS b " +
-                    "LEFT JOIN users u on u.id = b.booker_id " +
-                    "LEFT JOIN items i on i.id = b.item_id " +
+            value = BOOKING_VIEW_SELECT +
                     "WHERE b.booker_id = :bookerId AND b.status = :status " +
-                    "ORDER BY b.start_data DESC LIMIT :size OFFSET :from")
-    List<Booking> findAllByBooker_IdAndStatus(Long bookerId, String status, Integer from, Integer size);
+                    "ORDER BY b.booker_id, b.start_data DESC, b.id DESC LIMIT :size OFFSET :from")
+    List<BookingView> findAllByBooker_IdAndStatus(Long bookerId, String status, Integer from, Integer size);
+
+    /**
+     * Find all bookings made by a specific booker with the specified status, ordered by start time in descending order.
+     * The page starts right after the booking the cursor points at (keyset pagination).
+     *
+     * @param bookerId    The ID of the booker.
+     * @param status      The status of the bookings to retrieve.
+     * @param cursorStart The start time of the last booking of the previous page.
+     * @param cursorId    The ID of the last booking of the previous page.
+     * @param size        The pagination information for the query.
+     * @return A Page of bookings made by the specified booker with the specified status, sorted by start time in descending order.
+     */
+    @Query(nativeQuery = true,
+            value = BOOKING_VIEW_SELECT +
+                    "WHERE b.booker_id = :bookerId AND b.status = :status " +
+                    "AND b.start_data <= :cursorStart AND (b.start_data, b.id) < (:cursorStart, :cursorId) " +
+                    "ORDER BY b.booker_id, b.start_data DESC, b.id DESC LIMIT :size")
+    List<BookingView> findAllByBooker_IdAndStatusAfterCursor(Long bookerId, String status, LocalDateTime cursorStart, Long cursorId, Integer size);
 
     /**
      * Find all bookings for items owned by a specific user, ordered by start time in descending order.
@@ -144,12 +268,29 @@ public interface BookingDAO extends JpaRepository<Booking, Long> {
      * @return A Page of bookings for items owned by the specified user, sorted by start time in descending order.
      */
     @Query(nativeQuery = true,
-            value = "SELECT * FROM bookings AS b " +
-                    "LEFT JOIN users u on u.id = b.booker_id " +
-                    "LEFT JOIN items i on i.id = b.item_id " +
-                    "WHERE i.owner_id = :ownerId " +
-                    "ORDER BY b.start_data DESC LIMIT :size OFFSET :from")
-    List<Booking> findAllByItem_Owner_Id(Long ownerId, Integer from, Integer size);
+            value = BOOKING_VIEW_SELECT +
+                    "WHERE b.owner_id = :ownerId " +
+                    "ORDER BY b.owner_id, b.start_data DESC, b.id DESC LIMIT :size OFFSET :from")
+    List<BookingView> findAllByItem_Owner_Id(Long ownerId, Integer from, Integer size);
+
+    /**
+     * Find all bookings for items owned by a specific user, ordered by start time in descending order.
+     * The page starts right after the booking the cursor points at (keyset pagination). The owner of the item
+     * is copied to the booking, so the owner listings read the `(owner_id, start_data, id)` index in its order
+     * like the booker listings do, instead of joining every booking of the items of the owner and sorting them.
+     *
+     * @param ownerId     The ID of the owner of the items.
+     * @param cursorStart The start time of the last booking of the previous page.
+     * @param cursorId    The ID of the last booking of the previous page.
+     * @param size        The pagination information for the query.
+     * @return A Page of bookings for items owned by the specified user, sorted by start time in descending order.
+     */
+    @Query(nativeQuery = true,
+            value = BOOKING_VIEW_SELECT +
+                    "WHERE b.owner_id = :ownerId " +
+                    "AND b.start_data <= :cursorStart AND (b.start_data, b.id) < (:cursorStart, :cursorId) " +
+                    "ORDER BY b.owner_id, b.start_data DESC, b.id DESC LIMIT :size")
+    List<BookingView> findAllByItem_Owner_IdAfterCursor(Long ownerId, LocalDateTime cursorStart, Long cursorId, Integer size);
 
     /**
      * Find all bookings for items owned by a specific user where the start time is before the specified time
@@ -163,12 +304,30 @@ public interface BookingDAO extends JpaRepository<Booking, Long> {
      * and the end time is after the specified time, sorted by start time in descending order.
      */
     @Query(nativeQuery = true,
-            value = "SELECT * FROM bookings AS b " +
-                    "LEFT JOIN users u on u.id = b.booker_id " +
-                    "LEFT JOIN items i on i.id = b.item_id " +
-                    "WHERE i.owner_id = :ownerId AND b.start_data < :now AND b.end_data > :now " +
-                    "ORDER BY b.start_data DESC LIMIT :size OFFSET :from")
-    List<Booking> findAllByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(Long ownerId, LocalDateTime now, Integer from, Integer size);
+            value = BOOKING_VIEW_SELECT +
+                    "WHERE b.owner_id = :ownerId AND b.start_data < :now AND b.end_data > :now " +
+                    "ORDER BY b.owner_id, b.start_data DESC, b.id DESC LIMIT :size OFFSET :from")
+    List<BookingView> findAllByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(Long ownerId, LocalDateTime now, Integer from, Integer size);
+
+    /**
+     * Find all bookings for items owned by a specific user where the start time is before the specified time
+     * and the end time is after the specified time, ordered by start time in descending order.
+     * The page starts right after the booking the cursor points at (keyset pagination).
+     *
+     * @param ownerId     The ID of the owner of the items.
+     * @param now         The current local date time.
+     * @param cursorStart The start time of the last booking of the previous page.
+     * @param cursorId    The ID of the last booking of the previous page.
+     * @param size        The pagination information for the query.
+     * @return A Page of bookings for items owned by the specified user where the start time is before the specified time
+     * and the end time is after the specified time, sorted by start time in descending order.
+     */
+    @Query(nativeQuery = true,
+            value = BOOKING_VIEW_SELECT +
+                    "WHERE b.owner_id = :ownerId AND b.start_data < :now AND b.end_data > :now " +
+                    "AND b.start_data <= :cursorStart AND (b.start_data, b.id) < (:cursorStart, :cursorId) " +
+                    "ORDER BY b.owner_id, b.start_data DESC, b.id DESC LIMIT :size")
+    List<BookingView> findAllByItem_Owner_IdAndStartIsBeforeAndEndIsAfterAfterCursor(Long ownerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Integer size);
 
     /**
      * Find all bookings for items owned by a specific user where the end time is before the specified time,
@@ -182,12 +341,30 @@ public interface BookingDAO extends JpaRepository<Booking, Long> {
      * sorted by start time in descending order.
      */
     @Query(nativeQuery = true,
-            value = "SELECT * FROM bookings AS b " +
-                    "LEFT JOIN users u on u.id = b.booker_id " +
-                    "LEFT JOIN items i on i.id = b.item_id " +
-                    "WHERE i.owner_id = :ownerId AND b.end_data < :now " +
-                    "ORDER BY b.start_data DESC LIMIT :size OFFSET :from")
-    List<Booking> findAllByItem_Owner_IdAndEndIsBefore(Long ownerId, LocalDateTime now, Integer from, Integer size);
+            value = BOOKING_VIEW_SELECT +
+                    "WHERE b.owner_id = :ownerId AND b.end_data < :now " +
+                    "ORDER BY b.owner_id, b.start_data DESC, b.id DESC LIMIT :size OFFSET :from")
+    List<BookingView> findAllByItem_Owner_IdAndEndIsBefore(Long ownerId, LocalDateTime now, Integer from, Integer size);
+
+    /**
+     * Find all bookings for items owned by a specific user where the end time is before the specified time,
+     * ordered by start time in descending order.
+     * The page starts right after the booking the cursor points at (keyset pagination).
+     *
+     * @param ownerId     The ID of the owner of the items.
+     * @param now         The current local date time.
+     * @param cursorStart The start time of the last booking of the previous page.
+     * @param cursorId    The ID of the last booking of the previous page.
+     * @param size        The pagination information for the query.
+     * @return A Page of bookings for items owned by the specified user where the end time is before the specified time,
+     * sorted by start time in descending order.
+     */
+    @Query(nativeQuery = true,
+            value = BOOKING_VIEW_SELECT +
+                    "WHERE b.owner_id = :ownerId AND b.end_data < :now " +
+                    "AND b.start_data <= :cursorStart AND (b.start_data, b.id) < (:cursorStart, :cursorId) " +
+                    "ORDER BY b.owner_id, b.start_data DESC, b.id DESC LIMIT :size")
+    List<BookingView> findAllByItem_Owner_IdAndEndIsBeforeAfterCursor(Long ownerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Integer size);
 
     /**
      * Find all bookings for items owned by a specific user where the start time is after the specified time,
@@ -201,12 +378,30 @@ public interface BookingDAO extends JpaRepository<Booking, Long> {
      * sorted by start time in descending order.
      */
     @Query(nativeQuery = true,
-            value = "SELECT * FROM bookings AS b " +
-                    "LEFT JOIN users u on u.id = b.booker_id " +
-                    "LEFT JOIN items i on i.id = b.item_id " +
-                    "WHERE i.owner_id = :ownerId AND b.start_data > :now " +
-                    "ORDER BY b.start_data DESC LIMIT :size OFFSET :from")
-    List<Booking> findAllByItem_Owner_IdAndStartIsAfter(Long ownerId, LocalDateTime now, Integer from, Integer size);
+            value = BOOKING_VIEW_SELECT +
+                    "WHERE b.owner_id = :ownerId AND b.start_data > :now " +
+                    "ORDER BY b.owner_id, b.start_data DESC, b.id DESC LIMIT :size OFFSET :from")
+    List<BookingView> findAllByItem_Owner_IdAndStartIsAfter(Long ownerId, LocalDateTime now, Integer from, Integer size);
+
+    /**
+     * Find all bookings for items owned by a specific user where the start time is after the specified time,
+     * ordered by start time in descending order.
+     * The page starts right after the booking the cursor points at (keyset pagination).
+     *
+     * @param ownerId     The ID of the owner of the items.
+     * @param now         The current local date time.
+     * @param cursorStart The start time of the last booking of the previous page.
+     * @param cursorId    The ID of the last booking of the previous page.
+     * @param size        The pagination information for the query.
+     * @return A Page of bookings for items owned by the specified user where the start time is after the specified time,
+     * sorted by start time in descending order.
+     */
+    @Query(nativeQuery = true,
+            value = BOOKING_VIEW_SELECT +
+                    "WHERE b.owner_id = :ownerId AND b.start_data > :now " +
+                    "AND b.start_data <= :cursorStart AND (b.start_data, b.id) < (:cursorStart, :cursorId) " +
+                    "ORDER BY b.owner_id, b.start_data DESC, b.id DESC LIMIT :size")
+    List<BookingView> findAllByItem_Owner_IdAndStartIsAfterAfterCursor(Long ownerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Integer size);
 
     /**
      * Find all bookings for items owned by a specific user with the specified status,
@@ -220,12 +415,30 @@ public interface BookingDAO extends JpaRepository<Booking, Long> {
      * sorted by start time in descending order.
      */
     @Query(nativeQuery = true,
-            value = "SELECT * FROM bookings AS b " +
-                    "LEFT JOIN users u on u.id = b.booker_id " +
-                    "LEFT JOIN items i on i.id = b.item_id " +
-                    "WHERE i.owner_id = :ownerId AND b.status = :status " +
-                    "ORDER BY b.start_data DESC LIMIT :size OFFSET :from")
-    List<Booking> findAllByItem_Owner_IdAndStatus(Long ownerId, String status, Integer from, Integer size);
+            value = BOOKING_VIEW_SELECT +
+                    "WHERE b.owner_id = :ownerId AND b.status = :status " +
+                    "ORDER BY b.owner_id, b.start_data DESC, b.id DESC LIMIT :size OFFSET :from")
+    List<BookingView> findAllByItem_Owner_IdAndStatus(Long ownerId, String status, Integer from, Integer size);
+
+    /**
+     * Find all bookings for items owned by a specific user with the specified status,
+     * ordered by start time in descending order.
+     * The page starts right after the booking the cursor points at (keyset pagination).
+     *
+     * @param ownerId     The ID of the owner of the items.
+     * @param status      The status of the bookings to retrieve.
+     * @param cursorStart The start time of the last booking of the previous page.
+     * @param cursorId    The ID of the last booking of the previous page.
+     * @param size        The pagination information for the query.
+     * @return A Page of bookings for items owned by the specified user with the specified status,
+     * sorted by start time in descending order.
+     */
+    @Query(nativeQuery = true,
+            value = BOOKING_VIEW_SELECT +
+                    "WHERE b.owner_id = :ownerId AND b.status = :status " +
+                    "AND b.start_data <= :cursorStart AND (b.start_data, b.id) < (:cursorStart, :cursorId) " +
+                    "ORDER BY b.owner_id, b.start_data DESC, b.id DESC LIMIT :size")
+    List<BookingView> findAllByItem_Owner_IdAndStatusAfterCursor(Long ownerId, String status, LocalDateTime cursorStart, Long cursorId, Integer size);
 
     /**
      * Check if a booking exists by item ID, booker ID, status, and end time before the specified time.
@@ -239,13 +452,200 @@ public interface BookingDAO extends JpaRepository<Booking, Long> {
     boolean existsByItem_IdAndBooker_IdAndStatusAndEndIsBefore(Long itemId, Long bookerId, Status status, LocalDateTime now);
 
     /**
-     * Update the status of a booking by booking ID.
+     * Find the intervals of the WAITING and APPROVED bookings of an item which have not ended yet.
+     *
+     * @param itemId The ID of the item.
+     * @param now    The current local date time.
+     * @return The intervals sorted by the start of the booking.
+     */
+    @Query(nativeQuery = true,
+            value = "SELECT b.id AS id, b.start_data AS startDate, b.end_data AS endDate " +
+                    "FROM bookings AS b " +
+                    "WHERE b.item_id = :itemId AND b.status IN ('WAITING', 'APPROVED') AND b.end_data > :now " +
+                    "ORDER BY b.start_data, b.id")
+    List<BookingIntervalView> findActiveIntervalsByItemId(Long itemId, LocalDateTime now);
+
+    /**
+     * Check if a WAITING or APPROVED booking of an item, other than the excluded one, overlaps the interval `[start, end)`.
+     *
+     * @param itemId            The ID of the item.
+     * @param excludedBookingId The ID of the booking to skip, or 0 for a new booking.
+     * @param start             The start of the interval.
+     * @param end               The end of the interval.
+     * @return True if an overlapping booking exists, false otherwise.
+     */
+    @Query(nativeQuery = true,
+            value = "SELECT COUNT(*) > 0 FROM bookings AS b " +
+                    "WHERE b.item_id = :itemId AND b.id <> :excludedBookingId " +
+                    "AND b.status IN ('WAITING', 'APPROVED') AND b.start_data < :end AND b.end_data > :start")
+    boolean existsOverlapping(Long itemId, Long excludedBookingId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Find the versions of a booking, its item and its booker, if the user is the booker or the owner of the item.
      *
      * @param bookingId The ID of the booking.
-     * @param status    The new status to set for the booking.
+     * @param userId    The ID of the booker or of the owner of the item.
+     * @return The versions, or empty if the booking does not exist or is not visible to the user.
+     */
+    @Query(nativeQuery = true,
+            value = "SELECT b.version AS version, i.version AS itemVersion, u.version AS bookerVersion " +
+                    "FROM bookings AS b " +
+                    "JOIN items AS i ON i.id = b.item_id " +
+                    "JOIN users AS u ON u.id = b.booker_id " +
+                    "WHERE b.id = :bookingId AND (b.booker_id = :userId OR i.owner_id = :userId)")
+    Optional<BookingVersionView> findVersionByIdAndUserId(Long bookingId, Long userId);
+
+    /**
+     * Update the status of a booking by booking ID if neither its status nor its version changed since it was read.
+     * The version is incremented, so only one of several concurrent updates of the same booking succeeds.
+     *
+     * @param bookingId      The ID of the booking.
+     * @param expectedStatus The status of the booking when it was read.
+     * @param version        The version of the booking when it was read.
+     * @param status         The new status to set for the booking.
+     * @return The number of updated rows, 0 if the booking was changed concurrently.
      */
     @Modifying
     @Query(nativeQuery = true,
-            value = "UPDATE bookings SET status = :status WHERE id = :bookingId")
-    void approvedBooking(Long bookingId, String status);
+            value = "UPDATE bookings SET status = :status, version = version + 1 " +
+                    "WHERE id = :bookingId AND status = :expectedStatus AND version = :version")
+    int approvedBooking(Long bookingId, String expectedStatus, Long version, String status);
+
+    /**
+     * Lock the booking with the specified ID until the transaction completes, without changing it.
+     *
+     * @param bookingId The ID of the booking.
+     * @return The ID of the booking, null if it was not found.
+     */
+    @Query(nativeQuery = true, value = "SELECT b.id FROM bookings AS b WHERE b.id = :bookingId FOR UPDATE")
+    Long lockById(Long bookingId);
+
+    /**
+     * Find and lock the bookings with the specified IDs whose items belong to the owner until the transaction
+     * completes, so their statuses cannot change before they are updated. The rows are locked in the order of their
+     * IDs, and only the bookings are locked, not their items.
+     *
+     * @param bookingIds The IDs of the bookings.
+     * @param ownerId    The ID of the owner of the items.
+     * @return A list of the found bookings, bookings of other owners are skipped.
+     */
+    @Query(nativeQuery = true,
+            value = "SELECT b.id AS id, b.status AS status, b.item_id AS itemId, b.booker_id AS bookerId, " +
+                    "b.start_data AS startDate, b.end_data AS endDate " +
+                    "FROM bookings AS b " +
+                    "WHERE b.id IN (:bookingIds) " +
+                    "AND b.item_id IN (SELECT i.id FROM items AS i WHERE i.owner_id = :ownerId) " +
+                    "ORDER BY b.id FOR UPDATE")
+    List<BookingApprovalView> findAllForApprovalByIdsAndOwnerIdForUpdate(List<Long> bookingIds, Long ownerId);
+
+    /**
+     * Update the status of the bookings with the specified IDs in one statement. The bookings are locked
+     * by {@link #findAllForApprovalByIdsAndOwnerIdForUpdate(List, Long)}, so every one of them is still in the expected
+     * status.
+     *
+     * @param bookingIds     The IDs of the bookings.
+     * @param expectedStatus The status of the bookings when they were locked.
+     * @param status         The new status to set for the bookings.
+     * @return The number of updated rows.
+     */
+    @Modifying
+    @Query(nativeQuery = true,
+            value = "UPDATE bookings SET status = :status, version = version + 1 " +
+                    "WHERE id IN (:bookingIds) AND status = :expectedStatus")
+    int approvedBookings(List<Long> bookingIds, String expectedStatus, String status);
+
+    /**
+     * Find the current status of a booking by booking ID.
+     *
+     * @param bookingId The ID of the booking.
+     * @return An Optional containing the status of the booking, or empty if the booking does not exist.
+     */
+    @Query(nativeQuery = true,
+            value = "SELECT b.status FROM bookings AS b WHERE b.id = :bookingId")
+    Optional<String> findStatusById(Long bookingId);
+
+    /**
+     * Stream all bookings made by a specific booker, ordered by start time in descending order,
+     * fetching them from the database in batches. The stream must be consumed and closed inside a transaction.
+     *
+     * @param bookerId The ID of the booker.
+     * @return A stream of all bookings made by the booker.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(nativeQuery = true,
+            value = BOOKING_VIEW_SELECT +
+                    "WHERE b.booker_id = :bookerId " +
+                    "ORDER BY b.start_data DESC, b.id DESC")
+    Stream<BookingView> streamAllByBooker(Long bookerId);
+
+    /**
+     * Stream all bookings of the items owned by a specific user, ordered by start time in descending order,
+     * fetching them from the database in batches. The stream must be consumed and closed inside a transaction.
+     *
+     * @param ownerId The ID of the owner.
+     * @return A stream of all bookings of the items owned by the user.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(nativeQuery = true,
+            value = BOOKING_VIEW_SELECT +
+                    "WHERE i.owner_id = :ownerId " +
+                    "ORDER BY b.start_data DESC, b.id DESC")
+    Stream<BookingView> streamAllByItem_Owner_Id(Long ownerId);
+
+    /**
+     * Find the bookings whose phase is behind the time and lock them until the current transaction completes,
+     * so the sweeper of another server instance skips nothing and counts nothing twice.
+     *
+     * @param now  The current local date time.
+     * @param size The maximum number of bookings.
+     * @return The bookings to move to their next phase.
+     */
+    @Query(nativeQuery = true,
+            value = "SELECT b.id AS id, b.booker_id AS bookerId, " +
+                    "(SELECT i.owner_id FROM items AS i WHERE i.id = b.item_id) AS ownerId, " +
+                    "b.phase AS phase, b.start_data AS startDate, b.end_data AS endDate " +
+                    "FROM bookings AS b " +
+                    "WHERE (b.phase = 'FUTURE' AND b.start_data <= :now) OR (b.phase = 'CURRENT' AND b.end_data < :now) " +
+                    "ORDER BY b.id LIMIT :size FOR UPDATE")
+    List<BookingPhaseView> findAllWithPhaseBehindForUpdate(LocalDateTime now, Integer size);
+
+    /**
+     * Update the phase of the bookings. The version is kept, the phase is not a part of the booking representation.
+     *
+     * @param bookingIds The IDs of the bookings.
+     * @param phase      The new phase of the bookings.
+     * @return The number of updated rows.
+     */
+    @Modifying
+    @Query(nativeQuery = true,
+            value = "UPDATE bookings SET phase = :phase WHERE id IN (:bookingIds)")
+    int updatePhase(List<Long> bookingIds, String phase);
+
+    /**
+     * Count the bookings made by the booker by the owner of the item, phase and status.
+     *
+     * @param bookerId The ID of the booker.
+     * @return The numbers of bookings, the user ID of a row is the ID of the owner.
+     */
+    @Query(nativeQuery = true,
+            value = "SELECT i.owner_id AS userId, b.phase AS phase, b.status AS status, COUNT(*) AS count " +
+                    "FROM bookings AS b " +
+                    "JOIN items i on i.id = b.item_id " +
+                    "WHERE b.booker_id = :bookerId " +
+                    "GROUP BY i.owner_id, b.phase, b.status")
+    List<BookingCountView> countAllByBookerIdGroupByOwner(Long bookerId);
+
+    /**
+     * Count the bookings of the items of the owner by the booker, phase and status.
+     *
+     * @param ownerId The ID of the owner.
+     * @return The numbers of bookings, the user ID of a row is the ID of the booker.
+     */
+    @Query(nativeQuery = true,
+            value = "SELECT b.booker_id AS userId, b.phase AS phase, b.status AS status, COUNT(*) AS count " +
+                    "FROM bookings AS b " +
+                    "JOIN items i on i.id = b.item_id " +
+                    "WHERE i.owner_id = :ownerId " +
+                    "GROUP BY b.booker_id, b.phase, b.status")
+    List<BookingCountView> countAllByOwnerIdGroupByBooker(Long ownerId);
 }
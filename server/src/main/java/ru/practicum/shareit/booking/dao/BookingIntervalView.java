@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dao;
+
+import java.time.LocalDateTime;
+
+/**
+ * The BookingIntervalView interface is a projection of the time interval `[start, end)` occupied by a booking.
+ */
+public interface BookingIntervalView {
+
+    Long getId();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+}
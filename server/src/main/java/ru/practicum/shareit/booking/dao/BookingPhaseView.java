@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.dao;
+
+import ru.practicum.shareit.booking.model.Phase;
+
+import java.time.LocalDateTime;
+
+/**
+ * The BookingPhaseView interface is a projection of the booking fields needed to move it to its next phase.
+ */
+public interface BookingPhaseView {
+
+    Long getId();
+
+    Long getBookerId();
+
+    Long getOwnerId();
+
+    Phase getPhase();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+}
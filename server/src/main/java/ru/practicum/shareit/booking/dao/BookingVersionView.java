@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.dao;
+
+/**
+ * The BookingVersionView interface is a projection of the versions of a booking, its item and its booker.
+ */
+public interface BookingVersionView {
+
+    Long getVersion();
+
+    Long getItemVersion();
+
+    Long getBookerVersion();
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dao;
+
+/**
+ * The ItemBookingsView interface is a projection of the last and the next booking of an item.
+ * A getter returns null when the item has no such booking.
+ */
+public interface ItemBookingsView {
+
+    Long getItemId();
+
+    Long getLastBookingId();
+
+    Long getLastBookerId();
+
+    Long getNextBookingId();
+
+    Long getNextBookerId();
+}
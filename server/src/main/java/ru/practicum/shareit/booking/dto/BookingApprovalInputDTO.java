@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class BookingApprovalInputDTO {
+
+    @NotNull(message = "The booking IDs must not be null.")
+    private List<@NotNull(message = "The booking ID must not be null.") Long> bookingIds;
+
+    @NotNull(message = "The approved must not be null.")
+    private Boolean approved;
+}
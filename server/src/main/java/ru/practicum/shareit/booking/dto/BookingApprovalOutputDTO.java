@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import ru.practicum.shareit.booking.model.ApprovalResult;
+import ru.practicum.shareit.booking.model.Status;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingApprovalOutputDTO {
+
+    private Long bookingId;
+
+    private Status status;
+
+    private ApprovalResult result;
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.exception.ValidException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * The BookingCursor class is an opaque continuation token for keyset (seek) pagination of booking lists.
+ * It points at the last booking of a page by its `(start, id)` pair, which is the sort key of every booking listing.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class BookingCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime start;
+
+    private final Long id;
+
+    /**
+     * Creates a cursor that points at the specified booking.
+     *
+     * @param booking The last booking of the current page.
+     * @return The cursor for the next page.
+     */
+    public static BookingCursor of(BookingOutputDTO booking) {
+
+        return new BookingCursor(booking.getStart(), booking.getId());
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     *
+     * @param token The opaque cursor token.
+     * @return The decoded cursor.
+     * @throws ValidException If the token is malformed.
+     */
+    public static BookingCursor decode(String token) {
+
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+
+            return new BookingCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw ValidException.builder()
+                    .message(String.format("The cursor `%s` is invalid.", token))
+                    .build();
+        }
+    }
+
+    /**
+     * Encodes the cursor into an opaque URL-safe token.
+     *
+     * @return The cursor token.
+     */
+    public String encode() {
+
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((start + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * The BookingEventDTO class is the payload of the booking events of the outbox.
+ * It carries the owner of the item, so the events can be routed to the owner without loading the item.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class BookingEventDTO {
+
+    private Long bookingId;
+
+    private Long itemId;
+
+    private Long ownerId;
+
+    private Long bookerId;
+
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+
+    private Status status;
+}
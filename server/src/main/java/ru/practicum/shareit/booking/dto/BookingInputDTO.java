@@ -25,4 +25,6 @@ public class BookingInputDTO {
     private Long bookerId;
 
     private Long itemId;
+
+    private Long ownerId;
 }
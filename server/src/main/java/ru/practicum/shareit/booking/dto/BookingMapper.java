@@ -3,6 +3,8 @@ package ru.practicum.shareit.booking.dto;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
+import ru.practicum.shareit.booking.counter.BookingCounter;
+import ru.practicum.shareit.booking.dao.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.util.List;
@@ -20,7 +22,9 @@ public interface BookingMapper {
      */
     @Mappings({
             @Mapping(source = "bookerId", target = "booker.id"),
-            @Mapping(source = "itemId", target = "item.id")
+            @Mapping(source = "itemId", target = "item.id"),
+            @Mapping(target = "version", ignore = true),
+            @Mapping(target = "phase", ignore = true)
     })
     Booking inputDTOToEntity(BookingInputDTO inputDTO);
 
@@ -40,6 +44,34 @@ public interface BookingMapper {
      */
     List<BookingOutputDTO> toOutputDTOs(List<Booking> entities);
 
+    /**
+     * Maps the fields from a BookingView projection to a BookingOutputDto object.
+     *
+     * @param view The BookingView projection to be mapped.
+     * @return The mapped BookingOutputDto object.
+     */
+    @Mappings({
+            @Mapping(source = "startDate", target = "start"),
+            @Mapping(source = "endDate", target = "end"),
+            @Mapping(source = "bookerId", target = "booker.id"),
+            @Mapping(source = "bookerName", target = "booker.name"),
+            @Mapping(source = "bookerEmail", target = "booker.email"),
+            @Mapping(source = "itemId", target = "item.id"),
+            @Mapping(source = "itemName", target = "item.name"),
+            @Mapping(source = "itemDescription", target = "item.description"),
+            @Mapping(source = "itemAvailable", target = "item.available"),
+            @Mapping(source = "itemRequestId", target = "item.requestId")
+    })
+    BookingOutputDTO viewToOutputDTO(BookingView view);
+
+    /**
+     * Maps a list of BookingView projections to a list of BookingOutputDto objects.
+     *
+     * @param views The list of BookingView projections to be mapped.
+     * @return The list of mapped BookingOutputDto objects.
+     */
+    List<BookingOutputDTO> viewsToOutputDTOs(List<BookingView> views);
+
     /**
      * Maps the fields from a BookingOutputDTO to a BookingShortOutputDTO object.
      *
@@ -48,4 +80,13 @@ public interface BookingMapper {
      */
     @Mapping(source = "booker.id", target = "bookerId")
     BookingShortOutputDTO outputDTOToShortOutputDTO(BookingOutputDTO outputDTO);
+
+    /**
+     * Maps the booking counters of a user to a BookingSummaryOutputDTO object.
+     *
+     * @param counter The BookingCounter entity to be mapped.
+     * @return The mapped BookingSummaryOutputDTO object.
+     */
+    @Mapping(source = "total", target = "all")
+    BookingSummaryOutputDTO counterToSummaryOutputDTO(BookingCounter counter);
 }
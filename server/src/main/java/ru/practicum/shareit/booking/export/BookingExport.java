@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The BookingExport interface is an export of bookings which is written when the response body is sent.
+ */
+@FunctionalInterface
+public interface BookingExport {
+
+    /**
+     * Writes the bookings to the output stream.
+     *
+     * @param outputStream The output stream of the response body, which is not closed.
+     * @throws IOException if the output stream cannot be written.
+     */
+    void writeTo(OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dao.BookingDAO;
+import ru.practicum.shareit.booking.dao.BookingView;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.ExportFormat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The BookingExportWriter class writes the bookings of a user row by row while they are read from a database cursor,
+ * so an export of any size is written in constant memory. Every export runs in its own read-only transaction,
+ * which holds the cursor open until the last row is written.
+ * A row is a JSON booking in the NDJSON format, or a line of comma-separated values in the CSV format.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingExportWriter {
+
+    private static final String CSV_HEADER = "id,start,end,status,bookerId,bookerName,bookerEmail," +
+            "itemId,itemName,itemDescription,itemAvailable,itemRequestId";
+
+    private final BookingDAO bookingDAO;
+    private final BookingMapper bookingMapper;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void writeAllAtBooker(Long bookerId, ExportFormat format, OutputStream outputStream) throws IOException {
+
+        try (Stream<BookingView> bookings = bookingDAO.streamAllByBooker(bookerId)) {
+            write(bookings, format, outputStream);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeAllAtOwner(Long ownerId, ExportFormat format, OutputStream outputStream) throws IOException {
+
+        try (Stream<BookingView> bookings = bookingDAO.streamAllByItem_Owner_Id(ownerId)) {
+            write(bookings, format, outputStream);
+        }
+    }
+
+    private void write(Stream<BookingView> bookings, ExportFormat format, OutputStream outputStream) throws IOException {
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        Iterator<BookingView> iterator = bookings.iterator();
+
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            while (iterator.hasNext()) {
+                writer.write(toCsvRow(iterator.next()));
+                writer.write('\n');
+            }
+        } else {
+            ObjectWriter jsonWriter = objectMapper.writer();
+            while (iterator.hasNext()) {
+                writer.write(toJsonRow(jsonWriter, iterator.next()));
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    private String toJsonRow(ObjectWriter jsonWriter, BookingView booking) {
+
+        try {
+            return jsonWriter.writeValueAsString(bookingMapper.viewToOutputDTO(booking));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String toCsvRow(BookingView booking) {
+
+        return Stream.of(booking.getId(), booking.getStartDate(), booking.getEndDate(), booking.getStatus(),
+                        booking.getBookerId(), booking.getBookerName(), booking.getBookerEmail(),
+                        booking.getItemId(), booking.getItemName(), booking.getItemDescription(),
+                        booking.getItemAvailable(), booking.getItemRequestId())
+                .map(BookingExportWriter::toCsvValue)
+                .collect(Collectors.joining(","));
+    }
+
+    private static String toCsvValue(Object value) {
+
+        if (Objects.isNull(value)) {
+            return "";
+        }
+
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+
+        return text;
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.model;
+
+/**
+ * The outcome of approving or rejecting one booking of a batch.
+ * UPDATED - the status was changed, UNCHANGED - the booking already had the requested status,
+ * NOT_FOUND - the booking does not exist or its item belongs to another user,
+ * CONFLICT - the booking is no longer WAITING and cannot take the requested status.
+ */
+public enum ApprovalResult {
+    UPDATED, UNCHANGED, NOT_FOUND, CONFLICT
+}
@@ -39,4 +39,33 @@ public class Booking {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", nullable = false)
     private Item item;
+
+    /**
+     * The owner of the booked item, copied from the item so the bookings of an owner are read by index.
+     */
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Phase phase;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * The phase of a new booking is taken at the time it is inserted; the sweeper of the booking counters
+     * moves it forward afterwards. The owner is taken from the item unless it is set already.
+     */
+    @PrePersist
+    void initPhaseAndOwner() {
+
+        if (phase == null) {
+            phase = Phase.of(start, end, LocalDateTime.now());
+        }
+        if (ownerId == null && item != null && item.getOwner() != null) {
+            ownerId = item.getOwner().getId();
+        }
+    }
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * The Phase enum is the position of a booking in time, as counted by the booking counters.
+ * It matches the time-based {@link State} filters: a booking is CURRENT from its start to its end.
+ */
+public enum Phase {
+    FUTURE, CURRENT, PAST;
+
+    public static Phase of(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+
+        if (start.isAfter(now)) {
+            return FUTURE;
+        }
+
+        return end.isBefore(now) ? PAST : CURRENT;
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.push;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.dto.BookingEventDTO;
+import ru.practicum.shareit.outbox.EventType;
+
+/**
+ * The BookingChangedEvent class is published when a booking is created, approved or rejected.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class BookingChangedEvent {
+
+    private final EventType type;
+
+    private final BookingEventDTO booking;
+}
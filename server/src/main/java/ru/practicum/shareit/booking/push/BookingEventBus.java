@@ -0,0 +1,306 @@
+package ru.practicum.shareit.booking.push;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The BookingEventBus class pushes the committed booking events to the owners of the booked items
+ * as server-sent events. A stream holds no thread while it is idle: the events of a subscriber are put into
+ * a bounded queue of its own and sent by a small shared pool of delivery threads, so a slow subscriber
+ * never delays the transaction publishing the event or the other subscribers. A subscriber whose queue is full
+ * is disconnected, and an idle stream gets a heartbeat comment to keep the connection open.
+ * A write to the client blocks its delivery thread, so a write taking longer than the send timeout is treated
+ * as stalled: the subscriber is disconnected and the pool gets one more thread until the stalled write returns,
+ * so the other subscribers keep getting their events.
+ * The events are numbered in the order they are published; the events missed while disconnected are not replayed.
+ */
+@Slf4j
+@Component
+public class BookingEventBus {
+
+    private static final String SUBSCRIBED_COMMENT = "subscribed";
+    private static final String HEARTBEAT_COMMENT = "heartbeat";
+
+    private final BookingPushProperties properties;
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong lastEventId = new AtomicLong();
+    private final ThreadPoolExecutor deliveryExecutor;
+    private final ScheduledExecutorService heartbeatExecutor;
+    private final Counter droppedSubscribers;
+
+    public BookingEventBus(BookingPushProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.deliveryExecutor = new ThreadPoolExecutor(properties.getDeliveryThreads(), properties.getDeliveryThreads(),
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), daemonThreads("booking-push-"));
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(daemonThreads("booking-push-heartbeat-"));
+        this.droppedSubscribers = Counter.builder("shareit.push.dropped")
+                .description("Number of subscribers disconnected because they fell behind the booking events")
+                .register(meterRegistry);
+        Gauge.builder("shareit.push.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Number of open streams of the booking events")
+                .register(meterRegistry);
+
+        long interval = properties.getHeartbeatInterval().toMillis();
+        heartbeatExecutor.scheduleWithFixedDelay(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+        long sendTimeout = properties.getSendTimeout().toMillis();
+        heartbeatExecutor.scheduleWithFixedDelay(this::dropStalledSubscribers, sendTimeout, sendTimeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open a stream of the booking events of the items owned by the user.
+     *
+     * @param ownerId The ID of the owner user.
+     * @return The stream, which is completed by the server after the configured timeout.
+     */
+    public SseEmitter subscribe(Long ownerId) {
+
+        SseEmitter emitter = new SseEmitter(properties.getEmitterTimeout().toMillis());
+        Subscription subscription = new Subscription(ownerId, emitter);
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        // Completing the timed out stream ends the response normally, so the client simply reconnects.
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> unsubscribe(subscription));
+
+        subscriptions.computeIfAbsent(ownerId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        subscriberCount.incrementAndGet();
+        // The first comment commits the response, so the subscriber gets the headers before the first event.
+        subscription.offer(SseEmitter.event().comment(SUBSCRIBED_COMMENT));
+
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+
+        Set<Subscription> ownerSubscriptions = subscriptions.get(event.getBooking().getOwnerId());
+        if (Objects.isNull(ownerSubscriptions)) {
+            return;
+        }
+
+        String eventId = String.valueOf(lastEventId.incrementAndGet());
+        ownerSubscriptions.forEach(subscription -> subscription.offer(SseEmitter.event()
+                .id(eventId)
+                .name(event.getType().name())
+                .data(event.getBooking(), MediaType.APPLICATION_JSON)));
+    }
+
+    public int getSubscriberCount() {
+
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void stop() {
+
+        heartbeatExecutor.shutdownNow();
+        deliveryExecutor.shutdownNow();
+        subscriptions.values().forEach(ownerSubscriptions -> ownerSubscriptions.forEach(Subscription::close));
+    }
+
+    private void sendHeartbeats() {
+
+        subscriptions.values().forEach(ownerSubscriptions -> ownerSubscriptions
+                .forEach(subscription -> subscription.offer(SseEmitter.event().comment(HEARTBEAT_COMMENT))));
+    }
+
+    private void dropStalledSubscribers() {
+
+        long now = System.nanoTime();
+        subscriptions.values().forEach(ownerSubscriptions -> ownerSubscriptions
+                .forEach(subscription -> subscription.dropIfStalled(now)));
+    }
+
+    /**
+     * Replace the delivery thread blocked by a stalled write, or remove the replacement once the write returned.
+     */
+    private synchronized void resizeDeliveryPool(int delta) {
+
+        int size = deliveryExecutor.getCorePoolSize() + delta;
+        if (delta > 0) {
+            deliveryExecutor.setMaximumPoolSize(size);
+            deliveryExecutor.setCorePoolSize(size);
+        } else {
+            deliveryExecutor.setCorePoolSize(size);
+            deliveryExecutor.setMaximumPoolSize(size);
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+
+        if (!subscription.closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        subscriptions.computeIfPresent(subscription.ownerId, (ownerId, ownerSubscriptions) -> {
+            ownerSubscriptions.remove(subscription);
+            return ownerSubscriptions.isEmpty() ? null : ownerSubscriptions;
+        });
+        subscriberCount.decrementAndGet();
+    }
+
+    private static ThreadFactory daemonThreads(String namePrefix) {
+
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * A stream of one subscriber. The queued events are sent by one delivery thread at a time, in order.
+     */
+    private final class Subscription {
+
+        private final Long ownerId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // The start of the write in progress, zero when there is none, and whether the write was found stalled;
+        // both are guarded by the subscription.
+        private long sendStartedAt;
+        private boolean stalled;
+
+        private Subscription(Long ownerId, SseEmitter emitter) {
+            this.ownerId = ownerId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        }
+
+        private void offer(SseEmitter.SseEventBuilder event) {
+
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                log.warn("The subscriber of the booking events of the owner with the ID - `{}` fell behind and is disconnected.",
+                        ownerId);
+                droppedSubscribers.increment();
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                deliveryExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && Objects.nonNull(event = queue.poll())) {
+                    send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("The stream of the booking events of the owner with the ID - `{}` is closed: {}",
+                        ownerId, e.getMessage());
+                unsubscribe(this);
+                queue.clear();
+                return;
+            } finally {
+                draining.set(false);
+            }
+
+            // An event offered after the last poll and before the flag was cleared is sent by another run.
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+
+            synchronized (this) {
+                sendStartedAt = System.nanoTime();
+            }
+            try {
+                emitter.send(event);
+            } finally {
+                boolean wasStalled;
+                synchronized (this) {
+                    sendStartedAt = 0;
+                    wasStalled = stalled;
+                }
+                if (wasStalled) {
+                    resizeDeliveryPool(-1);
+                    completeQuietly();
+                }
+            }
+        }
+
+        /**
+         * Disconnect the subscriber if its write has been in progress for longer than the send timeout.
+         * The emitter is completed by the delivery thread once the write returns, as it is locked by the write.
+         */
+        private void dropIfStalled(long now) {
+
+            synchronized (this) {
+                if (stalled || sendStartedAt == 0 || now - sendStartedAt < properties.getSendTimeout().toNanos()) {
+                    return;
+                }
+                stalled = true;
+                // Grown under the lock of the subscription, so the pool is never shrunk for this write first.
+                resizeDeliveryPool(1);
+            }
+            log.warn("The write to the subscriber of the booking events of the owner with the ID - `{}` stalled, " +
+                    "the subscriber is disconnected.", ownerId);
+            droppedSubscribers.increment();
+            unsubscribe(this);
+            queue.clear();
+        }
+
+        private void close() {
+
+            unsubscribe(this);
+            queue.clear();
+            completeQuietly();
+        }
+
+        private void completeQuietly() {
+
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                log.debug("The stream of the booking events is already completed: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.push;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The BookingPushConfig class enables the settings of the streams of the booking events.
+ */
+@Configuration
+@EnableConfigurationProperties(BookingPushProperties.class)
+public class BookingPushConfig {
+}
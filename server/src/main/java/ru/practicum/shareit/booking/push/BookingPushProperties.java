@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking.push;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * The BookingPushProperties class holds the settings of the streams of the booking events pushed to the owners.
+ */
+@Getter
+@Setter
+@ToString
+@ConfigurationProperties(prefix = "shareit.push")
+public class BookingPushProperties {
+
+    /**
+     * The time after which a stream is closed by the server. The client is expected to reconnect.
+     */
+    private Duration emitterTimeout = Duration.ofMinutes(30);
+
+    /**
+     * The maximum number of events waiting to be sent to one subscriber. A subscriber which falls further behind
+     * is disconnected instead of holding the events in memory.
+     */
+    private int queueCapacity = 32;
+
+    /**
+     * The delay between the heartbeat comments sent to an idle stream. It must be shorter than the read timeouts
+     * of the gateway and of the proxies in between, so an idle stream is not closed by them.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * The number of threads sending the queued events to the subscribers.
+     */
+    private int deliveryThreads = 2;
+
+    /**
+     * The maximum time of writing one event to a subscriber. A subscriber whose write takes longer is disconnected,
+     * and its delivery thread is replaced until the write fails, so a stalled client never delays the others.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(5);
+}
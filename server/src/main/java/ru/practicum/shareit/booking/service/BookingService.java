@@ -1,7 +1,14 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingApprovalInputDTO;
+import ru.practicum.shareit.booking.dto.BookingApprovalOutputDTO;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingInputDTO;
 import ru.practicum.shareit.booking.dto.BookingOutputDTO;
+import ru.practicum.shareit.booking.dto.BookingSummaryOutputDTO;
+import ru.practicum.shareit.booking.export.BookingExport;
+import ru.practicum.shareit.booking.model.ExportFormat;
 import ru.practicum.shareit.booking.model.State;
 
 import java.util.List;
@@ -29,6 +36,15 @@ public interface BookingService {
      */
     BookingOutputDTO getById(Long userId, Long bookingId);
 
+    /**
+     * Computes the entity tag of the booking returned by {@link #getById(Long, Long)} without building it.
+     *
+     * @param userId    The ID of the user.
+     * @param bookingId The ID of the booking.
+     * @return The strong entity tag, which changes whenever the representation of the booking changes.
+     */
+    String getETagById(Long userId, Long bookingId);
+
     /**
      * Approves or rejects a booking based on the provided approval status.
      *
@@ -39,6 +55,15 @@ public interface BookingService {
      */
     BookingOutputDTO approveBooking(Long userId, Long bookingId, boolean approved);
 
+    /**
+     * Approves or rejects several WAITING bookings of the owner's items with one update.
+     *
+     * @param ownerId  The ID of the owner of the items.
+     * @param inputDTO The IDs of the bookings and the decision.
+     * @return The result for every requested booking ID, in the order of the request.
+     */
+    List<BookingApprovalOutputDTO> approveBookings(Long ownerId, BookingApprovalInputDTO inputDTO);
+
     /**
      * Retrieves all bookings associated with a booker user based on the booker's ID and state.
      *
@@ -50,6 +75,17 @@ public interface BookingService {
      */
     List<BookingOutputDTO> getAllBookingsAtBooker(Long bookerId, State state, Integer from, Integer size);
 
+    /**
+     * Retrieves the page of bookings associated with a booker user that follows the specified cursor.
+     *
+     * @param bookerId The ID of the booker user.
+     * @param state    The state of the bookings to filter by.
+     * @param cursor   The cursor pointing at the last booking of the previous page.
+     * @param size     The maximum number of bookings to retrieve (defaultValue = "20").
+     * @return A list of BookingResponseDto objects representing the bookings.
+     */
+    List<BookingOutputDTO> getAllBookingsAtBooker(Long bookerId, State state, BookingCursor cursor, Integer size);
+
     /**
      * Retrieves all bookings associated with an owner user based on the owner's ID and state.
      *
@@ -60,4 +96,62 @@ public interface BookingService {
      * @return A list of BookingResponseDto objects representing the bookings.
      */
     List<BookingOutputDTO> getAllBookingsAtOwner(Long ownerId, State state, Integer from, Integer size);
+
+    /**
+     * Retrieves the page of bookings associated with an owner user that follows the specified cursor.
+     *
+     * @param ownerId The ID of the owner user.
+     * @param state   The state of the bookings to filter by.
+     * @param cursor  The cursor pointing at the last booking of the previous page.
+     * @param size    The maximum number of bookings to retrieve (defaultValue = "20").
+     * @return A list of BookingResponseDto objects representing the bookings.
+     */
+    List<BookingOutputDTO> getAllBookingsAtOwner(Long ownerId, State state, BookingCursor cursor, Integer size);
+
+    /**
+     * Checks the booker and prepares the export of all the bookings made by the booker.
+     * The bookings are read when the export is written, in a transaction of their own.
+     *
+     * @param bookerId The ID of the booker user.
+     * @param format   The format of the export.
+     * @return The export of the bookings.
+     */
+    BookingExport exportAllBookingsAtBooker(Long bookerId, ExportFormat format);
+
+    /**
+     * Checks the owner and prepares the export of all the bookings of the items owned by the owner.
+     * The bookings are read when the export is written, in a transaction of their own.
+     *
+     * @param ownerId The ID of the owner user.
+     * @param format  The format of the export.
+     * @return The export of the bookings.
+     */
+    BookingExport exportAllBookingsAtOwner(Long ownerId, ExportFormat format);
+
+    /**
+     * Checks the booker and returns the numbers of the bookings made by the booker for every state.
+     * The numbers are read from the booking counters, the time-based ones lag behind by the sweep interval at most.
+     *
+     * @param bookerId The ID of the booker user.
+     * @return The numbers of the bookings.
+     */
+    BookingSummaryOutputDTO getSummaryAtBooker(Long bookerId);
+
+    /**
+     * Checks the owner and returns the numbers of the bookings of the items owned by the owner for every state.
+     * The numbers are read from the booking counters, the time-based ones lag behind by the sweep interval at most.
+     *
+     * @param ownerId The ID of the owner user.
+     * @return The numbers of the bookings.
+     */
+    BookingSummaryOutputDTO getSummaryAtOwner(Long ownerId);
+
+    /**
+     * Checks the owner and opens a stream of the events of the bookings of the items owned by the owner:
+     * the new bookings waiting for approval and the changes of their status.
+     *
+     * @param ownerId The ID of the owner user.
+     * @return The stream of the booking events.
+     */
+    SseEmitter subscribeToEventsAtOwner(Long ownerId);
 }
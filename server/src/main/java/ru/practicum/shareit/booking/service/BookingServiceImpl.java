@@ -1,27 +1,58 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.counter.BookingCounters;
+import ru.practicum.shareit.booking.counter.BookingRole;
+import ru.practicum.shareit.booking.dao.BookingApprovalView;
 import ru.practicum.shareit.booking.dao.BookingDAO;
+import ru.practicum.shareit.booking.dao.BookingVersionView;
+import ru.practicum.shareit.booking.dto.BookingApprovalInputDTO;
+import ru.practicum.shareit.booking.dto.BookingApprovalOutputDTO;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingEventDTO;
 import ru.practicum.shareit.booking.dto.BookingInputDTO;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingOutputDTO;
+import ru.practicum.shareit.booking.dto.BookingSummaryOutputDTO;
+import ru.practicum.shareit.booking.export.BookingExport;
+import ru.practicum.shareit.booking.export.BookingExportWriter;
+import ru.practicum.shareit.booking.model.ApprovalResult;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ExportFormat;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.push.BookingChangedEvent;
+import ru.practicum.shareit.booking.push.BookingEventBus;
+import ru.practicum.shareit.booking.timeline.BookingTimeline;
+import ru.practicum.shareit.cache.EntityCache;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UnsupportedException;
 import ru.practicum.shareit.exception.ValidException;
+import ru.practicum.shareit.item.dao.ItemAccessView;
 import ru.practicum.shareit.item.dao.ItemDAO;
+import ru.practicum.shareit.item.dao.ItemSummaryView;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemShortOutputDTO;
+import ru.practicum.shareit.outbox.EventType;
+import ru.practicum.shareit.outbox.Outbox;
 import ru.practicum.shareit.user.dao.UserDAO;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.dto.UserOutputDTO;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.model.Status.*;
 
@@ -36,19 +67,45 @@ public class BookingServiceImpl implements BookingService {
     private final BookingMapper bookingMapper;
     private final ItemMapper itemMapper;
     private final UserMapper userMapper;
+    private final BookingTimeline bookingTimeline;
+    private final BookingExportWriter bookingExportWriter;
+    private final EntityCache<UserOutputDTO> userCache;
+    private final EntityCache<ItemSummaryView> itemCache;
+    private final Outbox outbox;
+    private final BookingEventBus bookingEventBus;
+    private final BookingCounters bookingCounters;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
     public BookingOutputDTO create(Long bookerId, BookingInputDTO inputDTO) {
 
-        UserOutputDTO booker = validateUserById(bookerId);
-        ItemShortOutputDTO item = validateItemById(inputDTO.getItemId());
-
-        validateItemByOwner(item, booker);
+        ItemAccessView itemAccess = validateItemForBooker(inputDTO.getItemId(), bookerId);
+        UserOutputDTO booker = UserOutputDTO.builder()
+                .id(itemAccess.getUserId())
+                .name(itemAccess.getUserName())
+                .email(itemAccess.getUserEmail())
+                .build();
+        ItemShortOutputDTO item = itemMapper.viewToShortOutputDTO(itemAccess);
         inputDTO.setBookerId(bookerId);
+        inputDTO.setOwnerId(itemAccess.getOwnerId());
         inputDTO.setStatus(WAITING);
 
-        BookingOutputDTO outputDto = bookingMapper.toOutputDTO(bookingDAO.save(bookingMapper.inputDTOToEntity(inputDTO)));
+        bookingTimeline.checkAvailable(item.getId(), BookingTimeline.NEW_BOOKING_ID, inputDTO.getStart(), inputDTO.getEnd());
+
+        Booking booking = bookingDAO.save(bookingMapper.inputDTOToEntity(inputDTO));
+        BookingOutputDTO outputDto = bookingMapper.toOutputDTO(booking);
+        bookingTimeline.occupyAfterCommit(item.getId(), outputDto.getId(), outputDto.getStart(), outputDto.getEnd());
+        bookingCounters.countCreated(bookerId, itemAccess.getOwnerId(), booking.getPhase());
+        publishBookingEvent(EventType.BOOKING_CREATED, BookingEventDTO.builder()
+                .bookingId(outputDto.getId())
+                .itemId(item.getId())
+                .ownerId(itemAccess.getOwnerId())
+                .bookerId(bookerId)
+                .start(outputDto.getStart())
+                .end(outputDto.getEnd())
+                .status(WAITING)
+                .build());
         outputDto.setBooker(booker);
         outputDto.setItem(item);
 
@@ -65,28 +122,100 @@ public class BookingServiceImpl implements BookingService {
                                 .build()));
     }
 
+    @Override
+    public String getETagById(Long userId, Long bookingId) {
+
+        BookingVersionView version = bookingDAO.findVersionByIdAndUserId(bookingId, userId)
+                .orElseThrow(() -> NotFoundException.builder()
+                        .message(String.format("The booking with the ID - `%d` was not found.", bookingId))
+                        .build());
+
+        return String.format("%d-%d-%d-%d", bookingId, version.getVersion(), version.getItemVersion(),
+                version.getBookerVersion());
+    }
+
     @Override
     @Transactional
     public BookingOutputDTO approveBooking(Long ownerId, Long bookingId, boolean approved) {
 
-        BookingOutputDTO outputDto = bookingMapper.toOutputDTO(
-                bookingDAO.findById(bookingId).orElseThrow(() -> NotFoundException.builder()
-                        .message(String.format("The booking with the ID - `%d` was not found.", bookingId))
-                        .build()));
+        Booking booking = bookingDAO.findWithBookerAndItemById(bookingId).orElseThrow(() -> NotFoundException.builder()
+                .message(String.format("The booking with the ID - `%d` was not found.", bookingId))
+                .build());
+        BookingOutputDTO outputDto = bookingMapper.toOutputDTO(booking);
+        Long itemId = outputDto.getItem().getId();
+        Status currentStatus = outputDto.getStatus();
+        Status status = approved ? APPROVED : REJECTED;
+
+        if (Objects.equals(currentStatus, status)) {
+            validateItemOwner(itemId, ownerId);
+            return outputDto;
+        }
 
         validateBookingToUpdate(ownerId, outputDto);
 
-        if (approved) {
-            bookingDAO.approvedBooking(bookingId, APPROVED.toString());
-            outputDto.setStatus(APPROVED);
+        if (Objects.equals(currentStatus, REJECTED)) {
+            // The booking row is locked before the item, in the order of the batch approval, and the item is locked
+            // before the update, in the order of a new booking, so neither of them waits for this one in a cycle.
+            bookingDAO.lockById(bookingId);
+            bookingTimeline.checkAvailable(itemId, bookingId, outputDto.getStart(), outputDto.getEnd());
+        }
+        int updated = bookingDAO.approvedBooking(bookingId, currentStatus.toString(), booking.getVersion(), status.toString());
+        if (updated == 0) {
+            return resolveConcurrentUpdate(bookingId, status, outputDto);
+        }
+
+        if (Objects.equals(status, APPROVED)) {
+            bookingTimeline.occupyAfterCommit(itemId, bookingId, outputDto.getStart(), outputDto.getEnd());
         } else {
-            bookingDAO.approvedBooking(bookingId, REJECTED.toString());
-            outputDto.setStatus(REJECTED);
+            bookingTimeline.releaseAfterCommit(itemId, bookingId, outputDto.getStart());
         }
+        bookingCounters.countStatusChange(outputDto.getBooker().getId(), ownerId, currentStatus, status);
+        outputDto.setStatus(status);
+        publishBookingEvent(toEventType(status), BookingEventDTO.builder()
+                .bookingId(bookingId)
+                .itemId(itemId)
+                .ownerId(ownerId)
+                .bookerId(outputDto.getBooker().getId())
+                .start(outputDto.getStart())
+                .end(outputDto.getEnd())
+                .status(status)
+                .build());
 
         return outputDto;
     }
 
+    @Override
+    @Transactional
+    public List<BookingApprovalOutputDTO> approveBookings(Long ownerId, BookingApprovalInputDTO inputDTO) {
+
+        List<Long> bookingIds = inputDTO.getBookingIds().stream()
+                .distinct()
+                .collect(Collectors.toList());
+        if (bookingIds.isEmpty()) {
+            return List.of();
+        }
+        Status status = Boolean.TRUE.equals(inputDTO.getApproved()) ? APPROVED : REJECTED;
+
+        Map<Long, BookingApprovalView> bookings = bookingDAO.findAllForApprovalByIdsAndOwnerIdForUpdate(bookingIds, ownerId)
+                .stream()
+                .collect(Collectors.toMap(BookingApprovalView::getId, Function.identity()));
+        // The items are locked after the bookings and before the counters, in the order of a single approval
+        // and of a new booking, so a batch never waits for them in a cycle.
+        bookingTimeline.lockAllUntilCompletion(bookings.values().stream()
+                .map(BookingApprovalView::getItemId)
+                .collect(Collectors.toList()));
+        Map<Long, Status> updatedStatuses = new HashMap<>();
+        updateStatuses(ownerId, bookings, findInStatus(bookings, WAITING), WAITING, status, updatedStatuses);
+        if (Objects.equals(status, APPROVED)) {
+            updateStatuses(ownerId, bookings, findAvailable(bookings, findInStatus(bookings, REJECTED)), REJECTED, status,
+                    updatedStatuses);
+        }
+
+        return bookingIds.stream()
+                .map(bookingId -> toApprovalOutputDTO(bookingId, bookings.get(bookingId), updatedStatuses.get(bookingId), status))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public List<BookingOutputDTO> getAllBookingsAtBooker(Long bookerId, State state, Integer from, Integer size) {
 
@@ -95,22 +224,22 @@ public class BookingServiceImpl implements BookingService {
 
         switch (state) {
             case ALL:
-                return bookingMapper.toOutputDTOs(
+                return bookingMapper.viewsToOutputDTOs(
                         bookingDAO.findAllByBooker(bookerId, from, size));
             case CURRENT:
-                return bookingMapper.toOutputDTOs(
+                return bookingMapper.viewsToOutputDTOs(
                         bookingDAO.findAllByBooker_IdAndStartIsBeforeAndEndIsAfter(bookerId, now, from, size));
             case PAST:
-                return bookingMapper.toOutputDTOs(
+                return bookingMapper.viewsToOutputDTOs(
                         bookingDAO.findAllByBooker_IdAndEndIsBefore(bookerId, now, from, size));
             case FUTURE:
-                return bookingMapper.toOutputDTOs(
+                return bookingMapper.viewsToOutputDTOs(
                         bookingDAO.findAllByBooker_IdAndStartIsAfter(bookerId, now, from, size));
             case WAITING:
-                return bookingMapper.toOutputDTOs(
+                return bookingMapper.viewsToOutputDTOs(
                         bookingDAO.findAllByBooker_IdAndStatus(bookerId, WAITING.toString(), from, size));
             case REJECTED:
-                return bookingMapper.toOutputDTOs(
+                return bookingMapper.viewsToOutputDTOs(
                         bookingDAO.findAllByBooker_IdAndStatus(bookerId, REJECTED.toString(), from, size));
             default:
                 throw UnsupportedException.builder()
@@ -119,6 +248,40 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    @Override
+    public List<BookingOutputDTO> getAllBookingsAtBooker(Long bookerId, State state, BookingCursor cursor, Integer size) {
+
+        validateUserById(bookerId);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cursorStart = cursor.getStart();
+        Long cursorId = cursor.getId();
+
+        switch (state) {
+            case ALL:
+                return bookingMapper.viewsToOutputDTOs(
+                        bookingDAO.findAllByBookerAfterCursor(bookerId, cursorStart, cursorId, size));
+            case CURRENT:
+                return bookingMapper.viewsToOutputDTOs(
+                        bookingDAO.findAllByBooker_IdAndStartIsBeforeAndEndIsAfterAfterCursor(bookerId, now, cursorStart, cursorId, size));
+            case PAST:
+                return bookingMapper.viewsToOutputDTOs(
+                        bookingDAO.findAllByBooker_IdAndEndIsBeforeAfterCursor(bookerId, now, cursorStart, cursorId, size));
+            case FUTURE:
+                return bookingMapper.viewsToOutputDTOs(
+                        bookingDAO.findAllByBooker_IdAndStartIsAfterAfterCursor(bookerId, now, cursorStart, cursorId, size));
+            case WAITING:
+                return bookingMapper.viewsToOutputDTOs(
+                        bookingDAO.findAllByBooker_IdAndStatusAfterCursor(bookerId, WAITING.toString(), cursorStart, cursorId, size));
+            case REJECTED:
+                return bookingMapper.viewsToOutputDTOs(
+                        bookingDAO.findAllByBooker_IdAndStatusAfterCursor(bookerId, REJECTED.toString(), cursorStart, cursorId, size));
+            default:
+                throw UnsupportedException.builder()
+                        .message(String.format("Unknown state: %s", state))
+                        .build();
+        }
+    }
+
     @Override
     public List<BookingOutputDTO> getAllBookingsAtOwner(Long ownerId, State state, Integer from, Integer size) {
 
@@ -127,22 +290,22 @@ public class BookingServiceImpl implements BookingService {
 
         switch (state) {
             case ALL:
-                return bookingMapper.toOutputDTOs(
+                return bookingMapper.viewsToOutputDTOs(
                         bookingDAO.findAllByItem_Owner_Id(ownerId, from, size));
             case CURRENT:
-                return bookingMapper.toOutputDTOs(
+                return bookingMapper.viewsToOutputDTOs(
                         bookingDAO.findAllByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(ownerId, now, from, size));
             case PAST:
-                return bookingMapper.toOutputDTOs(
+                return bookingMapper.viewsToOutputDTOs(
                         bookingDAO.findAllByItem_Owner_IdAndEndIsBefore(ownerId, now, from, size));
             case FUTURE:
-                return bookingMapper.toOutputDTOs(
+                return bookingMapper.viewsToOutputDTOs(
                         bookingDAO.findAllByItem_Owner_IdAndStartIsAfter(ownerId, now, from, size));
             case WAITING:
-                return bookingMapper.toOutputDTOs(
+                return bookingMapper.viewsToOutputDTOs(
                         bookingDAO.findAllByItem_Owner_IdAndStatus(ownerId, WAITING.toString(), from, size));
             case REJECTED:
-                return bookingMapper.toOutputDTOs(
+                return bookingMapper.viewsToOutputDTOs(
                         bookingDAO.findAllByItem_Owner_IdAndStatus(ownerId, REJECTED.toString(), from, size));
             default:
                 throw UnsupportedException.builder()
@@ -151,40 +314,265 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    @Override
+    public List<BookingOutputDTO> getAllBookingsAtOwner(Long ownerId, State state, BookingCursor cursor, Integer size) {
+
+        validateUserById(ownerId);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cursorStart = cursor.getStart();
+        Long cursorId = cursor.getId();
+
+        switch (state) {
+            case ALL:
+                return bookingMapper.viewsToOutputDTOs(
+                        bookingDAO.findAllByItem_Owner_IdAfterCursor(ownerId, cursorStart, cursorId, size));
+            case CURRENT:
+                return bookingMapper.viewsToOutputDTOs(
+                        bookingDAO.findAllByItem_Owner_IdAndStartIsBeforeAndEndIsAfterAfterCursor(ownerId, now, cursorStart, cursorId, size));
+            case PAST:
+                return bookingMapper.viewsToOutputDTOs(
+                        bookingDAO.findAllByItem_Owner_IdAndEndIsBeforeAfterCursor(ownerId, now, cursorStart, cursorId, size));
+            case FUTURE:
+                return bookingMapper.viewsToOutputDTOs(
+                        bookingDAO.findAllByItem_Owner_IdAndStartIsAfterAfterCursor(ownerId, now, cursorStart, cursorId, size));
+            case WAITING:
+                return bookingMapper.viewsToOutputDTOs(
+                        bookingDAO.findAllByItem_Owner_IdAndStatusAfterCursor(ownerId, WAITING.toString(), cursorStart, cursorId, size));
+            case REJECTED:
+                return bookingMapper.viewsToOutputDTOs(
+                        bookingDAO.findAllByItem_Owner_IdAndStatusAfterCursor(ownerId, REJECTED.toString(), cursorStart, cursorId, size));
+            default:
+                throw UnsupportedException.builder()
+                        .message(String.format("Unknown state: %s", state))
+                        .build();
+        }
+    }
+
+    @Override
+    public BookingExport exportAllBookingsAtBooker(Long bookerId, ExportFormat format) {
+
+        validateUserById(bookerId);
+
+        return outputStream -> bookingExportWriter.writeAllAtBooker(bookerId, format, outputStream);
+    }
+
+    @Override
+    public BookingExport exportAllBookingsAtOwner(Long ownerId, ExportFormat format) {
+
+        validateUserById(ownerId);
+
+        return outputStream -> bookingExportWriter.writeAllAtOwner(ownerId, format, outputStream);
+    }
+
+    @Override
+    @Transactional
+    public BookingSummaryOutputDTO getSummaryAtBooker(Long bookerId) {
+
+        validateUserById(bookerId);
+
+        return getSummary(bookerId, BookingRole.BOOKER);
+    }
+
+    @Override
+    @Transactional
+    public BookingSummaryOutputDTO getSummaryAtOwner(Long ownerId) {
+
+        validateUserById(ownerId);
+
+        return getSummary(ownerId, BookingRole.OWNER);
+    }
+
+    @Override
+    public SseEmitter subscribeToEventsAtOwner(Long ownerId) {
+
+        validateUserById(ownerId);
+
+        return bookingEventBus.subscribe(ownerId);
+    }
+
+    /**
+     * Read the counters of the user, creating the missing ones, so the transaction is not read-only.
+     */
+    private BookingSummaryOutputDTO getSummary(Long userId, BookingRole role) {
+
+        return bookingCounters.findOrCreate(userId, role)
+                .map(bookingMapper::counterToSummaryOutputDTO)
+                .orElseGet(BookingSummaryOutputDTO::new);
+    }
+
+    /**
+     * Update the locked bookings from one status to another, count them at the owner and at their bookers
+     * and publish their events.
+     */
+    private void updateStatuses(Long ownerId, Map<Long, BookingApprovalView> bookings, List<Long> bookingIds,
+                                Status from, Status to, Map<Long, Status> updatedStatuses) {
+
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+
+        bookingDAO.approvedBookings(bookingIds, from.toString(), to.toString());
+        bookingCounters.countStatusChanges(ownerId, bookingIds, bookingIds.stream()
+                .map(bookingId -> bookings.get(bookingId).getBookerId())
+                .collect(Collectors.toCollection(TreeSet::new)), from, to);
+        bookingIds.forEach(bookingId -> {
+            BookingApprovalView booking = bookings.get(bookingId);
+            if (Objects.equals(to, REJECTED)) {
+                bookingTimeline.releaseAfterCommit(booking.getItemId(), bookingId, booking.getStartDate());
+            } else if (Objects.equals(from, REJECTED)) {
+                bookingTimeline.occupyAfterCommit(booking.getItemId(), bookingId, booking.getStartDate(),
+                        booking.getEndDate());
+            }
+            updatedStatuses.put(bookingId, to);
+            publishBookingEvent(toEventType(to), BookingEventDTO.builder()
+                    .bookingId(bookingId)
+                    .itemId(booking.getItemId())
+                    .ownerId(ownerId)
+                    .bookerId(booking.getBookerId())
+                    .start(booking.getStartDate())
+                    .end(booking.getEndDate())
+                    .status(to)
+                    .build());
+        });
+    }
+
+    private static List<Long> findInStatus(Map<Long, BookingApprovalView> bookings, Status status) {
+
+        return bookings.values().stream()
+                .filter(booking -> Objects.equals(booking.getStatus(), status))
+                .map(BookingApprovalView::getId)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Find the rejected bookings which can be approved again, like a single approval: those whose interval
+     * overlaps neither another WAITING or APPROVED booking of the item nor a booking approved earlier in the batch.
+     * The items of the batch are already locked.
+     */
+    private List<Long> findAvailable(Map<Long, BookingApprovalView> bookings, List<Long> rejectedIds) {
+
+        if (rejectedIds.isEmpty()) {
+            return rejectedIds;
+        }
+
+        Map<Long, List<BookingApprovalView>> approvedByItem = new HashMap<>();
+        List<Long> availableIds = new ArrayList<>();
+        for (Long bookingId : rejectedIds) {
+            BookingApprovalView booking = bookings.get(bookingId);
+            List<BookingApprovalView> approved = approvedByItem.computeIfAbsent(booking.getItemId(), id -> new ArrayList<>());
+            boolean overlapsBatch = approved.stream().anyMatch(other -> other.getStartDate().isBefore(booking.getEndDate())
+                    && booking.getStartDate().isBefore(other.getEndDate()));
+            if (overlapsBatch) {
+                continue;
+            }
+            try {
+                bookingTimeline.checkAvailable(booking.getItemId(), bookingId, booking.getStartDate(), booking.getEndDate());
+            } catch (ConflictException e) {
+                // reported as a conflict, the booking stays rejected
+                continue;
+            }
+            approved.add(booking);
+            availableIds.add(bookingId);
+        }
+
+        return availableIds;
+    }
+
+    /**
+     * Write the booking event to the outbox and push it to the subscribed owner once the transaction commits.
+     */
+    private void publishBookingEvent(EventType type, BookingEventDTO event) {
+
+        outbox.append(type, event.getBookingId(), event);
+        eventPublisher.publishEvent(new BookingChangedEvent(type, event));
+    }
+
+    private EventType toEventType(Status status) {
+
+        return Objects.equals(status, APPROVED) ? EventType.BOOKING_APPROVED : EventType.BOOKING_REJECTED;
+    }
+
+    /**
+     * Resolve a status update that lost the race with another update of the same booking.
+     * A concurrent update to the same status makes the request idempotent, any other change is a conflict.
+     */
+    private BookingOutputDTO resolveConcurrentUpdate(Long bookingId, Status status, BookingOutputDTO outputDto) {
+
+        String actualStatus = bookingDAO.findStatusById(bookingId).orElseThrow(() -> NotFoundException.builder()
+                .message(String.format("The booking with the ID - `%d` was not found.", bookingId))
+                .build());
+
+        if (!Objects.equals(actualStatus, status.toString())) {
+            throw ConflictException.builder()
+                    .message(String.format("The booking with the ID - `%d` was changed concurrently, its status is %s.",
+                            bookingId, actualStatus))
+                    .build();
+        }
+        outputDto.setStatus(status);
+
+        return outputDto;
+    }
+
+    private BookingApprovalOutputDTO toApprovalOutputDTO(Long bookingId, BookingApprovalView booking,
+                                                         Status updatedStatus, Status status) {
+
+        if (Objects.isNull(booking)) {
+            return BookingApprovalOutputDTO.builder()
+                    .bookingId(bookingId)
+                    .result(ApprovalResult.NOT_FOUND)
+                    .build();
+        }
+
+        Status currentStatus = Objects.isNull(updatedStatus) ? booking.getStatus() : updatedStatus;
+        ApprovalResult result;
+        if (!Objects.equals(currentStatus, status)) {
+            result = ApprovalResult.CONFLICT;
+        } else if (Objects.isNull(updatedStatus)) {
+            result = ApprovalResult.UNCHANGED;
+        } else {
+            result = ApprovalResult.UPDATED;
+        }
+
+        return BookingApprovalOutputDTO.builder()
+                .bookingId(bookingId)
+                .status(currentStatus)
+                .result(result)
+                .build();
+    }
+
     private UserOutputDTO validateUserById(Long userId) {
 
-        return userMapper.toOutputDTO(userDAO.findById(userId)
+        return userCache.get(userId, id -> userDAO.findById(id).map(userMapper::toOutputDTO))
                 .orElseThrow(() -> NotFoundException.builder()
                         .message(String.format("The user with the ID - `%d` was not found.", userId))
-                        .build()));
+                        .build());
     }
 
-    private ItemShortOutputDTO validateItemById(Long itemId) {
+    private ItemAccessView validateItemForBooker(Long itemId, Long bookerId) {
 
-        ItemShortOutputDTO shortOutputDto = itemMapper.toShortOutputDTO(itemDAO.findById(itemId)
+        ItemAccessView item = itemDAO.findByIdForUser(itemId, bookerId)
                 .orElseThrow(() -> NotFoundException.builder()
-                        .message(String.format("The item with the ID - `%d` was not found.", itemId))
-                        .build()));
+                        .message(String.format("The user with the ID - `%d` was not found.", bookerId))
+                        .build());
 
-        if (!shortOutputDto.isAvailable()) {
+        if (Objects.isNull(item.getId())) {
+            throw NotFoundException.builder()
+                    .message(String.format("The item with the ID - `%d` was not found.", itemId))
+                    .build();
+        }
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
             throw ValidException.builder()
                     .message(String.format("The item with the ID - `%d` is not available for rent.", itemId))
                     .build();
         }
-
-        return shortOutputDto;
-    }
-
-    private void validateItemByOwner(ItemShortOutputDTO item, UserOutputDTO booker) {
-
-        Long bookerId = booker.getId();
-        Long itemId = item.getId();
-
-        if (itemDAO.existsItemByIdAndOwner_Id(itemId, bookerId)) {
+        if (Objects.equals(item.getOwnerId(), bookerId)) {
             throw NotFoundException.builder()
                     .message(String.format("The user with an ID - `%d` is creating item with an ID - `%d` and cannot booking it.", itemId, bookerId))
                     .build();
         }
+
+        return item;
     }
 
     private void validateDateTime(BookingInputDTO inputDTO) {
@@ -215,7 +603,15 @@ public class BookingServiceImpl implements BookingService {
                     .build();
         }
 
-        if (!itemDAO.existsItemByIdAndOwner_Id(itemId, ownerId)) {
+        validateItemOwner(itemId, ownerId);
+    }
+
+    private void validateItemOwner(Long itemId, Long ownerId) {
+
+        boolean isOwner = itemCache.get(itemId, itemDAO::findSummaryById)
+                .map(item -> Objects.equals(item.getOwnerId(), ownerId))
+                .orElse(false);
+        if (!isOwner) {
             throw NotFoundException.builder()
                     .message(String.format("The item with the ID - `%d` does not belong to the user with the ID - `%d`.", itemId, ownerId))
                     .build();
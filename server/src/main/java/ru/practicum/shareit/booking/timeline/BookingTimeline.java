@@ -0,0 +1,246 @@
+package ru.practicum.shareit.booking.timeline;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dao.BookingDAO;
+import ru.practicum.shareit.booking.dao.BookingIntervalView;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.dto.IntervalOutputDTO;
+import ru.practicum.shareit.item.search.ItemsDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * The BookingTimeline class rejects bookings whose interval `[start, end)` overlaps a WAITING or APPROVED booking
+ * of the same item. Every item has an {@link ItemTimeline} loaded lazily from the database, and the items are
+ * guarded by a fixed set of striped locks, so bookings of different items are checked in parallel.
+ * The lock of an item is held until the surrounding transaction completes and the timeline is updated after commit,
+ * so a concurrent booking of the same item always sees the committed state. The timelines are not thread-safe,
+ * so every read and update of a timeline holds the lock of its item.
+ * A conflict found in memory is confirmed in the database before it is reported, which heals the timeline after
+ * bookings are removed behind its back. On PostgreSQL the `bookings_no_overlap` exclusion constraint is the final
+ * guard for several server instances.
+ * The same timelines answer availability queries, so the free intervals of an item are computed in memory
+ * once its timeline is loaded. At most the configured number of timelines is kept, the least recently used ones
+ * are evicted and loaded again when they are needed. A timeline only sees the bookings changed through this instance,
+ * so it is also loaded again from the database once its time to live passes, which bounds how long the bookings
+ * changed by other instances are missing from it.
+ */
+@Slf4j
+@Component
+public class BookingTimeline {
+
+    public static final long NEW_BOOKING_ID = 0L;
+
+    private static final String CACHE_NAME = "shareit.booking.timelines";
+
+    private final BookingDAO bookingDAO;
+    private final ReentrantLock[] locks;
+    private final Cache<Long, ItemTimeline> timelines;
+
+    public BookingTimeline(BookingDAO bookingDAO, BookingTimelineProperties properties, MeterRegistry meterRegistry) {
+        this.bookingDAO = bookingDAO;
+        this.locks = new ReentrantLock[properties.getLockStripes()];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumItems())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, timelines, CACHE_NAME);
+    }
+
+    /**
+     * Lock the item until the current transaction completes and check that `[start, end)` is free.
+     *
+     * @param itemId    The ID of the item.
+     * @param bookingId The ID of the booking being approved, or {@link #NEW_BOOKING_ID} for a new booking.
+     * @param start     The start of the booking.
+     * @param end       The end of the booking.
+     * @throws ConflictException if the interval overlaps another WAITING or APPROVED booking of the item.
+     */
+    public void checkAvailable(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+
+        lockUntilCompletion(itemId);
+
+        ItemTimeline.Interval overlap = timelineOf(itemId).findOverlap(start, end, bookingId);
+        if (overlap == null) {
+            return;
+        }
+        if (bookingDAO.existsOverlapping(itemId, bookingId, start, end)) {
+            throw ConflictException.builder()
+                    .message(String.format("The item with the ID - `%d` is already booked from %s to %s.",
+                            itemId, overlap.getStart(), overlap.getEnd()))
+                    .build();
+        }
+
+        log.debug("The timeline of the item with the ID - `{}` was stale and is reloaded.", itemId);
+        timelines.put(itemId, load(itemId));
+    }
+
+    /**
+     * Lock the items until the current transaction completes, taking their locks in a fixed order, so transactions
+     * which check several items never wait for each other in a cycle. The items are then checked
+     * by {@link #checkAvailable(Long, Long, LocalDateTime, LocalDateTime)} one by one.
+     *
+     * @param itemIds The IDs of the items.
+     */
+    public void lockAllUntilCompletion(Collection<Long> itemIds) {
+
+        itemIds.stream()
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .forEach(stripe -> lockUntilCompletion(locks[stripe]));
+    }
+
+    /**
+     * Find the intervals within `[from, to)` not taken by a WAITING or APPROVED booking of the item.
+     * The timeline is loaded from the database on the first query and once its time to live passes,
+     * the queries in between are answered from memory.
+     * The lock of the item is held only while the timeline is read.
+     *
+     * @param itemId The ID of the item.
+     * @param from   The start of the range, not earlier than the current time.
+     * @param to     The end of the range.
+     * @return The free intervals sorted by their start.
+     */
+    public List<IntervalOutputDTO> getFreeIntervals(Long itemId, LocalDateTime from, LocalDateTime to) {
+
+        ReentrantLock lock = lockOf(itemId);
+        lock.lock();
+        try {
+            return timelineOf(itemId).findFree(from, to).stream()
+                    .map(interval -> new IntervalOutputDTO(interval.getStart(), interval.getEnd()))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Add the booking to the timeline of the item once the current transaction commits.
+     */
+    public void occupyAfterCommit(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+
+        updateAfterCommit(itemId, timeline -> {
+            timeline.add(bookingId, start, end);
+            return true;
+        });
+    }
+
+    /**
+     * Remove the booking from the timeline of the item once the current transaction commits.
+     */
+    public void releaseAfterCommit(Long itemId, Long bookingId, LocalDateTime start) {
+
+        updateAfterCommit(itemId, timeline -> timeline.remove(bookingId, start));
+    }
+
+    @TransactionalEventListener
+    public void onItemsDeleted(ItemsDeletedEvent event) {
+
+        event.getItemIds().forEach(itemId -> withLock(itemId, () -> timelines.invalidate(itemId)));
+    }
+
+    private void lockUntilCompletion(Long itemId) {
+
+        lockUntilCompletion(lockOf(itemId));
+    }
+
+    private void lockUntilCompletion(ReentrantLock lock) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("The booking timeline must be used inside a transaction.");
+        }
+
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private ReentrantLock lockOf(Long itemId) {
+
+        return locks[stripeOf(itemId)];
+    }
+
+    private int stripeOf(Long itemId) {
+
+        return Math.floorMod(itemId.hashCode(), locks.length);
+    }
+
+    /**
+     * Update the timeline of the item, if it is loaded, once the current transaction commits. The lock of the item
+     * is taken for the update: the transaction holds it already if it checked the item, otherwise it is taken here.
+     * A timeline the update cannot be applied to exactly is dropped and loaded again when it is needed.
+     */
+    private void updateAfterCommit(Long itemId, Predicate<ItemTimeline> update) {
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                withLock(itemId, () -> {
+                    ItemTimeline timeline = timelines.getIfPresent(itemId);
+                    if (timeline != null && !update.test(timeline)) {
+                        timelines.invalidate(itemId);
+                    }
+                });
+            }
+        });
+    }
+
+    private void withLock(Long itemId, Runnable action) {
+
+        ReentrantLock lock = lockOf(itemId);
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the timeline of the item, loading it if it is not in memory, without the intervals which already ended.
+     * The caller holds the lock of the item.
+     */
+    private ItemTimeline timelineOf(Long itemId) {
+
+        ItemTimeline timeline = timelines.getIfPresent(itemId);
+        if (timeline == null) {
+            timeline = load(itemId);
+            timelines.put(itemId, timeline);
+        }
+        timeline.removeEndedBy(LocalDateTime.now());
+
+        return timeline;
+    }
+
+    private ItemTimeline load(Long itemId) {
+
+        ItemTimeline timeline = new ItemTimeline();
+        for (BookingIntervalView interval : bookingDAO.findActiveIntervalsByItemId(itemId, LocalDateTime.now())) {
+            timeline.add(interval.getId(), interval.getStartDate(), interval.getEndDate());
+        }
+
+        return timeline;
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.timeline;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The BookingTimelineConfig class enables the settings of the booking timelines.
+ */
+@Configuration
+@EnableConfigurationProperties(BookingTimelineProperties.class)
+public class BookingTimelineConfig {
+}
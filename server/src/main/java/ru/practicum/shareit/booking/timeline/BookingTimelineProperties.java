@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking.timeline;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * The BookingTimelineProperties class holds the settings of the in-memory booking timelines of the items.
+ */
+@Getter
+@Setter
+@ToString
+@ConfigurationProperties(prefix = "shareit.booking.timeline")
+public class BookingTimelineProperties {
+
+    /**
+     * The number of the locks the items are spread over.
+     */
+    private int lockStripes = 64;
+
+    /**
+     * The maximum number of the item timelines kept in memory. The least recently used timelines are evicted
+     * and loaded again from the database when they are needed.
+     */
+    private long maximumItems = 10000;
+
+    /**
+     * The time after which a timeline is loaded again from the database. It bounds the time the bookings
+     * made or changed by another server instance are missing from the availability of the item.
+     */
+    private Duration ttl = Duration.ofSeconds(10);
+}
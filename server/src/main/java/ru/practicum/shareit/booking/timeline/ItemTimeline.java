@@ -0,0 +1,157 @@
+package ru.practicum.shareit.booking.timeline;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The ItemTimeline class holds the intervals `[start, end)` of the active bookings of one item.
+ * The intervals are kept disjoint in a tree ordered by their start, so the only interval that can overlap
+ * a requested one is the last interval starting before the requested end, and every check takes O(log n).
+ * Bookings which overlap each other, like the double bookings made before the overlap check existed, are merged
+ * into one interval holding all their IDs, so the tree stays disjoint whatever the database holds.
+ * The class is not thread-safe, the caller guards it with the lock of the item.
+ */
+class ItemTimeline {
+
+    private final NavigableMap<LocalDateTime, Interval> intervals = new TreeMap<>();
+
+    /**
+     * Find an interval overlapping `[start, end)`.
+     *
+     * @param start             The start of the requested interval.
+     * @param end               The end of the requested interval.
+     * @param excludedBookingId The ID of the booking whose own interval is skipped.
+     * @return The overlapping interval, or null if the requested interval is free.
+     */
+    Interval findOverlap(LocalDateTime start, LocalDateTime end, Long excludedBookingId) {
+
+        Map.Entry<LocalDateTime, Interval> entry = intervals.lowerEntry(end);
+        if (entry != null && entry.getValue().getBookingIds().equals(Set.of(excludedBookingId))) {
+            entry = intervals.lowerEntry(entry.getKey());
+        }
+        if (entry == null || !entry.getValue().getEnd().isAfter(start)) {
+            return null;
+        }
+
+        return entry.getValue();
+    }
+
+    /**
+     * Find the gaps between the intervals within `[from, to)`. Only the interval starting before `from`
+     * and the intervals starting inside the range are visited, so the lookup takes O(log n + k).
+     *
+     * @param from The start of the range.
+     * @param to   The end of the range.
+     * @return The free intervals sorted by their start.
+     */
+    List<Interval> findFree(LocalDateTime from, LocalDateTime to) {
+
+        List<Interval> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+
+        Map.Entry<LocalDateTime, Interval> previous = intervals.lowerEntry(from);
+        if (previous != null && previous.getValue().getEnd().isAfter(cursor)) {
+            cursor = previous.getValue().getEnd();
+        }
+        for (Interval interval : intervals.subMap(from, true, to, false).values()) {
+            if (interval.getStart().isAfter(cursor)) {
+                free.add(new Interval(Collections.emptySet(), cursor, interval.getStart()));
+            }
+            if (interval.getEnd().isAfter(cursor)) {
+                cursor = interval.getEnd();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new Interval(Collections.emptySet(), cursor, to));
+        }
+
+        return free;
+    }
+
+    /**
+     * Add the interval of a booking. The intervals it overlaps are merged with it into one interval,
+     * so the timeline never reports a smaller occupied range than the database has.
+     */
+    void add(Long bookingId, LocalDateTime start, LocalDateTime end) {
+
+        Set<Long> bookingIds = new HashSet<>();
+        bookingIds.add(bookingId);
+        LocalDateTime mergedStart = start;
+        LocalDateTime mergedEnd = end;
+
+        Map.Entry<LocalDateTime, Interval> previous = intervals.lowerEntry(start);
+        if (previous != null && previous.getValue().getEnd().isAfter(start)) {
+            mergedStart = previous.getKey();
+        }
+        Iterator<Interval> overlapping = intervals.subMap(mergedStart, true, end, false).values().iterator();
+        while (overlapping.hasNext()) {
+            Interval interval = overlapping.next();
+            bookingIds.addAll(interval.getBookingIds());
+            if (interval.getEnd().isAfter(mergedEnd)) {
+                mergedEnd = interval.getEnd();
+            }
+            overlapping.remove();
+        }
+
+        intervals.put(mergedStart, new Interval(bookingIds, mergedStart, mergedEnd));
+    }
+
+    /**
+     * Remove the interval of a booking.
+     *
+     * @return False if the booking was merged with others, so the occupied range left after it is unknown
+     * and the timeline must be reloaded.
+     */
+    boolean remove(Long bookingId, LocalDateTime start) {
+
+        Map.Entry<LocalDateTime, Interval> entry = intervals.floorEntry(start);
+        if (entry == null || !entry.getValue().getBookingIds().contains(bookingId)) {
+            return true;
+        }
+        if (entry.getValue().getBookingIds().size() > 1) {
+            return false;
+        }
+
+        intervals.remove(entry.getKey());
+        return true;
+    }
+
+    /**
+     * Drop the intervals which ended at or before the specified time. The intervals are disjoint,
+     * so their ends are ordered like their starts and only the head of the tree is visited.
+     */
+    void removeEndedBy(LocalDateTime now) {
+
+        Iterator<Interval> iterator = intervals.values().iterator();
+        while (iterator.hasNext() && !iterator.next().getEnd().isAfter(now)) {
+            iterator.remove();
+        }
+    }
+
+    int size() {
+
+        return intervals.size();
+    }
+
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    static class Interval {
+
+        private final Set<Long> bookingIds;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.lang.Nullable;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * The EntityCache class keeps the read-only snapshots of entities in a bounded cache by their IDs.
+ * Only existing entities are cached, so an entity created after a lookup is always found.
+ * A snapshot is loaded under the lock of its key and an invalidation waits for a load in progress,
+ * so a snapshot read before an invalidation never outlives it.
+ * The cached snapshots are shared between requests and must not be modified.
+ *
+ * @param <V> The type of the entity snapshots.
+ */
+public class EntityCache<V> {
+
+    private final Cache<Long, V> cache;
+
+    /**
+     * @param cache The cache of the entity snapshots, or null if the caching is disabled.
+     */
+    public EntityCache(@Nullable Cache<Long, V> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Returns the cached snapshot of the entity or loads it and caches it if the entity exists.
+     *
+     * @param id     The ID of the entity.
+     * @param loader The lookup of the entity in the database.
+     * @return The snapshot of the entity, or empty if the entity does not exist.
+     */
+    public Optional<V> get(Long id, Function<Long, Optional<V>> loader) {
+
+        if (cache == null) {
+            return loader.apply(id);
+        }
+
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    /**
+     * Discards the cached snapshot of the entity.
+     *
+     * @param id The ID of the entity.
+     */
+    public void invalidate(Long id) {
+
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    /**
+     * Discards the cached snapshots of the entities.
+     *
+     * @param ids The IDs of the entities.
+     */
+    public void invalidateAll(Collection<Long> ids) {
+
+        if (cache != null) {
+            cache.invalidateAll(ids);
+        }
+    }
+}
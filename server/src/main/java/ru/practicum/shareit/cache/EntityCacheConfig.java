@@ -0,0 +1,59 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.dao.ItemSummaryView;
+import ru.practicum.shareit.user.dto.UserOutputDTO;
+
+/**
+ * The EntityCacheConfig class configures the server caches of the users and of the items.
+ * The cache state is published as the `cache.gets` (with the `result=hit|miss` tag), `cache.puts`,
+ * `cache.evictions` and `cache.size` metrics and the hit rate as the `shareit.cache.hit.ratio` metric,
+ * all with the `cache` tag set to the name of the cache.
+ */
+@Configuration
+@EnableConfigurationProperties(EntityCacheProperties.class)
+public class EntityCacheConfig {
+
+    private static final String USER_CACHE_NAME = "shareit.server.users";
+    private static final String ITEM_CACHE_NAME = "shareit.server.items";
+
+    @Bean
+    public EntityCache<UserOutputDTO> userCache(EntityCacheProperties properties, MeterRegistry meterRegistry) {
+
+        return createCache(USER_CACHE_NAME, properties, meterRegistry);
+    }
+
+    @Bean
+    public EntityCache<ItemSummaryView> itemCache(EntityCacheProperties properties, MeterRegistry meterRegistry) {
+
+        return createCache(ITEM_CACHE_NAME, properties, meterRegistry);
+    }
+
+    private static <V> EntityCache<V> createCache(String name, EntityCacheProperties properties,
+                                                  MeterRegistry meterRegistry) {
+
+        if (!properties.isEnabled()) {
+            return new EntityCache<>(null);
+        }
+
+        Cache<Long, V> cache = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getTtl())
+                .maximumSize(properties.getMaximumSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        Gauge.builder("shareit.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("The ratio of the cache lookups that were served from the cache")
+                .tag("cache", name)
+                .register(meterRegistry);
+
+        return new EntityCache<>(cache);
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dao.ItemSummaryView;
+import ru.practicum.shareit.item.search.ItemSavedEvent;
+import ru.practicum.shareit.item.search.ItemsDeletedEvent;
+import ru.practicum.shareit.user.dto.UserOutputDTO;
+
+/**
+ * The EntityCacheInvalidator class discards the cached users and items once the transactions
+ * that changed or deleted them commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheInvalidator {
+
+    private final EntityCache<UserOutputDTO> userCache;
+    private final EntityCache<ItemSummaryView> itemCache;
+
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+
+        userCache.invalidate(event.getUserId());
+    }
+
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+
+        itemCache.invalidate(event.getItemId());
+    }
+
+    @TransactionalEventListener
+    public void onItemsDeleted(ItemsDeletedEvent event) {
+
+        itemCache.invalidateAll(event.getItemIds());
+    }
+}
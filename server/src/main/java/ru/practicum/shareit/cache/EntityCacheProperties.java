@@ -0,0 +1,34 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * The EntityCacheProperties class holds the settings of the server caches of the users and the items.
+ */
+@Getter
+@Setter
+@ToString
+@ConfigurationProperties(prefix = "shareit.cache.entity")
+public class EntityCacheProperties {
+
+    /**
+     * Whether the users and the items looked up by their IDs are cached by the server.
+     */
+    private boolean enabled = false;
+
+    /**
+     * The time after which a cached entity expires. It bounds the staleness of the entities
+     * changed by another server instance.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * The maximum number of entities kept by every cache.
+     */
+    private long maximumSize = 10000;
+}
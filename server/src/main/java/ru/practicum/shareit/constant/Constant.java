@@ -4,4 +4,5 @@ public final class Constant {
 
     public static final String EMAIL_REGEX = "[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,6}";
     public static final String REQUEST_HEADER_USER_ID = "X-Sharer-User-Id";
+    public static final String RESPONSE_HEADER_NEXT_CURSOR = "X-Next-Cursor";
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.exception;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class ConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private String message;
+}
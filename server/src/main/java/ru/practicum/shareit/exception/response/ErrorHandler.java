@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotImplementedException;
 import ru.practicum.shareit.exception.UnsupportedException;
@@ -63,6 +64,18 @@ public class ErrorHandler extends ResponseEntityExceptionHandler {
                 .build();
     }
 
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(ConflictException.class)
+    public ErrorResponse onConflictException(final ConflictException exception) {
+
+        log.warn("Exception: {}, Conflict: \n{}", exception.getClass().getName(), getExceptionMessage(exception));
+
+        return ErrorResponse.builder()
+                .error(exception.getClass().getName())
+                .message(exception.getMessage())
+                .build();
+    }
+
     @ResponseStatus(HttpStatus.CONFLICT)
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ErrorResponse onDataIntegrityViolationException(final DataIntegrityViolationException exception) {
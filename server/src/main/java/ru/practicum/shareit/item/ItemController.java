@@ -2,11 +2,18 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.importer.ItemImporter;
 import ru.practicum.shareit.item.service.ItemService;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static ru.practicum.shareit.constant.Constant.REQUEST_HEADER_USER_ID;
@@ -18,6 +25,7 @@ import static ru.practicum.shareit.constant.Constant.REQUEST_HEADER_USER_ID;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemService itemService;
+    private final ItemImporter itemImporter;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -29,6 +37,15 @@ public class ItemController {
         return itemService.create(ownerId, inputDTO);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ItemImportOutputDTO importItems(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId,
+                                           HttpServletRequest request) throws IOException {
+
+        log.info("START endpoint `method:POST /items/import` (import items), owner id: {}.", ownerId);
+
+        return itemImporter.importItems(ownerId, request.getInputStream());
+    }
+
     @PatchMapping("/{itemId}")
     public ItemShortOutputDTO update(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId,
                                      @PathVariable long itemId,
@@ -41,13 +58,29 @@ public class ItemController {
 
     @GetMapping("/{itemId}")
     public ItemOutputDTO getItemById(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
-                                     @PathVariable long itemId) {
+                                     @PathVariable long itemId,
+                                     WebRequest request) {
 
         log.info("START endpoint `method:GET /items/{itemId}` (get item by id), item id: {}.", itemId);
 
+        if (request.checkNotModified(itemService.getETagById(userId, itemId))) {
+            return null;
+        }
+
         return itemService.getById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityOutputDTO getAvailability(@RequestHeader(REQUEST_HEADER_USER_ID) long userId,
+                                                     @PathVariable long itemId,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        log.info("START endpoint `method:GET /items/{itemId}/availability` (get item availability), item id: {}.", itemId);
+
+        return itemService.getAvailability(userId, itemId, from, to);
+    }
+
     @GetMapping
     public List<ItemOutputDTO> getAllItems(@RequestHeader(REQUEST_HEADER_USER_ID) long ownerId,
                                            @RequestParam(name = "from") int from,
@@ -60,12 +93,14 @@ public class ItemController {
 
     @GetMapping("/search")
     public List<ItemShortOutputDTO> searchItemsByText(@RequestParam String text,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
                                                       @RequestParam(name = "from") int from,
                                                       @RequestParam(name = "size") int size) {
 
         log.info("START endpoint `method:GET /items/search` (search items by text), text: {}.", text);
 
-        return itemService.searchItemsByText(text, from, size);
+        return itemService.searchItemsByText(text, start, end, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
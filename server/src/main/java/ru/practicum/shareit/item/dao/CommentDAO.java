@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.dao;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.item.model.Comment;
 
@@ -15,17 +16,21 @@ public interface CommentDAO extends JpaRepository<Comment, Long> {
 
     /**
      * Retrieves a list of comments for a specific item ID, ordered by created date in descending order.
+     * The authors are fetched by the same query.
      *
      * @param itemId The ID of the item to retrieve comments for.
      * @return A list of comments for the specified item ID.
      */
+    @EntityGraph(attributePaths = "author")
     List<Comment> findAllByItem_IdOrderByCreatedDesc(Long itemId);
 
     /**
      * Retrieves a list of comments for multiple item IDs, ordered by created date in descending order.
+     * The authors are fetched by the same query.
      *
      * @param itemId A list of item IDs to retrieve comments for.
      * @return A list of comments for the specified item IDs.
      */
+    @EntityGraph(attributePaths = "author")
     List<Comment> findAllByItem_IdInOrderByCreatedDesc(List<Long> itemId);
 }
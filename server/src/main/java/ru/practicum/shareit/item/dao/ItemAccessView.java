@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dao;
+
+/**
+ * The ItemAccessView interface is a projection of an item together with the user it is looked up on behalf of.
+ * The item fields are null if the item does not exist.
+ */
+public interface ItemAccessView extends ItemSummaryView {
+
+    Long getUserId();
+
+    String getUserName();
+
+    String getUserEmail();
+}
@@ -2,9 +2,17 @@ package ru.practicum.shareit.item.dao;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchView;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * The ItemDao interface represents a data access object for managing items.
@@ -22,6 +30,17 @@ public interface ItemDAO extends JpaRepository<Item, Long> {
      */
     boolean existsById(Long itemId);
 
+    /**
+     * Find the own fields of an item without loading its owner and request.
+     *
+     * @param itemId The ID of the item.
+     * @return The fields of the item, or empty if the item does not exist.
+     */
+    @Query("SELECT i.id AS id, i.name AS name, i.description AS description, i.available AS available, " +
+            "i.owner.id AS ownerId, r.id AS requestId " +
+            "FROM Item AS i LEFT JOIN i.request AS r WHERE i.id = :itemId")
+    Optional<ItemSummaryView> findSummaryById(Long itemId);
+
     /**
      * Delete items by owner ID.
      *
@@ -29,6 +48,25 @@ public interface ItemDAO extends JpaRepository<Item, Long> {
      */
     void deleteByOwnerId(Long ownerId);
 
+    /**
+     * Find the IDs of all items owned by the specified owner.
+     *
+     * @param ownerId The ID of the owner.
+     * @return A list of IDs of the items owned by the specified owner.
+     */
+    @Query("SELECT i.id FROM Item AS i WHERE i.owner.id = :ownerId")
+    List<Long> findAllIdsByOwnerId(Long ownerId);
+
+    /**
+     * Stream the searchable fields of all available items, fetching them from the database in batches.
+     * The stream must be consumed and closed inside a transaction.
+     *
+     * @return A stream of the searchable fields of the available items.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT i.id AS id, i.name AS name, i.description AS description FROM Item AS i WHERE i.available = TRUE")
+    Stream<ItemSearchView> streamAllAvailable();
+
     /**
      * Find all items by owner ID and order them by ID.
      *
@@ -44,19 +82,52 @@ public interface ItemDAO extends JpaRepository<Item, Long> {
     List<Item> findAllByOwnerIdOrderById(Long ownerId, Integer from, Integer size);
 
     /**
-     * Find all items whose name contains the specified string (case-insensitive) and are available,
-     * or whose description contains the specified string (case-insensitive) and are available.
+     * Find all available items whose name or description contains the specified string (case-insensitive),
+     * ordered by relevance: items whose name starts with the text go first, then items whose name contains it,
+     * then items that match only by description. Items of equal relevance are ordered by ID.
+     * On PostgreSQL the `ILIKE` predicates are served by the partial trigram indexes on `items`.
      *
-     * @param text The text to search for in the name or description of the items.
+     * @param text The text to search for in the name or description of the items,
+     *             with the `LIKE` wildcards already escaped.
      * @return A list of items whose name or description contains the specified text.
      */
     @Query(nativeQuery = true,
             value = "SELECT * FROM items AS i " +
-                    "WHERE (name ILIKE CONCAT('%', :text, '%') AND available = TRUE) " +
-                    "OR (description ILIKE CONCAT('%', :text, '%') AND available = TRUE)" +
-                    "ORDER BY i.id LIMIT :size OFFSET :from")
+                    "WHERE i.available = TRUE " +
+                    "AND (i.name ILIKE CONCAT('%', :text, '%') OR i.description ILIKE CONCAT('%', :text, '%')) " +
+                    "ORDER BY CASE " +
+                    "WHEN i.name ILIKE CONCAT(:text, '%') THEN 0 " +
+                    "WHEN i.name ILIKE CONCAT('%', :text, '%') THEN 1 " +
+                    "ELSE 2 END, i.id LIMIT :size OFFSET :from")
     List<Item> findAllByNameOrDescriptionContains(String text, Integer from, Integer size);
 
+    /**
+     * Find all available items whose name or description contains the specified string (case-insensitive)
+     * and which have no APPROVED booking overlapping the interval `[start, end)`, ordered like
+     * {@link #findAllByNameOrDescriptionContains(String, Integer, Integer)}.
+     * The bookings are excluded by an anti-join in the database, so every page is full; for every candidate item
+     * the anti-join is a range seek on the covering index `bookings (item_id, status, start_data, end_data)`.
+     *
+     * @param text  The text to search for in the name or description of the items,
+     *              with the `LIKE` wildcards already escaped.
+     * @param start The start of the interval the items must be free in.
+     * @param end   The end of the interval the items must be free in.
+     * @return A list of items free in the interval whose name or description contains the specified text.
+     */
+    @Query(nativeQuery = true,
+            value = "SELECT * FROM items AS i " +
+                    "WHERE i.available = TRUE " +
+                    "AND (i.name ILIKE CONCAT('%', :text, '%') OR i.description ILIKE CONCAT('%', :text, '%')) " +
+                    "AND NOT EXISTS(SELECT 1 FROM bookings AS b " +
+                    "WHERE b.item_id = i.id AND b.status = 'APPROVED' " +
+                    "AND b.start_data < :end AND b.end_data > :start) " +
+                    "ORDER BY CASE " +
+                    "WHEN i.name ILIKE CONCAT(:text, '%') THEN 0 " +
+                    "WHEN i.name ILIKE CONCAT('%', :text, '%') THEN 1 " +
+                    "ELSE 2 END, i.id LIMIT :size OFFSET :from")
+    List<Item> findAllFreeByNameOrDescriptionContains(String text, LocalDateTime start, LocalDateTime end,
+                                                      Integer from, Integer size);
+
     /**
      * Find all items associated with a specific request ID.
      *
@@ -81,4 +152,41 @@ public interface ItemDAO extends JpaRepository<Item, Long> {
      * @return True if an item with the specified ID exists and is owned by the specified owner, false otherwise.
      */
     boolean existsItemByIdAndOwner_Id(Long itemId, Long ownerId);
+
+    /**
+     * Find the version of an item together with the state of its comments, without loading them.
+     * The item is looked up on behalf of a user, so the existence of the user is checked by the same query.
+     *
+     * @param itemId The ID of the item.
+     * @param userId The ID of the user.
+     * @return The version of the item with a null version if the item does not exist,
+     * or empty if the user does not exist.
+     */
+    @Query(nativeQuery = true,
+            value = "SELECT i.version AS version, i.owner_id AS ownerId, COUNT(c.id) AS commentCount, " +
+                    "COALESCE(MAX(c.id), 0) AS lastCommentId, COALESCE(SUM(a.version), 0) AS commentAuthorsVersion " +
+                    "FROM users AS u " +
+                    "LEFT JOIN items AS i ON i.id = :itemId " +
+                    "LEFT JOIN comments AS c ON c.item_id = i.id " +
+                    "LEFT JOIN users AS a ON a.id = c.author_id " +
+                    "WHERE u.id = :userId " +
+                    "GROUP BY u.id, i.id, i.version, i.owner_id")
+    Optional<ItemVersionView> findVersionByIdForUser(Long itemId, Long userId);
+
+    /**
+     * Find the own fields of an item together with the user it is looked up on behalf of, in a single query.
+     *
+     * @param itemId The ID of the item.
+     * @param userId The ID of the user.
+     * @return The fields of the item and of the user with null item fields if the item does not exist,
+     * or empty if the user does not exist.
+     */
+    @Query(nativeQuery = true,
+            value = "SELECT u.id AS userId, u.name AS userName, u.email AS userEmail, " +
+                    "i.id AS id, i.name AS name, i.description AS description, i.available AS available, " +
+                    "i.owner_id AS ownerId, i.request_id AS requestId " +
+                    "FROM users AS u " +
+                    "LEFT JOIN items AS i ON i.id = :itemId " +
+                    "WHERE u.id = :userId")
+    Optional<ItemAccessView> findByIdForUser(Long itemId, Long userId);
 }
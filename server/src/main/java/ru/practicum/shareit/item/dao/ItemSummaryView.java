@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dao;
+
+/**
+ * The ItemSummaryView interface is a projection of the own fields of an item, with its owner and request
+ * referenced by their IDs. It is small and immutable, so it is the item snapshot kept by the entity cache.
+ */
+public interface ItemSummaryView {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getOwnerId();
+
+    Long getRequestId();
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dao;
+
+/**
+ * The ItemVersionView interface is a projection of the state an item representation depends on:
+ * the version of the item and the set of its comments with the versions of their authors.
+ * The comments are never updated, so their count and the greatest ID identify the set.
+ * The version is null if the item does not exist.
+ */
+public interface ItemVersionView {
+
+    Long getVersion();
+
+    Long getOwnerId();
+
+    Long getCommentCount();
+
+    Long getLastCommentId();
+
+    Long getCommentAuthorsVersion();
+}
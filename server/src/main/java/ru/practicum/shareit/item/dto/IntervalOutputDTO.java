@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class IntervalOutputDTO {
+
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+}
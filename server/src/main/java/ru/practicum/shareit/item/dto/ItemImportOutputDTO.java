@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class ItemImportOutputDTO {
+
+    private int created;
+
+    private int failed;
+
+    private List<ItemImportRowOutputDTO> rows;
+}
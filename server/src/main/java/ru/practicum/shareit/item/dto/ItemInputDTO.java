@@ -1,7 +1,12 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
 @Getter
 @Setter
 @ToString
@@ -12,13 +17,21 @@ public class ItemInputDTO {
 
     private Long id;
 
+    @NotBlank(message = "The name must not be empty.")
+    @Size(max = 50, message = "The name must not be longer than {max} characters.")
     private String name;
 
+    @NotBlank(message = "The description must not be empty.")
+    @Size(max = 200, message = "The description must not be longer than {max} characters.")
     private String description;
 
+    @NotNull(message = "The available must not be null.")
     private Boolean available;
 
     private Long ownerId;
 
     private Long requestId;
+
+    @JsonIgnore
+    private Long version;
 }
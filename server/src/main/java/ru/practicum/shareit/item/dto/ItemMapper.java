@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.dto;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
+import ru.practicum.shareit.item.dao.ItemSummaryView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 
@@ -23,6 +24,14 @@ public interface ItemMapper {
     @Mapping(source = "request.id", target = "requestId")
     ItemShortOutputDTO toShortOutputDTO(Item entity);
 
+    /**
+     * Maps the fields from an ItemSummaryView projection to an ItemShortOutputDTO object.
+     *
+     * @param view The ItemSummaryView projection to be mapped.
+     * @return The mapped ItemShortOutputDTO object.
+     */
+    ItemShortOutputDTO viewToShortOutputDTO(ItemSummaryView view);
+
     /**
      * Maps a list of Item entities to a list of ItemShortOutputDTO objects.
      *
@@ -74,6 +83,19 @@ public interface ItemMapper {
     @Mapping(source = "request.id", target = "requestId")
     ItemOutputDTO toItemOutputDTO(Item entity);
 
+    /**
+     * Maps the fields from an ItemSummaryView projection to an ItemOutputDTO object.
+     *
+     * @param view The ItemSummaryView projection to be mapped.
+     * @return The mapped ItemOutputDTO object.
+     */
+    @Mappings({
+            @Mapping(target = "lastBooking", ignore = true),
+            @Mapping(target = "nextBooking", ignore = true),
+            @Mapping(target = "comments", ignore = true)
+    })
+    ItemOutputDTO viewToItemOutputDTO(ItemSummaryView view);
+
     /**
      * Maps a list of Item entities to a list of ItemOutputDTO objects.
      *
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.item.importer;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemImportOutputDTO;
+import ru.practicum.shareit.item.dto.ItemImportRowOutputDTO;
+import ru.practicum.shareit.item.dto.ItemInputDTO;
+import ru.practicum.shareit.item.model.ImportResult;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The ItemImporter class reads the rows of a bulk item import while they arrive and saves them in chunks,
+ * so the rows of an import of any size are held in memory one chunk at a time and every chunk is saved
+ * in its own transaction. The saved rows are only counted, and only the rows which were not saved are reported
+ * with their reason, so the response grows with the number of the failed rows only.
+ * The body is either a JSON array of items or a stream of newline-delimited JSON items (NDJSON).
+ * A row that cannot be read is reported and skipped; the import stops at the first row that is not valid JSON,
+ * because the rows after it cannot be told apart.
+ */
+@Slf4j
+@Component
+public class ItemImporter {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final ItemService itemService;
+    private final ObjectReader rowReader;
+
+    public ItemImporter(ItemService itemService, ObjectMapper objectMapper) {
+        this.itemService = itemService;
+        this.rowReader = objectMapper.readerFor(ItemInputDTO.class);
+    }
+
+    public ItemImportOutputDTO importItems(Long ownerId, InputStream body) throws IOException {
+
+        List<ItemImportRowOutputDTO> failedRows = new ArrayList<>();
+        Map<Integer, ItemInputDTO> chunk = new LinkedHashMap<>();
+        int created = 0;
+        boolean isOwnerChecked = false;
+        int row = 0;
+
+        try (MappingIterator<ItemInputDTO> rows = rowReader.readValues(body)) {
+            while (rows.hasNextValue()) {
+                try {
+                    chunk.put(row, rows.nextValue());
+                } catch (JsonParseException e) {
+                    failedRows.add(toUnreadableRow(row, e));
+                    break;
+                } catch (JsonMappingException e) {
+                    failedRows.add(toUnreadableRow(row, e));
+                }
+                row++;
+                if (chunk.size() == CHUNK_SIZE) {
+                    created += importChunk(ownerId, chunk, failedRows);
+                    isOwnerChecked = true;
+                    chunk = new LinkedHashMap<>();
+                }
+            }
+        } catch (JsonParseException e) {
+            failedRows.add(toUnreadableRow(row, e));
+        }
+
+        if (!chunk.isEmpty() || !isOwnerChecked) {
+            created += importChunk(ownerId, chunk, failedRows);
+        }
+        failedRows.sort(Comparator.comparing(ItemImportRowOutputDTO::getRow));
+
+        log.info("Imported {} items of {} rows for the owner with the ID - `{}`.", created, created + failedRows.size(),
+                ownerId);
+
+        return ItemImportOutputDTO.builder()
+                .created(created)
+                .failed(failedRows.size())
+                .rows(failedRows)
+                .build();
+    }
+
+    /**
+     * Save the chunk and collect its failed rows.
+     *
+     * @return The number of the created items.
+     */
+    private int importChunk(Long ownerId, Map<Integer, ItemInputDTO> chunk, List<ItemImportRowOutputDTO> failedRows) {
+
+        List<ItemImportRowOutputDTO> failedChunkRows = itemService.importItems(ownerId, chunk);
+        failedRows.addAll(failedChunkRows);
+
+        return chunk.size() - failedChunkRows.size();
+    }
+
+    private ItemImportRowOutputDTO toUnreadableRow(int row, JsonProcessingException e) {
+
+        return ItemImportRowOutputDTO.builder()
+                .row(row)
+                .result(ImportResult.INVALID)
+                .error(e.getOriginalMessage())
+                .build();
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.model;
+
+/**
+ * The reason a row of a bulk item import was not saved.
+ * INVALID - the row is malformed or misses a required field,
+ * NOT_FOUND - the row refers to a request that does not exist.
+ */
+public enum ImportResult {
+    INVALID, NOT_FOUND
+}
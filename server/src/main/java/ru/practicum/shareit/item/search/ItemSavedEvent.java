@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The ItemSavedEvent class is published when an item is created or updated.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ItemSavedEvent {
+
+    private final Long itemId;
+
+    private final String name;
+
+    private final String description;
+
+    private final boolean available;
+}
@@ -0,0 +1,430 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dao.ItemDAO;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * The ItemSearchIndex class is an optional in-memory index of the available items, which answers the searches
+ * exactly like {@link ItemDAO#findAllByNameOrDescriptionContains(String, Integer, Integer)}: the items whose name
+ * or description contains the trimmed text ignoring case, the items whose name starts with the text first,
+ * then those whose name contains it, then by ID.
+ * It maps every part of one to three letters of every lower-cased word of an item name or description
+ * to the sorted IDs of the items containing it, so the index grows linearly with the length of the words.
+ * The candidates are the items having every such part of the words of the text, found by intersecting
+ * the posting lists from the shortest one, and every candidate is then checked against the whole text;
+ * only a page of the best ranked matches is kept while they are checked. A text without letters or digits
+ * has no words to look up, so it is not answered by the index, see {@link #canAnswer(String)}.
+ * The index is rebuilt from the database at startup and is kept up to date by the item events published
+ * after the corresponding transactions commit. The events of other instances are not seen until the next rebuild,
+ * so the index is meant for a single instance and is disabled by default; it is enabled
+ * by the `shareit.search.index.enabled` property.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int GRAM_LENGTH = 3;
+    private static final Comparator<RankedItem> RANK_ORDER = Comparator.comparingInt(RankedItem::getRank)
+            .thenComparing(RankedItem::getItemId);
+    private static final long MAP_ENTRY_BYTES = 40;
+    private static final long STRING_BYTES = 40;
+    private static final long ARRAY_BYTES = 16;
+
+    private final ItemDAO itemDao;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, LongPostingList> postings = new HashMap<>();
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+    private final Set<Long> touchedDuringRebuild = new HashSet<>();
+    private volatile boolean ready;
+    private boolean rebuilding;
+
+    public ItemSearchIndex(ItemDAO itemDao,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.search.index.enabled:false}") boolean enabled) {
+        this.itemDao = itemDao;
+        this.enabled = enabled;
+
+        if (enabled) {
+            Gauge.builder("shareit.search.index.memory", this, ItemSearchIndex::estimateMemoryFootprint)
+                    .description("Estimated heap retained by the in-memory item search index")
+                    .baseUnit(BaseUnits.BYTES)
+                    .register(meterRegistry);
+            Gauge.builder("shareit.search.index.items", this, ItemSearchIndex::countItems)
+                    .description("Number of items in the in-memory item search index")
+                    .register(meterRegistry);
+            Gauge.builder("shareit.search.index.tokens", this, ItemSearchIndex::countTokens)
+                    .description("Number of distinct word parts in the in-memory item search index")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Checks whether the index is enabled and fully built, so searches can be answered from it.
+     *
+     * @return True if the index can answer searches, false otherwise.
+     */
+    public boolean isReady() {
+
+        return ready;
+    }
+
+    /**
+     * Checks whether the text has a word the index can look up; a text of separators only, such as `-`,
+     * is left to the database search.
+     *
+     * @param text The search text.
+     * @return True if the text has a letter or a digit, false otherwise.
+     */
+    public boolean canAnswer(String text) {
+
+        return tokenize(text).findAny().isPresent();
+    }
+
+    /**
+     * Finds the IDs of the available items whose name or description contains the text, ignoring case.
+     *
+     * @param text The search text.
+     * @param from The index of the first item ID to return.
+     * @param size The maximum number of item IDs to return.
+     * @return The matching item IDs in the order of the database search, or an empty list
+     * if the text has no letters or digits.
+     */
+    public List<Long> search(String text, int from, int size) {
+
+        String query = text.trim().toLowerCase(Locale.ROOT);
+        // Every word of the text is a part of a word of a matching item, so every part of it selects the candidates.
+        Set<String> grams = tokenize(query)
+                .flatMap(ItemSearchIndex::queryGrams)
+                .collect(Collectors.toSet());
+        int limit = (int) Math.min(Integer.MAX_VALUE, (long) from + size);
+        if (grams.isEmpty() || limit == 0) {
+            return Collections.emptyList();
+        }
+
+        PriorityQueue<RankedItem> best = new PriorityQueue<>(Math.min(limit, 64), RANK_ORDER.reversed());
+        lock.readLock().lock();
+        try {
+            long[] candidates = findContainingAll(grams);
+            for (long itemId : candidates) {
+                int rank = items.get(itemId).rank(query);
+                if (rank < 0) {
+                    continue;
+                }
+                RankedItem match = new RankedItem(itemId, rank);
+                if (best.size() < limit) {
+                    best.add(match);
+                } else if (RANK_ORDER.compare(match, best.peek()) < 0) {
+                    best.poll();
+                    best.add(match);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return best.stream()
+                .sorted(RANK_ORDER)
+                .skip(from)
+                .map(RankedItem::getItemId)
+                .collect(Collectors.toList());
+    }
+
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            markTouched(event.getItemId());
+            removeItem(event.getItemId());
+            if (event.isAvailable()) {
+                addItem(event.getItemId(), event.getName(), event.getDescription());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onItemsDeleted(ItemsDeletedEvent event) {
+
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            event.getItemIds().forEach(itemId -> {
+                markTouched(itemId);
+                removeItem(itemId);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes items that were found in the index but no longer exist in the database.
+     *
+     * @param itemIds The IDs of the missing items.
+     */
+    public void evict(Collection<Long> itemIds) {
+
+        lock.writeLock().lock();
+        try {
+            itemIds.forEach(this::removeItem);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the index by streaming the available items from the database.
+     * Items changed while the rebuild is running keep the state applied by their events.
+     */
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+
+        if (!enabled) {
+            return;
+        }
+
+        log.info("START rebuilding the item search index.");
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            rebuilding = true;
+            postings.clear();
+            items.clear();
+            touchedDuringRebuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try (Stream<ItemSearchView> items = itemDao.streamAllAvailable()) {
+            items.forEach(item -> {
+                lock.writeLock().lock();
+                try {
+                    if (!touchedDuringRebuild.contains(item.getId())) {
+                        addItem(item.getId(), item.getName(), item.getDescription());
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+        }
+
+        lock.writeLock().lock();
+        try {
+            rebuilding = false;
+            touchedDuringRebuild.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("END rebuilding the item search index: {} items, {} word parts, ~{} bytes.",
+                countItems(), countTokens(), estimateMemoryFootprint());
+    }
+
+    /**
+     * Estimates the heap retained by the index: the word parts, the posting lists and the per-item texts.
+     *
+     * @return The estimated retained size in bytes.
+     */
+    public long estimateMemoryFootprint() {
+
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (Map.Entry<String, LongPostingList> entry : postings.entrySet()) {
+                bytes += MAP_ENTRY_BYTES + STRING_BYTES + 2L * entry.getKey().length() + entry.getValue().retainedBytes();
+            }
+            for (IndexedItem item : items.values()) {
+                bytes += MAP_ENTRY_BYTES + ARRAY_BYTES + 2 * STRING_BYTES
+                        + 2L * (item.getName().length() + item.getDescription().length());
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int countItems() {
+
+        lock.readLock().lock();
+        try {
+            return items.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int countTokens() {
+
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void markTouched(Long itemId) {
+
+        if (rebuilding) {
+            touchedDuringRebuild.add(itemId);
+        }
+    }
+
+    /**
+     * Finds the sorted IDs of the items having every one of the word parts, intersecting their posting lists
+     * in place from the shortest one.
+     */
+    private long[] findContainingAll(Set<String> grams) {
+
+        List<LongPostingList> postingLists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            LongPostingList postingList = postings.get(gram);
+            if (Objects.isNull(postingList)) {
+                return new long[0];
+            }
+            postingLists.add(postingList);
+        }
+        postingLists.sort(Comparator.comparingInt(LongPostingList::size));
+
+        long[] candidates = postingLists.get(0).toArray();
+        int count = candidates.length;
+        for (int i = 1; i < postingLists.size() && count > 0; i++) {
+            count = postingLists.get(i).retainAll(candidates, count);
+        }
+
+        return Arrays.copyOf(candidates, count);
+    }
+
+    private void addItem(Long itemId, String name, String description) {
+
+        IndexedItem item = new IndexedItem(lowerCase(name), lowerCase(description));
+        item.grams().forEach(gram -> postings.computeIfAbsent(gram, key -> new LongPostingList()).add(itemId));
+        items.put(itemId, item);
+    }
+
+    private void removeItem(Long itemId) {
+
+        IndexedItem item = items.remove(itemId);
+        if (Objects.isNull(item)) {
+            return;
+        }
+
+        item.grams().forEach(gram -> {
+            LongPostingList postingList = postings.get(gram);
+            if (Objects.nonNull(postingList) && postingList.remove(itemId) && postingList.isEmpty()) {
+                postings.remove(gram);
+            }
+        });
+    }
+
+    private static String lowerCase(String text) {
+
+        return Objects.isNull(text) ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the parts of a word of the text which every matching word contains: the word itself if it is short,
+     * or else its every part of three letters.
+     */
+    private static Stream<String> queryGrams(String token) {
+
+        if (token.length() <= GRAM_LENGTH) {
+            return Stream.of(token);
+        }
+
+        return IntStream.rangeClosed(0, token.length() - GRAM_LENGTH)
+                .mapToObj(start -> token.substring(start, start + GRAM_LENGTH));
+    }
+
+    private static Stream<String> tokenize(String text) {
+
+        if (Objects.isNull(text)) {
+            return Stream.empty();
+        }
+
+        return TOKEN_SEPARATOR.splitAsStream(text.toLowerCase(Locale.ROOT))
+                .filter(token -> !token.isEmpty());
+    }
+
+    /**
+     * The lower-cased searchable texts of an item.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class IndexedItem {
+
+        private final String name;
+        private final String description;
+
+        /**
+         * Ranks the item like the database search.
+         *
+         * @return 0 if the name starts with the query, 1 if the name contains it, 2 if the description contains it,
+         * or -1 if the item does not match.
+         */
+        private int rank(String query) {
+
+            if (name.startsWith(query)) {
+                return 0;
+            }
+            if (name.contains(query)) {
+                return 1;
+            }
+
+            return description.contains(query) ? 2 : -1;
+        }
+
+        /**
+         * Returns every distinct part of one to three letters of the words of the item,
+         * at most three per letter.
+         */
+        private Stream<String> grams() {
+
+            return Stream.concat(tokenize(name), tokenize(description))
+                    .flatMap(word -> IntStream.range(0, word.length())
+                            .boxed()
+                            .flatMap(start -> IntStream.rangeClosed(start + 1, Math.min(start + GRAM_LENGTH, word.length()))
+                                    .mapToObj(end -> word.substring(start, end))))
+                    .distinct();
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class RankedItem {
+
+        private final Long itemId;
+        private final int rank;
+    }
+}
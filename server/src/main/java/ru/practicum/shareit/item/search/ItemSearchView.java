@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.search;
+
+/**
+ * The ItemSearchView interface is a read-only projection of the item fields indexed by {@link ItemSearchIndex}.
+ */
+public interface ItemSearchView {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+}
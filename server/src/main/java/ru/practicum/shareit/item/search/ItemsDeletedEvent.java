@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * The ItemsDeletedEvent class is published when items are deleted together with their owner.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ItemsDeletedEvent {
+
+    private final List<Long> itemIds;
+}
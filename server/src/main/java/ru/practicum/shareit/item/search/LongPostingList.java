@@ -0,0 +1,118 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+/**
+ * The LongPostingList class is a sorted set of item IDs backed by a primitive long array.
+ * It is not thread-safe; {@link ItemSearchIndex} guards every instance with its lock.
+ */
+class LongPostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+    private static final long EMPTY_LIST_BYTES = 16 + 4 + 16;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Adds the ID to the list, keeping the list sorted.
+     *
+     * @param id The ID to add.
+     * @return True if the ID was added, false if it was already present.
+     */
+    boolean add(long id) {
+
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return false;
+        }
+
+        int insertAt = -position - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length + (ids.length >> 1) + 1);
+        }
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+
+        return true;
+    }
+
+    /**
+     * Removes the ID from the list.
+     *
+     * @param id The ID to remove.
+     * @return True if the ID was removed, false if it was not present.
+     */
+    boolean remove(long id) {
+
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return false;
+        }
+
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+
+        return true;
+    }
+
+    boolean isEmpty() {
+
+        return size == 0;
+    }
+
+    /**
+     * Returns a sorted copy of the IDs.
+     *
+     * @return The sorted IDs.
+     */
+    long[] toArray() {
+
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Returns the approximate number of bytes retained by the list.
+     *
+     * @return The retained size in bytes.
+     */
+    long retainedBytes() {
+
+        return EMPTY_LIST_BYTES + (long) ids.length * Long.BYTES;
+    }
+
+    /**
+     * Returns the number of IDs in the list.
+     *
+     * @return The size of the list.
+     */
+    int size() {
+
+        return size;
+    }
+
+    /**
+     * Keeps in place only those of the first candidates which are present in the list.
+     *
+     * @param candidates The sorted candidate IDs, overwritten by the retained ones.
+     * @param count      The number of candidates at the beginning of the array.
+     * @return The number of retained candidates at the beginning of the array.
+     */
+    int retainAll(long[] candidates, int count) {
+
+        int retained = 0;
+        int from = 0;
+        for (int i = 0; i < count && from < size; i++) {
+            int position = Arrays.binarySearch(ids, from, size, candidates[i]);
+            if (position >= 0) {
+                candidates[retained++] = candidates[i];
+                from = position + 1;
+            } else {
+                from = -position - 1;
+            }
+        }
+
+        return retained;
+    }
+}
@@ -2,7 +2,9 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The ItemService interface represents a service for managing item.
@@ -16,6 +18,17 @@ public interface ItemService {
      */
     ItemShortOutputDTO create(Long ownerId, ItemInputDTO inputDTO);
 
+    /**
+     * Creates the items of one chunk of a bulk import. Every row is validated on its own with the constraints
+     * of {@link ItemInputDTO}, the referenced requests are checked by a single query, and the valid rows
+     * are inserted together in JDBC batches. An invalid row does not prevent the other rows of the chunk from being saved.
+     *
+     * @param ownerId The ID of the owner of the items.
+     * @param rows    The rows of the chunk by their index in the import.
+     * @return The rows which were not saved with the reason, in the order of the rows.
+     */
+    List<ItemImportRowOutputDTO> importItems(Long ownerId, Map<Integer, ItemInputDTO> rows);
+
     /**
      * Updates an existing item owned by the specified owner ID with the provided item request data.
      *
@@ -34,6 +47,29 @@ public interface ItemService {
      */
     ItemOutputDTO getById(Long userId, Long itemId);
 
+    /**
+     * Computes the entity tag of the item returned by {@link #getById(Long, Long)} without building it.
+     * The owner of the item sees its last and next bookings, so the tag also depends on the viewer.
+     *
+     * @param userId The ID of the user requesting the item details.
+     * @param itemId The ID of the item.
+     * @return The strong entity tag, which changes whenever the representation of the item changes.
+     */
+    String getETagById(Long userId, Long itemId);
+
+    /**
+     * Computes the intervals within `[from, to)` when the item is not taken by a WAITING or APPROVED booking.
+     * The intervals are read from the in-memory booking timeline of the item, which is kept up to date when bookings
+     * are committed through this instance and is loaded again from the database once its time to live passes.
+     *
+     * @param userId The ID of the user requesting the availability.
+     * @param itemId The ID of the item.
+     * @param from   The start of the range; a start in the past is moved to the current time.
+     * @param to     The end of the range.
+     * @return The free intervals of the item sorted by their start.
+     */
+    ItemAvailabilityOutputDTO getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to);
+
     /**
      * Retrieves all items by the specified owner ID along with their associated bookings and comments.
      *
@@ -44,11 +80,15 @@ public interface ItemService {
 
     /**
      * Searches for items based on the provided text keyword.
+     * If the interval `[start, end)` is specified, only the items with no APPROVED booking overlapping it are found.
      *
-     * @param text The keyword to search for in item descriptions or names.
+     * @param text  The keyword to search for in item descriptions or names.
+     * @param start The start of the interval the items must be free in, or null.
+     * @param end   The end of the interval the items must be free in, or null.
      * @return A list of items matching the search text along with their details.
      */
-    List<ItemShortOutputDTO> searchItemsByText(String text, Integer from, Integer size);
+    List<ItemShortOutputDTO> searchItemsByText(String text, LocalDateTime start, LocalDateTime end,
+                                               Integer from, Integer size);
 
     /**
      * Adds a comment to the specified item by the provided user.
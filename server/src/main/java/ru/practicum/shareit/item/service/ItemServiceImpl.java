@@ -1,48 +1,68 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dao.BookingDAO;
-import ru.practicum.shareit.booking.dto.BookingMapper;
-import ru.practicum.shareit.booking.dto.BookingOutputDTO;
+import ru.practicum.shareit.booking.dao.ItemBookingsView;
 import ru.practicum.shareit.booking.dto.BookingShortOutputDTO;
+import ru.practicum.shareit.booking.timeline.BookingTimeline;
+import ru.practicum.shareit.cache.EntityCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidException;
 import ru.practicum.shareit.item.dao.CommentDAO;
+import ru.practicum.shareit.item.dao.ItemAccessView;
 import ru.practicum.shareit.item.dao.ItemDAO;
+import ru.practicum.shareit.item.dao.ItemSummaryView;
+import ru.practicum.shareit.item.dao.ItemVersionView;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.model.ImportResult;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSavedEvent;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.outbox.EventType;
+import ru.practicum.shareit.outbox.Outbox;
 import ru.practicum.shareit.request.dao.ItemRequestDAO;
 import ru.practicum.shareit.user.dao.UserDAO;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.dto.UserOutputDTO;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.model.Status.APPROVED;
-import static ru.practicum.shareit.booking.model.Status.REJECTED;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    private static final List<String> IMPORT_FIELDS = List.of("name", "description", "available");
+
     private final ItemDAO itemDao;
     private final UserDAO userDao;
     private final BookingDAO bookingDao;
     private final CommentDAO commentDao;
     private final ItemRequestDAO itemRequestDao;
     private final ItemMapper itemMapper;
-    private final BookingMapper bookingMapper;
     private final CommentMapper commentMapper;
     private final UserMapper userMapper;
+    private final ItemSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityCache<UserOutputDTO> userCache;
+    private final EntityCache<ItemSummaryView> itemCache;
+    private final BookingTimeline bookingTimeline;
+    private final Outbox outbox;
+    private final Validator validator;
 
     @Override
     @Transactional
     public ItemShortOutputDTO create(Long ownerId, ItemInputDTO inputDTO) {
 
-        checkExistsUserById(ownerId);
+        checkStoredUserById(ownerId);
         Long requestId = inputDTO.getRequestId();
         if (Objects.nonNull(requestId)) {
             checkExistsRequestById(requestId);
@@ -50,14 +70,56 @@ public class ItemServiceImpl implements ItemService {
 
         inputDTO.setOwnerId(ownerId);
 
-        return itemMapper.toShortOutputDTO(itemDao.save(itemMapper.inputDTOToEntity(inputDTO)));
+        ItemShortOutputDTO outputDTO = itemMapper.toShortOutputDTO(saveItem(itemMapper.inputDTOToEntity(inputDTO)));
+        appendAddedToRequest(outputDTO);
+
+        return outputDTO;
+    }
+
+    @Override
+    @Transactional
+    public List<ItemImportRowOutputDTO> importItems(Long ownerId, Map<Integer, ItemInputDTO> rows) {
+
+        checkStoredUserById(ownerId);
+
+        Set<Long> requestIds = rows.values().stream()
+                .map(ItemInputDTO::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> existingRequestIds = requestIds.isEmpty()
+                ? Collections.emptySet()
+                : new HashSet<>(itemRequestDao.findAllExistingIds(requestIds));
+
+        List<ItemImportRowOutputDTO> failedRows = new ArrayList<>();
+        List<Item> items = new ArrayList<>();
+        rows.forEach((row, inputDTO) -> {
+            ItemImportRowOutputDTO failedRow = validateImportRow(row, inputDTO, existingRequestIds);
+            if (Objects.nonNull(failedRow)) {
+                failedRows.add(failedRow);
+                return;
+            }
+            inputDTO.setId(null);
+            inputDTO.setOwnerId(ownerId);
+            inputDTO.setVersion(null);
+            items.add(itemMapper.inputDTOToEntity(inputDTO));
+        });
+
+        itemDao.saveAll(items);
+        itemDao.flush();
+        items.forEach(item -> {
+            eventPublisher.publishEvent(new ItemSavedEvent(item.getId(), item.getName(),
+                    item.getDescription(), item.isAvailable()));
+            appendAddedToRequest(itemMapper.toShortOutputDTO(item));
+        });
+
+        return failedRows;
     }
 
     @Override
     @Transactional
     public ItemShortOutputDTO update(Long ownerId, Long itemId, ItemInputDTO inputDTO) {
 
-        checkExistsUserById(ownerId);
+        checkStoredUserById(ownerId);
 
         ItemInputDTO itemFromDB = getItemRequestDto(ownerId, itemId);
         String itemName = inputDTO.getName();
@@ -83,29 +145,80 @@ public class ItemServiceImpl implements ItemService {
         }
         inputDTO.setId(itemId);
         inputDTO.setOwnerId(ownerId);
+        inputDTO.setVersion(itemFromDB.getVersion());
+
+        ItemShortOutputDTO outputDTO = itemMapper.toShortOutputDTO(saveItem(itemMapper.inputDTOToEntity(inputDTO)));
+        if (!Objects.equals(itemFromDB.getRequestId(), outputDTO.getRequestId())) {
+            appendAddedToRequest(outputDTO);
+        }
 
-        return itemMapper.toShortOutputDTO(itemDao.save(itemMapper.inputDTOToEntity(inputDTO)));
+        return outputDTO;
     }
 
     @Override
     public ItemOutputDTO getById(Long userId, Long itemId) {
 
-        checkExistsUserById(userId);
-        ItemOutputDTO outputDto = itemMapper.toItemOutputDTO(itemDao.findById(itemId)
-                .orElseThrow(() -> NotFoundException.builder()
-                        .message(String.format("The item with the ID - `%d` was not found.", itemId))
-                        .build()));
+        ItemAccessView item = findItemForUser(itemId, userId);
+        ItemOutputDTO outputDto = itemMapper.viewToItemOutputDTO(item);
 
         List<CommentOutputDTO> comments = commentMapper.toOutputDTOs(commentDao.findAllByItem_IdOrderByCreatedDesc(itemId));
-        if (!itemDao.existsItemByIdAndOwner_Id(itemId, userId)) {
+        if (!Objects.equals(item.getOwnerId(), userId)) {
             outputDto.setComments(comments);
             return outputDto;
         }
 
-        List<BookingOutputDTO> bookings = bookingMapper.toOutputDTOs(bookingDao.findAllByItem_IdAndStatusIsNot(itemId, REJECTED));
-        LocalDateTime now = LocalDateTime.now();
+        ItemBookingsView bookings = bookingDao.findLastAndNextBookingsByItemIds(List.of(itemId), LocalDateTime.now()).stream()
+                .findFirst()
+                .orElse(null);
+
+        return getItemWithBookingsAndComments(outputDto, comments, bookings);
+    }
+
+    @Override
+    public String getETagById(Long userId, Long itemId) {
+
+        ItemVersionView version = itemDao.findVersionByIdForUser(itemId, userId)
+                .orElseThrow(() -> NotFoundException.builder()
+                        .message(String.format("The user with the ID - `%d` was not found.", userId))
+                        .build());
+        if (Objects.isNull(version.getVersion())) {
+            throw NotFoundException.builder()
+                    .message(String.format("The item with the ID - `%d` was not found.", itemId))
+                    .build();
+        }
+        String itemETag = String.format("%d-%d-%d-%d-%d", itemId, version.getVersion(),
+                version.getCommentCount(), version.getLastCommentId(), version.getCommentAuthorsVersion());
+
+        if (!Objects.equals(version.getOwnerId(), userId)) {
+            return itemETag;
+        }
 
-        return getItemWithBookingsAndComments(outputDto, comments, bookings, now);
+        Optional<ItemBookingsView> bookings = bookingDao.findLastAndNextBookingsByItemIds(List.of(itemId), LocalDateTime.now()).stream()
+                .findFirst();
+
+        return String.format("%s-owner-%d-%d", itemETag,
+                bookings.map(ItemBookingsView::getLastBookingId).orElse(0L),
+                bookings.map(ItemBookingsView::getNextBookingId).orElse(0L));
+    }
+
+    @Override
+    public ItemAvailabilityOutputDTO getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+
+        checkExistsUserById(userId);
+        checkExistsItemById(itemId);
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = from.isBefore(now) ? now : from;
+        List<IntervalOutputDTO> free = start.isBefore(to)
+                ? bookingTimeline.getFreeIntervals(itemId, start, to)
+                : Collections.emptyList();
+
+        return ItemAvailabilityOutputDTO.builder()
+                .itemId(itemId)
+                .from(start)
+                .to(to)
+                .free(free)
+                .build();
     }
 
     @Override
@@ -119,36 +232,43 @@ public class ItemServiceImpl implements ItemService {
         List<Long> itemsIds = responseItems.stream()
                 .map(ItemOutputDTO::getId)
                 .collect(Collectors.toList());
-        Map<Long, List<BookingOutputDTO>> bookings = bookingDao.findAllByItem_IdInAndStatusIsNot(itemsIds, REJECTED).stream()
-                .map(bookingMapper::toOutputDTO)
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        Map<Long, ItemBookingsView> bookings = bookingDao.findLastAndNextBookingsByItemIds(itemsIds, LocalDateTime.now()).stream()
+                .collect(Collectors.toMap(ItemBookingsView::getItemId, booking -> booking));
         Map<Long, List<CommentOutputDTO>> comments = commentDao.findAllByItem_IdInOrderByCreatedDesc(itemsIds).stream()
                 .map(commentMapper::toOutputDTO)
                 .collect(Collectors.groupingBy(CommentOutputDTO::getItemId));
-        LocalDateTime now = LocalDateTime.now();
 
         return responseItems.stream().map(itemOutputDTO -> {
             Long itemId = itemOutputDTO.getId();
-            return getItemWithBookingsAndComments(itemOutputDTO, comments.get(itemId), bookings.get(itemId), now);
+            return getItemWithBookingsAndComments(itemOutputDTO, comments.get(itemId), bookings.get(itemId));
         }).collect(Collectors.toList());
     }
 
     @Override
-    public List<ItemShortOutputDTO> searchItemsByText(String text, Integer from, Integer size) {
+    public List<ItemShortOutputDTO> searchItemsByText(String text, LocalDateTime start, LocalDateTime end,
+                                                      Integer from, Integer size) {
 
-        if (text.isEmpty()) {
+        if (text.isBlank()) {
             return Collections.emptyList();
         }
 
-        return itemMapper.toShortOutputDTOs(itemDao.findAllByNameOrDescriptionContains(text, from, size));
+        if (Objects.nonNull(start) && Objects.nonNull(end)) {
+            return itemMapper.toShortOutputDTOs(itemDao.findAllFreeByNameOrDescriptionContains(
+                    escapeLikePattern(text.trim()), start, end, from, size));
+        }
+
+        if (searchIndex.isReady() && searchIndex.canAnswer(text)) {
+            return itemMapper.toShortOutputDTOs(findAllByIdsInOrder(searchIndex.search(text, from, size)));
+        }
+
+        return itemMapper.toShortOutputDTOs(itemDao.findAllByNameOrDescriptionContains(escapeLikePattern(text.trim()), from, size));
     }
 
     @Override
     @Transactional
     public CommentOutputDTO addComment(Long userId, Long itemId, CommentInputDTO inputDTO) {
 
-        UserOutputDTO userResponseDto = checkExistsUserById(userId);
-        checkExistsItemById(itemId);
+        ItemAccessView item = findItemForUser(itemId, userId);
 
         LocalDateTime now = LocalDateTime.now();
 
@@ -163,11 +283,73 @@ public class ItemServiceImpl implements ItemService {
         inputDTO.setItemId(itemId);
 
         CommentOutputDTO responseDto = commentMapper.toOutputDTO(commentDao.save(commentMapper.inputDTOToEntity(inputDTO)));
-        responseDto.setAuthorName(userResponseDto.getName());
+        responseDto.setAuthorName(item.getUserName());
+        outbox.append(EventType.COMMENT_ADDED, itemId, responseDto);
 
         return responseDto;
     }
 
+    private Item saveItem(Item item) {
+
+        Item savedItem = itemDao.save(item);
+        eventPublisher.publishEvent(new ItemSavedEvent(savedItem.getId(), savedItem.getName(),
+                savedItem.getDescription(), savedItem.isAvailable()));
+
+        return savedItem;
+    }
+
+    /**
+     * Validate an import row with the constraints of {@link ItemInputDTO}, reporting the first violated field
+     * in the order of {@link #IMPORT_FIELDS}, and check its request.
+     */
+    private ItemImportRowOutputDTO validateImportRow(Integer row, ItemInputDTO inputDTO, Set<Long> existingRequestIds) {
+
+        ImportResult result = ImportResult.INVALID;
+        String error = validator.validate(inputDTO).stream()
+                .min(Comparator.comparingInt(violation -> IMPORT_FIELDS.indexOf(violation.getPropertyPath().toString())))
+                .map(ConstraintViolation::getMessage)
+                .orElse(null);
+        if (Objects.isNull(error) && Objects.nonNull(inputDTO.getRequestId())
+                && !existingRequestIds.contains(inputDTO.getRequestId())) {
+            error = String.format("The itemRequest with the ID - `%d` was not found.", inputDTO.getRequestId());
+            result = ImportResult.NOT_FOUND;
+        }
+
+        if (Objects.isNull(error)) {
+            return null;
+        }
+
+        return ItemImportRowOutputDTO.builder()
+                .row(row)
+                .result(result)
+                .error(error)
+                .build();
+    }
+
+    private void appendAddedToRequest(ItemShortOutputDTO item) {
+
+        if (Objects.nonNull(item.getRequestId())) {
+            outbox.append(EventType.ITEM_ADDED_TO_REQUEST, item.getRequestId(), item);
+        }
+    }
+
+    private List<Item> findAllByIdsInOrder(List<Long> itemIds) {
+
+        Map<Long, Item> items = itemDao.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+        List<Long> missingIds = itemIds.stream()
+                .filter(itemId -> !items.containsKey(itemId))
+                .collect(Collectors.toList());
+        if (!missingIds.isEmpty()) {
+            searchIndex.evict(missingIds);
+        }
+
+        return itemIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
     private ItemInputDTO getItemRequestDto(Long ownerId, Long itemId) {
 
         ItemInputDTO itemFromDB = itemMapper.toInputDTO(itemDao.findById(itemId)
@@ -186,8 +368,7 @@ public class ItemServiceImpl implements ItemService {
 
     private ItemOutputDTO getItemWithBookingsAndComments(ItemOutputDTO item,
                                                          List<CommentOutputDTO> comments,
-                                                         List<BookingOutputDTO> bookings,
-                                                         LocalDateTime now) {
+                                                         ItemBookingsView bookings) {
 
         if (Objects.isNull(bookings)) {
             return item.toBuilder()
@@ -197,38 +378,79 @@ public class ItemServiceImpl implements ItemService {
                     .build();
         }
 
-        BookingShortOutputDTO lastBooking = bookingMapper.outputDTOToShortOutputDTO(bookings.stream()
-                .filter(booking -> booking.getStart().isBefore(now))
-                .max(Comparator.comparing(BookingOutputDTO::getStart))
-                .orElse(null));
-
-        BookingShortOutputDTO nextBooking = bookingMapper.outputDTOToShortOutputDTO(bookings.stream()
-                .filter(booking -> booking.getStart().isAfter(now))
-                .min(Comparator.comparing(BookingOutputDTO::getStart))
-                .orElse(null));
-
         return item.toBuilder()
-                .lastBooking(lastBooking)
-                .nextBooking(nextBooking)
+                .lastBooking(toShortOutputDTO(bookings.getLastBookingId(), bookings.getLastBookerId()))
+                .nextBooking(toShortOutputDTO(bookings.getNextBookingId(), bookings.getNextBookerId()))
                 .comments(comments)
                 .build();
     }
 
-    private void checkExistsItemById(Long itemId) {
+    private BookingShortOutputDTO toShortOutputDTO(Long bookingId, Long bookerId) {
+
+        if (Objects.isNull(bookingId)) {
+            return null;
+        }
+
+        return BookingShortOutputDTO.builder()
+                .id(bookingId)
+                .bookerId(bookerId)
+                .build();
+    }
 
-        if (!itemDao.existsById(itemId)) {
+    private String escapeLikePattern(String text) {
+
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    private ItemAccessView findItemForUser(Long itemId, Long userId) {
+
+        ItemAccessView item = itemDao.findByIdForUser(itemId, userId)
+                .orElseThrow(() -> NotFoundException.builder()
+                        .message(String.format("The user with the ID - `%d` was not found.", userId))
+                        .build());
+        if (Objects.isNull(item.getId())) {
             throw NotFoundException.builder()
                     .message(String.format("The item with the ID - `%d` was not found.", itemId))
                     .build();
         }
+
+        return item;
     }
 
     private UserOutputDTO checkExistsUserById(Long userId) {
 
-        return userMapper.toOutputDTO(userDao.findById(userId)
+        return userCache.get(userId, this::findUserById)
                 .orElseThrow(() -> NotFoundException.builder()
                         .message(String.format("The user with the ID - `%d` was not found.", userId))
-                        .build()));
+                        .build());
+    }
+
+    /**
+     * Check the user in the database for a write, as a cached user may already be deleted by another instance.
+     */
+    private void checkStoredUserById(Long userId) {
+
+        if (!userDao.existsById(userId)) {
+            throw NotFoundException.builder()
+                    .message(String.format("The user with the ID - `%d` was not found.", userId))
+                    .build();
+        }
+    }
+
+    private Optional<UserOutputDTO> findUserById(Long userId) {
+
+        return userDao.findById(userId).map(userMapper::toOutputDTO);
+    }
+
+    private void checkExistsItemById(Long itemId) {
+
+        if (itemCache.get(itemId, itemDao::findSummaryById).isEmpty()) {
+            throw NotFoundException.builder()
+                    .message(String.format("The item with the ID - `%d` was not found.", itemId))
+                    .build();
+        }
     }
 
     private void checkExistsRequestById(Long requestId) {
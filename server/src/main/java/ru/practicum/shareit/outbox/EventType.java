@@ -0,0 +1,23 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.Getter;
+
+/**
+ * The types of the domain events written to the outbox, each with the type of the aggregate it belongs to.
+ * The ID of the aggregate is the ID of the booking, of the item the comment was added to, or of the request.
+ */
+@Getter
+public enum EventType {
+    BOOKING_CREATED("BOOKING"),
+    BOOKING_APPROVED("BOOKING"),
+    BOOKING_REJECTED("BOOKING"),
+    COMMENT_ADDED("ITEM"),
+    REQUEST_CREATED("REQUEST"),
+    ITEM_ADDED_TO_REQUEST("REQUEST");
+
+    private final String aggregateType;
+
+    EventType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+}
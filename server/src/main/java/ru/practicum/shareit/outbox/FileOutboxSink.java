@@ -0,0 +1,48 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * The FileOutboxSink class appends the relayed events to the file set by the `shareit.outbox.file-path` property,
+ * one JSON event per line, for local testing of the consumers. Nothing is written if the property is empty.
+ */
+@Component
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path path;
+    private final ObjectWriter jsonWriter;
+
+    public FileOutboxSink(OutboxProperties properties, ObjectMapper objectMapper) {
+        this.path = properties.getFilePath().isBlank() ? null : Path.of(properties.getFilePath());
+        this.jsonWriter = objectMapper.writer();
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+
+        if (path == null) {
+            return;
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxMessage message : messages) {
+                writer.write(jsonWriter.writeValueAsString(message));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
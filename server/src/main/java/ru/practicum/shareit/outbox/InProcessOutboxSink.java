@@ -0,0 +1,25 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * The InProcessOutboxSink class publishes every relayed event as an {@link OutboxMessage} application event,
+ * so components of the server can react to the committed domain events with an `@EventListener`.
+ * The listeners run on the relay thread, a listener which throws makes the batch be relayed again.
+ */
+@Component
+@RequiredArgsConstructor
+public class InProcessOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+
+        messages.forEach(eventPublisher::publishEvent);
+    }
+}
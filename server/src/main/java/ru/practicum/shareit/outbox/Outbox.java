@@ -0,0 +1,68 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The Outbox class writes the domain events to the `outbox_events` table in the transaction of the state change,
+ * so an event is relayed if and only if the change is committed. The {@link OutboxRelay} is woken up
+ * once the transaction commits. Nothing is written unless the `shareit.outbox.enabled` property is set.
+ * <p>
+ * The writers do not wait for each other, so an ID allocated by one transaction may commit after a greater ID
+ * allocated by another. Such transactions are concurrent, neither saw the changes of the other. A transaction which
+ * saw a committed change allocates its ID after that change was committed, so the IDs follow the order of the changes
+ * which depend on each other, and the {@link OutboxRelay} relays them in that order.
+ */
+@Component
+@RequiredArgsConstructor
+public class Outbox {
+
+    private final OutboxEventDAO outboxEventDAO;
+    private final OutboxRelay outboxRelay;
+    private final OutboxProperties properties;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Write an event in the current transaction.
+     *
+     * @param type        The type of the event.
+     * @param aggregateId The ID of the aggregate the event belongs to.
+     * @param payload     The state of the aggregate, serialized as JSON.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(EventType type, Long aggregateId, Object payload) {
+
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        outboxEventDAO.save(OutboxEvent.builder()
+                .aggregateType(type.getAggregateType())
+                .aggregateId(aggregateId)
+                .type(type)
+                .payload(toJson(payload))
+                .build());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxRelay.wakeUp();
+            }
+        });
+    }
+
+    private String toJson(Object payload) {
+
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("The payload of the event cannot be serialized: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface OutboxEventDAO extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Find the oldest events of the outbox and lock them until the current transaction completes,
+     * so a relay of another server instance waits instead of relaying the same events out of order.
+     *
+     * @param size The maximum number of events.
+     * @return The events in the order they were written.
+     */
+    @Query(nativeQuery = true,
+            value = "SELECT * FROM outbox_events ORDER BY id LIMIT :size FOR UPDATE")
+    List<OutboxEvent> findOldestForUpdate(Integer size);
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * The OutboxMessage class is a domain event relayed from the outbox to the sinks.
+ * The payload is the JSON written with the event, it is serialized as is.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class OutboxMessage {
+
+    private final Long id;
+
+    private final String aggregateType;
+
+    private final Long aggregateId;
+
+    private final EventType type;
+
+    @JsonRawValue
+    private final String payload;
+
+    private final LocalDateTime created;
+}
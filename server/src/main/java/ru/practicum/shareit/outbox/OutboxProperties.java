@@ -0,0 +1,38 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * The OutboxProperties class holds the settings of the outbox of the domain events and of its relay.
+ */
+@Getter
+@Setter
+@ToString
+@ConfigurationProperties(prefix = "shareit.outbox")
+public class OutboxProperties {
+
+    /**
+     * Whether the domain events are written to the outbox and relayed to the sinks.
+     */
+    private boolean enabled = false;
+
+    /**
+     * The maximum number of events relayed in one transaction.
+     */
+    private int batchSize = 100;
+
+    /**
+     * The delay between the runs of the relay. The relay also runs as soon as a transaction writing events commits.
+     */
+    private Duration relayInterval = Duration.ofSeconds(1);
+
+    /**
+     * The file the events are appended to as newline-delimited JSON, for local testing. No file is written if empty.
+     */
+    private String filePath = "";
+}
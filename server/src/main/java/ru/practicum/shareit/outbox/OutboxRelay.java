@@ -0,0 +1,142 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * The OutboxRelay class drains the committed events of the outbox in the order of their IDs and passes them to every
+ * {@link OutboxSink} in batches. A batch is read, published and deleted in one transaction, so a batch is removed
+ * only once every sink has accepted it and is relayed again after a failure: the delivery is at least once.
+ * An event committed after an event with a greater ID was relayed is not passed over, it is relayed by the next run.
+ * An event is still relayed after the events of the changes its transaction saw: those have smaller IDs.
+ * The relay runs on a single background thread, periodically and whenever a transaction writing events commits.
+ * The events are locked while they are relayed, so the relays of several server instances take turns.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventDAO outboxEventDAO;
+    private final List<OutboxSink> sinks;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter relayedEvents;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private volatile ScheduledExecutorService executor;
+
+    public OutboxRelay(OutboxEventDAO outboxEventDAO,
+                       List<OutboxSink> sinks,
+                       OutboxProperties properties,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventDAO = outboxEventDAO;
+        this.sinks = sinks;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.relayedEvents = Counter.builder("shareit.outbox.relayed")
+                .description("Number of domain events relayed from the outbox to the sinks")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long interval = properties.getRelayInterval().toMillis();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::drainQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("The outbox relay is started, sinks: {}.", sinks.stream()
+                .map(sink -> sink.getClass().getSimpleName())
+                .collect(Collectors.toList()));
+    }
+
+    @PreDestroy
+    public void stop() {
+
+        ScheduledExecutorService currentExecutor = executor;
+        executor = null;
+        if (Objects.nonNull(currentExecutor)) {
+            currentExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Run the relay as soon as possible. Wake-ups arriving while a run is pending are merged into it.
+     */
+    public void wakeUp() {
+
+        ScheduledExecutorService currentExecutor = executor;
+        if (Objects.nonNull(currentExecutor) && wakeUpPending.compareAndSet(false, true)) {
+            currentExecutor.execute(() -> {
+                wakeUpPending.set(false);
+                drainQuietly();
+            });
+        }
+    }
+
+    /**
+     * Relay the events of the outbox batch by batch until it is empty.
+     *
+     * @return The number of relayed events.
+     */
+    public int drain() {
+
+        int relayed = 0;
+        int batch;
+        do {
+            batch = Objects.requireNonNull(transactionTemplate.execute(status -> relayBatch()));
+            relayed += batch;
+        } while (batch == properties.getBatchSize());
+
+        return relayed;
+    }
+
+    private int relayBatch() {
+
+        List<OutboxEvent> events = outboxEventDAO.findOldestForUpdate(properties.getBatchSize());
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxMessage> messages = events.stream()
+                .map(event -> new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                        event.getType(), event.getPayload(), event.getCreated()))
+                .collect(Collectors.toList());
+        sinks.forEach(sink -> sink.publish(messages));
+        outboxEventDAO.deleteAllInBatch(events);
+        relayedEvents.increment(events.size());
+
+        return events.size();
+    }
+
+    private void drainQuietly() {
+
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.warn("The outbox was not relayed, it is retried on the next run: {}", e.getMessage());
+        }
+    }
+}
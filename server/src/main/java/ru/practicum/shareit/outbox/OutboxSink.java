@@ -0,0 +1,19 @@
+package ru.practicum.shareit.outbox;
+
+import java.util.List;
+
+/**
+ * The OutboxSink interface is a destination of the domain events relayed from the outbox.
+ * A batch is removed from the outbox only after every sink has accepted it, so a sink which fails
+ * receives the batch again on the next run and must tolerate duplicates.
+ */
+public interface OutboxSink {
+
+    /**
+     * Accepts a batch of events.
+     *
+     * @param messages The events in the order they were written.
+     * @throws RuntimeException if the batch could not be accepted and must be relayed again.
+     */
+    void publish(List<OutboxMessage> messages);
+}
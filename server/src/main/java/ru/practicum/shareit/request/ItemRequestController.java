@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestInputDTO;
 import ru.practicum.shareit.request.dto.ItemRequestOutputDTO;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -49,10 +50,15 @@ public class ItemRequestController {
 
     @GetMapping("/{requestId}")
     public ItemRequestOutputDTO getByRequestId(@RequestHeader(REQUEST_HEADER_USER_ID) Long userId,
-                                               @PathVariable Long requestId) {
+                                               @PathVariable Long requestId,
+                                               WebRequest request) {
 
         log.info("START endpoint `method:GET /requests/:requestId` (get itemRequest by id), itemRequest id: {}.", requestId);
 
+        if (request.checkNotModified(itemRequestService.getETagByRequestId(userId, requestId))) {
+            return null;
+        }
+
         return itemRequestService.getByRequestId(userId, requestId);
     }
 }
\ No newline at end of file
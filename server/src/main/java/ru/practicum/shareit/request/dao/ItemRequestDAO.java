@@ -4,15 +4,45 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestDAO extends JpaRepository<ItemRequest, Long> {
 
     List<ItemRequest> findAllByRequester_Id(Long requesterId);
 
+    /**
+     * Find which of the given requests exist, in a single query.
+     *
+     * @param requestIds The IDs of the requests.
+     * @return The IDs of the requests that exist.
+     */
+    @Query("SELECT r.id FROM ItemRequest AS r WHERE r.id IN :requestIds")
+    List<Long> findAllExistingIds(Collection<Long> requestIds);
+
     @Query(nativeQuery = true,
             value = "SELECT * FROM requests AS r " +
                     "LEFT JOIN public.users u on u.id = r.requester_id " +
                     "WHERE NOT r.requester_id = :userId ORDER BY r.id LIMIT :size OFFSET :from")
     List<ItemRequest> findAllFromOtherUsers(Long userId, Integer from, Integer size);
+
+    /**
+     * Find the state of the items attached to a request, without loading them.
+     * The request is looked up on behalf of a user, so the existence of the user is checked by the same query.
+     *
+     * @param requestId The ID of the request.
+     * @param userId    The ID of the user.
+     * @return The state of the items of the request with a null request ID if the request does not exist,
+     * or empty if the user does not exist.
+     */
+    @Query(nativeQuery = true,
+            value = "SELECT r.id AS requestId, COUNT(i.id) AS itemCount, COALESCE(MAX(i.id), 0) AS lastItemId, " +
+                    "COALESCE(SUM(i.version), 0) AS itemsVersion " +
+                    "FROM users AS u " +
+                    "LEFT JOIN requests AS r ON r.id = :requestId " +
+                    "LEFT JOIN items AS i ON i.request_id = r.id " +
+                    "WHERE u.id = :userId " +
+                    "GROUP BY u.id, r.id")
+    Optional<ItemRequestVersionView> findVersionByIdForUser(Long requestId, Long userId);
 }
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request.dao;
+
+/**
+ * The ItemRequestVersionView interface is a projection of the state an item request representation depends on.
+ * The request itself is never updated, so only the set of its items and their versions are tracked.
+ * The request ID is null if the request does not exist.
+ */
+public interface ItemRequestVersionView {
+
+    Long getRequestId();
+
+    Long getItemCount();
+
+    Long getLastItemId();
+
+    Long getItemsVersion();
+}
@@ -17,4 +17,6 @@ public interface ItemRequestService {
     List<ItemRequestOutputDTO> getAll(Long userId, Integer from, Integer size);
 
     ItemRequestOutputDTO getByRequestId(Long userId, Long requestId);
+
+    String getETagByRequestId(Long userId, Long requestId);
 }
@@ -7,7 +7,10 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dao.ItemDAO;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemShortOutputDTO;
+import ru.practicum.shareit.outbox.EventType;
+import ru.practicum.shareit.outbox.Outbox;
 import ru.practicum.shareit.request.dao.ItemRequestDAO;
+import ru.practicum.shareit.request.dao.ItemRequestVersionView;
 import ru.practicum.shareit.request.dto.ItemRequestInputDTO;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestOutputDTO;
@@ -16,6 +19,7 @@ import ru.practicum.shareit.user.dao.UserDAO;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,6 +31,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemDAO itemDAO;
     private final ItemRequestMapper itemRequestMapper;
     private final ItemMapper itemMapper;
+    private final Outbox outbox;
 
     @Override
     @Transactional
@@ -35,7 +40,10 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         checkExistsUserById(requesterId);
         inputDTO.setRequesterId(requesterId);
 
-        return itemRequestMapper.toOutputDTO(itemRequestDAO.save(itemRequestMapper.inputDTOToEntity(inputDTO)));
+        ItemRequestOutputDTO outputDTO = itemRequestMapper.toOutputDTO(itemRequestDAO.save(itemRequestMapper.inputDTOToEntity(inputDTO)));
+        outbox.append(EventType.REQUEST_CREATED, outputDTO.getId(), outputDTO);
+
+        return outputDTO;
     }
 
     @Override
@@ -53,6 +61,23 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return outputDTO;
     }
 
+    @Override
+    public String getETagByRequestId(Long userId, Long requestId) {
+
+        ItemRequestVersionView version = itemRequestDAO.findVersionByIdForUser(requestId, userId)
+                .orElseThrow(() -> NotFoundException.builder()
+                        .message(String.format("The user with the ID - `%d` was not found.", userId))
+                        .build());
+        if (Objects.isNull(version.getRequestId())) {
+            throw NotFoundException.builder()
+                    .message(String.format("The itemRequest with the ID - `%d` was not found.", requestId))
+                    .build();
+        }
+
+        return String.format("%d-%d-%d-%d", requestId, version.getItemCount(), version.getLastItemId(),
+                version.getItemsVersion());
+    }
+
     @Override
     public List<ItemRequestOutputDTO> getAllByRequesterId(Long requesterId) {
 
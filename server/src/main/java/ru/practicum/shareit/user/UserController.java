@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserInputDTO;
 import ru.practicum.shareit.user.dto.UserOutputDTO;
 import ru.practicum.shareit.user.service.UserService;
@@ -36,10 +37,15 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public UserOutputDTO getUserById(@PathVariable long userId) {
+    public UserOutputDTO getUserById(@PathVariable long userId,
+                                     WebRequest request) {
 
         log.info("START endpoint `method:GET /users/{userId}` (get user by id), user id: {}.", userId);
 
+        if (request.checkNotModified(userService.getETagById(userId))) {
+            return null;
+        }
+
         return userService.getById(userId);
     }
 
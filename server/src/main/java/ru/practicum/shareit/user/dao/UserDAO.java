@@ -1,8 +1,11 @@
 package ru.practicum.shareit.user.dao;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Optional;
+
 /**
  * The UserDao interface represents a data access object for managing users.
  * It extends the JpaRepository interface with User as the entity type.
@@ -18,4 +21,13 @@ public interface UserDAO extends JpaRepository<User, Long> {
      * @return true if an entity with the specified ID exists, false otherwise
      */
     boolean existsById(Long id);
+
+    /**
+     * Find the version of a user without loading the user.
+     *
+     * @param userId The ID of the user.
+     * @return The version of the user, or empty if the user does not exist.
+     */
+    @Query("SELECT u.version FROM User AS u WHERE u.id = :userId")
+    Optional<Long> findVersionById(Long userId);
 }
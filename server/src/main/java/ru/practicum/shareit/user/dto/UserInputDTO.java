@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
 @Getter
@@ -15,4 +16,7 @@ public class UserInputDTO {
     private String name;
 
     private String email;
+
+    @JsonIgnore
+    private Long version;
 }
@@ -22,4 +22,8 @@ public class User {
 
     @Column(nullable = false, unique = true)
     private String email;
+
+    @Version
+    @Column(nullable = false)
+    private long version;
 }
@@ -35,6 +35,14 @@ public interface UserService {
      */
     UserOutputDTO getById(Long userId);
 
+    /**
+     * Computes the entity tag of the user returned by {@link #getById(Long)} without building it.
+     *
+     * @param userId The ID of the user.
+     * @return The strong entity tag, which changes whenever the representation of the user changes.
+     */
+    String getETagById(Long userId);
+
     /**
      * Retrieves all users.
      *
@@ -1,10 +1,15 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.counter.BookingCounters;
+import ru.practicum.shareit.cache.EntityCache;
+import ru.practicum.shareit.cache.UserChangedEvent;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dao.ItemDAO;
+import ru.practicum.shareit.item.search.ItemsDeletedEvent;
 import ru.practicum.shareit.user.dao.UserDAO;
 import ru.practicum.shareit.user.dto.UserInputDTO;
 import ru.practicum.shareit.user.dto.UserMapper;
@@ -12,6 +17,7 @@ import ru.practicum.shareit.user.dto.UserOutputDTO;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -21,12 +27,18 @@ public class UserServiceImpl implements UserService {
     private final UserDAO userDAO;
     private final ItemDAO itemDAO;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityCache<UserOutputDTO> userCache;
+    private final BookingCounters bookingCounters;
 
     @Override
     @Transactional
     public UserOutputDTO create(UserInputDTO inputDTO) {
 
-        return userMapper.toOutputDTO(userDAO.save(userMapper.inputDTOToEntity(inputDTO)));
+        UserOutputDTO outputDTO = userMapper.toOutputDTO(userDAO.save(userMapper.inputDTOToEntity(inputDTO)));
+        bookingCounters.createForUser(outputDTO.getId());
+
+        return outputDTO;
     }
 
     @Override
@@ -39,6 +51,7 @@ public class UserServiceImpl implements UserService {
                         .build()));
 
         inputDTO.setId(userId);
+        inputDTO.setVersion(userFromDB.getVersion());
         String userName = inputDTO.getName();
         String userEmail = inputDTO.getEmail();
 
@@ -49,16 +62,30 @@ public class UserServiceImpl implements UserService {
             inputDTO.setEmail(userFromDB.getEmail());
         }
 
-        return userMapper.toOutputDTO(userDAO.save(userMapper.inputDTOToEntity(inputDTO)));
+        UserOutputDTO outputDTO = userMapper.toOutputDTO(userDAO.save(userMapper.inputDTOToEntity(inputDTO)));
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
+
+        return outputDTO;
     }
 
     @Override
     public UserOutputDTO getById(Long userId) {
 
-        return userMapper.toOutputDTO(userDAO.findById(userId)
+        return findById(userId)
                 .orElseThrow(() -> NotFoundException.builder()
                         .message(String.format("The user with the ID - `%d` was not found.", userId))
-                        .build()));
+                        .build());
+    }
+
+    @Override
+    public String getETagById(Long userId) {
+
+        Long version = userDAO.findVersionById(userId)
+                .orElseThrow(() -> NotFoundException.builder()
+                        .message(String.format("The user with the ID - `%d` was not found.", userId))
+                        .build());
+
+        return String.format("%d-%d", userId, version);
     }
 
     @Override
@@ -71,13 +98,23 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void deleteById(Long userId) {
 
+        // A write checks the database, as a cached user may already be deleted by another instance.
         if (!userDAO.existsById(userId)) {
             throw NotFoundException.builder()
                     .message(String.format("The user with the ID - `%d` was not found.", userId))
                     .build();
         }
 
+        List<Long> itemIds = itemDAO.findAllIdsByOwnerId(userId);
+        bookingCounters.uncountUser(userId);
         userDAO.deleteById(userId);
         itemDAO.deleteByOwnerId(userId);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
+        eventPublisher.publishEvent(new ItemsDeletedEvent(itemIds));
+    }
+
+    private Optional<UserOutputDTO> findById(Long userId) {
+
+        return userCache.get(userId, id -> userDAO.findById(id).map(userMapper::toOutputDTO));
     }
 }
\ No newline at end of file
@@ -1,5 +1,3 @@
-DROP TABLE IF EXISTS bookings, comments, items, requests, users;
-
 CREATE TABLE IF NOT EXISTS users
 (
     id    INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -13,7 +11,8 @@ CREATE TABLE IF NOT EXISTS requests
     id           INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     description  VARCHAR(200)                NOT NULL,
     created      TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    requester_id INTEGER REFERENCES users (id) ON DELETE CASCADE
+    requester_id INTEGER,
+    CONSTRAINT requests_requester_id_fkey FOREIGN KEY (requester_id) REFERENCES users (id) ON DELETE CASCADE
 );
 
 CREATE TABLE IF NOT EXISTS items
@@ -22,8 +21,10 @@ CREATE TABLE IF NOT EXISTS items
     name        VARCHAR(50)  NOT NULL,
     description VARCHAR(200) NOT NULL,
     available   BOOLEAN DEFAULT FALSE,
-    owner_id    INTEGER REFERENCES users (id) ON DELETE CASCADE,
-    request_id  INTEGER REFERENCES requests (id) ON DELETE CASCADE
+    owner_id    INTEGER,
+    request_id  INTEGER,
+    CONSTRAINT items_owner_id_fkey FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT items_request_id_fkey FOREIGN KEY (request_id) REFERENCES requests (id) ON DELETE CASCADE
 );
 
 CREATE TABLE IF NOT EXISTS comments
@@ -31,8 +32,10 @@ CREATE TABLE IF NOT EXISTS comments
     id        INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     text      VARCHAR(200)                NOT NULL,
     created   TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    author_id INTEGER REFERENCES users (id) ON DELETE CASCADE,
-    item_id   INTEGER REFERENCES items (id) ON DELETE CASCADE
+    author_id INTEGER,
+    item_id   INTEGER,
+    CONSTRAINT comments_author_id_fkey FOREIGN KEY (author_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT comments_item_id_fkey FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
 );
 
 CREATE TABLE IF NOT EXISTS bookings
@@ -41,6 +44,8 @@ CREATE TABLE IF NOT EXISTS bookings
     start_data TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     end_data   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     status     VARCHAR(50)                 NOT NULL,
-    booker_id  INTEGER REFERENCES users (id) ON DELETE CASCADE,
-    item_id    INTEGER REFERENCES items (id) ON DELETE CASCADE
+    booker_id  INTEGER,
+    item_id    INTEGER,
+    CONSTRAINT bookings_booker_id_fkey FOREIGN KEY (booker_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT bookings_item_id_fkey FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
 );
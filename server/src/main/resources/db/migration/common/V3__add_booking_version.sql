@@ -0,0 +1,2 @@
+ALTER TABLE bookings
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,5 @@
+ALTER TABLE users
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE items
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_end_idx ON bookings (item_id, status, start_data, end_data);
+
+DROP INDEX IF EXISTS bookings_item_status_start_idx;
@@ -0,0 +1,22 @@
+-- The phase stays nullable with the default FUTURE, so the instances running the previous version can still insert
+-- bookings. The existing rows read as FUTURE and the sweeper of the booking counters moves those which have started
+-- or ended to their phase.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS phase VARCHAR(10) DEFAULT 'FUTURE';
+
+CREATE INDEX IF NOT EXISTS bookings_phase_start_idx ON bookings (phase, start_data);
+CREATE INDEX IF NOT EXISTS bookings_phase_end_idx ON bookings (phase, end_data);
+
+-- The counters of a user are created from the bookings of the user on the first change or read of them.
+CREATE TABLE IF NOT EXISTS booking_counters
+(
+    user_id        INTEGER     NOT NULL,
+    role           VARCHAR(10) NOT NULL,
+    total_count    BIGINT      NOT NULL DEFAULT 0,
+    current_count  BIGINT      NOT NULL DEFAULT 0,
+    past_count     BIGINT      NOT NULL DEFAULT 0,
+    future_count   BIGINT      NOT NULL DEFAULT 0,
+    waiting_count  BIGINT      NOT NULL DEFAULT 0,
+    rejected_count BIGINT      NOT NULL DEFAULT 0,
+    CONSTRAINT booking_counters_pkey PRIMARY KEY (user_id, role),
+    CONSTRAINT booking_counters_user_id_fkey FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
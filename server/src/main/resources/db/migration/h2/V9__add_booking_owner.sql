@@ -0,0 +1,9 @@
+-- The owner of the booked item is copied to the booking, so the bookings of an owner are read
+-- through bookings_owner_start_idx in the order of the listings instead of through the items.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id INTEGER;
+
+UPDATE bookings b
+SET owner_id = (SELECT i.owner_id FROM items i WHERE i.id = b.item_id)
+WHERE owner_id IS NULL;
+
+CREATE INDEX IF NOT EXISTS bookings_owner_start_idx ON bookings (owner_id, start_data DESC, id DESC);
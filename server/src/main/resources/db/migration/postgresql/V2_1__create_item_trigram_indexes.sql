@@ -0,0 +1,7 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS items_name_trgm_idx
+    ON items USING gin (name gin_trgm_ops) WHERE available = TRUE;
+
+CREATE INDEX IF NOT EXISTS items_description_trgm_idx
+    ON items USING gin (description gin_trgm_ops) WHERE available = TRUE;
@@ -0,0 +1,63 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- The active bookings which already overlap another active booking of the same item are reported here
+-- and are not changed: they are resolved by an operator with db/remediation/resolve_booking_overlaps.sql.
+CREATE TABLE IF NOT EXISTS booking_overlaps
+(
+    booking_id             INTEGER     NOT NULL,
+    overlapping_booking_id INTEGER     NOT NULL,
+    item_id                INTEGER     NOT NULL,
+    status                 VARCHAR(50) NOT NULL,
+    overlapping_status     VARCHAR(50) NOT NULL,
+    found_at               TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT LOCALTIMESTAMP,
+    CONSTRAINT booking_overlaps_pkey PRIMARY KEY (booking_id, overlapping_booking_id)
+);
+
+INSERT INTO booking_overlaps (booking_id, overlapping_booking_id, item_id, status, overlapping_status)
+SELECT b.id, o.id, b.item_id, b.status, o.status
+FROM bookings AS b
+         JOIN bookings AS o ON o.item_id = b.item_id AND o.id <> b.id
+WHERE b.status IN ('WAITING', 'APPROVED')
+  AND o.status IN ('WAITING', 'APPROVED')
+  AND o.start_data < b.end_data
+  AND o.end_data > b.start_data
+ON CONFLICT DO NOTHING;
+
+-- The reported bookings are left out of the constraint until they are resolved, so the constraint
+-- can be added to a table which already has double bookings.
+ALTER TABLE bookings
+    ADD COLUMN IF NOT EXISTS overlap_unresolved BOOLEAN NOT NULL DEFAULT FALSE;
+
+UPDATE bookings
+SET overlap_unresolved = TRUE
+WHERE id IN (SELECT booking_id FROM booking_overlaps);
+
+DO
+$$
+    DECLARE
+        approved_pairs INTEGER;
+        bookings_count INTEGER;
+    BEGIN
+        SELECT COUNT(*) FILTER (WHERE status = 'APPROVED' AND overlapping_status = 'APPROVED') / 2,
+               COUNT(DISTINCT booking_id)
+        INTO approved_pairs, bookings_count
+        FROM booking_overlaps;
+        IF bookings_count > 0 THEN
+            RAISE WARNING '% bookings overlap another active booking of their item, % pairs of them are both APPROVED. '
+                'They are listed in booking_overlaps and are not guarded by bookings_no_overlap until they are resolved '
+                'with db/remediation/resolve_booking_overlaps.sql.', bookings_count, approved_pairs;
+        END IF;
+    END
+$$;
+
+-- PostgreSQL builds the GiST index of an exclusion constraint under an ACCESS EXCLUSIVE lock on bookings and cannot
+-- attach the constraint to an index built CONCURRENTLY, so every read and write of bookings waits for the build.
+-- On a large table this migration is applied in a maintenance window. The lock is not queued for longer than
+-- lock_timeout: the migration then fails, is rolled back and is applied again, instead of stalling the requests
+-- queued behind it.
+SET LOCAL lock_timeout = '5s';
+
+ALTER TABLE bookings
+    ADD CONSTRAINT bookings_no_overlap
+        EXCLUDE USING gist (item_id WITH =, tsrange(start_data, end_data) WITH &&)
+        WHERE (status IN ('WAITING', 'APPROVED') AND NOT overlap_unresolved);
@@ -0,0 +1,18 @@
+-- The indexes of the hot paths are built CONCURRENTLY, so the tables stay writable while they are built.
+DROP INDEX CONCURRENTLY IF EXISTS bookings_booker_start_idx;
+CREATE INDEX CONCURRENTLY bookings_booker_start_idx ON bookings (booker_id, start_data DESC, id DESC);
+
+DROP INDEX CONCURRENTLY IF EXISTS bookings_item_status_start_idx;
+CREATE INDEX CONCURRENTLY bookings_item_status_start_idx ON bookings (item_id, status, start_data);
+
+DROP INDEX CONCURRENTLY IF EXISTS items_owner_idx;
+CREATE INDEX CONCURRENTLY items_owner_idx ON items (owner_id, id);
+
+DROP INDEX CONCURRENTLY IF EXISTS items_request_idx;
+CREATE INDEX CONCURRENTLY items_request_idx ON items (request_id);
+
+DROP INDEX CONCURRENTLY IF EXISTS comments_item_created_idx;
+CREATE INDEX CONCURRENTLY comments_item_created_idx ON comments (item_id, created DESC);
+
+DROP INDEX CONCURRENTLY IF EXISTS requests_requester_idx;
+CREATE INDEX CONCURRENTLY requests_requester_idx ON requests (requester_id);
@@ -0,0 +1,13 @@
+-- The instances of the previous version still insert items through the identity default while this runs,
+-- so the writes are held until the identity is replaced by the sequence.
+LOCK TABLE items IN EXCLUSIVE MODE;
+
+-- The pooled optimizer treats the value it reads as the upper bound of a block of 50 IDs,
+-- so the first value read must leave the block above the IDs the identity column has already issued.
+SELECT setval('items_seq', COALESCE((SELECT MAX(id) FROM items), 0) + 50, false);
+
+-- The identity is replaced by the same sequence, so an instance of the previous version, which inserts
+-- without an ID, takes the upper bound of a block of its own and never collides with the blocks of the new ones.
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+ALTER SEQUENCE items_seq OWNED BY items.id;
@@ -0,0 +1,6 @@
+-- The covering index also holds end_data, so the overlap checks of an item read no booking rows;
+-- it replaces bookings_item_status_start_idx.
+DROP INDEX CONCURRENTLY IF EXISTS bookings_item_status_start_end_idx;
+CREATE INDEX CONCURRENTLY bookings_item_status_start_end_idx ON bookings (item_id, status, start_data, end_data);
+
+DROP INDEX CONCURRENTLY IF EXISTS bookings_item_status_start_idx;
@@ -0,0 +1,6 @@
+-- The sweeper of the booking counters finds the bookings whose phase is behind the time through these indexes.
+DROP INDEX CONCURRENTLY IF EXISTS bookings_phase_start_idx;
+CREATE INDEX CONCURRENTLY bookings_phase_start_idx ON bookings (phase, start_data);
+
+DROP INDEX CONCURRENTLY IF EXISTS bookings_phase_end_idx;
+CREATE INDEX CONCURRENTLY bookings_phase_end_idx ON bookings (phase, end_data);
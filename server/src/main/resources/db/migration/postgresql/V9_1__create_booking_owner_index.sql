@@ -0,0 +1,3 @@
+-- Built CONCURRENTLY, so Flyway runs this script outside a transaction.
+DROP INDEX CONCURRENTLY IF EXISTS bookings_owner_start_idx;
+CREATE INDEX CONCURRENTLY bookings_owner_start_idx ON bookings (owner_id, start_data DESC, id DESC);
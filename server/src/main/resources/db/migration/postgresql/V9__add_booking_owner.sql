@@ -0,0 +1,27 @@
+-- The owner of the booked item is copied to the booking, so the bookings of an owner are read
+-- through bookings_owner_start_idx in the order of the listings instead of through the items.
+-- The instances running the previous version insert bookings without it, so the trigger fills it in.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id INTEGER;
+
+CREATE OR REPLACE FUNCTION bookings_fill_owner_id() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF NEW.owner_id IS NULL THEN
+        SELECT i.owner_id INTO NEW.owner_id FROM items AS i WHERE i.id = NEW.item_id;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS bookings_fill_owner_id ON bookings;
+CREATE TRIGGER bookings_fill_owner_id
+    BEFORE INSERT
+    ON bookings
+    FOR EACH ROW
+EXECUTE FUNCTION bookings_fill_owner_id();
+
+UPDATE bookings AS b
+SET owner_id = i.owner_id
+FROM items AS i
+WHERE i.id = b.item_id
+  AND b.owner_id IS NULL;
@@ -0,0 +1,38 @@
+-- Recounts the booking counters of every user from the bookings on PostgreSQL.
+-- It is not a Flyway migration: run it by hand in one transaction once all the instances run the version
+-- maintaining the counters, e.g. `psql -1 -f recount_booking_counters.sql`. The instances of the previous version
+-- create users and change bookings without counting them while the rollout is in progress.
+
+-- The counters are changed only by the transactions changing the bookings, so locking them waits for
+-- the transactions in progress and keeps new ones out until the recount commits.
+LOCK TABLE booking_counters IN EXCLUSIVE MODE;
+
+INSERT INTO booking_counters (user_id, role)
+SELECT u.id, r.role
+FROM users AS u
+         CROSS JOIN (VALUES ('BOOKER'), ('OWNER')) AS r (role)
+ON CONFLICT DO NOTHING;
+
+UPDATE booking_counters c
+SET total_count    = (SELECT COUNT(*) FROM bookings b WHERE b.booker_id = c.user_id),
+    current_count  = (SELECT COUNT(*) FROM bookings b WHERE b.booker_id = c.user_id AND b.phase = 'CURRENT'),
+    past_count     = (SELECT COUNT(*) FROM bookings b WHERE b.booker_id = c.user_id AND b.phase = 'PAST'),
+    future_count   = (SELECT COUNT(*) FROM bookings b WHERE b.booker_id = c.user_id AND b.phase = 'FUTURE'),
+    waiting_count  = (SELECT COUNT(*) FROM bookings b WHERE b.booker_id = c.user_id AND b.status = 'WAITING'),
+    rejected_count = (SELECT COUNT(*) FROM bookings b WHERE b.booker_id = c.user_id AND b.status = 'REJECTED')
+WHERE c.role = 'BOOKER';
+
+UPDATE booking_counters c
+SET total_count    = (SELECT COUNT(*) FROM bookings b JOIN items i ON i.id = b.item_id
+                      WHERE i.owner_id = c.user_id),
+    current_count  = (SELECT COUNT(*) FROM bookings b JOIN items i ON i.id = b.item_id
+                      WHERE i.owner_id = c.user_id AND b.phase = 'CURRENT'),
+    past_count     = (SELECT COUNT(*) FROM bookings b JOIN items i ON i.id = b.item_id
+                      WHERE i.owner_id = c.user_id AND b.phase = 'PAST'),
+    future_count   = (SELECT COUNT(*) FROM bookings b JOIN items i ON i.id = b.item_id
+                      WHERE i.owner_id = c.user_id AND b.phase = 'FUTURE'),
+    waiting_count  = (SELECT COUNT(*) FROM bookings b JOIN items i ON i.id = b.item_id
+                      WHERE i.owner_id = c.user_id AND b.status = 'WAITING'),
+    rejected_count = (SELECT COUNT(*) FROM bookings b JOIN items i ON i.id = b.item_id
+                      WHERE i.owner_id = c.user_id AND b.status = 'REJECTED')
+WHERE c.role = 'OWNER';
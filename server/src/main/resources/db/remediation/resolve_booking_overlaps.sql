@@ -0,0 +1,57 @@
+-- Resolves the double bookings reported in booking_overlaps by the V2_2 migration on PostgreSQL.
+-- It is not a Flyway migration: review booking_overlaps first, then run it by hand in one transaction
+-- against a fully migrated database, e.g. `psql -1 -f resolve_booking_overlaps.sql`.
+
+-- 1. A WAITING booking overlapping an APPROVED booking or an earlier active booking of the item is rejected.
+UPDATE bookings AS b
+SET status  = 'REJECTED',
+    version = b.version + 1
+WHERE b.overlap_unresolved
+  AND b.status = 'WAITING'
+  AND EXISTS(SELECT 1
+             FROM bookings AS o
+             WHERE o.item_id = b.item_id
+               AND o.id <> b.id
+               AND o.status IN ('WAITING', 'APPROVED')
+               AND (o.status = 'APPROVED' OR o.id < b.id)
+               AND o.start_data < b.end_data
+               AND o.end_data > b.start_data);
+
+-- 2. The bookings which no longer overlap an active booking are guarded by bookings_no_overlap again.
+UPDATE bookings AS b
+SET overlap_unresolved = FALSE
+WHERE b.overlap_unresolved
+  AND (b.status NOT IN ('WAITING', 'APPROVED')
+    OR NOT EXISTS(SELECT 1
+                  FROM bookings AS o
+                  WHERE o.item_id = b.item_id
+                    AND o.id <> b.id
+                    AND o.status IN ('WAITING', 'APPROVED')
+                    AND o.start_data < b.end_data
+                    AND o.end_data > b.start_data));
+
+-- 3. The status counters of the bookers and the owners of the reported bookings are recounted.
+UPDATE booking_counters AS c
+SET waiting_count  = (SELECT COUNT(*) FROM bookings AS b WHERE b.booker_id = c.user_id AND b.status = 'WAITING'),
+    rejected_count = (SELECT COUNT(*) FROM bookings AS b WHERE b.booker_id = c.user_id AND b.status = 'REJECTED')
+WHERE c.role = 'BOOKER'
+  AND c.user_id IN (SELECT b.booker_id FROM bookings AS b JOIN booking_overlaps AS r ON r.booking_id = b.id);
+
+UPDATE booking_counters AS c
+SET waiting_count  = (SELECT COUNT(*) FROM bookings AS b JOIN items AS i ON i.id = b.item_id
+                      WHERE i.owner_id = c.user_id AND b.status = 'WAITING'),
+    rejected_count = (SELECT COUNT(*) FROM bookings AS b JOIN items AS i ON i.id = b.item_id
+                      WHERE i.owner_id = c.user_id AND b.status = 'REJECTED')
+WHERE c.role = 'OWNER'
+  AND c.user_id IN (SELECT i.owner_id FROM items AS i JOIN booking_overlaps AS r ON r.item_id = i.id);
+
+DELETE
+FROM booking_overlaps AS r
+WHERE NOT EXISTS(SELECT 1 FROM bookings AS b WHERE b.id = r.booking_id AND b.overlap_unresolved);
+
+-- 4. The pairs left are both APPROVED and need a decision of the owner: cancel one of them by hand
+-- and run this script again.
+SELECT r.item_id, r.booking_id, r.overlapping_booking_id
+FROM booking_overlaps AS r
+WHERE r.booking_id < r.overlapping_booking_id
+ORDER BY r.item_id, r.booking_id;
@@ -0,0 +1,169 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dao.BookingDAO;
+import ru.practicum.shareit.booking.dao.BookingView;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the cost of a page of bookings of one booker or of one owner as the number of rows the database reads
+ * for it, taken from `EXPLAIN ANALYZE` of the queries of {@link BookingDAO}, so the measurement does not depend
+ * on the speed of the machine. The offset mode reads every skipped row, while the keyset mode reads
+ * the same number of rows for a page at any depth.
+ */
+@Slf4j
+@DataJpaTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BookingPaginationBenchmarkTest {
+
+    private static final long OWNER_ID = 1L;
+    private static final long BOOKER_ID = 2L;
+    private static final int BOOKINGS = 5000;
+    private static final int SIZE = 10;
+    private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+
+    @Autowired
+    private BookingDAO bookingDAO;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void init() {
+        executeUpdate("INSERT INTO users (name, email) " +
+                "SELECT 'user' || x, 'user' || x || '@yandex.ru' FROM SYSTEM_RANGE(1, 2)");
+        executeUpdate("INSERT INTO items (name, description, available, owner_id) VALUES ('item', 'description', TRUE, 1)");
+        executeUpdate("INSERT INTO bookings (start_data, end_data, status, phase, booker_id, item_id, owner_id) " +
+                "SELECT DATEADD(HOUR, x, TIMESTAMP '2024-01-01 00:00:00'), DATEADD(HOUR, x + 1, TIMESTAMP '2024-01-01 00:00:00'), " +
+                "'APPROVED', 'PAST', MOD(x, 2) + 1, (SELECT MIN(id) FROM items), 1 FROM SYSTEM_RANGE(1, " + BOOKINGS * 2 + ")");
+        executeUpdate("ANALYZE");
+    }
+
+    @Test
+    @DisplayName("DataJpaTest: страницы бронирований пользователя по курсору читают одинаковое число строк на любой глубине, " +
+            "со смещением - все пропущенные строки.")
+    void testPages_KeysetReadsSameRowsAtAnyDepth() throws NoSuchMethodException {
+        log.info("Start test: стоимость страницы бронирований в режимах смещения и курсора.");
+
+        List<BookingView> bookings = bookingDAO.findAllByBooker(BOOKER_ID, 0, BOOKINGS);
+        assertThat(bookings).hasSize(BOOKINGS);
+
+        assertKeysetReadsSameRowsAtAnyDepth(bookings, "bookerId", BOOKER_ID,
+                queryOf("findAllByBooker", Long.class, Integer.class, Integer.class),
+                queryOf("findAllByBookerAfterCursor", Long.class, LocalDateTime.class, Long.class, Integer.class),
+                cursor -> bookingDAO.findAllByBookerAfterCursor(BOOKER_ID, cursor.getStartDate(), cursor.getId(), SIZE));
+
+        log.info("End test: страницы бронирований пользователя по курсору читают одинаковое число строк на любой глубине, " +
+                "со смещением - все пропущенные строки.");
+    }
+
+    @Test
+    @DisplayName("DataJpaTest: страницы бронирований владельца по курсору читают одинаковое число строк на любой глубине, " +
+            "со смещением - все пропущенные строки.")
+    void testOwnerPages_KeysetReadsSameRowsAtAnyDepth() throws NoSuchMethodException {
+        log.info("Start test: стоимость страницы бронирований владельца в режимах смещения и курсора.");
+
+        List<BookingView> bookings = bookingDAO.findAllByItem_Owner_Id(OWNER_ID, 0, BOOKINGS * 2);
+        assertThat(bookings).hasSize(BOOKINGS * 2);
+
+        assertKeysetReadsSameRowsAtAnyDepth(bookings, "ownerId", OWNER_ID,
+                queryOf("findAllByItem_Owner_Id", Long.class, Integer.class, Integer.class),
+                queryOf("findAllByItem_Owner_IdAfterCursor", Long.class, LocalDateTime.class, Long.class, Integer.class),
+                cursor -> bookingDAO.findAllByItem_Owner_IdAfterCursor(OWNER_ID, cursor.getStartDate(), cursor.getId(), SIZE));
+
+        log.info("End test: страницы бронирований владельца по курсору читают одинаковое число строк на любой глубине, " +
+                "со смещением - все пропущенные строки.");
+    }
+
+    /**
+     * Read pages at several depths of the bookings in both modes and check the rows read for each of them.
+     *
+     * @param bookings    Every booking of the user in the order of the listing.
+     * @param userIdName  The name of the parameter of the user ID in the queries.
+     * @param userId      The ID of the user.
+     * @param offsetQuery The query of a page in the offset mode.
+     * @param keysetQuery The query of a page in the keyset mode.
+     * @param keysetPage  Reads the page after the cursor in the keyset mode.
+     */
+    private void assertKeysetReadsSameRowsAtAnyDepth(List<BookingView> bookings, String userIdName, long userId,
+                                                     String offsetQuery, String keysetQuery,
+                                                     Function<BookingView, List<BookingView>> keysetPage) {
+
+        int total = bookings.size();
+        List<Long> keysetBookingRows = new ArrayList<>();
+        List<Long> keysetTotalRows = new ArrayList<>();
+        for (int from : List.of(SIZE, total / 4, total / 2, total - 10 * SIZE, total - SIZE)) {
+            BookingView cursor = bookings.get(from - 1);
+            Map<String, Object> keysetParameters = Map.of(userIdName, userId, "cursorStart", cursor.getStartDate(),
+                    "cursorId", cursor.getId(), "size", SIZE);
+
+            assertThat(keysetPage.apply(cursor))
+                    .extracting(BookingView::getId)
+                    .containsExactlyElementsOf(bookings.subList(from, from + SIZE).stream()
+                            .map(BookingView::getId)
+                            .collect(Collectors.toList()));
+            List<Long> offsetRows = scanCounts(offsetQuery, Map.of(userIdName, userId, "from", from, "size", SIZE));
+            List<Long> keysetRows = scanCounts(keysetQuery, keysetParameters);
+            log.info("Page from {} of {} bookings: offset mode reads {} bookings ({} rows), keyset mode reads {} bookings " +
+                    "({} rows).", from, total, offsetRows.get(0), sum(offsetRows), keysetRows.get(0), sum(keysetRows));
+
+            assertThat(offsetRows.get(0)).isGreaterThanOrEqualTo(from + SIZE);
+            keysetBookingRows.add(keysetRows.get(0));
+            keysetTotalRows.add(sum(keysetRows));
+        }
+
+        assertThat(keysetBookingRows).allSatisfy(rows -> assertThat(rows).isLessThanOrEqualTo(SIZE + 1));
+        assertThat(keysetTotalRows).containsOnly(keysetTotalRows.get(0));
+    }
+
+    private static String queryOf(String methodName, Class<?>... parameterTypes) throws NoSuchMethodException {
+
+        return BookingDAO.class.getMethod(methodName, parameterTypes).getAnnotation(Query.class).value();
+    }
+
+    /**
+     * @return The number of rows read from each table of the query, the bookings first.
+     */
+    private List<Long> scanCounts(String sql, Map<String, Object> parameters) {
+
+        javax.persistence.Query query = entityManager.getEntityManager().createNativeQuery("EXPLAIN ANALYZE " + sql);
+        parameters.forEach(query::setParameter);
+        String plan = query.getSingleResult().toString();
+
+        List<Long> scanCounts = new ArrayList<>();
+        Matcher matcher = SCAN_COUNT.matcher(plan);
+        while (matcher.find()) {
+            scanCounts.add(Long.parseLong(matcher.group(1)));
+        }
+        assertThat(scanCounts).as("scan counts in the plan: %s", plan).isNotEmpty();
+
+        return scanCounts;
+    }
+
+    private static long sum(List<Long> rows) {
+
+        return rows.stream().mapToLong(Long::longValue).sum();
+    }
+
+    private void executeUpdate(String sql) {
+
+        entityManager.getEntityManager().createNativeQuery(sql).executeUpdate();
+    }
+}
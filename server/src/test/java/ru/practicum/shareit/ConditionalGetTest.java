@@ -0,0 +1,191 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.dao.BookingDAO;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.dao.ItemDAO;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dao.ItemRequestDAO;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dao.UserDAO;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.constant.Constant.REQUEST_HEADER_USER_ID;
+
+@Slf4j
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:conditional-get")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserDAO userDAO;
+    @Autowired
+    private ItemDAO itemDAO;
+    @Autowired
+    private ItemRequestDAO itemRequestDAO;
+    @Autowired
+    private BookingDAO bookingDAO;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        owner = userDAO.save(User.builder().name("Owner").email("owner@yandex.ru").build());
+        booker = userDAO.save(User.builder().name("Booker").email("booker@yandex.ru").build());
+        item = itemDAO.save(Item.builder().name("Дрель").description("Простая дрель").available(true).owner(owner).build());
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: повторное получение пользователя с совпадающим ETag возвращает 304 без тела, " +
+            "обновление пользователя меняет ETag, обновление без изменений его сохраняет.")
+    void testGetUser_WithIfNoneMatch_ReturnsNotModifiedUntilUserChanges() throws Exception {
+        log.info("Start test: условное получение пользователя.");
+
+        String eTag = getETag(get("/users/{userId}", owner.getId()));
+
+        mvc.perform(get("/users/{userId}", owner.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        updateUser("{\"name\":\"Owner\"}");
+        assertThat(getETag(get("/users/{userId}", owner.getId()))).isEqualTo(eTag);
+
+        updateUser("{\"name\":\"New owner\"}");
+        mvc.perform(get("/users/{userId}", owner.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+
+        log.info("End test: условное получение пользователя.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: ETag предмета отличается для владельца и меняется при обновлении предмета и новом бронировании.")
+    void testGetItem_ETagDependsOnViewerItemAndBookings() throws Exception {
+        log.info("Start test: ETag предмета.");
+
+        String ownerETag = getETag(get("/items/{itemId}", item.getId()).header(REQUEST_HEADER_USER_ID, owner.getId()));
+        String bookerETag = getETag(get("/items/{itemId}", item.getId()).header(REQUEST_HEADER_USER_ID, booker.getId()));
+        assertThat(ownerETag).isNotEqualTo(bookerETag);
+
+        bookingDAO.save(Booking.builder().start(now.plusDays(1)).end(now.plusDays(2))
+                .status(Status.WAITING).booker(booker).item(item).build());
+        assertThat(getETag(get("/items/{itemId}", item.getId()).header(REQUEST_HEADER_USER_ID, booker.getId())))
+                .isEqualTo(bookerETag);
+        String ownerETagWithBooking = getETag(get("/items/{itemId}", item.getId()).header(REQUEST_HEADER_USER_ID, owner.getId()));
+        assertThat(ownerETagWithBooking).isNotEqualTo(ownerETag);
+
+        mvc.perform(patch("/items/{itemId}", item.getId())
+                        .header(REQUEST_HEADER_USER_ID, owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Дрель ударная\"}"))
+                .andExpect(status().isOk());
+        mvc.perform(get("/items/{itemId}", item.getId())
+                        .header(REQUEST_HEADER_USER_ID, booker.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, bookerETag))
+                .andExpect(status().isOk());
+
+        log.info("End test: ETag предмета.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: ETag запроса на предмет меняется при добавлении предмета по запросу.")
+    void testGetItemRequest_ETagChangesWithRequestItems() throws Exception {
+        log.info("Start test: ETag запроса на предмет.");
+
+        ItemRequest request = itemRequestDAO.save(ItemRequest.builder().description("Нужна дрель").requester(booker).build());
+        String eTag = getETag(get("/requests/{requestId}", request.getId()).header(REQUEST_HEADER_USER_ID, owner.getId()));
+
+        mvc.perform(get("/requests/{requestId}", request.getId())
+                        .header(REQUEST_HEADER_USER_ID, owner.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        mvc.perform(post("/items")
+                        .header(REQUEST_HEADER_USER_ID, owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Дрель\",\"description\":\"Дрель по запросу\",\"available\":true," +
+                                "\"requestId\":" + request.getId() + "}"))
+                .andExpect(status().isCreated());
+        mvc.perform(get("/requests/{requestId}", request.getId())
+                        .header(REQUEST_HEADER_USER_ID, owner.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+
+        log.info("End test: ETag запроса на предмет.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: ETag бронирования меняется при подтверждении, " +
+            "постороннему пользователю с совпадающим ETag возвращается 404, а не 304.")
+    void testGetBooking_ETagChangesOnApprovalAndIsNotRevealedToOthers() throws Exception {
+        log.info("Start test: ETag бронирования.");
+
+        Booking booking = bookingDAO.save(Booking.builder().start(now.plusDays(1)).end(now.plusDays(2))
+                .status(Status.WAITING).booker(booker).item(item).build());
+        User stranger = userDAO.save(User.builder().name("Stranger").email("stranger@yandex.ru").build());
+        String eTag = getETag(get("/bookings/{bookingId}", booking.getId()).header(REQUEST_HEADER_USER_ID, booker.getId()));
+
+        mvc.perform(get("/bookings/{bookingId}", booking.getId())
+                        .header(REQUEST_HEADER_USER_ID, stranger.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotFound());
+
+        mvc.perform(patch("/bookings/{bookingId}", booking.getId())
+                        .header(REQUEST_HEADER_USER_ID, owner.getId())
+                        .param("approved", "true"))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings/{bookingId}", booking.getId())
+                        .header(REQUEST_HEADER_USER_ID, booker.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+
+        log.info("End test: ETag бронирования.");
+    }
+
+    private String getETag(MockHttpServletRequestBuilder request) throws Exception {
+
+        String eTag = mvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotBlank();
+
+        return eTag;
+    }
+
+    private void updateUser(String body) throws Exception {
+
+        mvc.perform(patch("/users/{userId}", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,154 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@DataJpaTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class SchemaIndexTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void init() {
+        executeUpdate("INSERT INTO users (name, email) " +
+                "SELECT 'user' || x, 'user' || x || '@yandex.ru' FROM SYSTEM_RANGE(1, 100)");
+        executeUpdate("INSERT INTO requests (description, requester_id) " +
+                "SELECT 'request' || x, MOD(x, 100) + 1 FROM SYSTEM_RANGE(1, 200)");
+        executeUpdate("INSERT INTO items (name, description, available, owner_id, request_id) " +
+                "SELECT 'item' || x, 'description' || x, TRUE, MOD(x, 100) + 1, MOD(x, 200) + 1 FROM SYSTEM_RANGE(1, 500)");
+        executeUpdate("INSERT INTO comments (text, author_id, item_id) " +
+                "SELECT 'comment' || x, MOD(x, 100) + 1, MOD(x, 500) + 1 FROM SYSTEM_RANGE(1, 1000)");
+        executeUpdate("INSERT INTO bookings (start_data, end_data, status, phase, booker_id, item_id) " +
+                "SELECT DATEADD(HOUR, x, TIMESTAMP '2024-01-01 00:00:00'), DATEADD(HOUR, x + 2, TIMESTAMP '2024-01-01 00:00:00'), " +
+                "CASE MOD(x, 3) WHEN 0 THEN 'APPROVED' WHEN 1 THEN 'WAITING' ELSE 'REJECTED' END, 'PAST', " +
+                "MOD(x, 100) + 1, MOD(x, 500) + 1 FROM SYSTEM_RANGE(1, 3000)");
+        executeUpdate("ANALYZE");
+    }
+
+    @Test
+    @DisplayName("DataJpaTest: миграции применены, создаются индексы для основных запросов с корректным набором и порядком колонок.")
+    void testMigrations_CreateIndexesForHotPaths() {
+        log.info("Start test: миграции применены, создаются индексы для основных запросов.");
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.getEntityManager().createNativeQuery(
+                        "SELECT INDEX_NAME, COLUMN_NAME, ORDERING_SPECIFICATION FROM INFORMATION_SCHEMA.INDEX_COLUMNS " +
+                                "WHERE TABLE_SCHEMA = 'PUBLIC' AND INDEX_NAME LIKE '%\\_IDX' ESCAPE '\\' " +
+                                "ORDER BY INDEX_NAME, ORDINAL_POSITION")
+                .getResultList();
+        Map<String, String> indexes = rows.stream()
+                .filter(row -> !row[0].toString().startsWith("flyway"))
+                .collect(Collectors.groupingBy(row -> row[0].toString(),
+                        Collectors.mapping(row -> row[1] + " " + row[2], Collectors.joining(", "))));
+
+        assertThat(indexes).containsOnly(
+                Map.entry("BOOKINGS_BOOKER_START_IDX", "BOOKER_ID ASC, START_DATA DESC, ID DESC"),
+                Map.entry("BOOKINGS_OWNER_START_IDX", "OWNER_ID ASC, START_DATA DESC, ID DESC"),
+                Map.entry("BOOKINGS_ITEM_STATUS_START_END_IDX", "ITEM_ID ASC, STATUS ASC, START_DATA ASC, END_DATA ASC"),
+                Map.entry("BOOKINGS_PHASE_START_IDX", "PHASE ASC, START_DATA ASC"),
+                Map.entry("BOOKINGS_PHASE_END_IDX", "PHASE ASC, END_DATA ASC"),
+                Map.entry("ITEMS_OWNER_IDX", "OWNER_ID ASC, ID ASC"),
+                Map.entry("ITEMS_REQUEST_IDX", "REQUEST_ID ASC"),
+                Map.entry("COMMENTS_ITEM_CREATED_IDX", "ITEM_ID ASC, CREATED DESC"),
+                Map.entry("REQUESTS_REQUESTER_IDX", "REQUESTER_ID ASC"));
+
+        log.info("End test: миграции применены, создаются индексы для основных запросов с корректным набором и порядком колонок.");
+    }
+
+    @Test
+    @DisplayName("DataJpaTest: план запроса будущих бронирований пользователя, используется индекс (booker_id, start_data).")
+    void testExplain_FutureBookingsOfBooker_UsesBookerStartIndex() {
+        log.info("Start test: план запроса будущих бронирований пользователя.");
+
+        String plan = explain("SELECT * FROM bookings AS b " +
+                "LEFT JOIN users u on u.id = b.booker_id " +
+                "LEFT JOIN items i on i.id = b.item_id " +
+                "WHERE b.booker_id = 1 AND b.start_data > TIMESTAMP '2024-03-01 00:00:00' " +
+                "ORDER BY b.start_data DESC, b.id DESC LIMIT 10 OFFSET 0");
+
+        assertThat(plan).contains("PUBLIC.BOOKINGS_BOOKER_START_IDX: BOOKER_ID = 1");
+
+        log.info("End test: план запроса будущих бронирований пользователя, используется индекс (booker_id, start_data).");
+    }
+
+    @Test
+    @DisplayName("DataJpaTest: план запроса последнего подтвержденного бронирования предмета, " +
+            "используется индекс (item_id, status, start_data).")
+    void testExplain_LastApprovedBookingOfItem_UsesItemStatusStartIndex() {
+        log.info("Start test: план запроса последнего подтвержденного бронирования предмета.");
+
+        String plan = explain("SELECT b.id FROM bookings AS b " +
+                "WHERE b.item_id = 1 AND b.status = 'APPROVED' AND b.start_data < TIMESTAMP '2024-03-01 00:00:00' " +
+                "ORDER BY b.start_data DESC LIMIT 1");
+
+        assertThat(plan).contains("PUBLIC.BOOKINGS_ITEM_STATUS_START_END_IDX").contains("ITEM_ID = 1");
+
+        log.info("End test: план запроса последнего подтвержденного бронирования предмета, " +
+                "используется индекс (item_id, status, start_data).");
+    }
+
+    @Test
+    @DisplayName("DataJpaTest: план поиска предметов, свободных в интервале, подтвержденные бронирования исключаются " +
+            "по индексу (item_id, status, start_data, end_data).")
+    void testExplain_SearchFreeItems_AntiJoinUsesItemStatusStartEndIndex() {
+        log.info("Start test: план поиска предметов, свободных в интервале.");
+
+        String plan = explain("SELECT * FROM items AS i " +
+                "WHERE i.available = TRUE AND (i.name ILIKE '%item1%' OR i.description ILIKE '%item1%') " +
+                "AND NOT EXISTS(SELECT 1 FROM bookings AS b " +
+                "WHERE b.item_id = i.id AND b.status = 'APPROVED' " +
+                "AND b.start_data < TIMESTAMP '2024-03-02 00:00:00' AND b.end_data > TIMESTAMP '2024-03-01 00:00:00') " +
+                "ORDER BY i.id LIMIT 10 OFFSET 0");
+
+        assertThat(plan).contains("PUBLIC.BOOKINGS_ITEM_STATUS_START_END_IDX");
+
+        log.info("End test: план поиска предметов, свободных в интервале, подтвержденные бронирования исключаются " +
+                "по индексу (item_id, status, start_data, end_data).");
+    }
+
+    @Test
+    @DisplayName("DataJpaTest: планы запросов по владельцу, предмету и запросу, таблицы читаются по индексу, а не полным сканированием.")
+    void testExplain_LookupsByForeignKeys_UseIndexes() {
+        log.info("Start test: планы запросов по владельцу, предмету и запросу.");
+
+        assertThat(explain("SELECT * FROM items AS i WHERE i.owner_id = 1 ORDER BY i.id LIMIT 10 OFFSET 0"))
+                .contains("OWNER_ID = 1")
+                .doesNotContain("tableScan");
+        assertThat(explain("SELECT * FROM comments AS c WHERE c.item_id IN (1, 2) ORDER BY c.created DESC"))
+                .contains("ITEM_ID IN(1, 2)")
+                .doesNotContain("tableScan");
+        assertThat(explain("SELECT * FROM items AS i WHERE i.request_id IN (1, 2)"))
+                .contains("REQUEST_ID IN(1, 2)")
+                .doesNotContain("tableScan");
+        assertThat(explain("SELECT * FROM requests AS r WHERE r.requester_id = 1"))
+                .contains("REQUESTER_ID = 1")
+                .doesNotContain("tableScan");
+
+        log.info("End test: планы запросов по владельцу, предмету и запросу, таблицы читаются по индексу, а не полным сканированием.");
+    }
+
+    private void executeUpdate(String sql) {
+
+        entityManager.getEntityManager().createNativeQuery(sql).executeUpdate();
+    }
+
+    private String explain(String sql) {
+
+        return entityManager.getEntityManager().createNativeQuery("EXPLAIN " + sql).getSingleResult().toString();
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.flywaydb.core.api.MigrationType;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@DataJpaTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class SchemaMigrationTest {
+
+    private static final String LEGACY_SCHEMA = "CREATE TABLE users (" +
+            "id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, name VARCHAR(50) NOT NULL, " +
+            "email VARCHAR(100) UNIQUE NOT NULL);" +
+            "CREATE TABLE requests (" +
+            "id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, description VARCHAR(200) NOT NULL, " +
+            "created TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+            "requester_id INTEGER REFERENCES users (id) ON DELETE CASCADE);" +
+            "CREATE TABLE items (" +
+            "id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, name VARCHAR(50) NOT NULL, " +
+            "description VARCHAR(200) NOT NULL, available BOOLEAN DEFAULT FALSE, " +
+            "owner_id INTEGER REFERENCES users (id) ON DELETE CASCADE, " +
+            "request_id INTEGER REFERENCES requests (id) ON DELETE CASCADE);" +
+            "CREATE TABLE comments (" +
+            "id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, text VARCHAR(200) NOT NULL, " +
+            "created TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+            "author_id INTEGER REFERENCES users (id) ON DELETE CASCADE, " +
+            "item_id INTEGER REFERENCES items (id) ON DELETE CASCADE);" +
+            "CREATE TABLE bookings (" +
+            "id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+            "start_data TIMESTAMP WITHOUT TIME ZONE NOT NULL, end_data TIMESTAMP WITHOUT TIME ZONE NOT NULL, " +
+            "status VARCHAR(50) NOT NULL, booker_id INTEGER REFERENCES users (id) ON DELETE CASCADE, " +
+            "item_id INTEGER REFERENCES items (id) ON DELETE CASCADE);" +
+            "INSERT INTO users (name, email) VALUES ('RuRu', 'RuRu@yandex.ru');";
+
+    @Autowired
+    private Flyway flyway;
+
+    private SingleConnectionDataSource legacyDataSource;
+    private JdbcTemplate legacyJdbcTemplate;
+
+    @BeforeEach
+    void init() {
+        legacyDataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:legacy-" + UUID.randomUUID(), "sa", "", true);
+        legacyJdbcTemplate = new JdbcTemplate(legacyDataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        legacyDataSource.destroy();
+    }
+
+    @Test
+    @DisplayName("DataJpaTest: повторный запуск миграций на актуальной схеме, не применяется ни одной миграции.")
+    void testMigrate_OnUpToDateSchema_AppliesNothing() {
+        log.info("Start test: повторный запуск миграций на актуальной схеме.");
+
+        MigrateResult result = flyway.migrate();
+
+        assertThat(result.migrationsExecuted).isZero();
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(Arrays.stream(flyway.info().applied()).map(MigrationInfo::getState))
+                .containsOnly(MigrationState.SUCCESS);
+
+        log.info("End test: повторный запуск миграций на актуальной схеме, не применяется ни одной миграции.");
+    }
+
+    @Test
+    @DisplayName("DataJpaTest: миграция базы, созданной старым schema.sql, база фиксируется как версия 1, " +
+            "применяются только новые миграции, данные сохраняются.")
+    void testMigrate_OnLegacySchema_BaselinesAndKeepsData() {
+        log.info("Start test: миграция базы, созданной старым schema.sql.");
+
+        legacyJdbcTemplate.execute(LEGACY_SCHEMA);
+        Flyway legacyFlyway = configureFor(legacyDataSource);
+
+        MigrateResult result = legacyFlyway.migrate();
+
+        MigrationInfo[] applied = legacyFlyway.info().applied();
+        assertThat(result.initialSchemaVersion).isEqualTo("1");
+        assertThat(applied[0].getType()).isEqualTo(MigrationType.BASELINE);
+        assertThat(applied[0].getVersion().getVersion()).isEqualTo("1");
+        assertThat(result.migrations).extracting(migration -> migration.version).doesNotContain("1");
+        assertThat(Arrays.stream(applied).map(MigrationInfo::getState)).containsOnly(MigrationState.BASELINE,
+                MigrationState.SUCCESS);
+        assertThat(legacyFlyway.info().pending()).isEmpty();
+        assertThat(legacyJdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class)).isEqualTo(1);
+        assertThat(legacyJdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES " +
+                "WHERE INDEX_NAME = 'BOOKINGS_BOOKER_START_IDX'", Integer.class)).isEqualTo(1);
+        assertThat(legacyJdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_counters", Integer.class)).isZero();
+        assertThat(legacyJdbcTemplate.queryForObject("SELECT IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS " +
+                "WHERE TABLE_NAME = 'BOOKINGS' AND COLUMN_NAME = 'PHASE'", String.class)).isEqualTo("YES");
+
+        assertThat(legacyFlyway.migrate().migrationsExecuted).isZero();
+
+        log.info("End test: миграция базы, созданной старым schema.sql, база фиксируется как версия 1, " +
+                "применяются только новые миграции, данные сохраняются.");
+    }
+
+    @Test
+    @DisplayName("DataJpaTest: контрольная сумма примененной миграции изменилась, валидация перед миграцией не проходит.")
+    void testValidate_ChangedChecksum_Fails() {
+        log.info("Start test: контрольная сумма примененной миграции изменилась.");
+
+        Flyway freshFlyway = configureFor(legacyDataSource);
+        freshFlyway.migrate();
+        legacyJdbcTemplate.update("UPDATE \"flyway_schema_history\" SET \"checksum\" = 0 WHERE \"version\" = '2'");
+
+        assertThat(freshFlyway.validateWithResult().validationSuccessful).isFalse();
+
+        log.info("End test: контрольная сумма примененной миграции изменилась, валидация перед миграцией не проходит.");
+    }
+
+    private Flyway configureFor(SingleConnectionDataSource dataSource) {
+
+        return Flyway.configure()
+                .configuration(flyway.getConfiguration())
+                .dataSource(dataSource)
+                .load();
+    }
+}
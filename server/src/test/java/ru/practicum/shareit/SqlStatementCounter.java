@@ -0,0 +1,35 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.function.Executable;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Counts the JDBC statements Hibernate prepares while an action runs.
+ * The context under test must enable `spring.jpa.properties.hibernate.generate_statistics`.
+ */
+public class SqlStatementCounter {
+
+    private final Statistics statistics;
+
+    public SqlStatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Runs the action and returns the number of statements prepared while it ran.
+     *
+     * @param action The action to measure.
+     * @return The number of prepared statements.
+     * @throws Throwable If the action fails.
+     */
+    public long count(Executable action) throws Throwable {
+
+        long before = statistics.getPrepareStatementCount();
+        action.execute();
+
+        return statistics.getPrepareStatementCount() - before;
+    }
+}
@@ -0,0 +1,179 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.counter.BookingCounter;
+import ru.practicum.shareit.booking.counter.BookingCounterDAO;
+import ru.practicum.shareit.booking.counter.BookingRole;
+import ru.practicum.shareit.booking.dao.BookingDAO;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.dao.CommentDAO;
+import ru.practicum.shareit.item.dao.ItemDAO;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dao.ItemRequestDAO;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dao.UserDAO;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.constant.Constant.REQUEST_HEADER_USER_ID;
+
+/**
+ * The statement budgets of the single-resource endpoints. The user a request is made on behalf of is checked
+ * by the same query that loads the resource, so a budget does not depend on the number of related entities.
+ */
+@Slf4j
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.datasource.url=jdbc:h2:mem:statement-budget"})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class StatementBudgetTest {
+
+    private static final long GET_ITEM_BUDGET = 3;
+    private static final long GET_OWN_ITEM_BUDGET = 5;
+    private static final long CREATE_BOOKING_BUDGET = 5;
+    private static final long ADD_COMMENT_BUDGET = 3;
+    private static final long GET_REQUEST_BUDGET = 4;
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserDAO userDAO;
+    @Autowired
+    private ItemDAO itemDAO;
+    @Autowired
+    private CommentDAO commentDAO;
+    @Autowired
+    private BookingDAO bookingDAO;
+    @Autowired
+    private ItemRequestDAO itemRequestDAO;
+    @Autowired
+    private BookingCounterDAO bookingCounterDAO;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SqlStatementCounter statementCounter;
+    private User owner;
+    private User booker;
+    private Item item;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        statementCounter = new SqlStatementCounter(entityManagerFactory);
+        owner = userDAO.save(User.builder().name("Owner").email("owner@yandex.ru").build());
+        booker = userDAO.save(User.builder().name("Booker").email("booker@yandex.ru").build());
+        createCounters(owner, booker);
+        item = itemDAO.save(Item.builder().name("Дрель").description("Простая дрель").available(true).owner(owner).build());
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: получение предмета укладывается в бюджет SQL-запросов независимо от числа комментариев.")
+    void testGetItem_StaysWithinBudget() throws Throwable {
+        log.info("Start test: бюджет SQL-запросов на получение предмета.");
+
+        addComments(1);
+        long statementsForOneComment = countGetItem(booker, 1);
+        addComments(9);
+        long statementsForTenComments = countGetItem(booker, 10);
+        long ownerStatements = countGetItem(owner, 10);
+
+        assertThat(statementsForTenComments).isEqualTo(statementsForOneComment).isLessThanOrEqualTo(GET_ITEM_BUDGET);
+        assertThat(ownerStatements).isLessThanOrEqualTo(GET_OWN_ITEM_BUDGET);
+
+        log.info("End test: получение предмета укладывается в бюджет SQL-запросов независимо от числа комментариев.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: создание бронирования и добавление комментария укладываются в бюджет SQL-запросов.")
+    void testCreateBookingAndAddComment_StayWithinBudget() throws Throwable {
+        log.info("Start test: бюджет SQL-запросов на создание бронирования и добавление комментария.");
+
+        String booking = String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+                item.getId(), now.plusDays(1), now.plusDays(2));
+        long createBookingStatements = statementCounter.count(() -> mvc.perform(post("/bookings")
+                        .header(REQUEST_HEADER_USER_ID, booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(booking))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.booker.name").value("Booker"))
+                .andExpect(jsonPath("$.item.name").value("Дрель")));
+
+        bookingDAO.save(Booking.builder().start(now.minusDays(2)).end(now.minusDays(1))
+                .status(Status.APPROVED).booker(booker).item(item).build());
+        long addCommentStatements = statementCounter.count(() -> mvc.perform(post("/items/{itemId}/comment", item.getId())
+                        .header(REQUEST_HEADER_USER_ID, booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\"Отличная дрель\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.authorName").value("Booker")));
+
+        assertThat(createBookingStatements).isLessThanOrEqualTo(CREATE_BOOKING_BUDGET);
+        assertThat(addCommentStatements).isLessThanOrEqualTo(ADD_COMMENT_BUDGET);
+
+        log.info("End test: создание бронирования и добавление комментария укладываются в бюджет SQL-запросов.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: получение запроса вещи укладывается в бюджет SQL-запросов.")
+    void testGetRequest_StaysWithinBudget() throws Throwable {
+        log.info("Start test: бюджет SQL-запросов на получение запроса вещи.");
+
+        ItemRequest request = itemRequestDAO.save(ItemRequest.builder().description("Нужна дрель").requester(booker).build());
+        itemDAO.save(Item.builder().name("Дрель").description("Дрель по запросу").available(true)
+                .owner(owner).request(request).build());
+
+        long statements = statementCounter.count(() -> mvc.perform(get("/requests/{requestId}", request.getId())
+                        .header(REQUEST_HEADER_USER_ID, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1))));
+
+        assertThat(statements).isLessThanOrEqualTo(GET_REQUEST_BUDGET);
+
+        log.info("End test: получение запроса вещи укладывается в бюджет SQL-запросов.");
+    }
+
+    private long countGetItem(User user, int expectedComments) throws Throwable {
+
+        return statementCounter.count(() -> mvc.perform(get("/items/{itemId}", item.getId())
+                        .header(REQUEST_HEADER_USER_ID, user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments", hasSize(expectedComments))));
+    }
+
+    private void addComments(int count) {
+
+        for (int i = 0; i < count; i++) {
+            User author = userDAO.save(User.builder().name("Author").email("author" + userDAO.count() + "@yandex.ru").build());
+            commentDAO.save(Comment.builder().text("Комментарий").item(item).author(author).build());
+        }
+    }
+
+    private void createCounters(User... users) {
+
+        for (User user : users) {
+            bookingCounterDAO.saveAll(List.of(
+                    BookingCounter.builder().userId(user.getId()).role(BookingRole.BOOKER).build(),
+                    BookingCounter.builder().userId(user.getId()).role(BookingRole.OWNER).build()));
+        }
+    }
+}
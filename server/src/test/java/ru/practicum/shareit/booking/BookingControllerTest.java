@@ -13,9 +13,11 @@ import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingInputDTO;
 import ru.practicum.shareit.booking.dto.BookingOutputDTO;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.*;
@@ -35,9 +37,9 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static ru.practicum.shareit.constant.Constant.REQUEST_HEADER_USER_ID;
+import static ru.practicum.shareit.constant.Constant.RESPONSE_HEADER_NEXT_CURSOR;
 
 @Slf4j
 @ActiveProfiles("test")
@@ -304,4 +306,50 @@ class BookingControllerTest {
 
         log.info("End test: получить резервирование предмета, возвращается ответ: HttpStatus.OK.");
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    @DisplayName("WebMvcTest: получить резервирования предметов от создателя бронирований по курсору, возвращается ответ: HttpStatus.OK и курсор следующей страницы.")
+    void testGetAllBookingsAtBookerByCursor_ResultStatusOkWithNextCursor() {
+
+        log.info("Start test: получить резервирования предметов от создателя бронирований по курсору.");
+
+        BookingCursor cursor = new BookingCursor(startTime.plusDays(1), 5L);
+
+        when(service.getAllBookingsAtBooker(userId, State.ALL, cursor, 1)).thenReturn(List.of(bookingOutputDTO));
+
+        mvc.perform(get("/bookings")
+                        .header(REQUEST_HEADER_USER_ID, userId)
+                        .param("state", "ALL")
+                        .param("cursor", cursor.encode())
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(RESPONSE_HEADER_NEXT_CURSOR, BookingCursor.of(bookingOutputDTO).encode()))
+                .andExpect(content().json(mapper.writeValueAsString(List.of(bookingOutputDTO))));
+
+        verify(service, times(1)).getAllBookingsAtBooker(userId, State.ALL, cursor, 1);
+
+        log.info("End test: получить резервирования предметов от создателя бронирований по курсору, возвращается ответ: HttpStatus.OK и курсор следующей страницы.");
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("WebMvcTest: получить резервирования предметов от создателя предметов по неверному курсору, возвращается ответ: HttpStatus.BAD_REQUEST.")
+    void testGetAllBookingsAtOwnerByInvalidCursor_ResultStatusBadRequest() {
+
+        log.info("Start test: получить резервирования предметов от создателя предметов по неверному курсору.");
+
+        mvc.perform(get("/bookings/owner")
+                        .header(REQUEST_HEADER_USER_ID, userId)
+                        .param("state", "ALL")
+                        .param("cursor", "not-a-cursor")
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(service);
+
+        log.info("End test: получить резервирования предметов от создателя предметов по неверному курсору, возвращается ответ: HttpStatus.BAD_REQUEST.");
+    }
+}
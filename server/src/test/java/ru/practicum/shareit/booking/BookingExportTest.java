@@ -0,0 +1,119 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dao.BookingDAO;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.dao.ItemDAO;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserDAO;
+import ru.practicum.shareit.user.model.User;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.constant.Constant.REQUEST_HEADER_USER_ID;
+
+@Slf4j
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-export")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BookingExportTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserDAO userDAO;
+    @Autowired
+    private ItemDAO itemDAO;
+    @Autowired
+    private BookingDAO bookingDAO;
+
+    private User owner;
+    private User booker;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        owner = userDAO.save(User.builder().name("Owner").email("owner@yandex.ru").build());
+        booker = userDAO.save(User.builder().name("Booker").email("booker@yandex.ru").build());
+        Item drill = itemDAO.save(Item.builder().name("Дрель").description("Простая дрель").available(true).owner(owner).build());
+        Item saw = itemDAO.save(Item.builder().name("Пила").description("Пила, \"ножовка\"").available(true).owner(owner).build());
+        for (int i = 0; i < 3; i++) {
+            bookingDAO.save(Booking.builder().start(now.plusDays(i)).end(now.plusDays(i + 1))
+                    .status(Status.WAITING).booker(booker).item(i % 2 == 0 ? drill : saw).build());
+        }
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: выгрузка бронирований пользователя в NDJSON, по одному бронированию в строке от новых к старым.")
+    void testExportAllBookingsAtBooker_AsNdjson_WritesOneBookingPerLine() throws Exception {
+        log.info("Start test: выгрузка бронирований пользователя в NDJSON.");
+
+        String body = export("/bookings/export", booker, "NDJSON", "application/x-ndjson;charset=UTF-8");
+        List<String> lines = body.lines().collect(Collectors.toList());
+
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).contains("\"status\":\"WAITING\"", "\"name\":\"Дрель\"");
+        assertThat(lines.get(1)).contains("\"name\":\"Пила\"", "\"email\":\"booker@yandex.ru\"");
+
+        log.info("End test: выгрузка бронирований пользователя в NDJSON, по одному бронированию в строке от новых к старым.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: выгрузка бронирований владельца в CSV, значения с запятыми и кавычками экранируются.")
+    void testExportAllBookingsAtOwner_AsCsv_EscapesValues() throws Exception {
+        log.info("Start test: выгрузка бронирований владельца в CSV.");
+
+        String body = export("/bookings/owner/export", owner, "CSV", "text/csv;charset=UTF-8");
+        List<String> lines = body.lines().collect(Collectors.toList());
+
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).startsWith("id,start,end,status,bookerId");
+        assertThat(lines.get(2)).contains(",Пила,\"Пила, \"\"ножовка\"\"\",true,");
+
+        log.info("End test: выгрузка бронирований владельца в CSV, значения с запятыми и кавычками экранируются.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: выгрузка бронирований несуществующего пользователя, возвращается 404 до начала выгрузки.")
+    void testExportAllBookingsAtBooker_WithInvalidUser_ReturnsNotFound() throws Exception {
+        log.info("Start test: выгрузка бронирований несуществующего пользователя.");
+
+        mvc.perform(get("/bookings/export").header(REQUEST_HEADER_USER_ID, 999L))
+                .andExpect(status().isNotFound());
+
+        log.info("End test: выгрузка бронирований несуществующего пользователя, возвращается 404 до начала выгрузки.");
+    }
+
+    private String export(String path, User user, String format, String contentType) throws Exception {
+
+        MvcResult result = mvc.perform(get(path)
+                        .header(REQUEST_HEADER_USER_ID, user.getId())
+                        .param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(contentType))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,208 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.SqlStatementCounter;
+import ru.practicum.shareit.booking.counter.BookingCounter;
+import ru.practicum.shareit.booking.counter.BookingCounterDAO;
+import ru.practicum.shareit.booking.counter.BookingRole;
+import ru.practicum.shareit.booking.dao.BookingDAO;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.dao.ItemDAO;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserDAO;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.constant.Constant.REQUEST_HEADER_USER_ID;
+
+@Slf4j
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BookingStatementCountTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserDAO userDAO;
+    @Autowired
+    private ItemDAO itemDAO;
+    @Autowired
+    private BookingDAO bookingDAO;
+    @Autowired
+    private BookingCounterDAO bookingCounterDAO;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SqlStatementCounter statementCounter;
+    private User owner;
+    private User booker;
+    private int bookingCount;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        statementCounter = new SqlStatementCounter(entityManagerFactory);
+        owner = userDAO.save(User.builder().name("Owner").email("owner@yandex.ru").build());
+        booker = userDAO.save(User.builder().name("Booker").email("booker@yandex.ru").build());
+        createCounters(owner, booker);
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: число SQL-запросов на страницу бронирований не зависит от числа бронирований, " +
+            "бронирующих и предметов на странице.")
+    void testBookingPages_StatementCountDoesNotGrowWithPageContent() throws Throwable {
+        log.info("Start test: число SQL-запросов на страницу бронирований не зависит от содержимого страницы.");
+
+        addBookingsOfDistinctItems(1);
+        long bookerStatementsForOne = countBookingPage("/bookings", booker, 1);
+        long ownerStatementsForOne = countBookingPage("/bookings/owner", owner, 1);
+
+        addBookingsOfDistinctItems(9);
+        User anotherBooker = userDAO.save(User.builder().name("Another").email("another@yandex.ru").build());
+        addBooking(anotherBooker, itemDAO.save(Item.builder().name("Дрель").description("Простая дрель")
+                .available(true).owner(owner).build()));
+        long bookerStatementsForTen = countBookingPage("/bookings", booker, 10);
+        long ownerStatementsForEleven = countBookingPage("/bookings/owner", owner, 11);
+
+        assertThat(bookerStatementsForTen).isEqualTo(bookerStatementsForOne).isLessThanOrEqualTo(2);
+        assertThat(ownerStatementsForEleven).isEqualTo(ownerStatementsForOne).isLessThanOrEqualTo(2);
+
+        log.info("End test: число SQL-запросов на страницу бронирований не зависит от числа бронирований, " +
+                "бронирующих и предметов на странице.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: получение и подтверждение бронирования, бронирующий и предмет загружаются без отдельных запросов, " +
+            "условный запрос с совпадающим ETag выполняет один запрос.")
+    void testGetAndApproveBooking_LoadBookerAndItemWithBooking() throws Throwable {
+        log.info("Start test: получение и подтверждение бронирования.");
+
+        Booking booking = addBookingsOfDistinctItems(1);
+
+        long getStatements = statementCounter.count(() -> mvc.perform(get("/bookings/{bookingId}", booking.getId())
+                        .header(REQUEST_HEADER_USER_ID, booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.booker.email").value(booker.getEmail())));
+        String eTag = mvc.perform(get("/bookings/{bookingId}", booking.getId())
+                        .header(REQUEST_HEADER_USER_ID, booker.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        long notModifiedStatements = statementCounter.count(() -> mvc.perform(get("/bookings/{bookingId}", booking.getId())
+                        .header(REQUEST_HEADER_USER_ID, booker.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified()));
+        long approveStatements = statementCounter.count(() -> mvc.perform(patch("/bookings/{bookingId}", booking.getId())
+                        .header(REQUEST_HEADER_USER_ID, owner.getId())
+                        .param("approved", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.item.name").value("Предмет 1")));
+
+        // one statement computes the ETag, one loads the booking with its booker and item
+        assertThat(getStatements).isEqualTo(2);
+        assertThat(notModifiedStatements).isEqualTo(1);
+        // two more statements update the booking counters of the booker and of the owner in the order of their keys
+        assertThat(approveStatements).isLessThanOrEqualTo(5);
+
+        log.info("End test: получение и подтверждение бронирования, бронирующий и предмет загружаются без отдельных запросов, " +
+            "условный запрос с совпадающим ETag выполняет один запрос.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: пакетное подтверждение бронирований, число SQL-запросов не зависит от числа бронирований.")
+    void testApproveBookings_StatementCountDoesNotGrowWithBatchSize() throws Throwable {
+        log.info("Start test: пакетное подтверждение бронирований.");
+
+        List<Long> one = List.of(addBookingsOfDistinctItems(1).getId());
+        List<Long> ten = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ten.add(addBookingsOfDistinctItems(1).getId());
+        }
+
+        long statementsForOne = countBatchApproval(one);
+        long statementsForTen = countBatchApproval(ten);
+
+        // three more statements lock the booking counters in the order of their keys
+        // and update the counters of the owner and of all the bookers
+        assertThat(statementsForTen).isEqualTo(statementsForOne).isLessThanOrEqualTo(5);
+
+        log.info("End test: пакетное подтверждение бронирований, число SQL-запросов не зависит от числа бронирований.");
+    }
+
+    private long countBatchApproval(List<Long> bookingIds) throws Throwable {
+
+        String body = bookingIds.stream().map(String::valueOf)
+                .collect(Collectors.joining(",", "{\"approved\":true,\"bookingIds\":[", "]}"));
+
+        return statementCounter.count(() -> mvc.perform(patch("/bookings")
+                        .header(REQUEST_HEADER_USER_ID, owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(bookingIds.size())))
+                .andExpect(jsonPath("$[*].result", everyItem(is("UPDATED")))));
+    }
+
+    private long countBookingPage(String path, User user, int expectedSize) throws Throwable {
+
+        return statementCounter.count(() -> mvc.perform(get(path)
+                        .header(REQUEST_HEADER_USER_ID, user.getId())
+                        .param("state", "ALL")
+                        .param("size", String.valueOf(PAGE_SIZE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(expectedSize))));
+    }
+
+    private Booking addBookingsOfDistinctItems(int count) {
+
+        Booking booking = null;
+        for (int i = 0; i < count; i++) {
+            bookingCount++;
+            Item item = itemDAO.save(Item.builder().name("Предмет " + bookingCount).description("Описание " + bookingCount)
+                    .available(true).owner(owner).build());
+            booking = addBooking(booker, item);
+        }
+
+        return booking;
+    }
+
+    private Booking addBooking(User user, Item item) {
+
+        return bookingDAO.save(Booking.builder().start(now.plusDays(bookingCount)).end(now.plusDays(bookingCount + 1))
+                .status(Status.WAITING).booker(user).item(item).build());
+    }
+
+    private void createCounters(User... users) {
+
+        for (User user : users) {
+            bookingCounterDAO.saveAll(List.of(
+                    BookingCounter.builder().userId(user.getId()).role(BookingRole.BOOKER).build(),
+                    BookingCounter.builder().userId(user.getId()).role(BookingRole.OWNER).build()));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package ru.practicum.shareit.booking.counter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dao.BookingDAO;
+import ru.practicum.shareit.booking.dto.BookingApprovalInputDTO;
+import ru.practicum.shareit.booking.dto.BookingInputDTO;
+import ru.practicum.shareit.booking.dto.BookingOutputDTO;
+import ru.practicum.shareit.booking.dto.BookingSummaryOutputDTO;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dao.ItemDAO;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserDAO;
+import ru.practicum.shareit.user.dto.UserInputDTO;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:booking-counters",
+        "shareit.booking.counters.sweep-interval=1h"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BookingCounterTest {
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private BookingCounterSweeper bookingCounterSweeper;
+    @Autowired
+    private UserDAO userDAO;
+    @Autowired
+    private ItemDAO itemDAO;
+    @Autowired
+    private BookingDAO bookingDAO;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long ownerId;
+    private Long bookerId;
+    private Item item;
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+    @BeforeEach
+    void setUp() {
+        ownerId = userService.create(UserInputDTO.builder().name("Owner").email("owner@yandex.ru").build()).getId();
+        bookerId = userService.create(UserInputDTO.builder().name("Booker").email("booker@yandex.ru").build()).getId();
+        item = itemDAO.save(Item.builder().name("Дрель").description("Простая дрель").available(true)
+                .owner(userDAO.findById(ownerId).orElseThrow()).build());
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: бронирования созданы и подтверждены, сводка бронирующего и владельца совпадает с бронированиями.")
+    void testGetSummary_BookingsCreatedAndApproved_CountsEveryState() {
+        log.info("Start test: сводка бронирований после создания и подтверждения.");
+
+        BookingOutputDTO approved = create(0);
+        BookingOutputDTO rejected = create(2);
+        create(4);
+        bookingService.approveBooking(ownerId, approved.getId(), true);
+        bookingService.approveBookings(ownerId, BookingApprovalInputDTO.builder()
+                .bookingIds(List.of(rejected.getId())).approved(false).build());
+
+        BookingSummaryOutputDTO expected = BookingSummaryOutputDTO.builder()
+                .all(3).future(3).waiting(1).rejected(1).build();
+        assertThat(bookingService.getSummaryAtBooker(bookerId)).usingRecursiveComparison().isEqualTo(expected);
+        assertThat(bookingService.getSummaryAtOwner(ownerId)).usingRecursiveComparison().isEqualTo(expected);
+        assertThat(bookingService.getSummaryAtOwner(bookerId)).usingRecursiveComparison()
+                .isEqualTo(new BookingSummaryOutputDTO());
+
+        log.info("End test: бронирования созданы и подтверждены, сводка бронирующего и владельца совпадает с бронированиями.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: время бронирований прошло, после прохода счетчиков бронирования считаются текущими и прошедшими.")
+    void testSweep_BookingsBehindTime_MovesThemToNextPhase() {
+        log.info("Start test: проход счетчиков по бронированиям, время которых прошло.");
+
+        BookingOutputDTO current = create(0);
+        BookingOutputDTO past = create(2);
+        create(4);
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("UPDATE bookings SET start_data = ?, end_data = ? WHERE id = ?",
+                now.minusDays(1), now.plusDays(1), current.getId());
+        jdbcTemplate.update("UPDATE bookings SET start_data = ?, end_data = ? WHERE id = ?",
+                now.minusDays(2), now.minusDays(1), past.getId());
+
+        assertThat(bookingCounterSweeper.sweep()).isEqualTo(2);
+        assertThat(bookingCounterSweeper.sweep()).isZero();
+
+        BookingSummaryOutputDTO expected = BookingSummaryOutputDTO.builder()
+                .all(3).current(1).past(1).future(1).waiting(3).build();
+        assertThat(bookingService.getSummaryAtBooker(bookerId)).usingRecursiveComparison().isEqualTo(expected);
+        assertThat(bookingService.getSummaryAtOwner(ownerId)).usingRecursiveComparison().isEqualTo(expected);
+
+        log.info("End test: время бронирований прошло, после прохода счетчиков бронирования считаются текущими и прошедшими.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: бронирующий удален, его бронирования больше не считаются у владельца.")
+    void testDeleteUser_Booker_UncountsBookingsAtOwner() {
+        log.info("Start test: удаление бронирующего.");
+
+        create(0);
+        create(2);
+        userService.deleteById(bookerId);
+
+        assertThat(bookingService.getSummaryAtOwner(ownerId)).usingRecursiveComparison()
+                .isEqualTo(new BookingSummaryOutputDTO());
+
+        log.info("End test: бронирующий удален, его бронирования больше не считаются у владельца.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: пользователи созданы без счетчиков, счетчики создаются из бронирований при первом изменении.")
+    void testCreate_UsersWithoutCounters_CreatesCountersFromBookings() {
+        log.info("Start test: счетчики пользователей, созданных без счетчиков.");
+
+        User owner = userDAO.save(User.builder().name("Old owner").email("old-owner@yandex.ru").build());
+        User booker = userDAO.save(User.builder().name("Old booker").email("old-booker@yandex.ru").build());
+        Item oldItem = itemDAO.save(Item.builder().name("Пила").description("Простая пила").available(true)
+                .owner(owner).build());
+        bookingDAO.save(Booking.builder().item(oldItem).booker(booker).status(Status.APPROVED)
+                .start(start).end(start.plusDays(1)).build());
+
+        BookingOutputDTO created = bookingService.create(booker.getId(), BookingInputDTO.builder()
+                .itemId(oldItem.getId()).start(start.plusDays(2)).end(start.plusDays(3)).build());
+        bookingService.approveBookings(owner.getId(), BookingApprovalInputDTO.builder()
+                .bookingIds(List.of(created.getId())).approved(false).build());
+
+        BookingSummaryOutputDTO expected = BookingSummaryOutputDTO.builder()
+                .all(2).future(2).rejected(1).build();
+        assertThat(bookingService.getSummaryAtBooker(booker.getId())).usingRecursiveComparison().isEqualTo(expected);
+        assertThat(bookingService.getSummaryAtOwner(owner.getId())).usingRecursiveComparison().isEqualTo(expected);
+
+        log.info("End test: счетчики пользователей, созданных без счетчиков, созданы из бронирований.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: бронирования созданы до счетчиков и читаются как будущие, счетчики создаются при чтении сводки, " +
+            "проход счетчиков заполняет фазы бронирований.")
+    void testGetSummaryAndSweep_BookingsBeforeCounters_BackfillsPhases() {
+        log.info("Start test: бронирования, созданные до счетчиков.");
+
+        User owner = userDAO.save(User.builder().name("Old owner").email("old-owner@yandex.ru").build());
+        User booker = userDAO.save(User.builder().name("Old booker").email("old-booker@yandex.ru").build());
+        Item oldItem = itemDAO.save(Item.builder().name("Пила").description("Простая пила").available(true)
+                .owner(owner).build());
+        LocalDateTime now = LocalDateTime.now();
+        for (LocalDateTime bookingStart : List.of(now.minusDays(1), now.minusDays(3), now.plusDays(1))) {
+            jdbcTemplate.update("INSERT INTO bookings (start_data, end_data, status, phase, booker_id, item_id) " +
+                            "VALUES (?, ?, 'APPROVED', 'FUTURE', ?, ?)",
+                    bookingStart, bookingStart.plusDays(2), booker.getId(), oldItem.getId());
+        }
+
+        assertThat(bookingService.getSummaryAtBooker(booker.getId())).usingRecursiveComparison()
+                .isEqualTo(BookingSummaryOutputDTO.builder().all(3).future(3).build());
+        assertThat(bookingCounterSweeper.sweep()).isEqualTo(2);
+
+        BookingSummaryOutputDTO expected = BookingSummaryOutputDTO.builder()
+                .all(3).current(1).past(1).future(1).build();
+        assertThat(bookingService.getSummaryAtBooker(booker.getId())).usingRecursiveComparison().isEqualTo(expected);
+        assertThat(bookingService.getSummaryAtOwner(owner.getId())).usingRecursiveComparison().isEqualTo(expected);
+
+        log.info("End test: бронирования, созданные до счетчиков, посчитаны, их фазы заполнены проходом счетчиков.");
+    }
+
+    private BookingOutputDTO create(int days) {
+
+        return bookingService.create(bookerId, BookingInputDTO.builder()
+                .itemId(item.getId()).start(start.plusDays(days)).end(start.plusDays(days + 1)).build());
+    }
+}
@@ -17,8 +17,15 @@ import ru.practicum.shareit.user.model.User;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @Slf4j
 @DataJpaTest
@@ -74,11 +81,101 @@ class BookingDAOTest {
     void testUpdateBooking_ReturnsBookingWithApprovedStatus() {
         log.info("Start test: обновить у Booking поле status.");
 
-        bookingDAO.approvedBooking(booking1WithUser1AndItem3.getId(), "APPROVED");
+        int updated = bookingDAO.approvedBooking(booking1WithUser1AndItem3.getId(), "WAITING",
+                booking1WithUser1AndItem3.getVersion(), "APPROVED");
         entityManager.clear();
 
-        assertEquals(Status.APPROVED, bookingDAO.findById(booking1WithUser1AndItem3.getId()).get().getStatus());
+        Booking booking = bookingDAO.findById(booking1WithUser1AndItem3.getId()).get();
+        assertEquals(1, updated);
+        assertEquals(Status.APPROVED, booking.getStatus());
+        assertEquals(booking1WithUser1AndItem3.getVersion() + 1, booking.getVersion());
 
         log.info("End test: обновить у Booking поле status, возвращается ответ: Booking со статусом APPROVED.");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("DataJpaTest: обновить у Booking поле status по устаревшим статусу или версии, возвращается ответ: 0 обновленных строк.")
+    void testUpdateBooking_WithStaleStatusOrVersion_UpdatesNothing() {
+        log.info("Start test: обновить у Booking поле status по устаревшим статусу или версии.");
+
+        Long bookingId = booking1WithUser1AndItem3.getId();
+        Long version = booking1WithUser1AndItem3.getVersion();
+
+        assertEquals(1, bookingDAO.approvedBooking(bookingId, "WAITING", version, "REJECTED"));
+        assertEquals(0, bookingDAO.approvedBooking(bookingId, "WAITING", version, "APPROVED"));
+        assertEquals(0, bookingDAO.approvedBooking(bookingId, "REJECTED", version, "APPROVED"));
+        entityManager.clear();
+
+        assertEquals(Optional.of("REJECTED"), bookingDAO.findStatusById(bookingId));
+
+        log.info("End test: обновить у Booking поле status по устаревшим статусу или версии, возвращается ответ: 0 обновленных строк.");
+    }
+
+    @Test
+    @DisplayName("DataJpaTest: получить Booking постранично по курсору, возвращается ответ: те же Booking, что и при OFFSET-пагинации.")
+    void testFindAllByBookerAfterCursor_ReturnsSameBookingsAsOffsetPages() {
+        log.info("Start test: получить Booking постранично по курсору.");
+
+        for (int i = 0; i < 5; i++) {
+            bookingDAO.save(Booking.builder().start(startTime.plusDays(i)).end(endTime.plusDays(i))
+                    .status(Status.WAITING).booker(user2).item(item3FromUser2).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        int size = 2;
+        List<Long> offsetIds = bookingDAO.findAllByBooker(user2.getId(), 0, 100).stream()
+                .map(BookingView::getId)
+                .collect(Collectors.toList());
+
+        List<Long> cursorIds = new ArrayList<>();
+        List<BookingView> page = bookingDAO.findAllByBooker(user2.getId(), 0, size);
+        while (!page.isEmpty()) {
+            page.forEach(booking -> cursorIds.add(booking.getId()));
+            BookingView last = page.get(page.size() - 1);
+            page = bookingDAO.findAllByBookerAfterCursor(user2.getId(), last.getStartDate(), last.getId(), size);
+        }
+
+        assertEquals(7, offsetIds.size());
+        assertEquals(offsetIds, cursorIds);
+
+        log.info("End test: получить Booking постранично по курсору, возвращается ответ: те же Booking, что и при OFFSET-пагинации.");
+    }
+
+    @Test
+    @DisplayName("DataJpaTest: получить последнее и следующее бронирование предметов одним запросом, " +
+            "возвращается ответ: по одной строке на предмет без отклоненных бронирований.")
+    void testFindLastAndNextBookingsByItemIds_ReturnsOneRowPerItem() {
+        log.info("Start test: получить последнее и следующее бронирование предметов одним запросом.");
+
+        Booking past = bookingDAO.save(Booking.builder().start(now.minusDays(3)).end(now.minusDays(2))
+                .status(Status.APPROVED).booker(user2).item(item3FromUser2).build());
+        Booking latestPast = bookingDAO.save(Booking.builder().start(now.minusDays(1)).end(now.minusHours(1))
+                .status(Status.APPROVED).booker(user1).item(item3FromUser2).build());
+        bookingDAO.save(Booking.builder().start(now.minusHours(2)).end(now.minusHours(1))
+                .status(Status.REJECTED).booker(user2).item(item3FromUser2).build());
+        bookingDAO.save(Booking.builder().start(startTime.plusDays(1)).end(endTime.plusDays(1))
+                .status(Status.WAITING).booker(user2).item(item3FromUser2).build());
+        entityManager.flush();
+
+        Map<Long, ItemBookingsView> bookings = bookingDAO.findLastAndNextBookingsByItemIds(
+                        List.of(item1FromUser1.getId(), item3FromUser2.getId(), 0L), now).stream()
+                .collect(Collectors.toMap(ItemBookingsView::getItemId, booking -> booking));
+
+        assertEquals(2, bookings.size());
+        ItemBookingsView item3Bookings = bookings.get(item3FromUser2.getId());
+        assertEquals(latestPast.getId(), item3Bookings.getLastBookingId());
+        assertEquals(user1.getId(), item3Bookings.getLastBookerId());
+        assertEquals(booking1WithUser1AndItem3.getId(), item3Bookings.getNextBookingId());
+        assertEquals(user1.getId(), item3Bookings.getNextBookerId());
+        assertNotEquals(past.getId(), item3Bookings.getLastBookingId());
+
+        ItemBookingsView item1Bookings = bookings.get(item1FromUser1.getId());
+        assertNull(item1Bookings.getLastBookingId());
+        assertNull(item1Bookings.getLastBookerId());
+        assertEquals(booking2WithUser2AndItem1.getId(), item1Bookings.getNextBookingId());
+        assertEquals(user2.getId(), item1Bookings.getNextBookerId());
+
+        log.info("End test: получить последнее и следующее бронирование предметов одним запросом, " +
+                "возвращается ответ: по одной строке на предмет без отклоненных бронирований.");
+    }
+}
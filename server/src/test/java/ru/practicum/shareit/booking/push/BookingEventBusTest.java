@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking.push;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookingInputDTO;
+import ru.practicum.shareit.booking.dto.BookingOutputDTO;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dao.ItemDAO;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserDAO;
+import ru.practicum.shareit.user.model.User;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.constant.Constant.REQUEST_HEADER_USER_ID;
+
+@Slf4j
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-push")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BookingEventBusTest {
+
+    private static final long TIMEOUT_MILLIS = 5_000;
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingEventBus bookingEventBus;
+    @Autowired
+    private UserDAO userDAO;
+    @Autowired
+    private ItemDAO itemDAO;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+    @BeforeEach
+    void setUp() {
+        String emailSuffix = UUID.randomUUID() + "@yandex.ru";
+        owner = userDAO.save(User.builder().name("Owner").email("owner-" + emailSuffix).build());
+        booker = userDAO.save(User.builder().name("Booker").email("booker-" + emailSuffix).build());
+        item = itemDAO.save(Item.builder().name("Дрель").description("Простая дрель").available(true).owner(owner).build());
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: владелец подписан на события бронирований, получает новое бронирование и его подтверждение по порядку.")
+    void testSubscribeToEventsAtOwner_BookingCreatedAndApproved_PushesEventsInOrder() throws Exception {
+        log.info("Start test: владелец подписан на события бронирований.");
+
+        MvcResult ownerStream = subscribe(owner);
+        MvcResult bookerStream = subscribe(booker);
+
+        BookingOutputDTO booking = bookingService.create(booker.getId(), BookingInputDTO.builder()
+                .itemId(item.getId()).start(start).end(start.plusDays(1)).build());
+        bookingService.approveBooking(owner.getId(), booking.getId(), true);
+
+        String events = awaitContent(ownerStream, "event:BOOKING_APPROVED");
+        assertThat(events).startsWith(":subscribed");
+        assertThat(events.indexOf("event:BOOKING_CREATED")).isLessThan(events.indexOf("event:BOOKING_APPROVED"));
+        assertThat(events).contains("\"bookingId\":" + booking.getId(), "\"status\":\"WAITING\"", "\"status\":\"APPROVED\"");
+        assertThat(bookerStream.getResponse().getContentAsString(StandardCharsets.UTF_8)).doesNotContain("event:");
+        assertThat(bookingEventBus.getSubscriberCount()).isEqualTo(2);
+
+        log.info("End test: владелец подписан на события бронирований, получает новое бронирование и его подтверждение по порядку.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: подписка на события бронирований несуществующего пользователя, возвращается статус 404.")
+    void testSubscribeToEventsAtOwner_UserNotFound_ReturnsNotFound() throws Exception {
+        log.info("Start test: подписка на события бронирований несуществующего пользователя.");
+
+        mvc.perform(get("/bookings/owner/events")
+                        .header(REQUEST_HEADER_USER_ID, owner.getId() + 100))
+                .andExpect(status().isNotFound());
+
+        assertThat(bookingEventBus.getSubscriberCount()).isZero();
+
+        log.info("End test: подписка на события бронирований несуществующего пользователя, возвращается статус 404.");
+    }
+
+    private MvcResult subscribe(User user) throws Exception {
+
+        return mvc.perform(get("/bookings/owner/events")
+                        .header(REQUEST_HEADER_USER_ID, user.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private String awaitContent(MvcResult result, String expected) throws Exception {
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        String content = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        }
+
+        return content;
+    }
+}
@@ -0,0 +1,379 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dao.BookingDAO;
+import ru.practicum.shareit.booking.dto.BookingApprovalInputDTO;
+import ru.practicum.shareit.booking.dto.BookingApprovalOutputDTO;
+import ru.practicum.shareit.booking.dto.BookingInputDTO;
+import ru.practicum.shareit.booking.dto.BookingOutputDTO;
+import ru.practicum.shareit.booking.model.ApprovalResult;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.timeline.BookingTimeline;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.dao.ItemDAO;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserDAO;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@Slf4j
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BookingServiceImplApprovalTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private BookingService bookingService;
+    @SpyBean
+    private BookingDAO bookingDAO;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private UserDAO userDAO;
+    @Autowired
+    private ItemDAO itemDAO;
+    @Autowired
+    private BookingTimeline bookingTimeline;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private LocalDateTime start;
+    private BookingOutputDTO booking;
+
+    @BeforeEach
+    void setUp() {
+        owner = userDAO.save(User.builder().name("Owner").email("owner@yandex.ru").build());
+        booker = userDAO.save(User.builder().name("Booker").email("booker@yandex.ru").build());
+        item = itemDAO.save(Item.builder().name("Дрель").description("Простая дрель").available(true).owner(owner).build());
+        start = LocalDateTime.now().plusDays(1);
+        booking = bookingService.create(booker.getId(), BookingInputDTO.builder()
+                .itemId(item.getId()).start(start).end(start.plusDays(1)).build());
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: повторное подтверждение бронирования, возвращается подтвержденное бронирование без повторного обновления.")
+    void testApproveBooking_Repeated_IsIdempotent() {
+        log.info("Start test: повторное подтверждение бронирования.");
+
+        assertThat(bookingService.approveBooking(owner.getId(), booking.getId(), true).getStatus()).isEqualTo(Status.APPROVED);
+        assertThat(bookingService.approveBooking(owner.getId(), booking.getId(), true).getStatus()).isEqualTo(Status.APPROVED);
+
+        assertThat(findBooking().getVersion()).isEqualTo(1);
+
+        log.info("End test: повторное подтверждение бронирования, возвращается подтвержденное бронирование без повторного обновления.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: параллельное подтверждение бронирования, все запросы успешны, статус обновляется один раз.")
+    void testApproveBooking_ConcurrentSameDecision_UpdatesOnce() throws Exception {
+        log.info("Start test: параллельное подтверждение бронирования.");
+
+        List<Object> results = approveConcurrently();
+
+        assertThat(results).allSatisfy(result -> assertThat(result).isEqualTo(Status.APPROVED));
+        assertThat(findBooking().getStatus()).isEqualTo(Status.APPROVED);
+        assertThat(findBooking().getVersion()).isEqualTo(1);
+
+        log.info("End test: параллельное подтверждение бронирования, все запросы успешны, статус обновляется один раз.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: бронирование отклонено другим запросом между чтением и обновлением, " +
+            "выбрасывается ConflictException, статус не перезаписывается.")
+    void testApproveBooking_ChangedConcurrently_ThrowsConflictException() {
+        log.info("Start test: бронирование отклонено другим запросом между чтением и обновлением.");
+
+        doAnswer(invocation -> {
+            TransactionTemplate concurrentTransaction = new TransactionTemplate(transactionManager);
+            concurrentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            concurrentTransaction.executeWithoutResult(status -> jdbcTemplate.update(
+                    "UPDATE bookings SET status = 'REJECTED', version = version + 1 WHERE id = ?", booking.getId()));
+            return 0;
+        }).when(bookingDAO).approvedBooking(anyLong(), anyString(), anyLong(), anyString());
+
+        assertThatThrownBy(() -> bookingService.approveBooking(owner.getId(), booking.getId(), true))
+                .isInstanceOf(ConflictException.class);
+        assertThat(findBooking().getStatus()).isEqualTo(Status.REJECTED);
+
+        log.info("End test: бронирование отклонено другим запросом между чтением и обновлением, " +
+                "выбрасывается ConflictException, статус не перезаписывается.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: новое бронирование вещи создается параллельно с подтверждением отклоненного бронирования, " +
+            "статус обновляется только после блокировки вещи, оба запроса завершаются без взаимной блокировки.")
+    void testApproveBooking_ConcurrentCreate_UpdatesAfterItemLock() throws Exception {
+        log.info("Start test: новое бронирование создается параллельно с подтверждением отклоненного бронирования.");
+
+        bookingService.approveBooking(owner.getId(), booking.getId(), false);
+        clearInvocations(bookingDAO);
+        CountDownLatch createLocked = new CountDownLatch(1);
+        CountDownLatch createReleased = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            createLocked.countDown();
+            await(createReleased);
+            return callRepository(invocation);
+        }).when(bookingDAO).save(any(Booking.class));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<BookingOutputDTO> created = executor.submit(() -> bookingService.create(booker.getId(),
+                    BookingInputDTO.builder().itemId(item.getId()).start(start.plusDays(2)).end(start.plusDays(3)).build()));
+            assertThat(createLocked.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<BookingOutputDTO> approved = executor.submit(() ->
+                    bookingService.approveBooking(owner.getId(), booking.getId(), true));
+            awaitQueuedOnItemLock();
+            verify(bookingDAO, never()).approvedBooking(anyLong(), anyString(), anyLong(), anyString());
+            createReleased.countDown();
+
+            assertThat(created.get(30, TimeUnit.SECONDS).getStatus()).isEqualTo(Status.WAITING);
+            assertThat(approved.get(30, TimeUnit.SECONDS).getStatus()).isEqualTo(Status.APPROVED);
+        } finally {
+            createReleased.countDown();
+            executor.shutdownNow();
+        }
+
+        log.info("End test: новое бронирование создается параллельно с подтверждением отклоненного бронирования, " +
+                "взаимной блокировки нет.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: пакетное отклонение бронирований, возвращается результат по каждому ID в порядке запроса.")
+    void testApproveBookings_ReturnsResultPerBookingId() {
+        log.info("Start test: пакетное отклонение бронирований.");
+
+        User anotherOwner = userDAO.save(User.builder().name("Another").email("another@yandex.ru").build());
+        Item anotherItem = itemDAO.save(Item.builder().name("Отвертка").description("Крестовая отвертка")
+                .available(true).owner(anotherOwner).build());
+        BookingOutputDTO alien = bookingService.create(booker.getId(), BookingInputDTO.builder()
+                .itemId(anotherItem.getId()).start(start).end(start.plusDays(1)).build());
+        BookingOutputDTO waiting = bookingService.create(booker.getId(), BookingInputDTO.builder()
+                .itemId(item.getId()).start(start.plusDays(2)).end(start.plusDays(3)).build());
+        BookingOutputDTO rejected = bookingService.create(booker.getId(), BookingInputDTO.builder()
+                .itemId(item.getId()).start(start.plusDays(4)).end(start.plusDays(5)).build());
+        bookingService.approveBooking(owner.getId(), booking.getId(), true);
+        bookingService.approveBooking(owner.getId(), rejected.getId(), false);
+
+        List<BookingApprovalOutputDTO> results = bookingService.approveBookings(owner.getId(), BookingApprovalInputDTO.builder()
+                .bookingIds(List.of(waiting.getId(), booking.getId(), rejected.getId(), alien.getId(), 999L, waiting.getId()))
+                .approved(false)
+                .build());
+
+        assertThat(results).extracting(BookingApprovalOutputDTO::getBookingId)
+                .containsExactly(waiting.getId(), booking.getId(), rejected.getId(), alien.getId(), 999L);
+        assertThat(results).extracting(BookingApprovalOutputDTO::getResult).containsExactly(ApprovalResult.UPDATED,
+                ApprovalResult.CONFLICT, ApprovalResult.UNCHANGED, ApprovalResult.NOT_FOUND, ApprovalResult.NOT_FOUND);
+        assertThat(results).extracting(BookingApprovalOutputDTO::getStatus)
+                .containsExactly(Status.REJECTED, Status.APPROVED, Status.REJECTED, null, null);
+        assertThat(bookingDAO.findById(waiting.getId()).orElseThrow().getStatus()).isEqualTo(Status.REJECTED);
+        assertThat(bookingDAO.findById(alien.getId()).orElseThrow().getStatus()).isEqualTo(Status.WAITING);
+
+        bookingService.create(booker.getId(), BookingInputDTO.builder()
+                .itemId(item.getId()).start(start.plusDays(2)).end(start.plusDays(3)).build());
+
+        log.info("End test: пакетное отклонение бронирований, возвращается результат по каждому ID в порядке запроса.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: пакетное подтверждение отклоненных бронирований, как и одиночное, подтверждает свободные " +
+            "и возвращает конфликт для пересекающихся.")
+    void testApproveBookings_Rejected_ApprovesFreeLikeSingleApproval() {
+        log.info("Start test: пакетное подтверждение отклоненных бронирований.");
+
+        bookingService.approveBooking(owner.getId(), booking.getId(), false);
+        BookingOutputDTO overlapping = bookingService.create(booker.getId(), BookingInputDTO.builder()
+                .itemId(item.getId()).start(start.plusHours(12)).end(start.plusDays(2)).build());
+        bookingService.approveBooking(owner.getId(), overlapping.getId(), false);
+        BookingOutputDTO waiting = bookingService.create(booker.getId(), BookingInputDTO.builder()
+                .itemId(item.getId()).start(start.plusDays(4)).end(start.plusDays(5)).build());
+
+        List<BookingApprovalOutputDTO> results = bookingService.approveBookings(owner.getId(), BookingApprovalInputDTO.builder()
+                .bookingIds(List.of(booking.getId(), overlapping.getId(), waiting.getId()))
+                .approved(true)
+                .build());
+
+        assertThat(results).extracting(BookingApprovalOutputDTO::getResult)
+                .containsExactly(ApprovalResult.UPDATED, ApprovalResult.CONFLICT, ApprovalResult.UPDATED);
+        assertThat(results).extracting(BookingApprovalOutputDTO::getStatus)
+                .containsExactly(Status.APPROVED, Status.REJECTED, Status.APPROVED);
+        assertThatThrownBy(() -> bookingService.approveBooking(owner.getId(), overlapping.getId(), true))
+                .isInstanceOf(ConflictException.class);
+        assertThatThrownBy(() -> bookingService.create(booker.getId(), BookingInputDTO.builder()
+                .itemId(item.getId()).start(start).end(start.plusHours(1)).build()))
+                .isInstanceOf(ConflictException.class);
+
+        log.info("End test: пакетное подтверждение отклоненных бронирований подтверждает свободные, " +
+                "для пересекающихся возвращается конфликт.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: бронирование подтверждено другим запросом до пакетного отклонения, " +
+            "возвращается конфликт, бронирование не перезаписывается.")
+    void testApproveBookings_ChangedConcurrently_IsNotUpdated() {
+        log.info("Start test: бронирование подтверждено другим запросом до пакетного отклонения.");
+
+        BookingOutputDTO waiting = bookingService.create(booker.getId(), BookingInputDTO.builder()
+                .itemId(item.getId()).start(start.plusDays(2)).end(start.plusDays(3)).build());
+        doAnswer(invocation -> {
+            TransactionTemplate concurrentTransaction = new TransactionTemplate(transactionManager);
+            concurrentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            concurrentTransaction.executeWithoutResult(status -> jdbcTemplate.update(
+                    "UPDATE bookings SET status = 'APPROVED', version = version + 1 WHERE id = ?", booking.getId()));
+            return callRepository(invocation);
+        }).when(bookingDAO).findAllForApprovalByIdsAndOwnerIdForUpdate(anyList(), anyLong());
+
+        List<BookingApprovalOutputDTO> results = bookingService.approveBookings(owner.getId(), BookingApprovalInputDTO.builder()
+                .bookingIds(List.of(booking.getId(), waiting.getId()))
+                .approved(false)
+                .build());
+
+        assertThat(results).extracting(BookingApprovalOutputDTO::getResult)
+                .containsExactly(ApprovalResult.CONFLICT, ApprovalResult.UPDATED);
+        assertThat(findBooking().getStatus()).isEqualTo(Status.APPROVED);
+        assertThat(findBooking().getVersion()).isEqualTo(1);
+        assertThat(bookingDAO.findById(waiting.getId()).orElseThrow().getStatus()).isEqualTo(Status.REJECTED);
+
+        log.info("End test: бронирование подтверждено другим запросом до пакетного отклонения, возвращается конфликт.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: новое бронирование вещи создается параллельно с пакетным подтверждением, " +
+            "оба запроса завершаются без взаимной блокировки.")
+    void testApproveBookings_ConcurrentCreate_DoesNotDeadlock() throws Exception {
+        log.info("Start test: новое бронирование создается параллельно с пакетным подтверждением.");
+
+        BookingOutputDTO rejected = bookingService.create(booker.getId(), BookingInputDTO.builder()
+                .itemId(item.getId()).start(start.plusDays(2)).end(start.plusDays(3)).build());
+        bookingService.approveBooking(owner.getId(), rejected.getId(), false);
+        CountDownLatch createLocked = new CountDownLatch(1);
+        CountDownLatch createReleased = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            createLocked.countDown();
+            await(createReleased);
+            return callRepository(invocation);
+        }).when(bookingDAO).save(any(Booking.class));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<BookingOutputDTO> created = executor.submit(() -> bookingService.create(booker.getId(),
+                    BookingInputDTO.builder().itemId(item.getId()).start(start.plusDays(4)).end(start.plusDays(5)).build()));
+            assertThat(createLocked.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<List<BookingApprovalOutputDTO>> approved = executor.submit(() -> bookingService.approveBookings(
+                    owner.getId(), BookingApprovalInputDTO.builder()
+                            .bookingIds(List.of(booking.getId(), rejected.getId()))
+                            .approved(true)
+                            .build()));
+            awaitQueuedOnItemLock();
+            createReleased.countDown();
+
+            assertThat(created.get(30, TimeUnit.SECONDS).getStatus()).isEqualTo(Status.WAITING);
+            assertThat(approved.get(30, TimeUnit.SECONDS)).extracting(BookingApprovalOutputDTO::getResult)
+                    .containsExactly(ApprovalResult.UPDATED, ApprovalResult.UPDATED);
+        } finally {
+            createReleased.countDown();
+            executor.shutdownNow();
+        }
+
+        log.info("End test: новое бронирование создается параллельно с пакетным подтверждением, взаимной блокировки нет.");
+    }
+
+    private List<Object> approveConcurrently() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>();
+        List<Object> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    try {
+                        return bookingService.approveBooking(owner.getId(), booking.getId(), true).getStatus();
+                    } catch (ConflictException exception) {
+                        return exception.getClass();
+                    }
+                }));
+            }
+            startSignal.countDown();
+            for (Future<Object> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return results;
+    }
+
+    /**
+     * Wait until a transaction is queued on the lock of the item, which the create holds.
+     */
+    private void awaitQueuedOnItemLock() throws InterruptedException {
+
+        ReentrantLock[] locks = (ReentrantLock[]) ReflectionTestUtils.getField(bookingTimeline, "locks");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (Arrays.stream(locks).noneMatch(ReentrantLock::hasQueuedThreads)) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Call the repository from a stubbed answer. The spied repository is an interface proxy without a real method
+     * to call, so the call goes to the default answer of the spy, which delegates to the repository.
+     */
+    private Object callRepository(InvocationOnMock invocation) throws Throwable {
+
+        return Mockito.mockingDetails(bookingDAO).getMockCreationSettings().getDefaultAnswer().answer(invocation);
+    }
+
+    private static void await(CountDownLatch latch) {
+
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Booking findBooking() {
+
+        return bookingDAO.findById(booking.getId()).orElseThrow();
+    }
+}
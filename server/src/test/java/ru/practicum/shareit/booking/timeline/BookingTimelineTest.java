@@ -0,0 +1,290 @@
+package ru.practicum.shareit.booking.timeline;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dao.BookingDAO;
+import ru.practicum.shareit.booking.dto.BookingApprovalInputDTO;
+import ru.practicum.shareit.booking.dto.BookingInputDTO;
+import ru.practicum.shareit.booking.dto.BookingOutputDTO;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.dao.ItemDAO;
+import ru.practicum.shareit.item.dto.IntervalOutputDTO;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dao.UserDAO;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+@SpringBootTest(properties = "shareit.booking.timeline.ttl=" + BookingTimelineTest.TTL_MILLIS + "ms")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BookingTimelineTest {
+
+    static final long TTL_MILLIS = 500;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingDAO bookingDAO;
+    @Autowired
+    private UserDAO userDAO;
+    @Autowired
+    private ItemDAO itemDAO;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @BeforeEach
+    void setUp() {
+        owner = userDAO.save(User.builder().name("Owner").email("owner@yandex.ru").build());
+        booker = userDAO.save(User.builder().name("Booker").email("booker@yandex.ru").build());
+        item = itemDAO.save(Item.builder().name("Дрель").description("Простая дрель").available(true).owner(owner).build());
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: создание бронирования, пересекающегося с ожидающим или подтвержденным, выбрасывается ConflictException, " +
+            "смежные интервалы допускаются.")
+    void testCreate_OverlappingInterval_ThrowsConflictException() {
+        log.info("Start test: создание бронирования, пересекающегося с существующим.");
+
+        bookingService.create(booker.getId(), input(start, start.plusHours(2)));
+
+        assertThatThrownBy(() -> bookingService.create(booker.getId(), input(start.plusHours(1), start.plusHours(3))))
+                .isInstanceOf(ConflictException.class);
+        assertThatThrownBy(() -> bookingService.create(booker.getId(), input(start.minusHours(1), start.plusMinutes(1))))
+                .isInstanceOf(ConflictException.class);
+        assertThatThrownBy(() -> bookingService.create(booker.getId(), input(start.minusHours(1), start.plusHours(5))))
+                .isInstanceOf(ConflictException.class);
+        bookingService.create(booker.getId(), input(start.plusHours(2), start.plusHours(3)));
+        bookingService.create(booker.getId(), input(start.minusHours(1), start));
+
+        assertThat(bookingDAO.count()).isEqualTo(3);
+
+        log.info("End test: создание бронирования, пересекающегося с ожидающим или подтвержденным, выбрасывается ConflictException, " +
+                "смежные интервалы допускаются.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: отклонение бронирования освобождает интервал, повторное подтверждение отклоненного " +
+            "бронирования при пересечении выбрасывает ConflictException.")
+    void testApprove_AfterRejectAndRebook_ThrowsConflictException() {
+        log.info("Start test: отклонение бронирования освобождает интервал.");
+
+        BookingOutputDTO rejected = bookingService.create(booker.getId(), input(start, start.plusHours(2)));
+        bookingService.approveBooking(owner.getId(), rejected.getId(), false);
+
+        BookingOutputDTO booked = bookingService.create(booker.getId(), input(start.plusHours(1), start.plusHours(2)));
+        assertThat(bookingService.approveBooking(owner.getId(), booked.getId(), true).getStatus())
+                .isEqualTo(Status.APPROVED);
+        assertThatThrownBy(() -> bookingService.approveBooking(owner.getId(), rejected.getId(), true))
+                .isInstanceOf(ConflictException.class);
+
+        log.info("End test: отклонение бронирования освобождает интервал, повторное подтверждение отклоненного " +
+                "бронирования при пересечении выбрасывает ConflictException.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: бронирование удалено в базе в обход сервиса, интервал считается свободным после проверки в базе.")
+    void testCreate_BookingRemovedBehindTimeline_RechecksDatabase() {
+        log.info("Start test: бронирование удалено в базе в обход сервиса.");
+
+        BookingOutputDTO removed = bookingService.create(booker.getId(), input(start, start.plusHours(2)));
+        bookingDAO.deleteById(removed.getId());
+
+        bookingService.create(booker.getId(), input(start, start.plusHours(2)));
+
+        assertThat(bookingDAO.count()).isEqualTo(1);
+
+        log.info("End test: бронирование удалено в базе в обход сервиса, интервал считается свободным после проверки в базе.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: в базе есть пересекающиеся бронирования, сделанные до проверки пересечений, " +
+            "они занимают объединенный интервал, отклонение одного из них перечитывает интервалы предмета.")
+    void testCreate_LegacyOverlappingBookings_TreatedAsMergedInterval() {
+        log.info("Start test: в базе есть пересекающиеся бронирования, сделанные до проверки пересечений.");
+
+        Booking outer = bookingDAO.save(Booking.builder().start(start).end(start.plusHours(3))
+                .status(Status.WAITING).booker(booker).item(item).build());
+        bookingDAO.save(Booking.builder().start(start.plusHours(1)).end(start.plusHours(2))
+                .status(Status.WAITING).booker(booker).item(item).build());
+
+        assertThat(itemService.getAvailability(booker.getId(), item.getId(), start, start.plusHours(4)).getFree())
+                .containsExactly(new IntervalOutputDTO(start.plusHours(3), start.plusHours(4)));
+        assertThatThrownBy(() -> bookingService.create(booker.getId(), input(start.plusHours(2), start.plusHours(3))))
+                .isInstanceOf(ConflictException.class);
+
+        bookingService.approveBooking(owner.getId(), outer.getId(), false);
+
+        assertThat(itemService.getAvailability(booker.getId(), item.getId(), start, start.plusHours(4)).getFree())
+                .containsExactly(new IntervalOutputDTO(start, start.plusHours(1)),
+                        new IntervalOutputDTO(start.plusHours(2), start.plusHours(4)));
+
+        log.info("End test: в базе есть пересекающиеся бронирования, сделанные до проверки пересечений, " +
+                "они занимают объединенный интервал, отклонение одного из них перечитывает интервалы предмета.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: свободные интервалы предмета, ожидающие и подтвержденные бронирования исключаются, " +
+            "отклоненные освобождают интервал.")
+    void testGetAvailability_WithBookings_ReturnsFreeIntervals() {
+        log.info("Start test: свободные интервалы предмета.");
+
+        bookingService.create(booker.getId(), input(start.plusHours(1), start.plusHours(2)));
+        BookingOutputDTO rejected = bookingService.create(booker.getId(), input(start.plusHours(3), start.plusHours(4)));
+        BookingOutputDTO approved = bookingService.create(booker.getId(), input(start.plusHours(4), start.plusHours(6)));
+        bookingService.approveBooking(owner.getId(), approved.getId(), true);
+
+        assertThat(itemService.getAvailability(booker.getId(), item.getId(), start, start.plusHours(8)).getFree())
+                .containsExactly(new IntervalOutputDTO(start, start.plusHours(1)),
+                        new IntervalOutputDTO(start.plusHours(2), start.plusHours(3)),
+                        new IntervalOutputDTO(start.plusHours(6), start.plusHours(8)));
+
+        bookingService.approveBooking(owner.getId(), rejected.getId(), false);
+
+        assertThat(itemService.getAvailability(booker.getId(), item.getId(), start.plusHours(1).plusMinutes(30), start.plusHours(5)).getFree())
+                .containsExactly(new IntervalOutputDTO(start.plusHours(2), start.plusHours(4)));
+
+        log.info("End test: свободные интервалы предмета, ожидающие и подтвержденные бронирования исключаются, " +
+                "отклоненные освобождают интервал.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: бронирование создано в обход этого экземпляра сервера, " +
+            "после истечения времени жизни интервалов оно исключается из свободных интервалов.")
+    void testGetAvailability_BookingMadeByAnotherInstance_SeenAfterTtl() throws InterruptedException {
+        log.info("Start test: бронирование создано в обход этого экземпляра сервера.");
+
+        assertThat(itemService.getAvailability(booker.getId(), item.getId(), start, start.plusHours(2)).getFree())
+                .containsExactly(new IntervalOutputDTO(start, start.plusHours(2)));
+        bookingDAO.save(Booking.builder().start(start).end(start.plusHours(1))
+                .status(Status.APPROVED).booker(booker).item(item).build());
+
+        Thread.sleep(TTL_MILLIS * 2);
+
+        assertThat(itemService.getAvailability(booker.getId(), item.getId(), start, start.plusHours(2)).getFree())
+                .containsExactly(new IntervalOutputDTO(start.plusHours(1), start.plusHours(2)));
+
+        log.info("End test: бронирование создано в обход этого экземпляра сервера, " +
+                "после истечения времени жизни интервалов оно исключается из свободных интервалов.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: параллельное создание пересекающихся бронирований одного предмета, сохраняется только одно.")
+    void testCreate_ConcurrentOverlappingBookings_OnlyOneIsSaved() throws Exception {
+        log.info("Start test: параллельное создание пересекающихся бронирований одного предмета.");
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                LocalDateTime bookingStart = start.plusMinutes(i);
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    try {
+                        bookingService.create(booker.getId(), input(bookingStart, bookingStart.plusHours(1)));
+                    } catch (ConflictException exception) {
+                        conflicts.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            startSignal.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(conflicts.get()).isEqualTo(THREADS - 1);
+        assertThat(bookingDAO.count()).isEqualTo(1);
+
+        log.info("End test: параллельное создание пересекающихся бронирований одного предмета, сохраняется только одно.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: параллельное пакетное отклонение бронирований и чтение свободных интервалов одного предмета, " +
+            "все отклоненные интервалы освобождаются.")
+    void testApproveBookings_ConcurrentRejectionsAndReads_ReleaseEveryInterval() throws Exception {
+        log.info("Start test: параллельное пакетное отклонение бронирований и чтение свободных интервалов.");
+
+        int bookingsPerThread = 10;
+        List<List<Long>> batches = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            List<Long> batch = new ArrayList<>();
+            for (int j = 0; j < bookingsPerThread; j++) {
+                LocalDateTime bookingStart = start.plusHours((long) i * bookingsPerThread + j);
+                batch.add(bookingService.create(booker.getId(), input(bookingStart, bookingStart.plusHours(1))).getId());
+            }
+            batches.add(batch);
+        }
+        LocalDateTime end = start.plusHours((long) THREADS * bookingsPerThread);
+        assertThat(itemService.getAvailability(booker.getId(), item.getId(), start, end).getFree()).isEmpty();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS * 2);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (List<Long> batch : batches) {
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    bookingService.approveBookings(owner.getId(), BookingApprovalInputDTO.builder()
+                            .bookingIds(batch).approved(false).build());
+                    return null;
+                }));
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    for (int i = 0; i < bookingsPerThread; i++) {
+                        itemService.getAvailability(booker.getId(), item.getId(), start, end);
+                    }
+                    return null;
+                }));
+            }
+            startSignal.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(itemService.getAvailability(booker.getId(), item.getId(), start, end).getFree())
+                .containsExactly(new IntervalOutputDTO(start, end));
+
+        log.info("End test: параллельное пакетное отклонение бронирований и чтение свободных интервалов одного предмета, " +
+                "все отклоненные интервалы освобождаются.");
+    }
+
+    private BookingInputDTO input(LocalDateTime bookingStart, LocalDateTime bookingEnd) {
+
+        return BookingInputDTO.builder()
+                .itemId(item.getId())
+                .start(bookingStart)
+                .end(bookingEnd)
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.dto.UserOutputDTO;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class EntityCacheTest {
+
+    private static final String USER_CACHE_NAME = "shareit.server.users";
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<Long, Optional<UserOutputDTO>> loader = id -> {
+        loads.incrementAndGet();
+        return id > 100 ? Optional.empty() : Optional.of(UserOutputDTO.builder().id(id).name("RuRu").build());
+    };
+
+    private MeterRegistry meterRegistry;
+    private EntityCacheProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new EntityCacheProperties();
+        properties.setEnabled(true);
+    }
+
+    @Test
+    @DisplayName("Unit Test: повторный поиск сущности, сущность загружается один раз и учитывается доля попаданий.")
+    void testGet_Repeated_LoadsOnceAndRecordsHitRatio() {
+        log.info("Start test: повторный поиск сущности.");
+
+        EntityCache<UserOutputDTO> cache = new EntityCacheConfig().userCache(properties, meterRegistry);
+
+        assertThat(cache.get(1L, loader)).map(UserOutputDTO::getId).contains(1L);
+        assertThat(cache.get(1L, loader)).map(UserOutputDTO::getId).contains(1L);
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("shareit.cache.hit.ratio").tag("cache", USER_CACHE_NAME).gauge().value())
+                .isEqualTo(0.5);
+
+        log.info("End test: повторный поиск сущности, сущность загружается один раз и учитывается доля попаданий.");
+    }
+
+    @Test
+    @DisplayName("Unit Test: поиск несуществующей сущности, отсутствие сущности не кэшируется.")
+    void testGet_Missing_IsNotCached() {
+        log.info("Start test: поиск несуществующей сущности.");
+
+        EntityCache<UserOutputDTO> cache = new EntityCacheConfig().userCache(properties, meterRegistry);
+
+        assertThat(cache.get(999L, loader)).isEmpty();
+        assertThat(cache.get(999L, loader)).isEmpty();
+        assertThat(loads).hasValue(2);
+
+        log.info("End test: поиск несуществующей сущности, отсутствие сущности не кэшируется.");
+    }
+
+    @Test
+    @DisplayName("Unit Test: изменение и удаление сущностей, кэшированные сущности загружаются заново.")
+    void testInvalidate_ReloadsEntities() {
+        log.info("Start test: изменение и удаление сущностей.");
+
+        EntityCache<UserOutputDTO> cache = new EntityCacheConfig().userCache(properties, meterRegistry);
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+
+        cache.invalidate(1L);
+        cache.get(1L, loader);
+        assertThat(loads).hasValue(3);
+
+        cache.invalidateAll(List.of(1L, 2L));
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+        assertThat(loads).hasValue(5);
+
+        log.info("End test: изменение и удаление сущностей, кэшированные сущности загружаются заново.");
+    }
+
+    @Test
+    @DisplayName("Unit Test: кэш отключен, каждый поиск обращается к базе данных.")
+    void testGet_Disabled_AlwaysLoads() {
+        log.info("Start test: кэш отключен.");
+
+        properties.setEnabled(false);
+        EntityCache<UserOutputDTO> cache = new EntityCacheConfig().userCache(properties, meterRegistry);
+
+        cache.get(1L, loader);
+        cache.get(1L, loader);
+        assertThat(loads).hasValue(2);
+        assertThat(meterRegistry.find("shareit.cache.hit.ratio").gauge()).isNull();
+
+        log.info("End test: кэш отключен, каждый поиск обращается к базе данных.");
+    }
+}
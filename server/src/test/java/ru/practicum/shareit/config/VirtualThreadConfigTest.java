@@ -0,0 +1,65 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@Slf4j
+class VirtualThreadConfigTest {
+
+    private static final int VIRTUAL_THREADS_FEATURE = 21;
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadConfig.class);
+
+    @Test
+    @DisplayName("ApplicationContextRunner: без свойства shareit.threads.virtual.enabled исполнитель на виртуальных потоках не создается.")
+    void shouldNotCreateExecutor_whenVirtualThreadsDisabled() {
+        log.info("Start test: исполнитель на виртуальных потоках по умолчанию выключен.");
+
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(ExecutorService.class));
+
+        log.info("End test: исполнитель на виртуальных потоках по умолчанию выключен.");
+    }
+
+    @Test
+    @DisplayName("ApplicationContextRunner: на JDK ниже 21 включенный режим виртуальных потоков останавливает запуск IllegalStateException.")
+    void shouldFailStartup_whenRuntimeHasNoVirtualThreads() {
+        assumeTrue(Runtime.version().feature() < VIRTUAL_THREADS_FEATURE);
+        log.info("Start test: запуск без поддержки виртуальных потоков завершается ошибкой.");
+
+        contextRunner.withPropertyValues("shareit.threads.virtual.enabled=true")
+                .run(context -> assertThat(context).hasFailed()
+                        .getFailure()
+                        .hasStackTraceContaining(IllegalStateException.class.getName())
+                        .hasStackTraceContaining("Virtual threads require JDK 21 or later"));
+
+        log.info("End test: запуск без поддержки виртуальных потоков завершается ошибкой.");
+    }
+
+    @Test
+    @DisplayName("ApplicationContextRunner: на JDK 21+ асинхронные задачи выполняются на виртуальных потоках.")
+    void shouldRunTasksOnVirtualThreads_whenVirtualThreadsEnabled() {
+        assumeTrue(Runtime.version().feature() >= VIRTUAL_THREADS_FEATURE);
+        log.info("Start test: асинхронные задачи выполняются на виртуальных потоках.");
+
+        contextRunner.withPropertyValues("shareit.threads.virtual.enabled=true")
+                .run(context -> {
+                    AsyncTaskExecutor executor = context.getBean(
+                            TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, AsyncTaskExecutor.class);
+                    Thread thread = executor.submit(Thread::currentThread).get();
+
+                    assertThat(Thread.class.getMethod("isVirtual").invoke(thread)).isEqualTo(true);
+                });
+
+        log.info("End test: асинхронные задачи выполняются на виртуальных потоках.");
+    }
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.SqlStatementCounter;
+import ru.practicum.shareit.item.dao.ItemDAO;
+import ru.practicum.shareit.request.dao.ItemRequestDAO;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dao.UserDAO;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.constant.Constant.REQUEST_HEADER_USER_ID;
+
+@Slf4j
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.datasource.url=jdbc:h2:mem:item-import"})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ItemImportTest {
+
+    private static final int ROW_COUNT = 120;
+    private static final long IMPORT_BUDGET = 12;
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserDAO userDAO;
+    @Autowired
+    private ItemDAO itemDAO;
+    @Autowired
+    private ItemRequestDAO itemRequestDAO;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userDAO.save(User.builder().name("Owner").email("owner@yandex.ru").build());
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: импорт вещей массивом JSON, вещи вставляются пакетами за фиксированное число запросов.")
+    void testImportItems_AsJsonArray_InsertsInBatches() throws Throwable {
+        log.info("Start test: импорт вещей массивом JSON.");
+
+        String body = IntStream.range(0, ROW_COUNT)
+                .mapToObj(i -> String.format("{\"name\":\"Дрель %d\",\"description\":\"Простая дрель\",\"available\":true}", i))
+                .collect(Collectors.joining(",", "[", "]"));
+        SqlStatementCounter statementCounter = new SqlStatementCounter(entityManagerFactory);
+
+        long statements = statementCounter.count(() -> mvc.perform(post("/items/import")
+                        .header(REQUEST_HEADER_USER_ID, owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(ROW_COUNT))
+                .andExpect(jsonPath("$.failed").value(0))
+                .andExpect(jsonPath("$.rows", hasSize(0))));
+
+        assertThat(statements).isLessThanOrEqualTo(IMPORT_BUDGET);
+        assertThat(itemDAO.count()).isEqualTo(ROW_COUNT);
+
+        log.info("End test: импорт вещей массивом JSON, вещи вставляются пакетами за фиксированное число запросов.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: импорт вещей в NDJSON, ошибочные строки пропускаются и возвращаются с причиной.")
+    void testImportItems_AsNdjsonWithInvalidRows_ReportsRowErrors() throws Exception {
+        log.info("Start test: импорт вещей в NDJSON с ошибочными строками.");
+
+        ItemRequest request = itemRequestDAO.save(ItemRequest.builder().description("Нужна дрель")
+                .created(LocalDateTime.now()).requester(owner).build());
+        String body = String.join("\n",
+                String.format("{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true,\"requestId\":%d}", request.getId()),
+                "{\"name\":\"\",\"description\":\"Без имени\",\"available\":true}",
+                "{\"name\":\"Пила\",\"description\":\"Ножовка\",\"available\":\"maybe\"}",
+                "{\"name\":\"Молоток\",\"description\":\"Молоток\",\"available\":true,\"requestId\":999}",
+                "{\"name\":\"Отвертка\",\"description\":\"Крестовая\",\"available\":false}",
+                String.format("{\"name\":\"%s\",\"description\":\"Длинное имя\",\"available\":true}", "Д".repeat(51)));
+
+        mvc.perform(post("/items/import")
+                        .header(REQUEST_HEADER_USER_ID, owner.getId())
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(4))
+                .andExpect(jsonPath("$.rows", hasSize(4)))
+                .andExpect(jsonPath("$.rows[0].row").value(1))
+                .andExpect(jsonPath("$.rows[0].result").value("INVALID"))
+                .andExpect(jsonPath("$.rows[0].error").value("The name must not be empty."))
+                .andExpect(jsonPath("$.rows[1].row").value(2))
+                .andExpect(jsonPath("$.rows[1].result").value("INVALID"))
+                .andExpect(jsonPath("$.rows[2].row").value(3))
+                .andExpect(jsonPath("$.rows[2].result").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.rows[3].row").value(5))
+                .andExpect(jsonPath("$.rows[3].error").value("The name must not be longer than 50 characters."));
+
+        assertThat(itemDAO.count()).isEqualTo(2);
+
+        log.info("End test: импорт вещей в NDJSON, ошибочные строки пропускаются и возвращаются с причиной.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: импорт вещей несуществующего пользователя, возвращается 404.")
+    void testImportItems_WithInvalidUser_ReturnsNotFound() throws Exception {
+        log.info("Start test: импорт вещей несуществующего пользователя.");
+
+        mvc.perform(post("/items/import")
+                        .header(REQUEST_HEADER_USER_ID, 999L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}]"))
+                .andExpect(status().isNotFound());
+
+        log.info("End test: импорт вещей несуществующего пользователя, возвращается 404.");
+    }
+}
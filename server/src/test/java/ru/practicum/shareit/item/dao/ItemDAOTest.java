@@ -9,10 +9,14 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Profile;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dao.BookingDAO;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dao.UserDAO;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
@@ -20,7 +24,7 @@ import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 @Slf4j
 @DataJpaTest
 @Profile(value = "test")
-@Transactional(readOnly = true)
+@Transactional
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 public class ItemDAOTest {
 
@@ -28,6 +32,8 @@ public class ItemDAOTest {
     private UserDAO userDAO;
     @Autowired
     private ItemDAO itemDAO;
+    @Autowired
+    private BookingDAO bookingDAO;
 
     private User user1;
     private User user2;
@@ -110,4 +116,46 @@ public class ItemDAOTest {
         log.info("End test: поиск предметов по части названия или описания с использованием параметров пагинации, " +
                 "возвращается корректное количество предметов.");
     }
+
+    @Test
+    @DisplayName("DataJpaTest: поиск предметов по части названия или описания, возвращаются предметы, упорядоченные по релевантности.")
+    void testFindAll_ByContainsText_ReturnItemsOrderedByRelevance() {
+        log.info("Start test: поиск предметов по части названия или описания, упорядоченных по релевантности.");
+
+        Item item4FromUser2 = itemDAO.save(Item.builder().name("Крестовая отвертка").description("Для шурупов")
+                .owner(user2).available(true).build());
+        itemDAO.save(Item.builder().name("Отвертка-индикатор").description("Сломана").owner(user2).available(false).build());
+
+        List<Item> items = itemDAO.findAllByNameOrDescriptionContains("отвертк", 0, 20);
+        assertThat(items).containsExactly(item2FromUser1, item4FromUser2, item3FromUser2);
+
+        List<Item> itemsByWildcard = itemDAO.findAllByNameOrDescriptionContains("\\%", 0, 20);
+        assertThat(itemsByWildcard).isEmpty();
+
+        log.info("End test: поиск предметов по части названия или описания, возвращаются предметы, упорядоченные по релевантности.");
+    }
+
+    @Test
+    @DisplayName("DataJpaTest: поиск предметов, свободных в интервале, предметы с пересекающимся подтвержденным " +
+            "бронированием исключаются, страница остается полной.")
+    void testFindAllFree_WithApprovedBooking_ExcludesBookedItems() {
+        log.info("Start test: поиск предметов, свободных в интервале.");
+
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        bookingDAO.save(Booking.builder().start(start.minusHours(1)).end(start.plusHours(1))
+                .status(Status.APPROVED).booker(user2).item(item2FromUser1).build());
+        bookingDAO.save(Booking.builder().start(start).end(start.plusHours(2))
+                .status(Status.WAITING).booker(user2).item(item3FromUser2).build());
+        bookingDAO.save(Booking.builder().start(start.plusHours(2)).end(start.plusHours(3))
+                .status(Status.APPROVED).booker(user2).item(item1FromUser1).build());
+
+        List<Item> items = itemDAO.findAllFreeByNameOrDescriptionContains("р", start, start.plusHours(2), 0, 2);
+        assertThat(items).containsExactly(item1FromUser1, item3FromUser2);
+
+        List<Item> itemsAfterBookings = itemDAO.findAllFreeByNameOrDescriptionContains("р", start.plusHours(3), start.plusHours(4), 0, 20);
+        assertThat(itemsAfterBookings).containsExactlyInAnyOrder(item1FromUser1, item2FromUser1, item3FromUser2);
+
+        log.info("End test: поиск предметов, свободных в интервале, предметы с пересекающимся подтвержденным " +
+                "бронированием исключаются, страница остается полной.");
+    }
 }
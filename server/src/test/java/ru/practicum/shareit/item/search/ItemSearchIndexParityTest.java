@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dao.ItemDAO;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserDAO;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:item-search-parity",
+        "shareit.search.index.enabled=true"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ItemSearchIndexParityTest {
+
+    private static final List<String> QUERIES = List.of("дрель", "ДРЕЛЬ", "рель", "Дрель аккумуляторная",
+            "аккумуляторная дрель", " отвертка ", "отвертки, шурупы", "набор", "ор", "100%", "a_b", "-", "пила");
+
+    @Autowired
+    private ItemSearchIndex searchIndex;
+    @Autowired
+    private ItemDAO itemDAO;
+    @Autowired
+    private UserDAO userDAO;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userDAO.save(User.builder().name("Owner").email("owner@yandex.ru").build());
+        itemDAO.saveAll(List.of(
+                item(owner, "Дрель аккумуляторная", "Аккумуляторная дрель с двумя батареями", true),
+                item(owner, "Простая дрель", "Дрель без аккумулятора", true),
+                item(owner, "Отвертка", "Крестовая отвертка", true),
+                item(owner, "Набор инструментов", "В наборе молоток, отвертки, шурупы.", true),
+                item(owner, "Перфоратор", "Сверлит лучше, чем дрель", true),
+                item(owner, "Дрель ударная", "Не сдается", false),
+                item(owner, "Скидка 100%", "Провод a_b - для дрели", true),
+                item(owner, "Провод ab", "Обычный провод", true)));
+        searchIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: поиск по индексу возвращает те же предметы в том же порядке, что и поиск в базе данных, " +
+            "текст без букв и цифр индекс оставляет поиску в базе данных.")
+    void testSearch_SameResultsAsDatabase() {
+        log.info("Start test: поиск по индексу совпадает с поиском в базе данных.");
+
+        assertThat(searchIndex.isReady()).isTrue();
+        for (String query : QUERIES) {
+            for (int from = 0; from < 3; from++) {
+                List<Long> expected = itemDAO.findAllByNameOrDescriptionContains(escapeLikePattern(query.trim()), from, 2)
+                        .stream()
+                        .map(Item::getId)
+                        .collect(Collectors.toList());
+
+                if (!searchIndex.canAnswer(query)) {
+                    assertThat(searchIndex.search(query, from, 2)).as("query `%s` from %d", query, from).isEmpty();
+                    continue;
+                }
+                assertThat(searchIndex.search(query, from, 2)).as("query `%s` from %d", query, from)
+                        .containsExactlyElementsOf(expected);
+            }
+        }
+
+        log.info("End test: поиск по индексу возвращает те же предметы в том же порядке, что и поиск в базе данных.");
+    }
+
+    private static Item item(User owner, String name, String description, boolean available) {
+
+        return Item.builder().name(name).description(description).available(available).owner(owner).build();
+    }
+
+    private static String escapeLikePattern(String text) {
+
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
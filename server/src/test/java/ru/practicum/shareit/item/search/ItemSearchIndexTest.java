@@ -0,0 +1,151 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dao.ItemDAO;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+
+    @Mock
+    private ItemDAO itemDAO;
+
+    private MeterRegistry meterRegistry;
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new ItemSearchIndex(itemDAO, meterRegistry, true);
+
+        when(itemDAO.streamAllAvailable()).thenReturn(Stream.of(
+                view(1L, "Дрель", "Простая дрель"),
+                view(2L, "Отвертка", "Аккумуляторная отвертка"),
+                view(3L, "Набор инструментов", "В наборе молоток, отвертки, шурупы.")));
+        index.rebuild();
+    }
+
+    @Test
+    @DisplayName("Unit Test: поиск по индексу после перестроения, возвращаются ID предметов, содержащих текст запроса.")
+    void testSearch_AfterRebuild_ReturnsItemsContainingText() {
+        log.info("Start test: поиск по индексу после перестроения.");
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search("ОТВЕР", 0, 20)).containsExactly(2L, 3L);
+        assertThat(index.search(" молоток, отвертки ", 0, 20)).containsExactly(3L);
+        assertThat(index.search("отвертки молоток", 0, 20)).isEmpty();
+        assertThat(index.search("рель", 0, 20)).containsExactly(1L);
+        assertThat(index.search("отвер", 1, 20)).containsExactly(3L);
+        assertThat(index.search("пила", 0, 20)).isEmpty();
+        assertThat(index.search("  ", 0, 20)).isEmpty();
+
+        log.info("End test: поиск по индексу после перестроения, возвращаются ID предметов, содержащих текст запроса.");
+    }
+
+    @Test
+    @DisplayName("Unit Test: поиск по индексу, сначала предметы с названием, начинающимся с текста, затем содержащим его, затем с описанием.")
+    void testSearch_OrdersItemsLikeDatabase() {
+        log.info("Start test: порядок результатов поиска по индексу.");
+
+        index.onItemSaved(new ItemSavedEvent(4L, "Шуруповерт", "Не отвертка", true));
+        index.onItemSaved(new ItemSavedEvent(5L, "Крестовая отвертка", "Для шурупов", true));
+
+        assertThat(index.search("отвертка", 0, 20)).containsExactly(2L, 5L, 4L);
+        assertThat(index.search("шуруп", 0, 20)).containsExactly(4L, 3L, 5L);
+
+        log.info("End test: сначала предметы с названием, начинающимся с текста, затем содержащим его, затем с описанием.");
+    }
+
+    @Test
+    @DisplayName("Unit Test: изменение предметов, индекс обновляется инкрементально.")
+    void testOnItemSavedAndDeleted_UpdatesIndexIncrementally() {
+        log.info("Start test: изменение предметов, индекс обновляется инкрементально.");
+
+        index.onItemSaved(new ItemSavedEvent(4L, "Дрель ударная", "Мощная", true));
+        assertThat(index.search("дрель", 0, 20)).containsExactly(1L, 4L);
+
+        index.onItemSaved(new ItemSavedEvent(1L, "Перфоратор", "Простой перфоратор", true));
+        assertThat(index.search("дрель", 0, 20)).containsExactly(4L);
+        assertThat(index.search("перф", 0, 20)).containsExactly(1L);
+
+        index.onItemSaved(new ItemSavedEvent(4L, "Дрель ударная", "Мощная", false));
+        assertThat(index.search("дрель", 0, 20)).isEmpty();
+
+        index.onItemsDeleted(new ItemsDeletedEvent(List.of(2L, 3L)));
+        assertThat(index.search("отвер", 0, 20)).isEmpty();
+
+        log.info("End test: изменение предметов, индекс обновляется инкрементально.");
+    }
+
+    @Test
+    @DisplayName("Unit Test: текст без букв и цифр не ищется по индексу, длинное слово добавляет в индекс линейное число частей.")
+    void testSearch_TextWithoutWords_IsNotAnsweredAndLongWordsGrowLinearly() {
+        log.info("Start test: текст без букв и цифр, длинное слово в индексе.");
+
+        assertThat(index.canAnswer(" - ")).isFalse();
+        assertThat(index.search(" - ", 0, 20)).isEmpty();
+        assertThat(index.canAnswer("дрель")).isTrue();
+
+        double tokensBefore = meterRegistry.get("shareit.search.index.tokens").gauge().value();
+        String longWord = "а".repeat(100) + "б".repeat(100);
+        index.onItemSaved(new ItemSavedEvent(4L, "Моток", longWord, true));
+
+        assertThat(meterRegistry.get("shareit.search.index.tokens").gauge().value() - tokensBefore)
+                .isLessThanOrEqualTo(3 * (longWord.length() + "моток".length()));
+        assertThat(index.search("аабб", 0, 20)).containsExactly(4L);
+        assertThat(index.search("а".repeat(101), 0, 20)).isEmpty();
+
+        log.info("End test: текст без букв и цифр не ищется по индексу, длинное слово добавляет линейное число частей.");
+    }
+
+    @Test
+    @DisplayName("Unit Test: размер индекса в памяти публикуется как метрика и уменьшается при удалении предметов.")
+    void testMemoryFootprint_IsExposedAsMetric() {
+        log.info("Start test: размер индекса в памяти публикуется как метрика.");
+
+        double before = meterRegistry.get("shareit.search.index.memory").gauge().value();
+        assertThat(before).isPositive();
+        assertThat(meterRegistry.get("shareit.search.index.items").gauge().value()).isEqualTo(3);
+
+        index.onItemsDeleted(new ItemsDeletedEvent(List.of(1L, 2L, 3L)));
+
+        assertThat(meterRegistry.get("shareit.search.index.memory").gauge().value()).isZero();
+        assertThat(meterRegistry.get("shareit.search.index.tokens").gauge().value()).isZero();
+
+        log.info("End test: размер индекса в памяти публикуется как метрика и уменьшается при удалении предметов.");
+    }
+
+    private static ItemSearchView view(Long id, String name, String description) {
+
+        return new ItemSearchView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+        };
+    }
+}
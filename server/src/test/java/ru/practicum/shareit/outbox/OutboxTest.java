@@ -0,0 +1,191 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingInputDTO;
+import ru.practicum.shareit.booking.dto.BookingOutputDTO;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.dao.ItemDAO;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestInputDTO;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dao.UserDAO;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+@SpringBootTest(properties = {"shareit.outbox.enabled=true", "shareit.outbox.relay-interval=1h",
+        "spring.datasource.url=jdbc:h2:mem:outbox"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class OutboxTest {
+
+    private static final Path EVENTS_FILE = createEventsFile();
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private Outbox outbox;
+    @Autowired
+    private OutboxRelay outboxRelay;
+    @Autowired
+    private OutboxEventDAO outboxEventDAO;
+    @Autowired
+    private UserDAO userDAO;
+    @Autowired
+    private ItemDAO itemDAO;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @DynamicPropertySource
+    static void outboxProperties(DynamicPropertyRegistry registry) {
+        registry.add("shareit.outbox.file-path", EVENTS_FILE::toString);
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        outboxRelay.stop();
+        Files.write(EVENTS_FILE, new byte[0]);
+        owner = userDAO.save(User.builder().name("Owner").email("owner@yandex.ru").build());
+        booker = userDAO.save(User.builder().name("Booker").email("booker@yandex.ru").build());
+        item = itemDAO.save(Item.builder().name("Дрель").description("Простая дрель").available(true).owner(owner).build());
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: события создания запроса, создания и подтверждения бронирования записываются в outbox " +
+            "и передаются в файл по порядку, outbox очищается.")
+    void testDrain_AfterStateChanges_RelaysEventsInOrder() throws IOException {
+        log.info("Start test: события записываются в outbox и передаются в файл по порядку.");
+
+        itemRequestService.create(booker.getId(), ItemRequestInputDTO.builder().description("Нужна дрель").build());
+        BookingOutputDTO booking = bookingService.create(booker.getId(), input(start, start.plusHours(2)));
+        bookingService.approveBooking(owner.getId(), booking.getId(), true);
+
+        outboxRelay.drain();
+        List<String> lines = Files.readAllLines(EVENTS_FILE, StandardCharsets.UTF_8);
+
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).contains("\"type\":\"REQUEST_CREATED\"", "\"description\":\"Нужна дрель\"");
+        assertThat(lines.get(1)).contains("\"type\":\"BOOKING_CREATED\"", "\"aggregateType\":\"BOOKING\"",
+                "\"ownerId\":" + owner.getId(), "\"status\":\"WAITING\"");
+        assertThat(lines.get(2)).contains("\"type\":\"BOOKING_APPROVED\"", "\"bookingId\":" + booking.getId(),
+                "\"status\":\"APPROVED\"");
+        assertThat(outboxEventDAO.count()).isZero();
+
+        log.info("End test: события записываются в outbox и передаются в файл по порядку, outbox очищается.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: изменение откатывается, событие в outbox не записывается.")
+    void testCreate_RolledBack_WritesNoEvent() throws IOException {
+        log.info("Start test: изменение откатывается, событие в outbox не записывается.");
+
+        bookingService.create(booker.getId(), input(start, start.plusHours(2)));
+        assertThatThrownBy(() -> bookingService.create(booker.getId(), input(start.plusHours(1), start.plusHours(3))))
+                .isInstanceOf(ConflictException.class);
+
+        outboxRelay.drain();
+
+        assertThat(Files.readAllLines(EVENTS_FILE, StandardCharsets.UTF_8)).hasSize(1);
+
+        log.info("End test: изменение откатывается, событие в outbox не записывается.");
+    }
+
+    @Test
+    @DisplayName("SpringBootTest: писатели outbox не ждут друг друга, событие с меньшим идентификатором, " +
+            "зафиксированное позже, передается следующим запуском.")
+    void testAppend_ConcurrentWriters_DoNotWaitAndLateEventIsRelayed() throws Exception {
+        log.info("Start test: писатели outbox не ждут друг друга.");
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CountDownLatch firstAppended = new CountDownLatch(1);
+        CountDownLatch firstReleased = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                outbox.append(EventType.REQUEST_CREATED, 1L, Map.of("writer", 1));
+                firstAppended.countDown();
+                await(firstReleased);
+            }));
+            assertThat(firstAppended.await(5, TimeUnit.SECONDS)).isTrue();
+            executor.submit(() -> transactionTemplate.executeWithoutResult(status ->
+                    outbox.append(EventType.REQUEST_CREATED, 2L, Map.of("writer", 2)))).get(5, TimeUnit.SECONDS);
+
+            assertThat(outboxRelay.drain()).isEqualTo(1);
+            firstReleased.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        } finally {
+            firstReleased.countDown();
+            executor.shutdownNow();
+        }
+        assertThat(outboxRelay.drain()).isEqualTo(1);
+        List<String> lines = Files.readAllLines(EVENTS_FILE, StandardCharsets.UTF_8);
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).contains("\"aggregateId\":2", "\"writer\":2");
+        assertThat(lines.get(1)).contains("\"aggregateId\":1", "\"writer\":1");
+        assertThat(outboxEventDAO.count()).isZero();
+
+        log.info("End test: писатели outbox не ждут друг друга, событие, зафиксированное позже, передается следующим запуском.");
+    }
+
+    private static void await(CountDownLatch latch) {
+
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private BookingInputDTO input(LocalDateTime bookingStart, LocalDateTime bookingEnd) {
+
+        return BookingInputDTO.builder()
+                .itemId(item.getId())
+                .start(bookingStart)
+                .end(bookingEnd)
+                .build();
+    }
+
+    private static Path createEventsFile() {
+
+        try {
+            Path file = Files.createTempFile("shareit-outbox", ".ndjson");
+            file.toFile().deleteOnExit();
+            return file;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dao.ItemDAO;
 import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.outbox.Outbox;
 import ru.practicum.shareit.request.dao.ItemRequestDAO;
 import ru.practicum.shareit.request.dto.ItemRequestInputDTO;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
@@ -51,6 +52,9 @@ class ItemRequestServiceImplTest {
     @Mock
     private ItemMapper itemMapper;
 
+    @Mock
+    private Outbox outbox;
+
     @InjectMocks
     private ItemRequestServiceImpl itemRequestService;
 
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemInputDTO;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserInputDTO;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:user-cache",
+        "shareit.cache.entity.enabled=true"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class UserServiceCacheTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("SpringBootTest: пользователь в кэше удален другим экземпляром, удаление и создание вещи возвращают 404.")
+    void testWrite_UserCachedButDeletedElsewhere_ThrowsNotFound() {
+        log.info("Start test: запись для пользователя, удаленного другим экземпляром.");
+
+        Long userId = userService.create(UserInputDTO.builder().name("Owner").email("owner@yandex.ru").build()).getId();
+        userService.getById(userId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+
+        assertThatThrownBy(() -> userService.deleteById(userId)).isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> itemService.create(userId, ItemInputDTO.builder()
+                .name("Дрель").description("Простая дрель").available(true).build()))
+                .isInstanceOf(NotFoundException.class);
+
+        log.info("End test: пользователь в кэше удален другим экземпляром, удаление и создание вещи возвращают 404.");
+    }
+}